@@ -0,0 +1,82 @@
+package bench;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A minimal micro-benchmark runner for {@code gradle bench}: each operation
+ * is warmed up, then timed over several rounds of a fixed duration, and its
+ * mean time per call is printed with the spread across rounds, along with
+ * the bytes it allocated per call (as counted by the JVM for the measuring
+ * thread).
+ *
+ * Results of every call are folded into a checksum that is printed at the
+ * end, so the JIT cannot discard the work being measured. Numbers are only
+ * comparable between operations measured in the same run on the same
+ * machine.
+ */
+public class Harness {
+
+    private static final long WARM_UP_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final long ROUND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int ROUNDS = 5;
+
+    private static final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private long checksum;
+
+    private long calls;
+
+    /**
+     * Measures {@code operation} and prints one line of results; returns
+     * the mean nanoseconds per call.
+     */
+    public double measure(String name, Callable<?> operation) throws Exception {
+        run(operation, WARM_UP_NANOS);
+        double[] nanosPerCall = new double[ROUNDS];
+        long measuredCalls = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            nanosPerCall[i] = run(operation, ROUND_NANOS);
+            measuredCalls += calls;
+        }
+        double bytesPerCall = (double) (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / measuredCalls;
+        double mean = Arrays.stream(nanosPerCall).average().orElse(0);
+        double min = Arrays.stream(nanosPerCall).min().orElse(0);
+        double max = Arrays.stream(nanosPerCall).max().orElse(0);
+        System.out.printf("%-44s %12.1f ns/op  (%.1f .. %.1f over %d rounds)  %10.0f B/op%n",
+                name, mean, min, max, ROUNDS, bytesPerCall);
+        return mean;
+    }
+
+    public void printChecksum() {
+        System.out.println("checksum " + checksum);
+    }
+
+    /**
+     * Calls {@code operation} for at least {@code durationNanos}; returns
+     * the nanoseconds per call and leaves the number of calls in
+     * {@link #calls}.
+     */
+    private double run(Callable<?> operation, long durationNanos) throws Exception {
+        calls = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 100; i++) {
+                consume(operation.call());
+            }
+            calls += 100;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < durationNanos);
+        return (double) elapsed / calls;
+    }
+
+    private void consume(Object result) {
+        checksum += result instanceof byte[] bytes ? bytes.length : System.identityHashCode(result);
+    }
+}
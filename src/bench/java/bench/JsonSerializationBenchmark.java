@@ -0,0 +1,71 @@
+package bench;
+
+import api.ObjectMapperProvider;
+import business.book.Book;
+import business.order.OrderForm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the JSON work of the two hottest endpoints, time and
+ * allocation per call: a category's books, written, and an order, read.
+ *
+ * Books are written by Jackson's bean serializer, once with their price
+ * tokens already signed, as when a shared or cached list is written again,
+ * and once as freshly read books, so that signing the tokens is included.
+ * Orders are read both with the hand-written deserializers of
+ * {@code BookstoreModule} and with Jackson's bean handling, after checking
+ * that the two read an order into the same cart and customer.
+ */
+public class JsonSerializationBenchmark {
+
+    private static final int BOOKS_PER_CATEGORY = 20;
+
+    private static final String ORDER_JSON = """
+            {"cart":{"itemArray":[
+              {"book":{"bookId":1001,"price":1299,"categoryId":1001,"priceToken":"7.q0Bz6cX1Kp3aVd9sL2mNe4Rt8Yu5Wi0Ox7Hj6Gf3Dk"},"quantity":2},
+              {"book":{"bookId":1002,"price":899,"categoryId":1001,"priceToken":"7.Lm2Nb4Vc6Xz8As0Df2Gh4Jk6Lq8We0Rt2Yu4Io6Pa"},"quantity":1},
+              {"book":{"bookId":1017,"price":2450,"categoryId":1003,"priceToken":"7.Zx9Cv7Bn5Ma3Sd1Fg9Hj7Kl5Qw3Er1Ty9Ui7Op5As"},"quantity":3}
+            ],"surcharge":500},
+            "customerForm":{"name":"Ada Lovelace","address":"12 St James's Square, London",
+              "phone":"5405551234","email":"ada@example.com","ccNumber":"4111111111111111",
+              "ccExpiryMonth":"11","ccExpiryYear":"2030"}}""";
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper streaming = ObjectMapperProvider.objectMapper();
+        ObjectMapper reflective = new ObjectMapper();
+        List<Book> books = categoryOfBooks();
+        if (!streaming.readTree(streaming.writeValueAsBytes(books)).get(0).has("priceToken")) {
+            throw new IllegalStateException("Books are written without their price tokens");
+        }
+        byte[] orderJson = ORDER_JSON.getBytes();
+
+        OrderForm streamed = streaming.readValue(orderJson, OrderForm.class);
+        OrderForm reflected = reflective.readValue(orderJson, OrderForm.class);
+        if (!reflective.writeValueAsString(streamed).equals(reflective.writeValueAsString(reflected))) {
+            throw new IllegalStateException("The two mappers read an order differently");
+        }
+
+        Harness harness = new Harness();
+        harness.measure("write 20 books, tokens signed", () -> streaming.writeValueAsBytes(books));
+        harness.measure("write 20 freshly read books", () -> streaming.writeValueAsBytes(categoryOfBooks()));
+        double streamingRead = harness.measure("read an order, hand-written deserializers",
+                () -> streaming.readValue(orderJson, OrderForm.class));
+        double reflectiveRead = harness.measure("read an order, reflective",
+                () -> reflective.readValue(orderJson, OrderForm.class));
+        System.out.printf("read: the hand-written deserializers take %.2f of the reflective time%n",
+                streamingRead / reflectiveRead);
+        harness.printChecksum();
+    }
+
+    private static List<Book> categoryOfBooks() {
+        List<Book> books = new ArrayList<>(BOOKS_PER_CATEGORY);
+        for (int i = 0; i < BOOKS_PER_CATEGORY; i++) {
+            books.add(new Book(1001 + i, "The Collected Works, Volume " + (i + 1), "Author Number " + i,
+                    899 + 100 * i, i % 3 == 0, 1001, 3.5 + (i % 4) * 0.25, 1000L * i));
+        }
+        return books;
+    }
+}
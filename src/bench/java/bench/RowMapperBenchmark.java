@@ -0,0 +1,117 @@
+package bench;
+
+import business.book.Book;
+import business.book.BookDaoJdbc;
+
+import javax.sql.RowSetMetaData;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures what mapping costs per row on a large result set: reading the
+ * book columns by label on every row, as the DAOs used to, against
+ * {@link BookDaoJdbc#BOOK_MAPPER}, which looks the labels up once per
+ * result set.
+ *
+ * With no arguments the rows come from an in-memory {@link CachedRowSet}
+ * of {@value #ROWS} books, which isolates the mapping but looks labels up
+ * the JDK's way rather than the MySQL driver's. Given
+ * {@code <jdbc url> <user> <password>} it reads the whole book table
+ * instead, so the numbers include the driver (and the network).
+ */
+public class RowMapperBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private static final String ALL_BOOKS_SQL =
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count FROM book";
+
+    @FunctionalInterface
+    private interface Rows {
+        ResultSet open() throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3) {
+            try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2]);
+                 Statement statement = connection.createStatement()) {
+                run(() -> statement.executeQuery(ALL_BOOKS_SQL));
+            }
+        } else {
+            CachedRowSet rowSet = books();
+            run(() -> {
+                rowSet.beforeFirst();
+                return rowSet;
+            });
+        }
+    }
+
+    private static void run(Rows rows) throws Exception {
+        int rowCount = readByLabel(rows.open()).size();
+        if (BookDaoJdbc.BOOK_MAPPER.readAll(rows.open()).size() != rowCount) {
+            throw new IllegalStateException("The two readers disagree on the number of rows");
+        }
+
+        Harness harness = new Harness();
+        double byLabel = harness.measure("read " + rowCount + " rows by column label",
+                () -> readByLabel(rows.open()));
+        double byPosition = harness.measure("read " + rowCount + " rows with RowMapper",
+                () -> BookDaoJdbc.BOOK_MAPPER.readAll(rows.open()));
+        System.out.printf("per row: %.1f ns by label, %.1f ns with RowMapper%n",
+                byLabel / rowCount, byPosition / rowCount);
+        harness.printChecksum();
+    }
+
+    /**
+     * How the DAOs read books before RowMapper.
+     */
+    private static List<Book> readByLabel(ResultSet resultSet) throws SQLException {
+        List<Book> books = new ArrayList<>();
+        while (resultSet.next()) {
+            books.add(new Book(resultSet.getLong("book_id"), resultSet.getString("title"),
+                    resultSet.getString("author"), resultSet.getInt("price"), resultSet.getBoolean("is_public"),
+                    resultSet.getLong("category_id"), resultSet.getDouble("rating"),
+                    resultSet.getLong("view_count")));
+        }
+        return books;
+    }
+
+    private static CachedRowSet books() throws SQLException {
+        String[] names = {"book_id", "title", "author", "price", "is_public", "category_id", "rating", "view_count"};
+        int[] types = {Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.BOOLEAN, Types.BIGINT,
+                Types.DOUBLE, Types.BIGINT};
+        RowSetMetaData metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(names.length);
+        for (int i = 0; i < names.length; i++) {
+            metaData.setColumnName(i + 1, names[i]);
+            metaData.setColumnLabel(i + 1, names[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+        rowSet.setMetaData(metaData);
+        for (int i = 0; i < ROWS; i++) {
+            rowSet.moveToInsertRow();
+            rowSet.updateLong(1, 1001 + i);
+            rowSet.updateString(2, "Title of book " + i);
+            rowSet.updateString(3, "Author " + i % 997);
+            rowSet.updateInt(4, 899 + i % 5000);
+            rowSet.updateBoolean(5, i % 3 == 0);
+            rowSet.updateLong(6, 1001 + i % 40);
+            rowSet.updateDouble(7, (i % 20) / 4.0);
+            rowSet.updateLong(8, i * 7L);
+            rowSet.insertRow();
+        }
+        rowSet.moveToCurrentRow();
+        rowSet.beforeFirst();
+        return rowSet;
+    }
+}
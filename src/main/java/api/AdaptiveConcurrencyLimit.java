@@ -0,0 +1,97 @@
+package api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to observed latency, after the gradient
+ * approach used by Netflix's concurrency-limits library.
+ *
+ * A slowly rising floor of request latency serves as the no-load baseline.
+ * While recent latency stays near that baseline the limit grows by roughly
+ * the square root of itself; as latency rises above it (queueing in front
+ * of the database) the limit shrinks in proportion. Failed or rejected
+ * work shrinks the limit multiplicatively.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_RTT_WEIGHT = 0.2;
+    private static final double LONG_RTT_WEIGHT = 0.001;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Admits one unit of work if the current limit allows it. Every
+     * successful call must be paired with a call to {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a unit of work admitted by {@link #tryAcquire}.
+     *
+     * @param rttNanos how long the work took
+     * @param dropped whether the work failed in a way that signals overload
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        update(rttNanos, dropped, inFlightAtCompletion);
+    }
+
+    private synchronized void update(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * BACKOFF_RATIO;
+        } else {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_WEIGHT;
+                // The baseline follows improvements at once but drifts up only slowly,
+                // so sustained queueing keeps registering as queueing
+                longRttNanos = rttNanos < longRttNanos
+                        ? rttNanos : longRttNanos + (rttNanos - longRttNanos) * LONG_RTT_WEIGHT;
+            }
+            // Don't grow the limit while we're not using the capacity we have
+            if (inFlightAtCompletion < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+            newLimit = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
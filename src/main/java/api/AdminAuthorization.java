@@ -0,0 +1,65 @@
+package api;
+
+import api.ApiExceptionHandler.ServerErrorResponse;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Checks the {@code Authorization: Bearer <token>} header of operator and
+ * partner endpoints against the {@code bookstore/adminToken} environment
+ * entry. Without a token configured, those endpoints are disabled.
+ */
+class AdminAuthorization {
+
+    private static final String ADMIN_TOKEN = "bookstore/adminToken";
+
+    private static final String BEARER = "Bearer ";
+
+    private AdminAuthorization() {
+    }
+
+    /**
+     * The response refusing the request, or null when {@code authorization}
+     * carries the admin token.
+     *
+     * @param what names the endpoint, for the message when it is disabled
+     */
+    static Response refusal(String authorization, String what) {
+        String token = adminToken();
+        if (token == null) {
+            return refuse(Response.Status.FORBIDDEN, what + " is not enabled on this server");
+        }
+        if (authorization == null || !authorization.startsWith(BEARER)
+                || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                authorization.substring(BEARER.length()).trim().getBytes(StandardCharsets.UTF_8))) {
+            return Response.fromResponse(refuse(Response.Status.UNAUTHORIZED, "A valid admin token is required"))
+                    .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                    .build();
+        }
+        return null;
+    }
+
+    private static Response refuse(Response.Status status, String message) {
+        return Response.status(status)
+                .entity(new ServerErrorResponse(status.getReasonPhrase(), message))
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .build();
+    }
+
+    private static String adminToken() {
+        try {
+            Context context = (Context) new InitialContext().lookup("java:comp/env");
+            String token = (String) context.lookup(ADMIN_TOKEN);
+            return token == null || token.isBlank() ? null : token.trim();
+        } catch (NamingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package api;
+
+import api.ApiExceptionHandler.ServerErrorResponse;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter in front of the API that decides whether a request is
+ * admitted at all, so that overload is turned away quickly instead of
+ * queueing for a database connection until the pool times out.
+ *
+ * Two checks apply:
+ * <ul>
+ *     <li>order placement ({@code POST /orders}, or checking out a server-side
+ *     cart with {@code POST /carts/{id}/checkout}) is rate limited per client
+ *     (see {@link OrderRateLimit}), answering 429 when a client's bucket is
+ *     empty; bulk imports are charged per order by the resource itself;</li>
+ *     <li>all API requests pass through an {@link AdaptiveConcurrencyLimit},
+ *     answering 503 once the in-flight work exceeds what the database is
+ *     currently able to absorb.</li>
+ * </ul>
+ * Both rejections carry a {@code Retry-After} header. Health checks are
+ * always admitted, and long-lived requests (order streams, bulk order and
+ * catalog imports) are not counted against the concurrency limit.
+ */
+public class AdmissionControlFilter implements Filter {
+
+	private static final int OVERLOAD_RETRY_AFTER_SECONDS = 1;
+
+	private final AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(8, 2, 40);
+
+	private final OrderRateLimit orderRateLimit = OrderRateLimit.INSTANCE;
+
+	@Override
+	public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+			throws IOException, ServletException {
+		HttpServletRequest request = (HttpServletRequest) servletRequest;
+		HttpServletResponse response = (HttpServletResponse) servletResponse;
+
+		if (isOrderPlacement(request)) {
+			long waitNanos = orderRateLimit.tryConsume(orderRateLimit.clientKey(request));
+			if (waitNanos > 0) {
+				reject(response, Response.Status.TOO_MANY_REQUESTS,
+						Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1),
+						"Too many orders from this client, please retry later");
+				return;
+			}
+		}
+
+		if (isHealthCheck(request) || isOrderStream(request) || isBulkImport(request)) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		if (!concurrencyLimit.tryAcquire()) {
+			reject(response, Response.Status.SERVICE_UNAVAILABLE, OVERLOAD_RETRY_AFTER_SECONDS,
+					"The service is overloaded, please retry later");
+			return;
+		}
+		long start = System.nanoTime();
+		boolean dropped = false;
+		try {
+			chain.doFilter(request, response);
+			dropped = isOverloaded(response.getStatus());
+		} finally {
+			concurrencyLimit.release(System.nanoTime() - start, dropped);
+		}
+	}
+
+	/**
+	 * Only answers that mean the database could not keep up - unavailable
+	 * (breaker open, bulkhead full, shed) or out of time - count against the
+	 * limit; any other error, a 500 for a bug or a bad id included, says
+	 * nothing about load.
+	 */
+	private boolean isOverloaded(int status) {
+		return status == HttpServletResponse.SC_SERVICE_UNAVAILABLE
+				|| status == HttpServletResponse.SC_GATEWAY_TIMEOUT;
+	}
+
+	private boolean isHealthCheck(HttpServletRequest request) {
+		return request.getPathInfo() != null && request.getPathInfo().startsWith("/health/");
+	}
+
+	/**
+	 * Order streams stay open indefinitely, so they would hold a slot of the
+	 * concurrency limit for as long as they are connected.
+	 */
+	private boolean isOrderStream(HttpServletRequest request) {
+		return "/orders/stream".equals(request.getPathInfo());
+	}
+
+	/**
+	 * Likewise a bulk import runs for as long as the upload does; its
+	 * database work is held to one chunk at a time by its own bulkhead.
+	 */
+	private boolean isBulkImport(HttpServletRequest request) {
+		return "/orders/bulk".equals(request.getPathInfo()) || "/admin/catalog".equals(request.getPathInfo());
+	}
+
+	private boolean isOrderPlacement(HttpServletRequest request) {
+		String path = request.getPathInfo();
+		return "POST".equals(request.getMethod()) && path != null
+				&& (path.equals("/orders") || (path.startsWith("/carts/") && path.endsWith("/checkout")));
+	}
+
+	private void reject(HttpServletResponse response, Response.Status status, long retryAfterSeconds,
+						String message) throws IOException {
+		response.setStatus(status.getStatusCode());
+		response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON);
+		ObjectMapperProvider.objectMapper().writeValue(response.getOutputStream(),
+				new ServerErrorResponse(status.getReasonPhrase(), message));
+	}
+}
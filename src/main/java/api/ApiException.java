@@ -10,6 +10,16 @@ public class ApiException extends RuntimeException {
         super(message, cause);
     }
 
+    /**
+     * The resource the request names does not exist.
+     */
+    public static class NotFound extends ApiException {
+
+        public NotFound(String message) {
+            super(message);
+        }
+    }
+
     public static class ValidationFailure extends ApiException {
 
         private String fieldName = null;
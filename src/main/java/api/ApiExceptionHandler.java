@@ -1,9 +1,13 @@
 package api;
 
+import api.ApiException.NotFound;
 import api.ApiException.ValidationFailure;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+import business.Deadline;
 
 import javax.annotation.Priority;
 import javax.ws.rs.Priorities;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
@@ -20,6 +24,8 @@ import java.util.logging.Logger;
 public class ApiExceptionHandler implements
 	ExceptionMapper<ApiException> {
 
+	private static final int UNAVAILABLE_RETRY_AFTER_SECONDS = 5;
+
 	private Logger logger = Logger.getLogger(ApiExceptionHandler.class.getName());
 
 	@Override
@@ -27,10 +33,28 @@ public class ApiExceptionHandler implements
 		Response.Status status = Response.Status.INTERNAL_SERVER_ERROR;
 		if (exception instanceof ValidationFailure) {
 			status = Response.Status.BAD_REQUEST;
+		} else if (exception instanceof NotFound) {
+			status = Response.Status.NOT_FOUND;
+		} else if (Deadline.isExceeded(exception)) {
+			// the request's own time budget ran out; retrying with the same budget may not help
+			status = Response.Status.GATEWAY_TIMEOUT;
+		} else if (isUnavailable(exception)) {
+			return Response.fromResponse(makeResponse(exception, Response.Status.SERVICE_UNAVAILABLE))
+					.header(HttpHeaders.RETRY_AFTER, UNAVAILABLE_RETRY_AFTER_SECONDS)
+					.build();
 		}
 		return makeResponse(exception, status);
 	}
 
+	private boolean isUnavailable(Throwable exception) {
+		for (Throwable t = exception; t != null; t = t.getCause()) {
+			if (t instanceof BookstoreUnavailableDbException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private Response makeResponse(Exception exception, Response.Status status) {
 		try {
 			String fieldName = Optional.of(exception)
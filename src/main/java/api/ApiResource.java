@@ -1,10 +1,15 @@
 package api;
 
+import api.CatalogResponseCache.CachedPayload;
 import business.ApplicationContext;
+import business.DatabaseGuard;
+import business.UnitOfWork;
 import business.book.Book;
 import business.book.BookDao;
 import business.category.Category;
 import business.category.CategoryDao;
+import business.engagement.EngagementService;
+import business.engagement.RatingForm;
 import business.order.OrderDetails;
 import business.order.OrderForm;
 import business.order.OrderService;
@@ -12,7 +17,9 @@ import business.order.OrderService;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import java.util.List;
 
 @ApplicationPath("/")
@@ -22,13 +29,16 @@ public class ApiResource {
     private final BookDao bookDao = ApplicationContext.INSTANCE.getBookDao();
     private final CategoryDao categoryDao = ApplicationContext.INSTANCE.getCategoryDao();
     private final OrderService orderService = ApplicationContext.INSTANCE.getOrderService();
+    private final EngagementService engagementService = ApplicationContext.INSTANCE.getEngagementService();
+    private final CatalogResponseCache responseCache = CatalogResponseCache.INSTANCE;
 
     @GET
     @Path("categories")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Category> categories(@Context HttpServletRequest httpRequest) {
+    public Response categories(@Context HttpServletRequest httpRequest) {
         try {
-            return categoryDao.findAll();
+            return respond(responseCache.lookup("categories",
+                    () -> DatabaseGuard.catalog(categoryDao::findAll)), httpRequest);
         } catch (Exception e) {
             throw new ApiException("categories lookup failed", e);
         }
@@ -37,14 +47,17 @@ public class ApiResource {
     @GET
     @Path("categories/{category-id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Category categoryById(@PathParam("category-id") long categoryId,
+    public Response categoryById(@PathParam("category-id") long categoryId,
                                  @Context HttpServletRequest httpRequest) {
         try {
-            Category result = categoryDao.findByCategoryId(categoryId);
+            CachedPayload result = responseCache.lookup("categories/" + categoryId,
+                    () -> DatabaseGuard.catalog(() -> categoryDao.findByCategoryId(categoryId)));
             if (result == null) {
-                throw new ApiException(String.format("No such category id: %d", categoryId));
+                throw new ApiException.NotFound(String.format("No such category id: %d", categoryId));
             }
-            return result;
+            return respond(result, httpRequest);
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Category lookup by category-id %d failed", categoryId), e);
         }
@@ -53,30 +66,57 @@ public class ApiResource {
     @GET
     @Path("books/{book-id}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Book bookById(@PathParam("book-id") long bookId,
+    public Response bookById(@PathParam("book-id") long bookId,
                          @Context HttpServletRequest httpRequest) {
         try {
-            Book result = bookDao.findByBookId(bookId);
+            CachedPayload result = findBook(bookId);
             if (result == null) {
-                throw new ApiException(String.format("No such book id: %d", bookId));
+                throw new ApiException.NotFound(String.format("No such book id: %d", bookId));
             }
-            return result;
+            return respond(result, httpRequest);
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Book lookup by book-id %d failed", bookId), e);
         }
     }
 
+    /**
+     * Counts a view of the book; the count reaches the book within seconds.
+     */
+    @POST
+    @Path("books/{book-id}/views")
+    public Response recordView(@PathParam("book-id") long bookId) {
+        requireBook(bookId);
+        engagementService.recordView(bookId);
+        return Response.accepted().build();
+    }
+
+    @POST
+    @Path("books/{book-id}/ratings")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response rateBook(@PathParam("book-id") long bookId, RatingForm ratingForm) {
+        requireBook(bookId);
+        engagementService.rate(bookId, ratingForm == null ? 0 : ratingForm.getRating());
+        return Response.accepted().build();
+    }
+
     @GET
     @Path("categories/{category-id}/books")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Book> booksByCategoryId(@PathParam("category-id") long categoryId,
+    public Response booksByCategoryId(@PathParam("category-id") long categoryId,
                                         @Context HttpServletRequest httpRequest) {
         try {
-            Category category = categoryDao.findByCategoryId(categoryId);
-            if (category == null) {
-                throw new ApiException(String.format("No such category id: %d", categoryId));
+            CachedPayload result = responseCache.lookup("categories/" + categoryId + "/books", () -> DatabaseGuard.catalog(() -> UnitOfWork.read(() -> {
+                Category category = categoryDao.findByCategoryId(categoryId);
+                return category == null ? null : bookDao.findByCategoryId(category.getCategoryId());
+            })));
+            if (result == null) {
+                throw new ApiException.NotFound(String.format("No such category id: %d", categoryId));
             }
-            return bookDao.findByCategoryId(category.getCategoryId());
+            return respond(result, httpRequest);
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Books lookup by category-id %d failed", categoryId), e);
         }
@@ -89,7 +129,7 @@ public class ApiResource {
                                      @QueryParam("limit") @DefaultValue("3") int limit,
                                      @Context HttpServletRequest request) {
         try {
-            return bookDao.findRandomByCategoryId(categoryId, limit);
+            return DatabaseGuard.catalog(() -> bookDao.findRandomByCategoryId(categoryId, limit));
         } catch (Exception e) {
             throw new ApiException("products lookup via categoryName failed", e);
         }
@@ -103,11 +143,13 @@ public class ApiResource {
             @PathParam("category-name") String categoryName,
             @Context HttpServletRequest httpRequest) {
         try {
-            Category category = categoryDao.findByName(categoryName);
+            Category category = DatabaseGuard.catalog(() -> categoryDao.findByName(categoryName));
             if (category == null) {
-                throw new ApiException(String.format("No such category name: %s", categoryName));
+                throw new ApiException.NotFound(String.format("No such category name: %s", categoryName));
             }
-            return categoryDao.findByName(category.getName());
+            return category;
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Books lookup by category-name %s failed", categoryName), e);
         }
@@ -115,16 +157,21 @@ public class ApiResource {
     @GET
     @Path("categories/name/{category-name}/books")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Book> booksByCategoryName(
+    public Response booksByCategoryName(
             @PathParam("category-name") String categoryName,
             @Context HttpServletRequest httpRequest) {
 
         try {
-            Category category = categoryDao.findByName(categoryName);
-            if (category == null) {
-                throw new ApiException(String.format("No such category name: %s", categoryName));
+            CachedPayload result = responseCache.lookup("categories/name/" + categoryName + "/books", () -> DatabaseGuard.catalog(() -> UnitOfWork.read(() -> {
+                Category category = categoryDao.findByName(categoryName);
+                return category == null ? null : bookDao.findByCategoryId(category.getCategoryId());
+            })));
+            if (result == null) {
+                throw new ApiException.NotFound(String.format("No such category name: %s", categoryName));
             }
-            return bookDao.findByCategoryId(category.getCategoryId());
+            return respond(result, httpRequest);
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Books lookup by category-name %s failed", categoryName), e);
         }
@@ -138,11 +185,16 @@ public class ApiResource {
                                           @Context HttpServletRequest request) {
 
         try {
-            Category category = categoryDao.findByName(name);
-            if (category == null) {
-                throw new ApiException(String.format("No such category name: %s", name));
+            List<Book> books = DatabaseGuard.catalog(() -> UnitOfWork.read(() -> {
+                Category category = categoryDao.findByName(name);
+                return category == null ? null : bookDao.findRandomByCategoryId(category.getCategoryId(), limit);
+            }));
+            if (books == null) {
+                throw new ApiException.NotFound(String.format("No such category name: %s", name));
             }
-            return bookDao.findRandomByCategoryId(category.getCategoryId(), limit);
+            return books;
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new ApiException(String.format("Random Books lookup by category-name %s failed", name), e);
         }
@@ -155,12 +207,14 @@ public class ApiResource {
     public OrderDetails placeOrder(OrderForm orderForm) {
 
         try {
-            long orderId = orderService.placeOrder(orderForm.getCustomerForm(), orderForm.getCart());
-            if (orderId > 0) {
-                return orderService.getOrderDetails(orderId);
-            } else {
-                throw new ApiException.ValidationFailure("order placement failed");
-            }
+            return DatabaseGuard.checkout(() -> UnitOfWork.primary(() -> {
+                long orderId = orderService.placeOrder(orderForm.getCustomerForm(), orderForm.getCart());
+                if (orderId > 0) {
+                    return orderService.getOrderDetails(orderId);
+                } else {
+                    throw new ApiException.ValidationFailure("order placement failed");
+                }
+            }));
 
         } catch (ApiException e) {
             throw e;
@@ -168,7 +222,75 @@ public class ApiResource {
             throw new ApiException("Unknown error occurred", e);
         }
     }
-}
 
+    private CachedPayload findBook(long bookId) {
+        return responseCache.lookup("books/" + bookId,
+                () -> DatabaseGuard.catalog(() -> bookDao.findByBookId(bookId)));
+    }
+
+    /**
+     * Refuses engagement with books that do not exist, so that made-up ids
+     * cannot fill the engagement counters. The lookup is the one behind
+     * {@code books/{id}}, which the page counting a view has just made, so
+     * it is normally answered from the response cache.
+     */
+    private void requireBook(long bookId) {
+        CachedPayload book;
+        try {
+            book = findBook(bookId);
+        } catch (Exception e) {
+            throw new ApiException(String.format("Book lookup by book-id %d failed", bookId), e);
+        }
+        if (book == null) {
+            throw new ApiException.NotFound(String.format("No such book id: %d", bookId));
+        }
+    }
 
+    private Response respond(CachedPayload payload, HttpServletRequest httpRequest) {
+        // httpRequest is null when called in-process during warm-up
+        if (httpRequest != null && payload.matches(httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, payload.getEtag())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        boolean gzip = httpRequest != null && acceptsGzip(httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return Response.ok(gzip ? payload.gzip() : payload.json(), MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, payload.getEtag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
 
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip: listed, or
+     * covered by {@code *}, with a q-value above zero.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+}
@@ -0,0 +1,207 @@
+package api;
+
+import business.ApplicationContext;
+import business.DatabaseGuard;
+import business.BookstoreDbException.BookstoreCommitUnknownDbException;
+import business.Deadline;
+import business.order.BulkOrderResult;
+import business.order.OrderForm;
+import business.order.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Places orders in bulk for partners, from a stream of newline-delimited
+ * JSON: one order per line, in the same form as {@code POST orders}.
+ *
+ * Orders are read and placed in chunks, so neither the request nor the
+ * response is ever held in memory whole. For each non-blank line the
+ * response has one line, in the same order:
+ *
+ * <pre>
+ * {"line":1,"status":"PLACED","orderId":1234,"confirmationNumber":123456789}
+ * {"line":2,"status":"REJECTED","message":"Invalid email field","fieldName":"email"}
+ * {"line":3,"status":"FAILED","message":"..."}
+ * {"line":4,"status":"THROTTLED","message":"..."}
+ * </pre>
+ *
+ * Rejected orders need correcting; failed ones were rolled back and can be
+ * sent again as they are. An order is FAILED only when its chunk is known
+ * not to have committed: when the connection fails during the commit
+ * itself the chunk's orders are UNKNOWN instead, and must be checked
+ * before they are sent again. Results are written as each chunk commits,
+ * so a client should read the response while it is still sending orders.
+ *
+ * Requests must carry the admin token (see {@link AdminAuthorization}).
+ * Each order counts against the client's order rate limit
+ * ({@link OrderRateLimit}) as if it had been placed on its own; orders
+ * beyond it are THROTTLED and may be sent again later.
+ */
+@Path("orders/bulk")
+public class BulkOrderResource {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final Logger logger = Logger.getLogger(BulkOrderResource.class.getName());
+
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * Each chunk gets a deadline of its own; an import as a whole may take
+     * far longer than any single request is allowed to.
+     */
+    private static final long CHUNK_TIMEOUT_SECONDS = 30;
+
+    private final OrderService orderService = ApplicationContext.INSTANCE.getOrderService();
+
+    private final ObjectMapper objectMapper = ObjectMapperProvider.objectMapper();
+
+    private final ObjectReader orderReader = objectMapper.readerFor(OrderForm.class);
+
+    @POST
+    @Consumes(NDJSON)
+    @Produces(NDJSON)
+    public Response placeOrders(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                                @Context HttpServletRequest request,
+                                InputStream body) {
+        Response refusal = AdminAuthorization.refusal(authorization, "Bulk order import");
+        if (refusal != null) {
+            return refusal;
+        }
+        String client = OrderRateLimit.INSTANCE.clientKey(request);
+        StreamingOutput results = out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Chunk chunk = new Chunk();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(lineNumber, line);
+                if (chunk.size() == CHUNK_SIZE) {
+                    place(chunk, client, generator);
+                    chunk = new Chunk();
+                }
+            }
+            if (chunk.size() > 0) {
+                place(chunk, client, generator);
+            }
+            generator.close();
+        };
+        return Response.ok(results, NDJSON).build();
+    }
+
+    /**
+     * Parses and places one chunk of orders, then writes and flushes their
+     * results.
+     */
+    private void place(Chunk chunk, String client, JsonGenerator generator) throws IOException {
+        List<OrderForm> forms = new ArrayList<>(chunk.size());
+        List<BulkOrderResult> results = new ArrayList<>(chunk.size());
+        for (String line : chunk.lines) {
+            OrderForm form;
+            try {
+                form = orderReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                results.add(BulkOrderResult.rejected("Malformed order: " + e.getOriginalMessage(), null));
+                continue;
+            }
+            if (OrderRateLimit.INSTANCE.tryConsume(client) > 0) {
+                results.add(BulkOrderResult.throttled("Too many orders from this client, please retry later"));
+                continue;
+            }
+            forms.add(form);
+            results.add(null);
+        }
+
+        if (!forms.isEmpty()) {
+            List<BulkOrderResult> placed;
+            Deadline.start(CHUNK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            try {
+                placed = DatabaseGuard.bulk(() -> orderService.placeOrders(forms));
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, e, () -> "Bulk order chunk of " + forms.size() + " orders failed");
+                BulkOrderResult failed = e instanceof BookstoreCommitUnknownDbException
+                        ? BulkOrderResult.unknown("The connection failed while the orders were being committed;"
+                        + " they may have been placed")
+                        : BulkOrderResult.failed(Deadline.isExceeded(e)
+                        ? "The orders could not be placed in time" : "The orders could not be placed just now");
+                placed = new ArrayList<>(forms.size());
+                for (int i = 0; i < forms.size(); i++) {
+                    placed.add(failed);
+                }
+            } finally {
+                Deadline.clear();
+            }
+            int next = 0;
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == null) {
+                    results.set(i, placed.get(next++));
+                }
+            }
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            write(generator, chunk.lineNumbers.get(i), results.get(i));
+        }
+        generator.flush();
+    }
+
+    private void write(JsonGenerator generator, long line, BulkOrderResult result) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", line);
+        generator.writeStringField("status", result.status().name());
+        if (result.status() == BulkOrderResult.Status.PLACED) {
+            generator.writeNumberField("orderId", result.orderId());
+            generator.writeNumberField("confirmationNumber", result.confirmationNumber());
+        } else {
+            generator.writeStringField("message", result.message());
+            if (result.fieldName() != null) {
+                generator.writeStringField("fieldName", result.fieldName());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static class Chunk {
+        final List<Long> lineNumbers = new ArrayList<>(CHUNK_SIZE);
+        final List<String> lines = new ArrayList<>(CHUNK_SIZE);
+
+        void add(long lineNumber, String line) {
+            lineNumbers.add(lineNumber);
+            lines.add(line);
+        }
+
+        int size() {
+            return lines.size();
+        }
+    }
+}
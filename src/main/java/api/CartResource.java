@@ -0,0 +1,138 @@
+package api;
+
+import business.ApplicationContext;
+import business.DatabaseGuard;
+import business.UnitOfWork;
+import business.cart.CartItemForm;
+import business.cart.CartService;
+import business.cart.ServerCart;
+import business.customer.CustomerForm;
+import business.order.OrderDetails;
+import business.order.OrderService;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Server-side carts. A cart is created empty, filled one book at a time,
+ * and then checked out with the customer's details:
+ *
+ * <pre>
+ * POST   carts                            create a cart
+ * GET    carts/{cart-id}                  read it
+ * DELETE carts/{cart-id}                  discard it
+ * POST   carts/{cart-id}/items            add copies of a book
+ * PUT    carts/{cart-id}/items/{book-id}  set the number of copies of a book
+ * DELETE carts/{cart-id}/items/{book-id}  remove a book
+ * POST   carts/{cart-id}/checkout         place the order
+ * </pre>
+ */
+@Path("carts")
+public class CartResource {
+
+    private final CartService cartService = ApplicationContext.INSTANCE.getCartService();
+    private final OrderService orderService = ApplicationContext.INSTANCE.getOrderService();
+
+    @POST
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response createCart() {
+        return Response.status(Response.Status.CREATED).entity(cartService.createCart()).build();
+    }
+
+    @GET
+    @Path("{cart-id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ServerCart cart(@PathParam("cart-id") String cartId) {
+        return found(cartId, cartService.getCart(cartId));
+    }
+
+    @DELETE
+    @Path("{cart-id}")
+    public Response deleteCart(@PathParam("cart-id") String cartId) {
+        if (!cartService.deleteCart(cartId)) {
+            throw noSuchCart(cartId);
+        }
+        return Response.noContent().build();
+    }
+
+    @POST
+    @Path("{cart-id}/items")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public ServerCart addItem(@PathParam("cart-id") String cartId, CartItemForm itemForm) {
+        long bookId = required(itemForm).getBookId();
+        int quantity = itemForm.getQuantity();
+        try {
+            return found(cartId, DatabaseGuard.catalog(() -> cartService.addItem(cartId, bookId, quantity)));
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiException(String.format("Adding book %d to cart %s failed", bookId, cartId), e);
+        }
+    }
+
+    @PUT
+    @Path("{cart-id}/items/{book-id}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public ServerCart setItem(@PathParam("cart-id") String cartId, @PathParam("book-id") long bookId,
+                              CartItemForm itemForm) {
+        int quantity = required(itemForm).getQuantity();
+        try {
+            return found(cartId, DatabaseGuard.catalog(() -> cartService.setItem(cartId, bookId, quantity)));
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiException(String.format("Updating book %d in cart %s failed", bookId, cartId), e);
+        }
+    }
+
+    @DELETE
+    @Path("{cart-id}/items/{book-id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ServerCart removeItem(@PathParam("cart-id") String cartId, @PathParam("book-id") long bookId) {
+        return found(cartId, cartService.removeItem(cartId, bookId));
+    }
+
+    @POST
+    @Path("{cart-id}/checkout")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public OrderDetails checkout(@PathParam("cart-id") String cartId, CustomerForm customerForm) {
+        try {
+            return DatabaseGuard.checkout(() -> UnitOfWork.primary(() -> {
+                long orderId = cartService.checkout(cartId, customerForm);
+                if (orderId < 0) {
+                    throw noSuchCart(cartId);
+                } else if (orderId > 0) {
+                    return orderService.getOrderDetails(orderId);
+                } else {
+                    throw new ApiException.ValidationFailure("order placement failed");
+                }
+            }));
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ApiException("Unknown error occurred", e);
+        }
+    }
+
+    private static ServerCart found(String cartId, ServerCart cart) {
+        if (cart == null) {
+            throw noSuchCart(cartId);
+        }
+        return cart;
+    }
+
+    private static CartItemForm required(CartItemForm itemForm) {
+        if (itemForm == null) {
+            throw new ApiException.ValidationFailure("A cart item needs a bookId and a quantity");
+        }
+        return itemForm;
+    }
+
+    private static ApiException noSuchCart(String cartId) {
+        return new ApiException.NotFound(String.format("No such cart id: %s", cartId));
+    }
+}
@@ -0,0 +1,203 @@
+package api;
+
+import business.catalog.CatalogImporter.FeedRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a catalog feed one record at a time, as CSV with a header row
+ * naming the fields, or as newline-delimited JSON objects. Input that
+ * cannot be parsed at all ends the feed with an IllegalArgumentException
+ * giving its line.
+ */
+abstract class CatalogFeedReader implements Iterator<FeedRecord> {
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+    private FeedRecord next;
+
+    private CatalogFeedReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static CatalogFeedReader csv(BufferedReader reader) {
+        return new Csv(reader);
+    }
+
+    static CatalogFeedReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new NdJson(reader, objectMapper);
+    }
+
+    /**
+     * The next record, or null at the end of the feed.
+     */
+    protected abstract FeedRecord read() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the catalog feed after line " + lineNumber, e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public FeedRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FeedRecord record = next;
+        next = null;
+        return record;
+    }
+
+    private static class NdJson extends CatalogFeedReader {
+
+        private final ObjectMapper objectMapper;
+
+        NdJson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected FeedRecord read() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Malformed JSON on line " + lineNumber + ": "
+                            + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> fields.put(field.getKey(),
+                        field.getValue().isValueNode() && !field.getValue().isNull() ? field.getValue().asText() : null));
+                return new FeedRecord(lineNumber, fields);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: fields containing commas, quotes or line breaks are
+     * enclosed in double quotes, and quotes inside them are doubled.
+     */
+    private static class Csv extends CatalogFeedReader {
+
+        private List<String> header;
+
+        /**
+         * The line the row last read started on.
+         */
+        private long rowLine;
+
+        Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        protected FeedRecord read() throws IOException {
+            if (header == null) {
+                header = readRow();
+                if (header == null) {
+                    return null;
+                }
+                // spreadsheets often start their CSV with a byte order mark
+                header.replaceAll(name -> name.replace("\uFEFF", "").trim());
+            }
+            List<String> row;
+            do {
+                row = readRow();
+            } while (row != null && row.size() == 1 && row.get(0).isBlank());
+            if (row == null) {
+                return null;
+            }
+            long line = rowLine;
+            if (row.size() > header.size()) {
+                throw new IllegalArgumentException("Line " + line + " has " + row.size()
+                        + " fields but the header names " + header.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < row.size(); i++) {
+                fields.put(header.get(i), row.get(i));
+            }
+            return new FeedRecord(line, fields);
+        }
+
+        /**
+         * The fields of the next row, which may span several lines; null at
+         * the end of the input.
+         */
+        private List<String> readRow() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            rowLine = lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + rowLine);
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
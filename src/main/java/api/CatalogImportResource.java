@@ -0,0 +1,62 @@
+package api;
+
+import business.ApplicationContext;
+import business.catalog.CatalogImporter;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads books and categories from a catalog feed, for catalog managers.
+ *
+ * The feed is {@code text/csv} with a header row, or newline-delimited
+ * JSON, with the fields described in {@link CatalogImporter.FeedRecord};
+ * records are upserted by id. The response summarizes what was imported
+ * and what was rejected, and is 500 if the import stopped part way.
+ *
+ * Requests must carry the admin token (see {@link AdminAuthorization});
+ * without one configured, imports are refused.
+ */
+@Path("admin/catalog")
+public class CatalogImportResource {
+
+    static final String CSV = "text/csv";
+
+    private final CatalogImporter importer = ApplicationContext.INSTANCE.getCatalogImporter();
+
+    @POST
+    @Consumes({CSV, BulkOrderResource.NDJSON})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importCatalog(@HeaderParam(HttpHeaders.AUTHORIZATION) String authorization,
+                                  @HeaderParam(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                  InputStream body) {
+        Response refusal = AdminAuthorization.refusal(authorization, "Catalog import");
+        if (refusal != null) {
+            return refusal;
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        CatalogFeedReader feed = contentType != null && contentType.isCompatible(MediaType.valueOf(CSV))
+                ? CatalogFeedReader.csv(reader)
+                : CatalogFeedReader.ndjson(reader, ObjectMapperProvider.objectMapper());
+        CatalogImporter.Summary summary = importer.importFeed(feed);
+        if (summary.categories() + summary.books() > 0) {
+            // entries built before the import are stale now; drop them rather than wait for eviction
+            CatalogResponseCache.INSTANCE.invalidateAll();
+        }
+        return Response.status(summary.failure() == null ? Response.Status.OK : Response.Status.INTERNAL_SERVER_ERROR)
+                .entity(summary)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .build();
+    }
+}
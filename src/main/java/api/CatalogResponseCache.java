@@ -0,0 +1,290 @@
+package api;
+
+import business.CatalogVersion;
+import business.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds fully serialized JSON for the hot catalog endpoints so repeated
+ * requests for unchanged data skip Jackson entirely.
+ *
+ * Entries are keyed by resource path (including its parameters) and are
+ * tied to the {@link CatalogVersion} they were built from; a version bump
+ * makes every entry stale at once. A time-to-live bounds how long manual
+ * SQL edits to the catalog can go unnoticed.
+ *
+ * Each entry carries an ETag naming the catalog version and a checksum of
+ * its content, so clients can revalidate with {@code If-None-Match} and
+ * see a new tag as soon as the version moves on.
+ *
+ * Every lookup is counted in a {@link HotKeySketch}. Entries for the
+ * current hot keys are pinned (never evicted to make room) and rebuilt in
+ * the background shortly before they expire or as soon as the catalog
+ * version moves on, so the few titles that get most of the traffic are
+ * never missing from the cache, even when a spike on a new title pushes
+ * everything else out.
+ */
+public class CatalogResponseCache {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final long TIME_TO_LIVE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * Payloads smaller than this are not worth compressing.
+     */
+    private static final int GZIP_THRESHOLD_BYTES = 512;
+
+    /**
+     * How often hot entries are checked, and how long before expiry they
+     * are rebuilt.
+     */
+    private static final long REFRESH_INTERVAL_SECONDS = 10;
+    private static final long REFRESH_AHEAD_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public static final CatalogResponseCache INSTANCE = new CatalogResponseCache();
+
+    private static final Logger logger = Logger.getLogger(CatalogResponseCache.class.getName());
+
+    public record HotKeysSnapshot(List<HotKeySketch.HotKey> hotKeys, int pinned, long preRefreshes,
+                                  long preRefreshFailures) {
+    }
+
+    private final ObjectMapper objectMapper = ObjectMapperProvider.objectMapper();
+
+    private final Map<String, CachedPayload> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Concurrent misses on one key build its entry once.
+     */
+    private final SingleFlight loads = new SingleFlight("catalog-responses");
+
+    private final HotKeySketch hotKeys = new HotKeySketch(4096, 32, 16);
+
+    /**
+     * How to rebuild each hot entry: the loader of its latest lookup.
+     */
+    private final Map<String, Supplier<?>> hotLoaders = new ConcurrentHashMap<>();
+
+    private final AtomicLong preRefreshes = new AtomicLong();
+    private final AtomicLong preRefreshFailures = new AtomicLong();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CatalogResponseCache() {
+        refresher.scheduleWithFixedDelay(this::refreshHotEntries,
+                REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the serialized form of the value for {@code key}, invoking
+     * {@code loader} only when there is no fresh entry; concurrent misses
+     * on the same key share one load. Returns null, and caches nothing,
+     * when the loader finds nothing.
+     */
+    public CachedPayload lookup(String key, Supplier<?> loader) {
+        hotKeys.record(key);
+        if (hotKeys.isHot(key)) {
+            hotLoaders.putIfAbsent(key, loader);
+        }
+        long version = CatalogVersion.current();
+        CachedPayload payload = entries.get(key);
+        if (payload != null && payload.isFresh(version)) {
+            return payload;
+        }
+        // a lookup under a newer version must not take a load started under an older one
+        return loads.call(key + "@" + version, () -> load(key, loader, version));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public HotKeysSnapshot hotKeysSnapshot() {
+        return new HotKeysSnapshot(hotKeys.hotKeys(), hotLoaders.size(), preRefreshes.get(), preRefreshFailures.get());
+    }
+
+    public SingleFlight.Snapshot loadCoalescing() {
+        return loads.snapshot();
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private CachedPayload load(String key, Supplier<?> loader, long version) {
+        Object value = loader.get();
+        if (value == null) {
+            entries.remove(key);
+            return null;
+        }
+        CachedPayload payload = new CachedPayload(serialize(value), version, System.nanoTime() + TIME_TO_LIVE_NANOS);
+        makeRoom();
+        entries.put(key, payload);
+        return payload;
+    }
+
+    /**
+     * Rebuilds hot entries that are missing, of an old catalog version, or
+     * about to expire, and forgets keys that are no longer hot.
+     */
+    private void refreshHotEntries() {
+        hotLoaders.keySet().removeIf(key -> !hotKeys.isHot(key));
+        long version = CatalogVersion.current();
+        long refreshBy = System.nanoTime() + REFRESH_AHEAD_NANOS;
+        hotLoaders.forEach((key, loader) -> {
+            CachedPayload payload = entries.get(key);
+            if (payload != null && payload.isFresh(version) && payload.expiresAtNanos - refreshBy > 0) {
+                return;
+            }
+            try {
+                loads.call(key + "@" + version, () -> load(key, loader, version));
+                preRefreshes.incrementAndGet();
+            } catch (RuntimeException e) {
+                // the entry stays as it is, and is tried again next time round
+                preRefreshFailures.incrementAndGet();
+                logger.log(Level.FINE, e, () -> "Failed to refresh hot catalog entry " + key);
+            }
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize catalog response", e);
+        }
+    }
+
+    /**
+     * Drops stale entries and then, while still full, whichever unpinned
+     * entries the map happens to iterate first: eviction is not LRU. Keeping
+     * recency for every lookup would cost a shared write on each hit, and the
+     * entries that are read most are already pinned as hot keys.
+     */
+    private void makeRoom() {
+        if (entries.size() < MAX_ENTRIES) {
+            return;
+        }
+        long version = CatalogVersion.current();
+        entries.values().removeIf(payload -> !payload.isFresh(version));
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= MAX_ENTRIES && keys.hasNext()) {
+            if (!hotKeys.isHot(keys.next())) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Serialized JSON for one resource, with a gzip variant built on first demand.
+     */
+    public static class CachedPayload {
+
+        private final byte[] json;
+        private final long version;
+        private final long expiresAtNanos;
+        private final String etag;
+        private volatile byte[] gzip;
+
+        CachedPayload(byte[] json, long version, long expiresAtNanos) {
+            this.json = json;
+            this.version = version;
+            this.expiresAtNanos = expiresAtNanos;
+            CRC32 checksum = new CRC32();
+            checksum.update(json);
+            // weak, since the gzip variant is a different byte sequence of the same content
+            this.etag = "W/\"" + version + "-" + Long.toHexString(checksum.getValue()) + "\"";
+        }
+
+        boolean isFresh(long currentVersion) {
+            return version == currentVersion && System.nanoTime() - expiresAtNanos < 0;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Whether an {@code If-None-Match} header names this payload's tag.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.equals("*") || candidate.equals(etag) || ("W/" + candidate).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public SerializedJson json() {
+            return new SerializedJson(json, false);
+        }
+
+        /**
+         * Returns the gzip-encoded variant, or the plain one when the
+         * payload is too small to benefit from compression.
+         */
+        public SerializedJson gzip() {
+            if (json.length < GZIP_THRESHOLD_BYTES) {
+                return json();
+            }
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return new SerializedJson(compressed, true);
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to compress catalog response", e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * The bytes of a response body exactly as they go on the wire.
+     */
+    public record SerializedJson(byte[] bytes, boolean gzipped) {
+    }
+}
@@ -0,0 +1,115 @@
+package api;
+
+import business.ApplicationContext;
+import business.catalog.CatalogSnapshotStore;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Maps the catalog snapshot as the application starts, so the catalog is
+ * served at once, then refreshes it from the database in the background.
+ *
+ * The snapshot lives at the path named by the {@code bookstore/catalogSnapshot}
+ * environment entry, or in the web application's temp directory.
+ *
+ * When the {@code bookstore/catalogServedFromSnapshot} entry is true, catalog
+ * reads keep being served from the snapshot once the database is up, and
+ * the snapshot is rewritten every few minutes to pick up changes made
+ * outside the application.
+ */
+public class CatalogSnapshotListener implements ServletContextListener {
+
+	private static final Logger logger = Logger.getLogger(CatalogSnapshotListener.class.getName());
+
+	private static final String CATALOG_SNAPSHOT = "bookstore/catalogSnapshot";
+
+	private static final String SERVED_FROM_SNAPSHOT = "bookstore/catalogServedFromSnapshot";
+
+	/**
+	 * Matches the catalog response cache's time to live.
+	 */
+	private static final long PERIODIC_REFRESH_MINUTES = 5;
+
+	private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private Thread refresher;
+
+	private ScheduledExecutorService periodicRefresh;
+
+	@Override
+	public void contextInitialized(ServletContextEvent event) {
+		CatalogSnapshotStore store = ApplicationContext.INSTANCE.getCatalogSnapshotStore();
+		store.load(snapshotPath(event.getServletContext()));
+		if (isServedFromSnapshot()) {
+			store.serveReads(true);
+			periodicRefresh = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "catalog-snapshot-periodic-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			periodicRefresh.scheduleWithFixedDelay(store::refreshLater,
+					PERIODIC_REFRESH_MINUTES, PERIODIC_REFRESH_MINUTES, TimeUnit.MINUTES);
+		}
+
+		refresher = new Thread(() -> {
+			long delay = 500;
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					store.refresh();
+					return;
+				} catch (Exception e) {
+					logger.log(Level.INFO, e, () -> "Catalog snapshot refresh failed, database not reachable yet?");
+				}
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					return;
+				}
+				delay = Math.min(MAX_RETRY_DELAY_MILLIS, delay * 2);
+			}
+		}, "catalog-snapshot-refresh");
+		refresher.setDaemon(true);
+		refresher.start();
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		if (refresher != null) {
+			refresher.interrupt();
+		}
+		if (periodicRefresh != null) {
+			periodicRefresh.shutdownNow();
+		}
+	}
+
+	private boolean isServedFromSnapshot() {
+		try {
+			Context context = (Context) new InitialContext().lookup("java:comp/env");
+			return Boolean.parseBoolean(((String) context.lookup(SERVED_FROM_SNAPSHOT)).trim());
+		} catch (NamingException e) {
+			return false;
+		}
+	}
+
+	private Path snapshotPath(ServletContext servletContext) {
+		try {
+			Context context = (Context) new InitialContext().lookup("java:comp/env");
+			return Path.of((String) context.lookup(CATALOG_SNAPSHOT));
+		} catch (NamingException e) {
+			File tempDir = (File) servletContext.getAttribute(ServletContext.TEMPDIR);
+			return tempDir.toPath().resolve("catalog.snapshot");
+		}
+	}
+}
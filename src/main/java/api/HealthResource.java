@@ -0,0 +1,46 @@
+package api;
+
+import business.Bulkhead;
+import business.CircuitBreaker;
+import business.DatabaseGuard;
+import business.JdbcUtils;
+import business.ReplicaRouter;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.List;
+
+@Path("health")
+public class HealthResource {
+
+    public record DatabaseHealth(CircuitBreaker.Snapshot circuitBreaker, List<Bulkhead.Snapshot> bulkheads,
+                                 List<ReplicaRouter.ReplicaHealth> replicas) {
+    }
+
+    public record Readiness(boolean ready) {
+    }
+
+    /**
+     * For the load balancer: 200 once the node is warmed up, 503 until then.
+     */
+    @GET
+    @Path("ready")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response ready() {
+        boolean ready = WarmupListener.isWarm();
+        return Response.status(ready ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE)
+                .entity(new Readiness(ready))
+                .build();
+    }
+
+    @GET
+    @Path("database")
+    @Produces(MediaType.APPLICATION_JSON)
+    public DatabaseHealth database() {
+        return new DatabaseHealth(DatabaseGuard.breakerSnapshot(), DatabaseGuard.bulkheadSnapshots(),
+                JdbcUtils.replicaHealth());
+    }
+}
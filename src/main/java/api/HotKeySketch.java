@@ -0,0 +1,192 @@
+package api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimates how often each key has been requested lately, in fixed memory,
+ * and keeps track of the hottest few.
+ *
+ * Counts live in a count-min sketch: each key increments one counter in
+ * each of four rows, at positions given by independent hashes,
+ * and its estimate is the smallest of those counters; collisions can only
+ * inflate an estimate. So that the sketch follows the traffic of the
+ * moment, every counter is halved each time {@code sampleSize} keys have
+ * been recorded: a title that was hot an hour ago fades out, and a new one
+ * overtakes it within a sample.
+ *
+ * Beside the sketch, the {@code topK} keys with the highest estimates are
+ * kept by name. Recording a key takes a lock only when its estimate is
+ * high enough for the top.
+ */
+public class HotKeySketch {
+
+    public record HotKey(String key, int estimate) {
+    }
+
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+    private final int sampleSize;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final int topK;
+    private final int minEstimate;
+
+    private final Map<String, Integer> top = new HashMap<>();
+    private volatile int admissionEstimate;
+    private volatile Set<String> hotKeys = Set.of();
+
+    /**
+     * @param width counters per row, a power of two; the sample is ten
+     *              times as many keys
+     * @param topK how many keys to keep by name
+     * @param minEstimate the estimate, within a sample, below which a key
+     *                    is not considered hot even if it is in the top
+     */
+    public HotKeySketch(int width, int topK, int minEstimate) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        this.width = width;
+        this.mask = width - 1;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.sampleSize = 10 * width;
+        this.topK = topK;
+        this.minEstimate = minEstimate;
+    }
+
+    public void record(String key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int count = counters.incrementAndGet(row * width + ((hash + row * step) & mask));
+            estimate = Math.min(estimate, count);
+        }
+        if (estimate >= admissionEstimate) {
+            offer(key, estimate);
+        }
+        if (recorded.incrementAndGet() == sampleSize) {
+            age();
+        }
+    }
+
+    public int estimate(String key) {
+        int hash = mix(key.hashCode());
+        int step = mix(hash) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((hash + row * step) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Whether {@code key} is among the hottest keys; cheap enough to ask on
+     * every request.
+     */
+    public boolean isHot(String key) {
+        return hotKeys.contains(key);
+    }
+
+    /**
+     * The hot keys, hottest first.
+     */
+    public synchronized List<HotKey> hotKeys() {
+        List<HotKey> keys = new ArrayList<>(top.size());
+        top.forEach((key, estimate) -> {
+            if (estimate >= minEstimate) {
+                keys.add(new HotKey(key, estimate));
+            }
+        });
+        keys.sort(Comparator.comparingInt(HotKey::estimate).reversed());
+        return keys;
+    }
+
+    private synchronized void offer(String key, int estimate) {
+        Integer previous = top.get(key);
+        if (previous != null) {
+            top.put(key, estimate);
+            boolean qualified = previous < minEstimate && estimate >= minEstimate;
+            if (qualified || previous + 1 == admissionEstimate) {
+                topChanged(qualified);
+            }
+            return;
+        }
+        if (top.size() >= topK) {
+            String coldest = coldest();
+            if (estimate <= top.get(coldest)) {
+                return;
+            }
+            top.remove(coldest);
+        }
+        top.put(key, estimate);
+        topChanged(true);
+    }
+
+    /**
+     * Halves every count, in the sketch and in the top. Increments racing
+     * with the halving may be lost, which only makes the estimates a little
+     * lower.
+     */
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+        synchronized (this) {
+            top.replaceAll((key, estimate) -> estimate >>> 1);
+            top.values().removeIf(estimate -> estimate == 0);
+            topChanged(true);
+        }
+        recorded.set(0);
+    }
+
+    private String coldest() {
+        String coldest = null;
+        int lowest = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> entry : top.entrySet()) {
+            if (entry.getValue() < lowest) {
+                lowest = entry.getValue();
+                coldest = entry.getKey();
+            }
+        }
+        return coldest;
+    }
+
+    /**
+     * Recomputes the estimate a newcomer needs to enter the top and, when
+     * who is in it or who qualifies may have changed, the hot set.
+     */
+    private void topChanged(boolean rebuildHotSet) {
+        admissionEstimate = top.size() < topK ? 0 : top.get(coldest()) + 1;
+        if (rebuildHotSet) {
+            List<String> hot = new ArrayList<>(top.size());
+            top.forEach((key, estimate) -> {
+                if (estimate >= minEstimate) {
+                    hot.add(key);
+                }
+            });
+            hotKeys = Set.copyOf(hot);
+        }
+    }
+
+    /**
+     * The MurmurHash3 finalizer, spreading similar keys across the row.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
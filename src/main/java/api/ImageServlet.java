@@ -0,0 +1,271 @@
+package api;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serves book and category images in named size variants:
+ *
+ * <pre>/images/{book-images|category-images}/{thumbnail|card|full}/{file-name}</pre>
+ *
+ * Resized variants are generated once with ImageIO and kept on local disk
+ * under the container's temp directory; small variants are also held in a
+ * bounded memory cache. Responses carry a strong ETag and may be cached
+ * for an hour before they are revalidated, and files are streamed with Tomcat's sendfile
+ * support (or a FileChannel transfer) rather than copied through the heap.
+ */
+public class ImageServlet extends HttpServlet {
+
+	private static final Logger logger = Logger.getLogger(ImageServlet.class.getName());
+
+	private static final Set<String> IMAGE_DIRECTORIES = Set.of("book-images", "category-images");
+
+	/**
+	 * Image URLs are not versioned and a variant is regenerated when its
+	 * source changes, so browsers keep an image only briefly and then
+	 * revalidate it with its ETag.
+	 */
+	private static final String CACHE_CONTROL = "public, max-age=3600";
+
+	private static final float JPEG_QUALITY = 0.82f;
+
+	private static final long MEMORY_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+
+	private static final int MEMORY_CACHE_MAX_ENTRY_BYTES = 256 * 1024;
+
+	enum Variant {
+		THUMBNAIL(160), CARD(320), FULL(0);
+
+		private final int width;
+
+		Variant(int width) {
+			this.width = width;
+		}
+
+		static Variant fromPath(String name) {
+			for (Variant variant : values()) {
+				if (variant.name().equalsIgnoreCase(name)) {
+					return variant;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * A generated (or original) image file ready to be served.
+	 */
+	private record ImageFile(Path path, long length, long lastModified, String etag) {
+	}
+
+	private final Map<String, ImageFile> files = new ConcurrentHashMap<>();
+
+	private final Map<String, Object> generationLocks = new ConcurrentHashMap<>();
+
+	private final Map<String, byte[]> memoryCache = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long memoryCacheBytes = 0;
+
+	private Path variantDirectory;
+
+	@Override
+	public void init() throws ServletException {
+		File tempDir = (File) getServletContext().getAttribute(ServletContext.TEMPDIR);
+		Path base = tempDir != null ? tempDir.toPath() : Path.of(System.getProperty("java.io.tmpdir"));
+		variantDirectory = base.resolve("image-variants");
+		try {
+			Files.createDirectories(variantDirectory);
+		} catch (IOException e) {
+			throw new ServletException("Cannot create image variant directory " + variantDirectory, e);
+		}
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String[] parts = request.getPathInfo() == null ? new String[0] : request.getPathInfo().split("/");
+		// parts[0] is the empty segment before the leading slash
+		if (parts.length != 4 || !IMAGE_DIRECTORIES.contains(parts[1]) || !isPlainFileName(parts[3])) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		Variant variant = Variant.fromPath(parts[2]);
+		if (variant == null) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+		String realPath = getServletContext().getRealPath("/" + parts[1] + "/" + parts[3]);
+		if (realPath == null || !Files.isRegularFile(Path.of(realPath))) {
+			response.sendError(HttpServletResponse.SC_NOT_FOUND);
+			return;
+		}
+
+		ImageFile image;
+		try {
+			image = imageFile(parts[1], parts[3], variant, Path.of(realPath));
+		} catch (IOException e) {
+			logger.log(Level.WARNING, e, () -> "Failed to prepare image " + request.getPathInfo());
+			response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			return;
+		}
+
+		response.setHeader("ETag", image.etag());
+		response.setHeader("Cache-Control", CACHE_CONTROL);
+		response.setDateHeader("Last-Modified", image.lastModified());
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null && (ifNoneMatch.contains(image.etag()) || ifNoneMatch.trim().equals("*"))) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		response.setContentType(getServletContext().getMimeType(parts[3]));
+		response.setContentLengthLong(image.length());
+		send(image, request, response);
+	}
+
+	private void send(ImageFile image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		byte[] cached = memoryCacheGet(image.etag());
+		if (cached != null) {
+			response.getOutputStream().write(cached);
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+			// Tomcat writes the file to the socket itself once this request returns
+			request.setAttribute("org.apache.tomcat.sendfile.filename", image.path().toAbsolutePath().toString());
+			request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+			request.setAttribute("org.apache.tomcat.sendfile.end", image.length());
+			return;
+		}
+		OutputStream out = response.getOutputStream();
+		try (FileChannel channel = FileChannel.open(image.path(), StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(out);
+			long position = 0;
+			while (position < image.length()) {
+				position += channel.transferTo(position, image.length() - position, target);
+			}
+		}
+	}
+
+	private ImageFile imageFile(String directory, String fileName, Variant variant, Path source) throws IOException {
+		String key = directory + "/" + variant.name() + "/" + fileName;
+		long sourceModified = Files.getLastModifiedTime(source).toMillis();
+		ImageFile image = files.get(key);
+		if (image != null && image.lastModified() >= sourceModified) {
+			return image;
+		}
+		synchronized (generationLocks.computeIfAbsent(key, k -> new Object())) {
+			image = files.get(key);
+			if (image != null && image.lastModified() >= sourceModified) {
+				return image;
+			}
+			Path path = variant == Variant.FULL ? source : variantDirectory.resolve(
+					directory + "-" + variant.name().toLowerCase() + "-" + fileName);
+			if (variant != Variant.FULL && (!Files.exists(path)
+					|| Files.getLastModifiedTime(path).toMillis() < sourceModified)) {
+				writeVariant(source, path, variant.width);
+			}
+			byte[] bytes = Files.readAllBytes(path);
+			image = new ImageFile(path, bytes.length, Files.getLastModifiedTime(path).toMillis(), etag(bytes));
+			memoryCachePut(image.etag(), bytes);
+			files.put(key, image);
+			return image;
+		}
+	}
+
+	private void writeVariant(Path source, Path target, int width) throws IOException {
+		BufferedImage original = ImageIO.read(source.toFile());
+		if (original == null) {
+			throw new IOException("Unsupported image format: " + source);
+		}
+		BufferedImage resized = original;
+		if (original.getWidth() > width) {
+			int height = Math.max(1, Math.round(original.getHeight() * (width / (float) original.getWidth())));
+			resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = resized.createGraphics();
+			try {
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(original, 0, 0, width, height, null);
+			} finally {
+				graphics.dispose();
+			}
+		}
+
+		Path temp = Files.createTempFile(variantDirectory, "variant", ".tmp");
+		try {
+			Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+			ImageWriter writer = writers.next();
+			try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+				writer.setOutput(out);
+				ImageWriteParam param = writer.getDefaultWriteParam();
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(JPEG_QUALITY);
+				writer.write(null, new IIOImage(resized, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private synchronized byte[] memoryCacheGet(String etag) {
+		return memoryCache.get(etag);
+	}
+
+	private synchronized void memoryCachePut(String etag, byte[] bytes) {
+		if (bytes.length > MEMORY_CACHE_MAX_ENTRY_BYTES || memoryCache.containsKey(etag)) {
+			return;
+		}
+		memoryCache.put(etag, bytes);
+		memoryCacheBytes += bytes.length;
+		Iterator<byte[]> eldest = memoryCache.values().iterator();
+		while (memoryCacheBytes > MEMORY_CACHE_MAX_BYTES && eldest.hasNext()) {
+			memoryCacheBytes -= eldest.next().length;
+			eldest.remove();
+		}
+	}
+
+	private static boolean isPlainFileName(String name) {
+		return !name.isEmpty() && !name.startsWith(".") && name.indexOf('\\') < 0;
+	}
+
+	private static String etag(byte[] bytes) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
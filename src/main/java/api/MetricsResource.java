@@ -0,0 +1,94 @@
+package api;
+
+import business.ApplicationContext;
+import business.ConnectionScheduler;
+import business.JdbcUtils;
+import business.ManagedConnectionPool;
+import business.SingleFlight;
+import business.TransactionRetry;
+import business.event.RingBuffer;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counters for operators, read as JSON. Unlike {@link HealthResource} these
+ * say how the service has been behaving rather than whether it is up.
+ */
+@Path("metrics")
+public class MetricsResource {
+
+    /**
+     * Order transactions run, how many were retried after a deadlock or
+     * lock wait timeout, and how those retries turned out.
+     */
+    @GET
+    @Path("transactions")
+    @Produces(MediaType.APPLICATION_JSON)
+    public TransactionRetry.Snapshot transactions() {
+        return TransactionRetry.snapshot();
+    }
+
+    /**
+     * Size, utilization and wait times of the application-managed primary
+     * pool; empty when the container's pool is in use.
+     */
+    @GET
+    @Path("pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ManagedConnectionPool.Snapshot pool() {
+        return JdbcUtils.primaryPoolSnapshot();
+    }
+
+    /**
+     * How the primary's connections were shared out between checkout,
+     * order views and catalog reads: waits, grants, and work shed.
+     */
+    @GET
+    @Path("connections")
+    @Produces(MediaType.APPLICATION_JSON)
+    public ConnectionScheduler.Snapshot connections() {
+        return JdbcUtils.primarySchedulerSnapshot();
+    }
+
+    /**
+     * Orders published to the post-commit event ring, and how far behind
+     * each of its consumers is.
+     */
+    @GET
+    @Path("order-events")
+    @Produces(MediaType.APPLICATION_JSON)
+    public RingBuffer.Snapshot orderEvents() {
+        return ApplicationContext.INSTANCE.getOrderEvents().snapshot();
+    }
+
+    /**
+     * The catalog responses requested most lately, with their estimated
+     * request counts, and how often their cache entries were rebuilt ahead
+     * of expiry.
+     */
+    @GET
+    @Path("hot-keys")
+    @Produces(MediaType.APPLICATION_JSON)
+    public CatalogResponseCache.HotKeysSnapshot hotKeys() {
+        return CatalogResponseCache.INSTANCE.hotKeysSnapshot();
+    }
+
+    /**
+     * How many identical concurrent reads were answered by one execution:
+     * catalog cache loads, and book and category queries.
+     */
+    @GET
+    @Path("coalescing")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<SingleFlight.Snapshot> coalescing() {
+        List<SingleFlight.Snapshot> snapshots = new ArrayList<>();
+        snapshots.add(CatalogResponseCache.INSTANCE.loadCoalescing());
+        snapshots.addAll(ApplicationContext.INSTANCE.getReadCoalescing());
+        return snapshots;
+    }
+}
@@ -0,0 +1,29 @@
+package api;
+
+import api.json.BookstoreModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Jersey: Supply the application's ObjectMapper, configured with the
+ * hand-written deserializers for the checkout request bodies.
+ */
+@Provider
+public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new BookstoreModule());
+
+	/**
+	 * The shared mapper, for code that serializes outside of Jersey.
+	 */
+	public static ObjectMapper objectMapper() {
+		return objectMapper;
+	}
+
+	@Override
+	public ObjectMapper getContext(Class<?> type) {
+		return objectMapper;
+	}
+}
@@ -0,0 +1,126 @@
+package api;
+
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The per-client order rate limit: each client has a token bucket, and
+ * every order it places takes one token, whether it comes alone or as a
+ * line of a bulk import.
+ */
+class OrderRateLimit {
+
+    static final OrderRateLimit INSTANCE = new OrderRateLimit();
+
+    private static final String TRUSTED_PROXIES = "bookstore/trustedProxies";
+
+    private static final int ORDER_BURST = 10;
+    private static final double ORDERS_PER_SECOND = 1.0 / 6;
+
+    /**
+     * Buckets are swept at most this often, by whichever request comes due.
+     */
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+
+    /**
+     * What a client not seen before is told to wait while the table is full.
+     */
+    private static final long FULL_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Set<String> trustedProxies = trustedProxies();
+
+    private final Map<String, TokenBucket> orderBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+    private OrderRateLimit() {
+    }
+
+    /**
+     * Takes a token for one order from the bucket of {@code client}, as
+     * given by {@link #clientKey}.
+     *
+     * @return zero when the order may go ahead, otherwise the number of
+     * nanoseconds until the client may place another
+     */
+    long tryConsume(String client) {
+        sweepIfDue();
+        TokenBucket bucket = orderBuckets.get(client);
+        if (bucket == null) {
+            if (orderBuckets.size() >= MAX_TRACKED_CLIENTS) {
+                // refuse rather than grow; the next sweep makes room
+                return FULL_RETRY_NANOS;
+            }
+            bucket = orderBuckets.computeIfAbsent(client, key -> new TokenBucket(ORDER_BURST, ORDERS_PER_SECOND));
+        }
+        return bucket.tryConsume();
+    }
+
+    /**
+     * Identifies the client by the address the request came from. When that
+     * is one of the trusted proxies, the client is the address the proxies
+     * appended to {@code X-Forwarded-For}: the rightmost one that is not
+     * itself a trusted proxy. Entries further left were sent by the client
+     * and prove nothing.
+     */
+    String clientKey(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || !trustedProxies.contains(address)) {
+            return address;
+        }
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            address = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+
+    /**
+     * The addresses in {@code bookstore/trustedProxies}, separated by
+     * commas; none when it is not set.
+     */
+    private static Set<String> trustedProxies() {
+        try {
+            Context context = (Context) new InitialContext().lookup("java:comp/env");
+            Set<String> proxies = new HashSet<>();
+            for (String proxy : ((String) context.lookup(TRUSTED_PROXIES)).split(",")) {
+                if (!proxy.isBlank()) {
+                    proxies.add(proxy.trim());
+                }
+            }
+            return proxies;
+        } catch (NamingException e) {
+            return Set.of();
+        }
+    }
+
+    /**
+     * Drops the buckets of clients that have been quiet long enough for
+     * their buckets to refill; a full bucket is indistinguishable from a
+     * new one. Only one request in each interval does the sweeping.
+     */
+    private void sweepIfDue() {
+        long now = System.nanoTime();
+        long due = nextSweepNanos.get();
+        if (now - due >= 0 && nextSweepNanos.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            orderBuckets.values().removeIf(TokenBucket::isFull);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package api;
+
+import business.ApplicationContext;
+import business.DatabaseGuard;
+import business.event.OrderEventWindow;
+import business.event.OrderPlaced;
+import business.order.Order;
+import business.order.OrderDao;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes each order as it is placed, as server-sent events:
+ *
+ * <pre>
+ * id: {order id}
+ * event: order
+ * data: {the order, as returned elsewhere in the API}
+ * </pre>
+ *
+ * A client that reconnects with {@code Last-Event-ID} first receives the
+ * orders it missed: from the in-memory window of recent orders when that
+ * still reaches back far enough, otherwise from the database by order id,
+ * a page at a time until the window is reached. A client too far behind
+ * is sent a bounded number of orders and then disconnected, so that it
+ * reconnects and resumes from the last one it received.
+ *
+ * New orders come from this node's window, which only sees the orders
+ * placed on this node: with several nodes taking orders, a stream misses
+ * those placed elsewhere.
+ */
+@Path("orders/stream")
+public class OrderStreamResource {
+
+    private static final int MAX_STREAMS = 100;
+
+    private static final int CATCH_UP_PAGE_SIZE = 1000;
+
+    private static final int MAX_CATCH_UP_ORDERS = 10 * CATCH_UP_PAGE_SIZE;
+
+    private static final long KEEP_ALIVE_SECONDS = 15;
+
+    private static final Set<OrderStream> streams = ConcurrentHashMap.newKeySet();
+
+    private static final ScheduledExecutorService keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-keep-alive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // also notices clients that went away while no orders were placed
+        keepAlive.scheduleWithFixedDelay(() -> streams.forEach(OrderStream::keepAlive),
+                KEEP_ALIVE_SECONDS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private final OrderEventWindow recentOrders = ApplicationContext.INSTANCE.getRecentOrders();
+    private final OrderDao orderDao = ApplicationContext.INSTANCE.getOrderDao();
+
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void stream(@HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                       @Context SseEventSink sink, @Context Sse sse) {
+        if (streams.size() >= MAX_STREAMS) {
+            throw new ServiceUnavailableException(KEEP_ALIVE_SECONDS);
+        }
+        long lastOrderId = parseOrderId(lastEventId);
+        OrderStream stream = new OrderStream(sink, sse);
+        int caughtUp = 0;
+        while (lastOrderId >= 0 && !recentOrders.contains(lastOrderId)) {
+            if (caughtUp >= MAX_CATCH_UP_ORDERS) {
+                // the client reconnects and resumes from the last order sent
+                stream.close();
+                return;
+            }
+            List<Order> missed;
+            try {
+                missed = findAfter(lastOrderId);
+            } catch (ApiException e) {
+                if (caughtUp == 0) {
+                    throw e;
+                }
+                // part way through; the client resumes from what it has
+                stream.close();
+                return;
+            }
+            for (Order order : missed) {
+                if (!stream.send(order)) {
+                    return;
+                }
+                lastOrderId = order.getOrderId();
+            }
+            caughtUp += missed.size();
+            if (missed.size() < CATCH_UP_PAGE_SIZE) {
+                break;
+            }
+        }
+        streams.add(stream);
+        recentOrders.subscribe(lastOrderId, stream);
+    }
+
+    private List<Order> findAfter(long orderId) {
+        try {
+            return DatabaseGuard.catalog(() -> orderDao.findAfterOrderId(orderId, CATCH_UP_PAGE_SIZE));
+        } catch (Exception e) {
+            throw new ApiException(String.format("Orders after order id %d lookup failed", orderId), e);
+        }
+    }
+
+    /**
+     * Ends every open stream; clients will reconnect to another node.
+     */
+    public static void closeAll() {
+        keepAlive.shutdownNow();
+        streams.forEach(OrderStream::close);
+    }
+
+    private static long parseOrderId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException.ValidationFailure("Last-Event-ID", "Invalid Last-Event-ID");
+        }
+    }
+
+    private static class OrderStream implements OrderEventWindow.Subscriber {
+
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        OrderStream(SseEventSink sink, Sse sse) {
+            this.sink = sink;
+            this.sse = sse;
+        }
+
+        @Override
+        public boolean deliver(List<OrderPlaced> events) {
+            for (OrderPlaced event : events) {
+                if (!send(new Order(event.orderId(), event.amount(), new Date(event.placedAtMillis()),
+                        event.confirmationNumber(), event.customerId()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean send(Order order) {
+            return send(sse.newEventBuilder()
+                    .id(Long.toString(order.getOrderId()))
+                    .name("order")
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(Order.class, order)
+                    .build());
+        }
+
+        @Override
+        public void dropped() {
+            close();
+        }
+
+        void keepAlive() {
+            send(sse.newEventBuilder().comment("keep-alive").build());
+        }
+
+        /**
+         * Sends the event unless the stream has ended; a send that fails,
+         * now or once it completes, ends the stream.
+         */
+        private boolean send(OutboundSseEvent event) {
+            if (closed.get() || sink.isClosed()) {
+                close();
+                return false;
+            }
+            sink.send(event).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    close();
+                }
+            });
+            return true;
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                streams.remove(this);
+                ApplicationContext.INSTANCE.getRecentOrders().unsubscribe(this);
+                sink.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package api;
+
+import business.Deadline;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servlet filter that gives each API request a {@link Deadline}, so the
+ * database work done for it stops once the client can no longer use the
+ * answer.
+ *
+ * Clients may ask for a shorter or longer budget, in milliseconds, with
+ * an {@code X-Request-Timeout} header; it is clamped to
+ * {@link #MAX_TIMEOUT_MILLIS}, and anything unparseable is ignored in
+ * favour of the default.
+ */
+public class RequestDeadlineFilter implements Filter {
+
+	static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+	private static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+	private static final long MAX_TIMEOUT_MILLIS = 30_000;
+
+	@Override
+	public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+			throws IOException, ServletException {
+		Deadline.start(timeoutMillis((HttpServletRequest) servletRequest), TimeUnit.MILLISECONDS);
+		try {
+			chain.doFilter(servletRequest, servletResponse);
+		} finally {
+			Deadline.clear();
+		}
+	}
+
+	private long timeoutMillis(HttpServletRequest request) {
+		String requested = request.getHeader(REQUEST_TIMEOUT_HEADER);
+		if (requested == null || requested.isBlank()) {
+			return DEFAULT_TIMEOUT_MILLIS;
+		}
+		try {
+			long millis = Long.parseLong(requested.trim());
+			return millis > 0 ? Math.min(millis, MAX_TIMEOUT_MILLIS) : DEFAULT_TIMEOUT_MILLIS;
+		} catch (NumberFormatException e) {
+			return DEFAULT_TIMEOUT_MILLIS;
+		}
+	}
+}
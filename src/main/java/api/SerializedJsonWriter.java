@@ -0,0 +1,41 @@
+package api;
+
+import api.CatalogResponseCache.SerializedJson;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Jersey: Copy pre-serialized JSON straight to the response stream.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class SerializedJsonWriter implements MessageBodyWriter<SerializedJson> {
+
+	@Override
+	public boolean isWriteable(Class<?> type, Type genericType,
+							   Annotation[] annotations, MediaType mediaType) {
+		return type == SerializedJson.class;
+	}
+
+	@Override
+	public void writeTo(SerializedJson entity, Class<?> type, Type genericType,
+						Annotation[] annotations, MediaType mediaType,
+						MultivaluedMap<String, Object> httpHeaders,
+						OutputStream entityStream) throws IOException, WebApplicationException {
+		if (entity.gzipped()) {
+			httpHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, entity.bytes().length);
+		entityStream.write(entity.bytes());
+	}
+}
@@ -0,0 +1,22 @@
+package api;
+
+import business.ApplicationContext;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+/**
+ * Shuts the application context down when the web application stops.
+ *
+ * Declared first in web.xml so that it is notified last, after the other
+ * listeners have stopped using the application context.
+ */
+public class ShutdownListener implements ServletContextListener {
+
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		OrderStreamResource.closeAll();
+		CatalogResponseCache.INSTANCE.shutdown();
+		ApplicationContext.INSTANCE.shutdown();
+	}
+}
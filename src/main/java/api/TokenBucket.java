@@ -0,0 +1,50 @@
+package api;
+
+/**
+ * A token bucket refilled continuously at a fixed rate, used to rate limit
+ * a single client.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return zero when a token was taken, otherwise the number of
+     * nanoseconds until the next token becomes available
+     */
+    public synchronized long tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * True when the bucket has been refilled to capacity, meaning the
+     * client has been quiet long enough that the bucket can be discarded.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
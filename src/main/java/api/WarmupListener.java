@@ -0,0 +1,132 @@
+package api;
+
+import business.ApplicationContext;
+import business.JdbcUtils;
+import business.book.Book;
+import business.category.Category;
+import business.order.OrderForm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Warms the application up before it reports itself ready.
+ *
+ * In the background, and retrying until the database answers, this
+ * initializes the application context and DataSources eagerly, opens a
+ * minimum set of pooled connections, calls each hot catalog endpoint
+ * in-process (filling the response cache) and then repeats the JSON work
+ * of those endpoints, on a small sample of books, and of checkout enough
+ * times for the JIT to compile it. Only then does {@code GET /api/health/ready} start answering 200.
+ */
+public class WarmupListener implements ServletContextListener {
+
+	private static final Logger logger = Logger.getLogger(WarmupListener.class.getName());
+
+	private static final int MIN_CONNECTIONS = 2;
+
+	private static final int JSON_ROUNDS = 2_000;
+
+	/**
+	 * The JSON rounds only need the code paths to be hot, so they write a
+	 * small sample of books rather than whole categories, whatever the
+	 * size of the catalog.
+	 */
+	private static final int JSON_SAMPLE_CATEGORIES = 10;
+
+	private static final int JSON_SAMPLE_BOOKS = 20;
+
+	private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final String SAMPLE_ORDER_FORM = "{\"cart\":{\"itemArray\":[{\"book\":"
+			+ "{\"bookId\":1001,\"price\":1000,\"categoryId\":1001},\"quantity\":2}]},"
+			+ "\"customerForm\":{\"name\":\"Warm Up\",\"address\":\"1 Main Street\",\"phone\":\"5405550100\","
+			+ "\"email\":\"warm@up.test\",\"ccNumber\":\"4444333322221111\",\"ccExpiryMonth\":\"12\","
+			+ "\"ccExpiryYear\":\"2099\"}}";
+
+	private static volatile boolean warm = false;
+
+	private Thread warmer;
+
+	/**
+	 * Whether warm-up has completed and the node may take traffic.
+	 */
+	public static boolean isWarm() {
+		return warm;
+	}
+
+	@Override
+	public void contextInitialized(ServletContextEvent event) {
+		warmer = new Thread(() -> {
+			long delay = 500;
+			while (!Thread.currentThread().isInterrupted()) {
+				try {
+					long start = System.nanoTime();
+					warmUp();
+					warm = true;
+					logger.info(() -> "Warm-up complete in "
+							+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+					return;
+				} catch (Exception e) {
+					logger.log(Level.INFO, e, () -> "Warm-up failed, retrying");
+				}
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					return;
+				}
+				delay = Math.min(MAX_RETRY_DELAY_MILLIS, delay * 2);
+			}
+		}, "warm-up");
+		warmer.setDaemon(true);
+		warmer.start();
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		warm = false;
+		if (warmer != null) {
+			warmer.interrupt();
+		}
+	}
+
+	private void warmUp() throws Exception {
+		ApplicationContext applicationContext = ApplicationContext.INSTANCE;
+		JdbcUtils.initialize();
+		JdbcUtils.openConnections(MIN_CONNECTIONS);
+
+		ApiResource resource = new ApiResource();
+		resource.categories(null);
+		List<Category> categories = applicationContext.getCategoryDao().findAll();
+		List<List<Book>> bookLists = new ArrayList<>();
+		for (Category category : categories) {
+			resource.categoryById(category.getCategoryId(), null);
+			resource.categoryByName(category.getName(), null);
+			resource.booksByCategoryId(category.getCategoryId(), null);
+			resource.booksByCategoryName(category.getName(), null);
+			List<Book> books = resource.suggestedBooks(category.getCategoryId(), JSON_SAMPLE_BOOKS, null);
+			for (Book book : books.subList(0, Math.min(3, books.size()))) {
+				resource.bookById(book.getBookId(), null);
+			}
+			if (bookLists.size() < JSON_SAMPLE_CATEGORIES) {
+				bookLists.add(books);
+			}
+		}
+
+		ObjectMapper objectMapper = ObjectMapperProvider.objectMapper();
+		for (int i = 0; i < JSON_ROUNDS; i++) {
+			objectMapper.writeValueAsBytes(categories);
+			for (List<Book> books : bookLists) {
+				objectMapper.writeValueAsBytes(books);
+			}
+			objectMapper.readValue(SAMPLE_ORDER_FORM, OrderForm.class);
+			resource.categories(null);
+		}
+	}
+}
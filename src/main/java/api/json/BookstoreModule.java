@@ -0,0 +1,33 @@
+package api.json;
+
+import api.json.FormDeserializers.BookFormDeserializer;
+import api.json.FormDeserializers.CustomerFormDeserializer;
+import api.json.FormDeserializers.OrderFormDeserializer;
+import api.json.FormDeserializers.ShoppingCartDeserializer;
+import business.book.BookForm;
+import business.cart.ShoppingCart;
+import business.customer.CustomerForm;
+import business.order.OrderForm;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Registers the hand-written deserializers for the request bodies of
+ * checkout. Responses are written by Jackson's bean serializers; a book's
+ * price token goes out as one of its properties.
+ *
+ * {@code bench.JsonSerializationBenchmark} (run with {@code gradle bench})
+ * measures both: the deserializers read an order in less time (0.6-0.8x),
+ * and with about two thirds of the allocation, of Jackson's bean handling;
+ * the hand-written writers that used to be registered here were slower
+ * than Jackson's and allocated more.
+ */
+public class BookstoreModule extends SimpleModule {
+
+    public BookstoreModule() {
+        super("BookstoreModule");
+        addDeserializer(OrderForm.class, new OrderFormDeserializer());
+        addDeserializer(ShoppingCart.class, new ShoppingCartDeserializer());
+        addDeserializer(CustomerForm.class, new CustomerFormDeserializer());
+        addDeserializer(BookForm.class, new BookFormDeserializer());
+    }
+}
@@ -0,0 +1,182 @@
+package api.json;
+
+import business.book.BookForm;
+import business.cart.ShoppingCart;
+import business.cart.ShoppingCartItem;
+import business.customer.CustomerForm;
+import business.order.OrderForm;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming deserializers for the forms a client posts at checkout.
+ *
+ * Like the annotated classes they replace, these ignore any field they do
+ * not recognise (for example "_type").
+ */
+public class FormDeserializers {
+
+    public static class OrderFormDeserializer extends StdDeserializer<OrderForm> {
+
+        public OrderFormDeserializer() {
+            super(OrderForm.class);
+        }
+
+        @Override
+        public OrderForm deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return readOrderForm(p);
+        }
+    }
+
+    public static class ShoppingCartDeserializer extends StdDeserializer<ShoppingCart> {
+
+        public ShoppingCartDeserializer() {
+            super(ShoppingCart.class);
+        }
+
+        @Override
+        public ShoppingCart deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return readShoppingCart(p);
+        }
+    }
+
+    public static class CustomerFormDeserializer extends StdDeserializer<CustomerForm> {
+
+        public CustomerFormDeserializer() {
+            super(CustomerForm.class);
+        }
+
+        @Override
+        public CustomerForm deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return readCustomerForm(p);
+        }
+    }
+
+    public static class BookFormDeserializer extends StdDeserializer<BookForm> {
+
+        public BookFormDeserializer() {
+            super(BookForm.class);
+        }
+
+        @Override
+        public BookForm deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return readBookForm(p);
+        }
+    }
+
+    public static OrderForm readOrderForm(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        OrderForm orderForm = new OrderForm();
+        for (JsonToken token = firstField(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "cart" -> orderForm.setCart(readShoppingCart(p));
+                case "customerForm" -> orderForm.setCustomerForm(readCustomerForm(p));
+                default -> p.skipChildren();
+            }
+        }
+        return orderForm;
+    }
+
+    static ShoppingCart readShoppingCart(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        ShoppingCart cart = new ShoppingCart();
+        for (JsonToken token = firstField(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("itemArray".equals(field) && p.currentToken() == JsonToken.START_ARRAY) {
+                List<ShoppingCartItem> items = new ArrayList<>();
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    items.add(readShoppingCartItem(p));
+                }
+                cart.setItems(items);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return cart;
+    }
+
+    static ShoppingCartItem readShoppingCartItem(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        ShoppingCartItem item = new ShoppingCartItem();
+        for (JsonToken token = firstField(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "quantity" -> item.setQuantity(p.getValueAsInt());
+                case "book" -> item.setBookForm(readBookForm(p));
+                default -> p.skipChildren();
+            }
+        }
+        return item;
+    }
+
+    static BookForm readBookForm(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        BookForm bookForm = new BookForm();
+        for (JsonToken token = firstField(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "bookId" -> bookForm.setBookId(p.getValueAsLong());
+                case "price" -> bookForm.setPrice(p.getValueAsInt());
+                case "categoryId" -> bookForm.setCategoryId(p.getValueAsLong());
+                case "priceToken" -> bookForm.setPriceToken(p.getValueAsString());
+                default -> p.skipChildren();
+            }
+        }
+        return bookForm;
+    }
+
+    static CustomerForm readCustomerForm(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        String name = null, address = null, phone = null, email = null;
+        String ccNumber = null, ccExpiryMonth = null, ccExpiryYear = null;
+        for (JsonToken token = firstField(p); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> name = p.getValueAsString();
+                case "address" -> address = p.getValueAsString();
+                case "phone" -> phone = p.getValueAsString();
+                case "email" -> email = p.getValueAsString();
+                case "ccNumber" -> ccNumber = p.getValueAsString();
+                case "ccExpiryMonth" -> ccExpiryMonth = p.getValueAsString();
+                case "ccExpiryYear" -> ccExpiryYear = p.getValueAsString();
+                default -> p.skipChildren();
+            }
+        }
+        return new CustomerForm(name, address, phone, email, ccNumber, ccExpiryMonth, ccExpiryYear);
+    }
+
+    /**
+     * Positions the parser on the first field of the current object; a
+     * deserializer may be entered on either the START_OBJECT or the first
+     * FIELD_NAME token.
+     */
+    private static JsonToken firstField(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        return token;
+    }
+}
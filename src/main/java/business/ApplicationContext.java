@@ -3,12 +3,31 @@ package business;
 
 import business.book.BookDao;
 import business.book.BookDaoJdbc;
+import business.cart.CartService;
+import business.cart.CartStore;
 import business.category.CategoryDao;
+import business.catalog.CatalogImporter;
+import business.catalog.CatalogSnapshotStore;
+import business.catalog.SingleFlightBookDao;
+import business.catalog.SingleFlightCategoryDao;
+import business.catalog.SnapshotBookDao;
+import business.catalog.SnapshotCategoryDao;
 import business.category.CategoryDaoJdbc;
 import business.customer.CustomerDao;
 import business.customer.CustomerDaoJdbc;
+import business.engagement.EngagementDaoJdbc;
+import business.engagement.EngagementService;
+import business.event.OrderEventLog;
+import business.event.OrderEventWindow;
+import business.event.OrderPlaced;
+import business.event.RingBuffer;
+import business.inventory.InventoryDaoJdbc;
+import business.inventory.InventoryService;
 import business.order.*;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class ApplicationContext {
 
     private  CategoryDao categoryDao;
@@ -22,21 +41,71 @@ public class ApplicationContext {
 
     private CustomerDao customerDao;
 
+    private SingleFlight categoryReads;
+
+    private SingleFlight bookReads;
+
+    private CatalogSnapshotStore catalogSnapshotStore;
+
+    private CatalogImporter catalogImporter;
+
+    private InventoryService inventoryService;
+
+    private CartService cartService;
+
+    private RingBuffer<OrderPlaced> orderEvents;
+
+    private OrderEventWindow recentOrders;
+
+    private EngagementService engagementService;
+
     public static ApplicationContext INSTANCE = new ApplicationContext();
 
     private ApplicationContext() {
 
-        categoryDao = new CategoryDaoJdbc();
-        bookDao = new BookDaoJdbc();
+        CatalogVersion.startPolling();
+        CategoryDao categoryDaoJdbc = new CategoryDaoJdbc();
+        BookDao bookDaoJdbc = new BookDaoJdbc();
+        catalogSnapshotStore = new CatalogSnapshotStore(categoryDaoJdbc, bookDaoJdbc);
+        categoryReads = new SingleFlight("category-reads");
+        bookReads = new SingleFlight("book-reads");
+        categoryDao = new SnapshotCategoryDao(new SingleFlightCategoryDao(categoryDaoJdbc, categoryReads),
+                catalogSnapshotStore);
+        bookDao = new SnapshotBookDao(new SingleFlightBookDao(bookDaoJdbc, bookReads), catalogSnapshotStore);
+        catalogImporter = new CatalogImporter(categoryDaoJdbc, bookDaoJdbc, catalogSnapshotStore);
        orderService = new DefaultOrderService();
 
         orderDao = new OrderDaoJdbc();
         lineItemDao = new LineItemDaoJdbc();
         customerDao = new CustomerDaoJdbc();
-        ((DefaultOrderService)orderService).setBookDao(bookDao);
+        inventoryService = new InventoryService(new InventoryDaoJdbc());
+        // Prices are checked against the database itself, never a snapshot
+        ((DefaultOrderService)orderService).setBookDao(bookDaoJdbc);
         ((DefaultOrderService)orderService).setOrderDao(orderDao);
         ((DefaultOrderService)orderService).setCustoomerDao(customerDao);
         ((DefaultOrderService)orderService).setLineItemDao(lineItemDao);
+        ((DefaultOrderService)orderService).setInventoryService(inventoryService);
+        orderEvents = new RingBuffer<>("order-events", 1024, 50, TimeUnit.MILLISECONDS);
+        orderEvents.subscribe("log", 64, RingBuffer.Backpressure.DROP_OLDEST, OrderEventLog::log);
+        recentOrders = new OrderEventWindow(1000);
+        orderEvents.subscribe("recent", 64, RingBuffer.Backpressure.DROP_OLDEST, recentOrders::accept);
+        ((DefaultOrderService)orderService).setOrderEvents(orderEvents);
+        engagementService = new EngagementService(new EngagementDaoJdbc());
+        cartService = new CartService(new CartStore(16, 100_000, 2, TimeUnit.HOURS), bookDaoJdbc,
+                orderService);
+    }
+
+    /**
+     * Stops background work and hands back anything held in memory that
+     * belongs in the database.
+     */
+    public void shutdown() {
+        CatalogVersion.stopPolling();
+        orderEvents.shutdown(5, TimeUnit.SECONDS);
+        recentOrders.shutdown();
+        inventoryService.shutdown();
+        engagementService.shutdown();
+        JdbcUtils.shutdown();
     }
 
     public CategoryDao getCategoryDao() {
@@ -47,4 +116,22 @@ public class ApplicationContext {
 
     public OrderService getOrderService() { return orderService; }
 
+    public RingBuffer<OrderPlaced> getOrderEvents() { return orderEvents; }
+
+    public OrderEventWindow getRecentOrders() { return recentOrders; }
+
+    public OrderDao getOrderDao() { return orderDao; }
+
+    public EngagementService getEngagementService() { return engagementService; }
+
+    public CartService getCartService() { return cartService; }
+
+    public CatalogSnapshotStore getCatalogSnapshotStore() { return catalogSnapshotStore; }
+
+    public CatalogImporter getCatalogImporter() { return catalogImporter; }
+
+    public List<SingleFlight.Snapshot> getReadCoalescing() {
+        return List.of(categoryReads.snapshot(), bookReads.snapshot());
+    }
+
 }
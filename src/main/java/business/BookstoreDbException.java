@@ -16,6 +16,54 @@ public class BookstoreDbException extends RuntimeException {
         }
     }
 
+    /**
+     * The database is not being tried at all, because it is known to be
+     * failing or because too much work is already waiting on it.
+     */
+    public static class BookstoreUnavailableDbException extends BookstoreDbException {
+        public BookstoreUnavailableDbException(String message) {
+            super(message);
+        }
+
+        public BookstoreUnavailableDbException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Low-priority work turned away by the {@link ConnectionScheduler}
+     * because too many requests are already waiting for a connection.
+     */
+    public static class BookstoreShedDbException extends BookstoreUnavailableDbException {
+        public BookstoreShedDbException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * No connection came free in time because the ones there are are all in
+     * use: the database is busy rather than failing.
+     */
+    public static class BookstoreQueueTimeoutDbException extends BookstoreUnavailableDbException {
+        public BookstoreQueueTimeoutDbException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The current request's {@link Deadline} passed before the database
+     * work could be done.
+     */
+    public static class BookstoreTimeoutDbException extends BookstoreDbException {
+        public BookstoreTimeoutDbException(String message) {
+            super(message);
+        }
+
+        public BookstoreTimeoutDbException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
     public static class BookstoreQueryDbException extends BookstoreDbException {
         public BookstoreQueryDbException(String message) {
             super(message);
@@ -35,4 +83,15 @@ public class BookstoreDbException extends RuntimeException {
             super(message, cause);
         }
     }
+
+    /**
+     * The connection failed while the database was committing, so the work
+     * may or may not have been kept; unlike other failures it must not
+     * simply be run again.
+     */
+    public static class BookstoreCommitUnknownDbException extends BookstoreDbException {
+        public BookstoreCommitUnknownDbException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package business;
+
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many calls of one kind may use the database at the same time,
+ * so one kind of traffic cannot take every pooled connection.
+ */
+public class Bulkhead {
+
+    public record Snapshot(String name, int maxConcurrentCalls, int availablePermits, long rejectedCalls) {
+    }
+
+    /**
+     * A semaphore whose permits can be taken away, even while they are held.
+     */
+    private static class Permits extends Semaphore {
+
+        Permits(int permits) {
+            super(permits, true);
+        }
+
+        void reduce(int reduction) {
+            reducePermits(reduction);
+        }
+    }
+
+    private final String name;
+    private int maxConcurrentCalls;
+    private final long maxWaitMillis;
+    private final Permits permits;
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Permits(maxConcurrentCalls);
+    }
+
+    /**
+     * Waits up to the configured time, or until the request's
+     * {@link Deadline}, for a permit; the caller must {@link #release} it
+     * when done.
+     */
+    public void acquire() {
+        acquire(maxWaitMillis);
+    }
+
+    /**
+     * As {@link #acquire()}, waiting up to {@code maxWaitMillis} instead of
+     * the configured time.
+     */
+    public void acquire(long maxWaitMillis) {
+        Deadline.check(name + " call");
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(Deadline.capMillis(maxWaitMillis), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedCalls.incrementAndGet();
+            Deadline.check(name + " call");
+            throw new BookstoreUnavailableDbException("Too many concurrent " + name + " calls");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * Changes how many calls may run at once. When it shrinks below what
+     * is running, no permit is handed out until enough are returned.
+     */
+    public synchronized void resize(int newMaxConcurrentCalls) {
+        int change = newMaxConcurrentCalls - maxConcurrentCalls;
+        if (change > 0) {
+            permits.release(change);
+        } else if (change < 0) {
+            permits.reduce(-change);
+        }
+        maxConcurrentCalls = newMaxConcurrentCalls;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, maxConcurrentCalls, permits.availablePermits(), rejectedCalls.get());
+    }
+}
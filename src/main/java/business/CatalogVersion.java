@@ -0,0 +1,148 @@
+package business;
+
+import business.BookstoreDbException.BookstoreQueryDbException;
+import business.BookstoreDbException.BookstoreUpdateDbException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Identifies the current state of the catalog (books and categories).
+ * Anything derived from catalog rows - cached responses, price tokens,
+ * carts, snapshots - records the version it was built from and is
+ * considered stale once the version moves on.
+ *
+ * The version is kept in the {@code catalog_version} table, so that every
+ * node, before and after a restart, means the same catalog by the same
+ * number. Whatever changes the catalog bumps it in the same transaction,
+ * except a catalog import, which bumps it once when it is done.
+ * Each node remembers the highest version it has seen, for
+ * {@link #current()}, and polls the table every second, so a change made
+ * through one node reaches the caches of the others within about a second.
+ * What must not act on a stale catalog at all, such as checkout trusting
+ * a price token, reads the table itself ({@link #read()}).
+ * Until the table has been read the version is 0, which nothing read from
+ * the database is labelled with.
+ */
+public class CatalogVersion {
+
+    private static final Logger logger = Logger.getLogger(CatalogVersion.class.getName());
+
+    private static final long POLL_INTERVAL_MILLIS = 1000;
+
+    private static final String BUMP_SQL =
+            "UPDATE catalog_version SET version = LAST_INSERT_ID(version + 1) WHERE id = 1";
+
+    private static final String LAST_VERSION_SQL = "SELECT LAST_INSERT_ID()";
+
+    private static final String READ_SQL = "SELECT version FROM catalog_version WHERE id = 1";
+
+    private static final AtomicLong version = new AtomicLong();
+
+    private static ScheduledExecutorService poller;
+
+    public static long current() {
+        return version.get();
+    }
+
+    /**
+     * Bumps the version as part of the transaction open on
+     * {@code connection}, which must be the one changing the catalog, and
+     * returns the new version. Once the transaction has committed, pass it
+     * to {@link #advanceTo} so this node moves on without waiting for the
+     * next poll.
+     */
+    public static long bump(Connection connection) {
+        try (PreparedStatement bump = connection.prepareStatement(BUMP_SQL);
+             PreparedStatement last = connection.prepareStatement(LAST_VERSION_SQL)) {
+            if (bump.executeUpdate() != 1) {
+                throw new BookstoreUpdateDbException("The catalog_version table has no row");
+            }
+            try (ResultSet resultSet = last.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem bumping the catalog version", e);
+        }
+    }
+
+    /**
+     * Reads the version from the database on the current
+     * {@link UnitOfWork}'s connection, or on a read connection of its own
+     * outside one; see {@link #read(Connection)}.
+     */
+    public static long read() {
+        try (Connection connection = JdbcUtils.getReadConnection()) {
+            return read(connection);
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered problem closing connection after reading the catalog version", e);
+        }
+    }
+
+    /**
+     * Reads the version from the database on {@code connection}, moving
+     * this node on to it if it is newer, and returns it.
+     */
+    public static long read(Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement(READ_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new BookstoreQueryDbException("The catalog_version table has no row");
+            }
+            long read = resultSet.getLong(1);
+            advanceTo(read);
+            return read;
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered problem reading the catalog version", e);
+        }
+    }
+
+    /**
+     * Records that the catalog has reached {@code seen}; the version never
+     * goes back.
+     */
+    public static void advanceTo(long seen) {
+        version.accumulateAndGet(seen, Math::max);
+    }
+
+    /**
+     * Starts reading the version from the database every second, the first
+     * time right away.
+     */
+    public static synchronized void startPolling() {
+        if (poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-version-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(CatalogVersion::poll, 0, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stopPolling() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private static void poll() {
+        // a replica's version goes with the catalog rows that replica serves
+        try {
+            read();
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, e, () -> "Failed to poll the catalog version");
+        }
+    }
+}
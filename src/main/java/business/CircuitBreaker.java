@@ -0,0 +1,180 @@
+package business;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A count-based circuit breaker.
+ *
+ * While CLOSED the outcomes of the last {@code windowSize} calls are
+ * recorded; once at least {@code minimumCalls} have been seen and either
+ * the failure rate or the slow-call rate crosses its threshold the breaker
+ * trips to OPEN and calls are refused without being attempted. After
+ * {@code openDuration} the breaker lets a few trial calls through
+ * (HALF_OPEN): if they all succeed it closes again, any failure re-opens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public record Snapshot(String name, State state, float failureRate, float slowCallRate,
+                           int bufferedCalls, long notPermittedCalls) {
+    }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final byte[] outcomes;
+    private int next;
+    private int buffered;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermitted;
+    private int halfOpenSucceeded;
+    private long notPermittedCalls;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls,
+                          float failureRateThreshold, float slowCallRateThreshold,
+                          long slowCallMillis, long openMillis, int halfOpenCalls) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = halfOpenCalls;
+        this.outcomes = new byte[windowSize];
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) {
+                notPermittedCalls++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermitted = 0;
+            halfOpenSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitted >= halfOpenCalls) {
+                notPermittedCalls++;
+                return false;
+            }
+            halfOpenPermitted++;
+        }
+        return true;
+    }
+
+    /**
+     * True while the breaker is refusing calls outright. Unlike
+     * {@link #tryAcquirePermission} this does not use up a trial call.
+     */
+    public synchronized boolean isRefusingCalls() {
+        return state == State.OPEN && System.nanoTime() - openedAtNanos < openNanos;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        byte outcome = durationNanos >= slowCallNanos ? SLOW : SUCCESS;
+        if (state == State.HALF_OPEN) {
+            if (outcome == SLOW) {
+                open();
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(outcome);
+    }
+
+    /**
+     * The call never reached the database, so it says nothing about its
+     * health: no outcome is recorded, and a trial call is given back.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermitted > 0) {
+            halfOpenPermitted--;
+        }
+    }
+
+    public synchronized void onFailure(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(FAILURE);
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, state, failureRate(), slowCallRate(), buffered, notPermittedCalls);
+    }
+
+    private void record(byte outcome) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (buffered == windowSize) {
+            forget(outcomes[next]);
+        } else {
+            buffered++;
+        }
+        outcomes[next] = outcome;
+        if (outcome == FAILURE) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+        next = (next + 1) % windowSize;
+
+        if (buffered >= minimumCalls
+                && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILURE) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    private float failureRate() {
+        return buffered == 0 ? 0 : (float) failures / buffered;
+    }
+
+    private float slowCallRate() {
+        return buffered == 0 ? 0 : (float) slowCalls / buffered;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        buffered = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
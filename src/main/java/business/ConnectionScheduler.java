@@ -0,0 +1,326 @@
+package business;
+
+import business.BookstoreDbException.BookstoreQueueTimeoutDbException;
+import business.BookstoreDbException.BookstoreShedDbException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Decides which waiting request gets the next primary connection, so that
+ * when the pool is saturated checkout is not stuck in line behind browsing.
+ *
+ * Callers queue by {@link Priority}. A freed connection goes to the class
+ * chosen by weighted fair queuing on virtual finish times: each class gets
+ * connections in proportion to its weight while it has waiters, and a
+ * class that was idle does not build up credit. A waiter that has been
+ * queued longer than the aging limit is served first whatever its class,
+ * so catalog reads slow down under checkout load but never starve.
+ *
+ * Catalog reads are shed when the queue is deep: a new one is refused
+ * outright, and a queued one gives up its place when a more important
+ * request arrives. Either way the caller fails fast with a
+ * {@link BookstoreShedDbException} instead of adding to the wait of
+ * everyone behind it.
+ */
+public class ConnectionScheduler {
+
+    public enum Priority {
+        CHECKOUT(8), ORDER_VIEW(4), CATALOG(1);
+
+        private final int weight;
+
+        Priority(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    public record ClassSnapshot(int queued, long granted, long waited, long shed, long timedOut,
+                                long agedGrants, double meanWaitMillis, long maxWaitMillis) {
+    }
+
+    public record Snapshot(String name, int permits, int available, Map<Priority, ClassSnapshot> classes) {
+    }
+
+    /**
+     * Each grant advances a class's virtual time by STRIDE / weight.
+     */
+    private static final long STRIDE = 1 << 20;
+
+    private static final ThreadLocal<Priority> currentPriority = new ThreadLocal<>();
+
+    private final String name;
+    private int permits;
+    private final int shedQueueDepth;
+    private final long agingNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final long[] pass = new long[Priority.values().length];
+    private final Map<Priority, Stats> stats = new EnumMap<>(Priority.class);
+    private int available;
+    private int queued;
+    private long virtualTime;
+
+    private static class Waiter {
+        final Priority priority;
+        final long enqueuedNanos;
+        final Condition ready;
+        boolean granted;
+        boolean shed;
+
+        Waiter(Priority priority, long enqueuedNanos, Condition ready) {
+            this.priority = priority;
+            this.enqueuedNanos = enqueuedNanos;
+            this.ready = ready;
+        }
+    }
+
+    private static class Stats {
+        long granted;
+        long waited;
+        long shed;
+        long timedOut;
+        long agedGrants;
+        long totalWaitNanos;
+        long maxWaitNanos;
+    }
+
+    public ConnectionScheduler(String name, int permits, int shedQueueDepth, long agingMillis) {
+        this.name = name;
+        this.permits = permits;
+        this.available = permits;
+        this.shedQueueDepth = shedQueueDepth;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            stats.put(priority, new Stats());
+        }
+    }
+
+    /**
+     * Runs {@code work} with the given priority for the connections it
+     * takes. An enclosing priority wins, so that, for example, the order
+     * lookup that ends a checkout is still scheduled as checkout.
+     */
+    public static <T> T withPriority(Priority priority, Supplier<T> work) {
+        if (currentPriority.get() != null) {
+            return work.get();
+        }
+        currentPriority.set(priority);
+        try {
+            return work.get();
+        } finally {
+            currentPriority.remove();
+        }
+    }
+
+    /**
+     * The current thread's priority; work that did not declare one (such
+     * as background refreshes) is treated as an order view, which is never
+     * shed.
+     */
+    public static Priority currentPriority() {
+        Priority priority = currentPriority.get();
+        return priority != null ? priority : Priority.ORDER_VIEW;
+    }
+
+    /**
+     * Waits for a connection permit for up to {@code maxWaitMillis}, or
+     * until the request's {@link Deadline}; the caller must
+     * {@link #release} it when done with the connection.
+     */
+    public void acquire(Priority priority, long maxWaitMillis) {
+        long waitNanos = TimeUnit.MILLISECONDS.toNanos(Deadline.capMillis(maxWaitMillis));
+        lock.lock();
+        try {
+            Stats classStats = stats.get(priority);
+            if (available > 0 && queued == 0) {
+                available--;
+                classStats.granted++;
+                return;
+            }
+            if (priority == Priority.CATALOG && queued >= shedQueueDepth) {
+                classStats.shed++;
+                throw new BookstoreShedDbException("Catalog read shed: " + queued + " requests waiting for " + name);
+            }
+
+            Waiter waiter = new Waiter(priority, System.nanoTime(), lock.newCondition());
+            enqueue(waiter);
+            if (queued > shedQueueDepth && priority != Priority.CATALOG) {
+                shedNewestCatalogWaiter();
+            }
+            try {
+                while (!waiter.granted && !waiter.shed && waitNanos > 0) {
+                    waitNanos = waiter.ready.awaitNanos(waitNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (waiter.granted) {
+                return;
+            }
+            if (!waiter.shed) {
+                remove(waiter);
+                classStats.timedOut++;
+                Deadline.check("Database connection");
+                throw new BookstoreQueueTimeoutDbException("Timed out waiting for a " + name + " connection");
+            }
+            throw new BookstoreShedDbException("Catalog read shed to make room for more important work");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            available++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Follows the size of the pool behind the scheduler. When it shrinks
+     * below what is in use, no permit is handed out until enough are
+     * returned.
+     */
+    public void setPermits(int newPermits) {
+        lock.lock();
+        try {
+            available += newPermits - permits;
+            permits = newPermits;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wraps a connection taken under a permit so that closing it hands the
+     * permit back (once, however often it is closed).
+     */
+    public Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    boolean closing = method.getName().equals("close") && method.getParameterCount() == 0;
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (closing && released.compareAndSet(false, true)) {
+                            release();
+                        }
+                    }
+                });
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            Map<Priority, ClassSnapshot> classes = new EnumMap<>(Priority.class);
+            stats.forEach((priority, s) -> classes.put(priority, new ClassSnapshot(queues.get(priority).size(),
+                    s.granted, s.waited, s.shed, s.timedOut, s.agedGrants,
+                    s.waited == 0 ? 0 : s.totalWaitNanos / 1e6 / s.waited, TimeUnit.NANOSECONDS.toMillis(s.maxWaitNanos))));
+            return new Snapshot(name, permits, available, classes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The virtual time at which the class's next grant would complete; the
+     * lowest goes first.
+     */
+    private long finish(Priority priority) {
+        return pass[priority.ordinal()] + STRIDE / priority.weight;
+    }
+
+    private void enqueue(Waiter waiter) {
+        ArrayDeque<Waiter> queue = queues.get(waiter.priority);
+        if (queue.isEmpty()) {
+            // a class coming back from idle starts level with the others
+            pass[waiter.priority.ordinal()] = Math.max(pass[waiter.priority.ordinal()], virtualTime);
+        }
+        queue.addLast(waiter);
+        queued++;
+    }
+
+    private void remove(Waiter waiter) {
+        if (queues.get(waiter.priority).remove(waiter)) {
+            queued--;
+        }
+    }
+
+    private void shedNewestCatalogWaiter() {
+        Iterator<Waiter> newestFirst = queues.get(Priority.CATALOG).descendingIterator();
+        if (newestFirst.hasNext()) {
+            Waiter victim = newestFirst.next();
+            newestFirst.remove();
+            queued--;
+            victim.shed = true;
+            stats.get(Priority.CATALOG).shed++;
+            victim.ready.signal();
+        }
+    }
+
+    /**
+     * Hands free permits to waiters: first any waiter past the aging
+     * limit, oldest first, then the class that would finish its next
+     * grant soonest in virtual time.
+     */
+    private void dispatch() {
+        long now = System.nanoTime();
+        while (available > 0 && queued > 0) {
+            Priority chosen = null;
+            Waiter oldest = null;
+            for (Map.Entry<Priority, ArrayDeque<Waiter>> entry : queues.entrySet()) {
+                Waiter head = entry.getValue().peekFirst();
+                if (head != null && now - head.enqueuedNanos >= agingNanos
+                        && (oldest == null || head.enqueuedNanos - oldest.enqueuedNanos < 0)) {
+                    oldest = head;
+                    chosen = entry.getKey();
+                }
+            }
+            boolean aged = chosen != null;
+            if (!aged) {
+                for (Map.Entry<Priority, ArrayDeque<Waiter>> entry : queues.entrySet()) {
+                    if (!entry.getValue().isEmpty() && (chosen == null || finish(entry.getKey()) < finish(chosen))) {
+                        chosen = entry.getKey();
+                    }
+                }
+            }
+
+            Waiter waiter = queues.get(chosen).pollFirst();
+            queued--;
+            available--;
+            virtualTime = pass[chosen.ordinal()];
+            pass[chosen.ordinal()] += STRIDE / chosen.weight;
+
+            Stats classStats = stats.get(chosen);
+            classStats.granted++;
+            classStats.waited++;
+            classStats.totalWaitNanos += now - waiter.enqueuedNanos;
+            classStats.maxWaitNanos = Math.max(classStats.maxWaitNanos, now - waiter.enqueuedNanos);
+            if (aged) {
+                classStats.agedGrants++;
+            }
+            waiter.granted = true;
+            waiter.ready.signal();
+        }
+    }
+}
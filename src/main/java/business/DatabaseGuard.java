@@ -0,0 +1,159 @@
+package business;
+
+import business.BookstoreDbException.BookstoreQueueTimeoutDbException;
+import business.BookstoreDbException.BookstoreShedDbException;
+import business.BookstoreDbException.BookstoreTimeoutDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Guards database work with a circuit breaker and per-workload bulkheads.
+ *
+ * Catalog reads and checkout writes each get their own bulkhead, and the
+ * two together hold no more permits than the pool has connections, half
+ * each: browsing can never hold every connection, and whatever checkout
+ * holds it got without waiting on the pool. The pool is the container's
+ * (maxTotal=4) unless the application manages it, in which case the
+ * bulkheads are re-sized whenever its target size changes
+ * (see {@link #poolResized}). Bulk work
+ * runs one call at a time and takes its permit out of checkout's share
+ * rather than adding a third one. When connections run short anyway,
+ * checkout is served first (see {@link ConnectionScheduler}). All share one
+ * circuit breaker: when the database is failing or slow, calls fail
+ * immediately instead of each waiting out the pool timeout.
+ *
+ * Only {@link BookstoreDbException}s count as failures; validation errors
+ * say nothing about the health of the database, and neither does a request
+ * running out its own {@link Deadline} or being shed to make room for
+ * checkout.
+ */
+public class DatabaseGuard {
+
+    private static final CircuitBreaker breaker = new CircuitBreaker("database",
+            50, 10, 0.5f, 0.8f, 2_000, 10_000, 3);
+
+    /**
+     * The container pool's maxTotal, until a managed pool says otherwise.
+     */
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    private static final Bulkhead catalogBulkhead = new Bulkhead("catalog", catalogShare(DEFAULT_POOL_SIZE), 250);
+
+    private static final Bulkhead checkoutBulkhead = new Bulkhead("checkout",
+            DEFAULT_POOL_SIZE - catalogShare(DEFAULT_POOL_SIZE), 2_000);
+
+    /**
+     * Lets one bulk call at a time on to the checkout bulkhead.
+     */
+    private static final Bulkhead bulkBulkhead = new Bulkhead("bulk", 1, 10_000);
+
+    private static final long BULK_MAX_WAIT_MILLIS = 10_000;
+
+    public static <T> T catalog(Supplier<T> call) {
+        return guard(catalogBulkhead, ConnectionScheduler.Priority.CATALOG, call);
+    }
+
+    public static <T> T checkout(Supplier<T> call) {
+        return guard(checkoutBulkhead, ConnectionScheduler.Priority.CHECKOUT, call);
+    }
+
+    /**
+     * Bulk imports run one batch at a time, behind checkout in the
+     * connection queue but never shed.
+     */
+    public static <T> T bulk(Supplier<T> call) {
+        bulkBulkhead.acquire();
+        try {
+            return guard(checkoutBulkhead, BULK_MAX_WAIT_MILLIS, ConnectionScheduler.Priority.ORDER_VIEW, call);
+        } finally {
+            bulkBulkhead.release();
+        }
+    }
+
+    /**
+     * Splits a primary pool of {@code poolSize} connections between the
+     * catalog and checkout bulkheads; each keeps at least one permit, so a
+     * pool of one is shared, with the {@link ConnectionScheduler} deciding
+     * who goes first.
+     */
+    static synchronized void poolResized(int poolSize) {
+        int catalog = catalogShare(poolSize);
+        catalogBulkhead.resize(catalog);
+        checkoutBulkhead.resize(Math.max(1, poolSize - catalog));
+    }
+
+    private static int catalogShare(int poolSize) {
+        return Math.max(1, poolSize / 2);
+    }
+
+    /**
+     * Fails fast when the breaker is open; called on every connection
+     * acquisition, guarded or not.
+     */
+    static void checkConnectionPermitted() {
+        if (breaker.isRefusingCalls()) {
+            throw new BookstoreUnavailableDbException("Database circuit breaker is open");
+        }
+    }
+
+    public static CircuitBreaker.Snapshot breakerSnapshot() {
+        return breaker.snapshot();
+    }
+
+    public static List<Bulkhead.Snapshot> bulkheadSnapshots() {
+        return List.of(catalogBulkhead.snapshot(), checkoutBulkhead.snapshot(), bulkBulkhead.snapshot());
+    }
+
+    private static <T> T guard(Bulkhead bulkhead, ConnectionScheduler.Priority priority, Supplier<T> call) {
+        bulkhead.acquire();
+        return guarded(bulkhead, priority, call);
+    }
+
+    private static <T> T guard(Bulkhead bulkhead, long maxWaitMillis, ConnectionScheduler.Priority priority,
+                               Supplier<T> call) {
+        bulkhead.acquire(maxWaitMillis);
+        return guarded(bulkhead, priority, call);
+    }
+
+    /**
+     * Runs {@code call} under a permit already taken from {@code bulkhead},
+     * which is released when it returns.
+     */
+    private static <T> T guarded(Bulkhead bulkhead, ConnectionScheduler.Priority priority, Supplier<T> call) {
+        try {
+            if (!breaker.tryAcquirePermission()) {
+                throw new BookstoreUnavailableDbException("Database circuit breaker is open");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = ConnectionScheduler.withPriority(priority, call);
+                breaker.onSuccess(System.nanoTime() - start);
+                return result;
+            } catch (BookstoreShedDbException | BookstoreQueueTimeoutDbException e) {
+                // Never got a connection: the pool is busy, which says nothing of the database
+                breaker.onIgnored();
+                throw e;
+            } catch (BookstoreTimeoutDbException e) {
+                // Nothing failed; how slow the call was is still recorded
+                breaker.onSuccess(System.nanoTime() - start);
+                throw e;
+            } catch (BookstoreDbException e) {
+                if (Deadline.isExceeded(e)) {
+                    // A statement cancelled by the request's own deadline, however it was wrapped
+                    breaker.onSuccess(System.nanoTime() - start);
+                } else {
+                    breaker.onFailure(System.nanoTime() - start);
+                }
+                throw e;
+            } catch (RuntimeException | Error e) {
+                // Not a database problem, but the permission must still be returned
+                breaker.onSuccess(System.nanoTime() - start);
+                throw e;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
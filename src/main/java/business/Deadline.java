@@ -0,0 +1,141 @@
+package business;
+
+import business.BookstoreDbException.BookstoreTimeoutDbException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The time by which the current request must be finished, bound to the
+ * thread handling it.
+ *
+ * Every wait on the way to the database is capped by what is left of it:
+ * bulkhead permits, pool acquisition, transaction retries, and each
+ * statement, which gets the remaining time as its query timeout so the
+ * driver cancels it on the server once the deadline passes. Work that
+ * cannot finish in time fails with a {@link BookstoreTimeoutDbException}
+ * instead of holding a connection for a client that has stopped waiting.
+ *
+ * Threads without a deadline (listeners, background refreshes) wait as
+ * long as they always did.
+ */
+public class Deadline {
+
+    private static final Logger logger = Logger.getLogger(Deadline.class.getName());
+
+    private static final ThreadLocal<Long> deadlineNanos = new ThreadLocal<>();
+
+    /**
+     * Sets the current thread's deadline {@code timeout} from now; the
+     * caller must {@link #clear} it when the request is done.
+     */
+    public static void start(long timeout, TimeUnit unit) {
+        deadlineNanos.set(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public static void clear() {
+        deadlineNanos.remove();
+    }
+
+    public static boolean isSet() {
+        return deadlineNanos.get() != null;
+    }
+
+    /**
+     * Nanoseconds left until the deadline, zero once it has passed, and
+     * {@link Long#MAX_VALUE} when there is no deadline.
+     */
+    public static long remainingNanos() {
+        Long deadline = deadlineNanos.get();
+        return deadline == null ? Long.MAX_VALUE : Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * The shorter of {@code maxWaitMillis} and the time left.
+     */
+    public static long capMillis(long maxWaitMillis) {
+        return Math.min(maxWaitMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos()));
+    }
+
+    /**
+     * Throws if the deadline has passed; {@code operation} says what could
+     * not be started.
+     */
+    public static void check(String operation) {
+        if (remainingNanos() == 0) {
+            throw new BookstoreTimeoutDbException(operation + " was not started: the request deadline has passed");
+        }
+    }
+
+    /**
+     * Whether {@code failure} was caused by running out of time, either
+     * here or by the driver cancelling a statement.
+     */
+    public static boolean isExceeded(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof BookstoreTimeoutDbException || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes the statements created on {@code connection} carry the
+     * remaining time as their query timeout. A connection that only became
+     * available after the deadline is handed straight back to the pool.
+     */
+    static Connection bind(Connection connection) {
+        if (!isSet()) {
+            return connection;
+        }
+        if (remainingNanos() == 0) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, e, () -> "Failed to return a connection acquired past the deadline");
+            }
+            throw new BookstoreTimeoutDbException("Request deadline passed while waiting for a database connection");
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement statement) {
+                        try {
+                            statement.setQueryTimeout(queryTimeoutSeconds());
+                        } catch (SQLException e) {
+                            statement.close();
+                            throw e;
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * The remaining time in whole seconds, rounded up since JDBC query
+     * timeouts have no finer unit; zero (no timeout) without a deadline.
+     */
+    private static int queryTimeoutSeconds() throws SQLTimeoutException {
+        long remaining = remainingNanos();
+        if (remaining == Long.MAX_VALUE) {
+            return 0;
+        }
+        if (remaining == 0) {
+            throw new SQLTimeoutException("The request deadline has passed");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
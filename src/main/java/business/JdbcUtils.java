@@ -4,26 +4,259 @@ import business.BookstoreDbException.BookstoreConnectionDbException;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
+import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class JdbcUtils {
 
     private static final String JDBC_BOOKSTORE = "jdbc/FrancisBookstore";
 
-    private static DataSource dataSource;
+    /**
+     * Optional comma-separated JNDI names of read replica DataSources.
+     */
+    private static final String REPLICA_DATA_SOURCES = "bookstore/replicaDataSources";
 
+    /**
+     * How long after a write the same thread keeps reading from the
+     * primary, so it sees its own writes despite replication lag.
+     */
+    private static final long READ_YOUR_WRITES_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Optional JNDI name of an unpooled primary DataSource; when set, the
+     * application pools its connections itself (see
+     * {@link ManagedConnectionPool}) instead of using {@link #JDBC_BOOKSTORE}.
+     */
+    private static final String MANAGED_POOL_DATA_SOURCE = "bookstore/managedPoolDataSource";
+
+    private static final String MANAGED_POOL_MIN_SIZE = "bookstore/managedPoolMinSize";
+
+    private static final String MANAGED_POOL_MAX_SIZE = "bookstore/managedPoolMaxSize";
+
+    /**
+     * As many permits as the primary pool has connections (maxTotal in
+     * context.xml, or the managed pool's current size), so the pool itself
+     * never makes anyone wait; queueing happens in the scheduler, by
+     * priority, instead of in the pool's FIFO.
+     */
+    private static final ConnectionScheduler primaryScheduler = new ConnectionScheduler("primary", 4, 8, 500);
+
+    /**
+     * The primary pool's maxWaitMillis.
+     */
+    private static final long PRIMARY_MAX_WAIT_MILLIS = 10_000;
+
+    private static final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+
+    private static volatile DataSource dataSource;
+
+    private static volatile ManagedConnectionPool managedPool;
+
+    private static volatile boolean primaryResolved;
+
+    private static volatile ReplicaRouter replicaRouter;
+
+    /**
+     * Returns a connection to the primary database. Use this for writes
+     * and for anything that must see the latest committed data.
+     *
+     * Under a request {@link Deadline}, statements on the connection time
+     * out when the deadline passes. When every primary connection is in
+     * use, waiters are served by the {@link ConnectionScheduler} in order
+     * of the {@link ConnectionScheduler.Priority} of their work.
+     */
     public static Connection getConnection() {
-        if (dataSource == null) {
-            dataSource = getDataSource(JDBC_BOOKSTORE);
-        }
+        DatabaseGuard.checkConnectionPermitted();
+        Deadline.check("Database connection");
+        primaryScheduler.acquire(ConnectionScheduler.currentPriority(), PRIMARY_MAX_WAIT_MILLIS);
+        Connection connection;
         try {
-            return dataSource.getConnection();
-        } catch (SQLException e) {
+            connection = openPrimaryConnection();
+        } catch (SQLException | RuntimeException e) {
+            primaryScheduler.release();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
             throw new BookstoreConnectionDbException("Encountered a SQL issue getting a connection", e);
         }
+        return Deadline.bind(primaryScheduler.releasingOnClose(connection));
+    }
+
+    /**
+     * Returns a connection for read-only queries: the current
+     * {@link UnitOfWork}'s connection if there is one, otherwise a healthy
+     * read replica when one is configured, otherwise the primary. A thread
+     * that has just written is kept on the primary (see {@link #markWrite()}).
+     */
+    public static Connection getReadConnection() {
+        Connection shared = UnitOfWork.sharedConnection(false);
+        return shared != null ? shared : openReadConnection();
+    }
+
+    /**
+     * Returns the connection for a transaction: that of the current
+     * {@link UnitOfWork} when it is on the primary, otherwise a new
+     * primary connection.
+     */
+    public static Connection getWriteConnection() {
+        Connection shared = UnitOfWork.sharedConnection(true);
+        return shared != null ? shared : getConnection();
+    }
+
+    static Connection openReadConnection() {
+        DatabaseGuard.checkConnectionPermitted();
+        Deadline.check("Database connection");
+        if (!hasRecentWrite()) {
+            Connection connection = getReplicaRouter().getConnection();
+            if (connection != null) {
+                return Deadline.bind(connection);
+            }
+        }
+        return getConnection();
+    }
+
+    /**
+     * Looks up the primary and replica DataSources now rather than on the
+     * first request that needs them.
+     */
+    public static void initialize() {
+        resolvePrimary();
+        getReplicaRouter();
+    }
+
+    /**
+     * Opens {@code count} primary connections at once and hands them back,
+     * leaving them idle in the pool for the first requests to use.
+     */
+    public static void openConnections(int count) {
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                connections.add(getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // the pool discards a connection it cannot take back
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that the current thread has just committed a write.
+     */
+    public static void markWrite() {
+        lastWriteNanos.set(System.nanoTime());
+    }
+
+    /**
+     * Whether the current thread wrote recently enough that its reads are
+     * still kept on the primary.
+     */
+    public static boolean hasRecentWrite() {
+        Long lastWrite = lastWriteNanos.get();
+        return lastWrite != null && System.nanoTime() - lastWrite <= READ_YOUR_WRITES_NANOS;
+    }
+
+    /**
+     * Closes the managed pool's connections, if the application manages
+     * the pool.
+     */
+    public static void shutdown() {
+        ManagedConnectionPool pool = managedPool;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The managed pool's size, utilization and wait times; null when the
+     * container's pool is in use.
+     */
+    public static ManagedConnectionPool.Snapshot primaryPoolSnapshot() {
+        ManagedConnectionPool pool = managedPool;
+        return pool != null ? pool.snapshot() : null;
+    }
+
+    public static ConnectionScheduler.Snapshot primarySchedulerSnapshot() {
+        return primaryScheduler.snapshot();
+    }
+
+    public static List<ReplicaRouter.ReplicaHealth> replicaHealth() {
+        return getReplicaRouter().health();
+    }
+
+    /**
+     * Whatever gates the primary pool follows its size.
+     */
+    private static void primaryPoolResized(int size) {
+        primaryScheduler.setPermits(size);
+        DatabaseGuard.poolResized(size);
+    }
+
+    private static Connection openPrimaryConnection() throws SQLException {
+        resolvePrimary();
+        ManagedConnectionPool pool = managedPool;
+        return pool != null ? pool.getConnection() : dataSource.getConnection();
+    }
+
+    private static void resolvePrimary() {
+        if (primaryResolved) {
+            return;
+        }
+        synchronized (JdbcUtils.class) {
+            if (primaryResolved) {
+                return;
+            }
+            String physical = getEnvironmentEntry(MANAGED_POOL_DATA_SOURCE);
+            if (physical != null && !physical.isBlank()) {
+                managedPool = new ManagedConnectionPool(getDataSource(physical.trim()),
+                        getIntEnvironmentEntry(MANAGED_POOL_MIN_SIZE, 2),
+                        getIntEnvironmentEntry(MANAGED_POOL_MAX_SIZE, 4),
+                        PRIMARY_MAX_WAIT_MILLIS, JdbcUtils::primaryPoolResized);
+            } else {
+                dataSource = getDataSource(JDBC_BOOKSTORE);
+            }
+            primaryResolved = true;
+        }
+    }
+
+    private static ReplicaRouter getReplicaRouter() {
+        ReplicaRouter router = replicaRouter;
+        if (router == null) {
+            synchronized (JdbcUtils.class) {
+                router = replicaRouter;
+                if (router == null) {
+                    router = createReplicaRouter();
+                    replicaRouter = router;
+                }
+            }
+        }
+        return router;
+    }
+
+    private static ReplicaRouter createReplicaRouter() {
+        List<String> names = new ArrayList<>();
+        List<DataSource> dataSources = new ArrayList<>();
+        String configured = getEnvironmentEntry(REPLICA_DATA_SOURCES);
+        if (configured != null) {
+            for (String name : configured.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                    dataSources.add(getDataSource(name.trim()));
+                }
+            }
+        }
+        return new ReplicaRouter(names, dataSources);
     }
 
     private static DataSource getDataSource(String dataSourceName) {
@@ -35,4 +268,28 @@ public class JdbcUtils {
             throw new IllegalArgumentException("Encountered an issue establishing an initial JNDI context", e);
         }
     }
+
+    private static int getIntEnvironmentEntry(String name, int defaultValue) {
+        String value = getEnvironmentEntry(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Environment entry " + name + " is not a number: " + value, e);
+        }
+    }
+
+    static String getEnvironmentEntry(String name) {
+        try {
+            InitialContext initialContext = new InitialContext();
+            Context context = (Context) initialContext.lookup("java:comp/env");
+            return (String) context.lookup(name);
+        } catch (NameNotFoundException e) {
+            return null;
+        } catch (NamingException e) {
+            throw new IllegalArgumentException("Encountered an issue establishing an initial JNDI context", e);
+        }
+    }
 }
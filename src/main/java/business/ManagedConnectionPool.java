@@ -0,0 +1,415 @@
+package business;
+
+import business.BookstoreDbException.BookstoreConnectionDbException;
+import business.BookstoreDbException.BookstoreQueueTimeoutDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A connection pool run by the application rather than the container, so
+ * that its size can follow the traffic instead of being fixed in
+ * context.xml.
+ *
+ * Physical connections come from an unpooled {@link DataSource}. The pool
+ * never holds fewer than {@code minSize} open, idle or not, so requests
+ * after a quiet period do not pay for a new MySQL connection. Every sizing
+ * interval it applies Little's law to what it measured: connections in
+ * use on average = borrows per second x mean time each is held. The target
+ * size is that figure divided by the utilization it aims for, rounded up
+ * and kept within {@code minSize..maxSize}. Growth takes effect at once;
+ * shrinking closes at most one idle connection per interval, so a short
+ * lull does not throw away connections that will be needed again.
+ *
+ * Whoever gates access to the pool (the {@link ConnectionScheduler}) is
+ * told the new size, so that callers queue there by priority rather than
+ * in here.
+ */
+public class ManagedConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ManagedConnectionPool.class.getName());
+
+    private static final double TARGET_UTILIZATION = 0.75;
+
+    private static final long SIZING_INTERVAL_SECONDS = 5;
+
+    /**
+     * Idle connections older than this are checked before being handed out.
+     */
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    public record Snapshot(int minSize, int maxSize, int targetSize, int open, int inUse, int idle,
+                           double utilization, double borrowsPerSecond, double meanHoldMillis,
+                           double meanWaitMillis, long maxWaitMillis, long borrows, long timeouts,
+                           long opened, long closed) {
+    }
+
+    private record IdleConnection(Connection connection, long idleSinceNanos) {
+    }
+
+    private final DataSource physical;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+    private final IntConsumer sizeListener;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+    private int targetSize;
+    private int open;
+    private int opening;
+    private int inUse;
+    private boolean closed;
+
+    // measured since the last sizing
+    private long windowStartNanos = System.nanoTime();
+    private long windowBorrows;
+    private long windowReturns;
+    private long windowHoldNanos;
+    private double borrowsPerSecond;
+    private double meanHoldNanos;
+
+    private long borrows;
+    private long timeouts;
+    private long totalWaitNanos;
+    private long longestWaitNanos;
+    private long opened;
+    private long closedCount;
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-pool-sizer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ManagedConnectionPool(DataSource physical, int minSize, int maxSize, long maxWaitMillis,
+                                 IntConsumer sizeListener) {
+        this.physical = physical;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.sizeListener = sizeListener;
+        this.targetSize = minSize;
+        sizeListener.accept(minSize);
+        maintenance.scheduleWithFixedDelay(this::maintain,
+                SIZING_INTERVAL_SECONDS, SIZING_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Hands out an idle connection, or opens one if the pool is below its
+     * target size, waiting for one to be returned otherwise. Closing the
+     * returned connection gives it back to the pool.
+     */
+    public Connection getConnection() {
+        long start = System.nanoTime();
+        long waitNanos = Math.min(borrowTimeoutNanos, Deadline.remainingNanos());
+        boolean openNew = false;
+        IdleConnection reused = null;
+        lock.lock();
+        try {
+            while (reused == null && !openNew) {
+                if (closed) {
+                    throw new BookstoreUnavailableDbException("Connection pool is shut down");
+                }
+                if (!idle.isEmpty()) {
+                    reused = idle.pollLast();
+                } else if (open + opening < targetSize) {
+                    opening++;
+                    openNew = true;
+                } else if (waitNanos <= 0) {
+                    timeouts++;
+                    Deadline.check("Database connection");
+                    throw new BookstoreQueueTimeoutDbException("Timed out waiting for a pooled connection");
+                } else {
+                    waitNanos = returned.awaitNanos(waitNanos);
+                }
+            }
+            inUse++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookstoreUnavailableDbException("Interrupted while waiting for a pooled connection");
+        } finally {
+            lock.unlock();
+        }
+
+        Connection connection;
+        try {
+            connection = openNew ? openPhysical() : validated(reused);
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                inUse--;
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        recordBorrow(System.nanoTime() - start);
+        return lending(connection, System.nanoTime());
+    }
+
+    public void shutdown() {
+        maintenance.shutdownNow();
+        List<IdleConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            open -= toClose.size();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(idleConnection -> closePhysical(idleConnection.connection()));
+    }
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(minSize, maxSize, targetSize, open, inUse, idle.size(),
+                    open == 0 ? 0 : (double) inUse / open, borrowsPerSecond, meanHoldNanos / 1e6,
+                    borrows == 0 ? 0 : totalWaitNanos / 1e6 / borrows,
+                    TimeUnit.NANOSECONDS.toMillis(longestWaitNanos), borrows, timeouts, opened, closedCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Connection openPhysical() {
+        try {
+            Connection connection = physical.getConnection();
+            lock.lock();
+            try {
+                opening--;
+                open++;
+                opened++;
+            } finally {
+                lock.unlock();
+            }
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                opening--;
+            } finally {
+                lock.unlock();
+            }
+            throw new BookstoreConnectionDbException("Encountered a SQL issue opening a connection", e);
+        }
+    }
+
+    /**
+     * Checks a connection that has sat idle for a while, replacing it with
+     * a new one if the server has dropped it.
+     */
+    private Connection validated(IdleConnection idleConnection) {
+        Connection connection = idleConnection.connection();
+        if (System.nanoTime() - idleConnection.idleSinceNanos() < VALIDATE_AFTER_IDLE_NANOS) {
+            return connection;
+        }
+        boolean valid;
+        try {
+            valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            valid = false;
+        }
+        if (valid) {
+            return connection;
+        }
+        lock.lock();
+        try {
+            open--;
+            opening++;
+        } finally {
+            lock.unlock();
+        }
+        closePhysical(connection);
+        return openPhysical();
+    }
+
+    private Connection lending(Connection connection, long borrowedAtNanos) {
+        AtomicBoolean returnedOnce = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (returnedOnce.compareAndSet(false, true)) {
+                            giveBack(connection, System.nanoTime() - borrowedAtNanos);
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("isClosed") && method.getParameterCount() == 0 && returnedOnce.get()) {
+                        return true;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void giveBack(Connection connection, long heldNanos) {
+        boolean reusable = reset(connection);
+        lock.lock();
+        try {
+            inUse--;
+            windowReturns++;
+            windowHoldNanos += heldNanos;
+            if (reusable && !closed && open <= targetSize) {
+                idle.addLast(new IdleConnection(connection, System.nanoTime()));
+                returned.signal();
+                return;
+            }
+            open--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+        closePhysical(connection);
+    }
+
+    /**
+     * Puts a returned connection back into the state a borrower expects;
+     * false if it cannot be used again.
+     */
+    private boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.FINE, e, () -> "Discarding a connection that could not be reset");
+            return false;
+        }
+    }
+
+    private void recordBorrow(long waitNanos) {
+        lock.lock();
+        try {
+            borrows++;
+            windowBorrows++;
+            totalWaitNanos += waitNanos;
+            longestWaitNanos = Math.max(longestWaitNanos, waitNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-sizes the pool from the last interval's measurements and trims
+     * idle connections above the target.
+     */
+    private void maintain() {
+        try {
+            IdleConnection surplus = null;
+            int newTarget;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                double seconds = Math.max(1e-3, (now - windowStartNanos) / 1e9);
+                borrowsPerSecond = windowBorrows / seconds;
+                if (windowReturns > 0) {
+                    meanHoldNanos = (double) windowHoldNanos / windowReturns;
+                }
+                double concurrency = borrowsPerSecond * meanHoldNanos / 1e9;
+                int wanted = (int) Math.ceil(Math.max(concurrency, inUse) / TARGET_UTILIZATION);
+                newTarget = Math.max(minSize, Math.min(maxSize, wanted));
+                if (newTarget < targetSize) {
+                    // shrink gently; a lull is often followed by more traffic
+                    newTarget = targetSize - 1;
+                }
+                windowStartNanos = now;
+                windowBorrows = 0;
+                windowReturns = 0;
+                windowHoldNanos = 0;
+
+                if (newTarget != targetSize) {
+                    int previous = targetSize;
+                    int resized = newTarget;
+                    logger.fine(() -> "Connection pool target " + previous + " -> " + resized
+                            + " (" + String.format("%.2f", concurrency) + " in use on average)");
+                    targetSize = newTarget;
+                }
+                if (open > targetSize && open > minSize && !idle.isEmpty()) {
+                    surplus = idle.pollFirst();
+                    open--;
+                }
+            } finally {
+                lock.unlock();
+            }
+            sizeListener.accept(newTarget);
+            if (surplus != null) {
+                closePhysical(surplus.connection());
+            }
+            topUpIdleFloor();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, e, () -> "Connection pool maintenance failed");
+        }
+    }
+
+    /**
+     * Re-opens connections the pool has lost (dropped by the server, or
+     * discarded after an error) until {@code minSize} are open again.
+     */
+    private void topUpIdleFloor() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || open + opening >= minSize) {
+                    return;
+                }
+                opening++;
+            } finally {
+                lock.unlock();
+            }
+            Connection connection = openPhysical();
+            lock.lock();
+            try {
+                idle.addLast(new IdleConnection(connection, System.nanoTime()));
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void closePhysical(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, e, () -> "Failed to close a pooled connection");
+        }
+        lock.lock();
+        try {
+            closedCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package business;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+/**
+ * Signs the price of a book as it is shown to the client, so that the price
+ * sent back with an order can be checked without reading the book again.
+ *
+ * A token is {@code <catalog version>.<HMAC-SHA256 of book id, price,
+ * category id and catalog version>}. It verifies only against the catalog
+ * version the caller has just read from the database, not against this
+ * node's polled {@link CatalogVersion#current()}, which may not yet have
+ * seen a price change made through another node. An older token is not
+ * wrong, just unverifiable, and the caller falls back to looking the book up.
+ *
+ * The key comes from the JNDI environment entry {@code bookstore/priceTokenKey}
+ * so that every node accepts every other node's tokens. Without it a random
+ * per-process key is used.
+ */
+public class PriceTokens {
+
+    private static final Logger logger = Logger.getLogger(PriceTokens.class.getName());
+
+    private static final String PRICE_TOKEN_KEY = "bookstore/priceTokenKey";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * Bytes of the MAC kept in the token; 128 bits is ample for this use.
+     */
+    private static final int SIGNATURE_BYTES = 16;
+
+    private static volatile SecretKeySpec key;
+
+    private static final ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(getKey());
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    });
+
+    public static String sign(long bookId, int price, long categoryId) {
+        long version = CatalogVersion.current();
+        return version + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(signature(bookId, price, categoryId, version));
+    }
+
+    /**
+     * Whether {@code token} was issued for exactly this book, price and
+     * category under {@code catalogVersion}, which should come from
+     * {@link CatalogVersion#read()}.
+     */
+    public static boolean verify(String token, long bookId, int price, long categoryId, long catalogVersion) {
+        if (token == null) {
+            return false;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        try {
+            long version = Long.parseLong(token, 0, dot, 10);
+            if (version != catalogVersion) {
+                return false;
+            }
+            byte[] presented = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            return MessageDigest.isEqual(presented, signature(bookId, price, categoryId, version));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] signature(long bookId, int price, long categoryId, long version) {
+        ByteBuffer message = ByteBuffer.allocate(28)
+                .putLong(bookId).putInt(price).putLong(categoryId).putLong(version);
+        byte[] mac = macs.get().doFinal(message.array());
+        byte[] signature = new byte[SIGNATURE_BYTES];
+        System.arraycopy(mac, 0, signature, 0, SIGNATURE_BYTES);
+        return signature;
+    }
+
+    private static SecretKeySpec getKey() {
+        SecretKeySpec current = key;
+        if (current == null) {
+            synchronized (PriceTokens.class) {
+                current = key;
+                if (current == null) {
+                    current = new SecretKeySpec(loadKey(), ALGORITHM);
+                    key = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static byte[] loadKey() {
+        String configured = null;
+        try {
+            configured = JdbcUtils.getEnvironmentEntry(PRICE_TOKEN_KEY);
+        } catch (IllegalArgumentException e) {
+            // no JNDI context outside the container
+        }
+        if (configured != null && !configured.isBlank()) {
+            return configured.getBytes(StandardCharsets.UTF_8);
+        }
+        logger.info("No " + PRICE_TOKEN_KEY + " configured; price tokens will only verify on this node");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+}
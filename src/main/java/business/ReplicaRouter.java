@@ -0,0 +1,93 @@
+package business;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chooses a read replica for read-only queries.
+ *
+ * Replicas are used round-robin. A replica that fails to hand out a
+ * connection is taken out of rotation for a back-off period that doubles
+ * with each consecutive failure (capped), then tried again; a successful
+ * connection restores it fully.
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = Logger.getLogger(ReplicaRouter.class.getName());
+
+    private static final long INITIAL_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long downUntilNanos;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isHealthy(long now) {
+            return consecutiveFailures.get() == 0 || now - downUntilNanos >= 0;
+        }
+    }
+
+    public record ReplicaHealth(String name, boolean healthy, int consecutiveFailures) {
+    }
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRouter(List<String> names, List<DataSource> dataSources) {
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            replicas.add(new Replica(names.get(i), dataSources.get(i)));
+        }
+    }
+
+    /**
+     * Returns a connection to a healthy replica, or null when there are no
+     * replicas or none of them is currently usable.
+     */
+    public Connection getConnection() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        long now = System.nanoTime();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.isHealthy(now)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.consecutiveFailures.set(0);
+                return connection;
+            } catch (SQLException e) {
+                int failures = replica.consecutiveFailures.incrementAndGet();
+                long backoff = Math.min(MAX_BACKOFF_NANOS, INITIAL_BACKOFF_NANOS << Math.min(failures - 1, 5));
+                replica.downUntilNanos = System.nanoTime() + backoff;
+                logger.log(Level.WARNING, e, () -> "Read replica " + replica.name + " unavailable, failures = " + failures);
+            }
+        }
+        return null;
+    }
+
+    public List<ReplicaHealth> health() {
+        long now = System.nanoTime();
+        return replicas.stream()
+                .map(r -> new ReplicaHealth(r.name, r.isHealthy(now), r.consecutiveFailures.get()))
+                .toList();
+    }
+}
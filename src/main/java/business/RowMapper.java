@@ -0,0 +1,81 @@
+package business;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the rows of a ResultSet into objects, reading columns by position.
+ *
+ * A mapper is declared with the names of the columns it reads. Their
+ * positions are looked up once per ResultSet and handed to the reader for
+ * every row, instead of each {@code resultSet.getLong("book_id")} having
+ * the driver search the column labels again, row after row.
+ * {@code bench.RowMapperBenchmark} measures what that saves per row.
+ */
+public class RowMapper<T> {
+
+    @FunctionalInterface
+    public interface RowReader<T> {
+        /**
+         * Reads the current row; {@code column[i]} is the position of the
+         * i-th column name the mapper was declared with.
+         */
+        T read(ResultSet resultSet, int[] column) throws SQLException;
+    }
+
+    private final RowReader<T> reader;
+
+    private final String[] columnNames;
+
+    public RowMapper(RowReader<T> reader, String... columnNames) {
+        this.reader = reader;
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Reads every remaining row.
+     */
+    public List<T> readAll(ResultSet resultSet) throws SQLException {
+        List<T> result = new ArrayList<>();
+        if (!resultSet.next()) {
+            return result;
+        }
+        int[] column = columnPositions(resultSet);
+        do {
+            result.add(reader.read(resultSet, column));
+        } while (resultSet.next());
+        return result;
+    }
+
+    /**
+     * Reads every remaining row, handing each to {@code action} as it is
+     * read instead of collecting them.
+     */
+    public void forEach(ResultSet resultSet, Consumer<? super T> action) throws SQLException {
+        if (!resultSet.next()) {
+            return;
+        }
+        int[] column = columnPositions(resultSet);
+        do {
+            action.accept(reader.read(resultSet, column));
+        } while (resultSet.next());
+    }
+
+    /**
+     * Reads the next row, or returns null if there is none.
+     */
+    public T readFirst(ResultSet resultSet) throws SQLException {
+        return resultSet.next() ? reader.read(resultSet, columnPositions(resultSet)) : null;
+    }
+
+    private int[] columnPositions(ResultSet resultSet) throws SQLException {
+        int[] column = new int[columnNames.length];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = resultSet.findColumn(columnNames[i]);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,127 @@
+package business;
+
+import business.BookstoreDbException.BookstoreShedDbException;
+import business.BookstoreDbException.BookstoreTimeoutDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical reads share one execution: the first caller
+ * with a key runs the call, and callers arriving with the same key while
+ * it is in flight wait for its result, or its failure, instead of running
+ * it again. A burst of requests for one category costs one query however
+ * many arrive together.
+ *
+ * Nothing is kept once the call completes, so this is not a cache; a call
+ * arriving afterwards runs anew. Followers wait no longer than their own
+ * {@link Deadline}, and when the leader failed for reasons of its own
+ * (its deadline passed, or it was shed) they run the call themselves
+ * rather than share that failure.
+ *
+ * Calls made in a {@link UnitOfWork} on the primary, or by a thread that
+ * has just written, are never shared: they must read the primary as it is
+ * for them, not whatever another request happened to read.
+ */
+public class SingleFlight {
+
+    /**
+     * {@code coalescingRatio} is the share of calls that were answered by
+     * another caller's execution.
+     */
+    public record Snapshot(String name, long calls, long executions, long coalesced, double coalescingRatio,
+                           int inFlight) {
+    }
+
+    private final String name;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs {@code call}, or waits for the one already running under
+     * {@code key}. The key must name the call and all its arguments.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T call(String key, Supplier<T> call) {
+        calls.incrementAndGet();
+        if (UnitOfWork.isPrimary() || JdbcUtils.hasRecentWrite()) {
+            executions.incrementAndGet();
+            return call.get();
+        }
+        while (true) {
+            CompletableFuture<Object> flight = new CompletableFuture<>();
+            CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+            if (leader == null) {
+                return lead(key, flight, call);
+            }
+            try {
+                T result = (T) await(leader);
+                coalesced.incrementAndGet();
+                return result;
+            } catch (ExecutionException e) {
+                Throwable failure = e.getCause();
+                if (!Deadline.isExceeded(failure) && !(failure instanceof BookstoreShedDbException)) {
+                    coalesced.incrementAndGet();
+                    if (failure instanceof Error error) {
+                        throw error;
+                    }
+                    throw (RuntimeException) failure;
+                }
+                Deadline.check(name + " call");
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        long callCount = calls.get();
+        long coalescedCount = coalesced.get();
+        return new Snapshot(name, callCount, executions.get(), coalescedCount,
+                callCount == 0 ? 0 : (double) coalescedCount / callCount, inFlight.size());
+    }
+
+    private <T> T lead(String key, CompletableFuture<Object> flight, Supplier<T> call) {
+        executions.incrementAndGet();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    /**
+     * The leader's result; its failure, whatever it was, comes as an
+     * ExecutionException.
+     */
+    private Object await(CompletableFuture<Object> flight) throws ExecutionException {
+        try {
+            return Deadline.isSet()
+                    ? flight.get(Deadline.remainingNanos(), TimeUnit.NANOSECONDS)
+                    : flight.get();
+        } catch (TimeoutException e) {
+            throw new BookstoreTimeoutDbException("Request deadline passed while waiting for a " + name
+                    + " call in flight");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookstoreUnavailableDbException("Interrupted while waiting for a " + name + " call in flight", e);
+        }
+    }
+}
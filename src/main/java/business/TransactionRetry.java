@@ -0,0 +1,145 @@
+package business;
+
+import business.BookstoreDbException.BookstoreTimeoutDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Re-runs a database transaction that failed only because it collided with
+ * another one: a deadlock, a lock wait timeout, or any other rollback the
+ * database asks the client to retry. Each retry waits a short, randomized
+ * time up to an exponentially growing bound ("full jitter") so that the
+ * colliding transactions do not meet again, and is not attempted when the
+ * request's {@link Deadline} would pass during that wait.
+ *
+ * The transaction must roll itself back before throwing, and must be safe
+ * to run again from the start.
+ */
+public class TransactionRetry {
+
+    private static final Logger logger = Logger.getLogger(TransactionRetry.class.getName());
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long BASE_BACKOFF_MILLIS = 10;
+
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    private static final int MYSQL_LOCK_WAIT_TIMEOUT = 1205;
+
+    private static final int MYSQL_DEADLOCK = 1213;
+
+    public enum TransientFailure {
+        DEADLOCK, LOCK_WAIT_TIMEOUT, TRANSACTION_ROLLBACK
+    }
+
+    public record Snapshot(long transactions, long retries, long recovered, long exhausted,
+                           Map<TransientFailure, Long> failures) {
+    }
+
+    private static final LongAdder transactions = new LongAdder();
+    private static final LongAdder retries = new LongAdder();
+    private static final LongAdder recovered = new LongAdder();
+    private static final LongAdder exhausted = new LongAdder();
+    private static final Map<TransientFailure, LongAdder> failures = new EnumMap<>(TransientFailure.class);
+
+    static {
+        for (TransientFailure failure : TransientFailure.values()) {
+            failures.put(failure, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs {@code transaction}, retrying it on transient failures. When
+     * every attempt fails transiently the last failure is reported as the
+     * database being unavailable; any other failure is thrown unchanged.
+     */
+    public static <T> T call(String description, Supplier<T> transaction) {
+        transactions.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transaction.get();
+                if (attempt > 1) {
+                    recovered.increment();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                TransientFailure failure = classify(e);
+                if (failure == null) {
+                    throw e;
+                }
+                failures.get(failure).increment();
+                if (attempt == MAX_ATTEMPTS) {
+                    exhausted.increment();
+                    throw new BookstoreUnavailableDbException(
+                            description + " failed after " + attempt + " attempts", e);
+                }
+                long backoffMillis = 1 + ThreadLocalRandom.current().nextLong(
+                        Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt));
+                if (Deadline.capMillis(backoffMillis) < backoffMillis) {
+                    // no time left to run it again
+                    exhausted.increment();
+                    throw new BookstoreTimeoutDbException(description + " could not be retried before the deadline", e);
+                }
+                int failedAttempt = attempt;
+                logger.fine(() -> description + " hit " + failure + " on attempt " + failedAttempt + ", retrying");
+                retries.increment();
+                if (!backOff(backoffMillis)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Identifies a failure the database expects the client to retry, by
+     * SQLState and MySQL error code anywhere in the cause chain; returns
+     * null for anything else.
+     */
+    public static TransientFailure classify(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SQLException sqlException) {
+                if (sqlException.getErrorCode() == MYSQL_DEADLOCK) {
+                    return TransientFailure.DEADLOCK;
+                }
+                if (sqlException.getErrorCode() == MYSQL_LOCK_WAIT_TIMEOUT) {
+                    return TransientFailure.LOCK_WAIT_TIMEOUT;
+                }
+                String sqlState = sqlException.getSQLState();
+                // class 40 is "transaction rollback", 40001 being serialization failure
+                if (sqlException instanceof SQLTransactionRollbackException
+                        || (sqlState != null && sqlState.startsWith("40"))) {
+                    return TransientFailure.TRANSACTION_ROLLBACK;
+                }
+            }
+        }
+        return null;
+    }
+
+    public static Snapshot snapshot() {
+        Map<TransientFailure, Long> counts = new EnumMap<>(TransientFailure.class);
+        failures.forEach((failure, count) -> counts.put(failure, count.sum()));
+        return new Snapshot(transactions.sum(), retries.sum(), recovered.sum(), exhausted.sum(), counts);
+    }
+
+    /**
+     * Sleeps before the next attempt; returns false if interrupted.
+     */
+    private static boolean backOff(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package business;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Binds a single pooled connection to the current thread for the duration
+ * of an operation, so that the DAO calls it makes share that connection
+ * instead of each borrowing one from the pool.
+ *
+ * The connection is borrowed on first use and returned when the outermost
+ * unit ends. DAOs see it through {@link JdbcUtils#getReadConnection()}
+ * and {@link JdbcUtils#getWriteConnection()}, as a connection whose
+ * {@code close()} does nothing. {@link JdbcUtils#getConnection()} is not
+ * affected, so work that must commit independently (such as leasing
+ * stock) still gets a connection of its own.
+ */
+public class UnitOfWork {
+
+    private static final Logger logger = Logger.getLogger(UnitOfWork.class.getName());
+
+    private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private final boolean primary;
+
+    private Connection connection;
+
+    private Connection shared;
+
+    private UnitOfWork(boolean primary) {
+        this.primary = primary;
+    }
+
+    /**
+     * Runs read-only work on one connection, routed like any other read
+     * (see {@link JdbcUtils#getReadConnection()}). Joins the current unit
+     * of work if there is one.
+     */
+    public static <T> T read(Supplier<T> work) {
+        return current.get() != null ? work.get() : run(new UnitOfWork(false), work);
+    }
+
+    /**
+     * Runs work on one primary connection, which its reads and its
+     * transaction (through {@link JdbcUtils#getWriteConnection()}) share.
+     * Joins the current unit of work if that is also on the primary.
+     */
+    public static <T> T primary(Supplier<T> work) {
+        UnitOfWork outer = current.get();
+        return outer != null && outer.primary ? work.get() : run(new UnitOfWork(true), work);
+    }
+
+    /**
+     * Whether the current thread is in a unit of work on the primary.
+     */
+    public static boolean isPrimary() {
+        UnitOfWork unit = current.get();
+        return unit != null && unit.primary;
+    }
+
+    /**
+     * The current unit's connection, borrowing it now if need be; null if
+     * there is no unit of work, or when {@code primaryRequired} and the
+     * unit is not on the primary.
+     */
+    static Connection sharedConnection(boolean primaryRequired) {
+        UnitOfWork unit = current.get();
+        if (unit == null || (primaryRequired && !unit.primary)) {
+            return null;
+        }
+        if (unit.shared == null) {
+            unit.connection = unit.primary ? JdbcUtils.getConnection() : JdbcUtils.openReadConnection();
+            unit.shared = unclosable(unit.connection);
+        }
+        return unit.shared;
+    }
+
+    private static <T> T run(UnitOfWork unit, Supplier<T> work) {
+        UnitOfWork outer = current.get();
+        current.set(unit);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                current.remove();
+            } else {
+                current.set(outer);
+            }
+            unit.release();
+        }
+    }
+
+    private void release() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!connection.getAutoCommit()) {
+                // anything left uncommitted was not meant to be kept
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, e, () -> "Failed to reset connection at the end of a unit of work");
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, e, () -> "Failed to return connection at the end of a unit of work");
+            }
+        }
+    }
+
+    private static Connection unclosable(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -1,5 +1,7 @@
 package business.book;
 
+import business.PriceTokens;
+
 public class Book {
 
 	private final long bookId;
@@ -8,14 +10,24 @@ public class Book {
 	private final int price;
 	private final boolean isPublic;
 	private final long categoryId;
+	private final double rating;
+	private final long viewCount;
+	private volatile String priceToken;
 
 	public Book(long bookId, String title, String author, int price, boolean isPublic, long categoryId) {
+		this(bookId, title, author, price, isPublic, categoryId, 0, 0);
+	}
+
+	public Book(long bookId, String title, String author, int price, boolean isPublic, long categoryId,
+				double rating, long viewCount) {
 		this.bookId = bookId;
 		this.title = title;
 		this.author = author;
 		this.price = price;
 		this.isPublic = isPublic;
 		this.categoryId = categoryId;
+		this.rating = rating;
+		this.viewCount = viewCount;
 	}
 
 	public long getBookId() {
@@ -41,4 +53,31 @@ public class Book {
 	public long getCategoryId() {
 		return categoryId;
 	}
+
+	/**
+	 * The average of the ratings flushed to the database so far.
+	 */
+	public double getRating() {
+		return rating;
+	}
+
+	public long getViewCount() {
+		return viewCount;
+	}
+
+	/**
+	 * The token vouching for this book's price and category (see
+	 * {@link PriceTokens}). Signed the first time it is asked for and kept,
+	 * so a book that is written out many times, from a shared read or the
+	 * response cache, is signed once.
+	 */
+	public String getPriceToken() {
+		String token = priceToken;
+		if (token == null) {
+			// two threads racing here sign the same token
+			token = PriceTokens.sign(bookId, price, categoryId);
+			priceToken = token;
+		}
+		return token;
+	}
 }
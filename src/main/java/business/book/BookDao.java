@@ -1,13 +1,42 @@
 package business.book;
 
+import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookDao {
 
     public Book findByBookId(long bookId);
 
+    /**
+     * The books among {@code bookIds} that exist, in no particular order.
+     */
+    public List<Book> findByBookIds(Collection<Long> bookIds);
+
     public List<Book> findByCategoryId(long categoryId);
 
     public List<Book> findRandomByCategoryId(long categoryId, int limit);
 
+    /**
+     * Hands every book to {@code action}, ordered by category id and then
+     * book id, without holding them all in memory.
+     */
+    public void forEachInCategoryOrder(Consumer<Book> action);
+
+    /**
+     * A book as given by a catalog feed, for {@link #upsertAll}.
+     * {@code stock} is only used when the book is new, and a null
+     * {@code description} leaves that of an existing book as it is.
+     */
+    record ImportedBook(long bookId, String title, String author, String description, int price,
+                        boolean isPublic, boolean isFeatured, long categoryId, int stock) {
+    }
+
+    /**
+     * Inserts the books, or updates those that already exist, as one
+     * batch. Stock and ratings of existing books are left alone.
+     */
+    public void upsertAll(Connection connection, List<ImportedBook> books);
+
 }
@@ -1,45 +1,77 @@
 package business.book;
 
 import business.BookstoreDbException.BookstoreQueryDbException;
+import business.BookstoreDbException.BookstoreUpdateDbException;
 import business.JdbcUtils;
+import business.RowMapper;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class BookDaoJdbc implements BookDao {
 
     private static final String FIND_BY_BOOK_ID_SQL =
-            "SELECT book_id, title, author, price, is_public, category_id " +
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count " +
                     "FROM book " +
                     "WHERE book_id = ?";
 
+    private static final String FIND_BY_BOOK_IDS_SQL =
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count " +
+                    "FROM book " +
+                    "WHERE book_id IN (%s)";
+
+    /**
+     * Ids per IN list, so no one statement grows without bound.
+     */
+    private static final int MAX_IDS_PER_QUERY = 500;
+
     private static final String FIND_BY_CATEGORY_ID_SQL =
-            "SELECT book_id, title, author, price, is_public, category_id " +
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count " +
                     "FROM book " +
                     "WHERE category_id = ?";
 
 
     private static final String FIND_RANDOM_BY_CATEGORY_ID_SQL =
-            "SELECT book_id, title, author, price, is_public, category_id " +
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count " +
                     "FROM book " +
                     "WHERE category_id = ? " +
                     "ORDER BY RAND() " +
                     "LIMIT ?";
 
+    private static final String FIND_ALL_IN_CATEGORY_ORDER_SQL =
+            "SELECT book_id, title, author, price, is_public, category_id, rating, view_count " +
+                    "FROM book " +
+                    "ORDER BY category_id, book_id";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO book (book_id, title, author, description, price, rating, is_public, is_featured, " +
+                    "category_id, stock) " +
+                    "VALUES (?, ?, ?, COALESCE(?, ''), ?, 0, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE title = VALUES(title), author = VALUES(author), " +
+                    "description = COALESCE(?, description), price = VALUES(price), is_public = VALUES(is_public), " +
+                    "is_featured = VALUES(is_featured), category_id = VALUES(category_id)";
+
+    /**
+     * Maps rows with the columns of {@link Book}, by whichever DAO selects them.
+     */
+    public static final RowMapper<Book> BOOK_MAPPER = new RowMapper<>(BookDaoJdbc::readBook,
+            "book_id", "title", "author", "price", "is_public", "category_id", "rating", "view_count");
+
     @Override
     public Book findByBookId(long bookId) {
         Book book = null;
-        try (Connection connection = JdbcUtils.getConnection();
+        try (Connection connection = JdbcUtils.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_BOOK_ID_SQL)) {
             statement.setLong(1, bookId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    book = readBook(resultSet);
-                }
+                book = BOOK_MAPPER.readFirst(resultSet);
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered a problem finding book " + bookId, e);
@@ -47,17 +79,38 @@ public class BookDaoJdbc implements BookDao {
         return book;
     }
 
+    @Override
+    public List<Book> findByBookIds(Collection<Long> bookIds) {
+        List<Long> ids = new ArrayList<>(bookIds);
+        List<Book> books = new ArrayList<>(ids.size());
+        try (Connection connection = JdbcUtils.getReadConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<Long> group = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_QUERY));
+                String sql = String.format(FIND_BY_BOOK_IDS_SQL, String.join(", ", Collections.nCopies(group.size(), "?")));
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 0; i < group.size(); i++) {
+                        statement.setLong(i + 1, group.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        books.addAll(BOOK_MAPPER.readAll(resultSet));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered a problem finding " + ids.size() + " books", e);
+        }
+        return books;
+    }
+
     @Override
     public List<Book> findByCategoryId(long categoryId) {
         List<Book> books = new ArrayList<>();
 
-        try(Connection connection = JdbcUtils.getConnection();
+        try(Connection connection = JdbcUtils.getReadConnection();
             PreparedStatement statement = connection.prepareStatement(FIND_BY_CATEGORY_ID_SQL)) {
             statement.setLong(1, categoryId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    books.add(readBook(resultSet));
-                }
+                books.addAll(BOOK_MAPPER.readAll(resultSet));
             }
         }catch (SQLException e){
             throw new BookstoreQueryDbException("Encountered a problem finding book associated with category " + categoryId, e);
@@ -69,14 +122,12 @@ public class BookDaoJdbc implements BookDao {
     @Override
     public List<Book> findRandomByCategoryId(long categoryId, int limit) {
         List<Book> books = new ArrayList<>();
-        try(Connection connection = JdbcUtils.getConnection();
+        try(Connection connection = JdbcUtils.getReadConnection();
             PreparedStatement statement = connection.prepareStatement(FIND_RANDOM_BY_CATEGORY_ID_SQL)) {
             statement.setLong(1, categoryId);
             statement.setInt(2, limit);
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    books.add(readBook(resultSet));
-                }
+                books.addAll(BOOK_MAPPER.readAll(resultSet));
             }
         }catch (SQLException e){
             throw new BookstoreQueryDbException("Encountered a problem finding book associated with category " + categoryId, e);
@@ -84,14 +135,52 @@ public class BookDaoJdbc implements BookDao {
         return books;
     }
 
+    @Override
+    public void forEachInCategoryOrder(Consumer<Book> action) {
+        try (Connection connection = JdbcUtils.getReadConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_IN_CATEGORY_ORDER_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams rows one at a time, rather than reading the whole result, only with this fetch size
+            statement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                BOOK_MAPPER.forEach(resultSet, action);
+            }
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered a problem reading all books", e);
+        }
+    }
+
+    @Override
+    public void upsertAll(Connection connection, List<ImportedBook> books) {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            for (ImportedBook book : books) {
+                statement.setLong(1, book.bookId());
+                statement.setString(2, book.title());
+                statement.setString(3, book.author());
+                statement.setString(4, book.description());
+                statement.setInt(5, book.price());
+                statement.setBoolean(6, book.isPublic());
+                statement.setBoolean(7, book.isFeatured());
+                statement.setLong(8, book.categoryId());
+                statement.setInt(9, book.stock());
+                statement.setString(10, book.description());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered a problem upserting " + books.size() + " books", e);
+        }
+    }
 
-    private Book readBook(ResultSet resultSet) throws SQLException {
-        long bookId = resultSet.getLong("book_id");
-        String title = resultSet.getString("title");
-        String author = resultSet.getString("author");
-        int price = resultSet.getInt("price");
-        boolean isPublic = resultSet.getBoolean("is_public");
-        long categoryId = resultSet.getLong("category_id");
-        return new Book(bookId, title, author, price, isPublic, categoryId);
+    private static Book readBook(ResultSet resultSet, int[] column) throws SQLException {
+        long bookId = resultSet.getLong(column[0]);
+        String title = resultSet.getString(column[1]);
+        String author = resultSet.getString(column[2]);
+        int price = resultSet.getInt(column[3]);
+        boolean isPublic = resultSet.getBoolean(column[4]);
+        long categoryId = resultSet.getLong(column[5]);
+        double rating = resultSet.getDouble(column[6]);
+        long viewCount = resultSet.getLong(column[7]);
+        return new Book(bookId, title, author, price, isPublic, categoryId, rating, viewCount);
     }
 }
@@ -40,6 +40,11 @@ public class BookForm {
     private int price;
     private long categoryId;
 
+    /**
+     * The signed price token the book was shown with, if any.
+     */
+    private String priceToken;
+
 	public BookForm() {
 	}
 
@@ -73,6 +78,14 @@ public class BookForm {
 		this.categoryId = categoryId;
 	}
 
+	public String getPriceToken() {
+		return priceToken;
+	}
+
+	public void setPriceToken(String priceToken) {
+		this.priceToken = priceToken;
+	}
+
 	@Override
     public String toString() {
         return "business.book.BookForm[book_id=" + bookId + "]";
@@ -0,0 +1,34 @@
+package business.cart;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A request to put a book in a server-side cart. The book id may instead
+ * come from the request path, in which case it is absent here.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CartItemForm {
+
+	private long bookId;
+
+	private int quantity;
+
+	public CartItemForm() {
+	}
+
+	public long getBookId() {
+		return bookId;
+	}
+
+	public void setBookId(long bookId) {
+		this.bookId = bookId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public void setQuantity(int quantity) {
+		this.quantity = quantity;
+	}
+}
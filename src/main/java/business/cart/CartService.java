@@ -0,0 +1,170 @@
+package business.cart;
+
+import api.ApiException;
+import business.BookstoreDbException.BookstoreCommitUnknownDbException;
+import business.CatalogVersion;
+import business.book.Book;
+import business.book.BookDao;
+import business.customer.CustomerForm;
+import business.order.OrderService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains server-side carts. Each book is looked up and priced once, when
+ * it is put in the cart, so that checkout can hand a cart that is already
+ * known to be valid straight to the order service. A cart is looked over
+ * again at checkout only if the catalog has changed since it was priced.
+ *
+ * Methods taking a cart id return null when there is no such cart.
+ */
+public class CartService {
+
+	private static final int MAX_QUANTITY = 99;
+
+	private final CartStore cartStore;
+
+	private final BookDao bookDao;
+
+	private final OrderService orderService;
+
+	public CartService(CartStore cartStore, BookDao bookDao, OrderService orderService) {
+		this.cartStore = cartStore;
+		this.bookDao = bookDao;
+		this.orderService = orderService;
+	}
+
+	public ServerCart createCart() {
+		ServerCart cart = new ServerCart(UUID.randomUUID().toString(), List.of(), CatalogVersion.current());
+		cartStore.put(cart);
+		return cart;
+	}
+
+	public ServerCart getCart(String cartId) {
+		return cartStore.get(cartId);
+	}
+
+	/**
+	 * Adds {@code quantity} copies of a book to whatever the cart already holds.
+	 */
+	public ServerCart addItem(String cartId, long bookId, int quantity) {
+		if (quantity <= 0 || quantity > MAX_QUANTITY) {
+			throw new ApiException.ValidationFailure("quantity", "Invalid quantity");
+		}
+		if (cartStore.get(cartId) == null) {
+			return null;
+		}
+		long version = CatalogVersion.current();
+		Book book = findBook(bookId);
+		return cartStore.compute(cartId, cart -> {
+			ServerCartItem existing = cart.findItem(bookId);
+			int total = quantity + (existing == null ? 0 : existing.getQuantity());
+			if (total > MAX_QUANTITY) {
+				throw new ApiException.ValidationFailure("quantity", "Invalid quantity");
+			}
+			return cart.withItem(book, total, version);
+		});
+	}
+
+	/**
+	 * Sets the number of copies of a book in the cart; zero removes the book.
+	 */
+	public ServerCart setItem(String cartId, long bookId, int quantity) {
+		if (quantity < 0 || quantity > MAX_QUANTITY) {
+			throw new ApiException.ValidationFailure("quantity", "Invalid quantity");
+		}
+		if (quantity == 0) {
+			return removeItem(cartId, bookId);
+		}
+		if (cartStore.get(cartId) == null) {
+			return null;
+		}
+		long version = CatalogVersion.current();
+		Book book = findBook(bookId);
+		return cartStore.compute(cartId, cart -> cart.withItem(book, quantity, version));
+	}
+
+	public ServerCart removeItem(String cartId, long bookId) {
+		return cartStore.compute(cartId, cart -> cart.withoutItem(bookId));
+	}
+
+	public boolean deleteCart(String cartId) {
+		return cartStore.remove(cartId);
+	}
+
+	/**
+	 * Places an order for the cart's contents and discards the cart.
+	 * Returns the order id, 0 when the order could not be placed, or -1
+	 * when there is no such cart.
+	 *
+	 * The cart is taken out of the store before anything else, so of two
+	 * concurrent checkouts of one cart (a double click, say) only one
+	 * places an order; the other finds no cart. The cart is put back if
+	 * the order is not placed.
+	 */
+	public long checkout(String cartId, CustomerForm customerForm) {
+		ServerCart cart = cartStore.take(cartId);
+		if (cart == null) {
+			return -1;
+		}
+		boolean placed = false;
+		try {
+			if (cart.getItems().isEmpty()) {
+				throw new ApiException.ValidationFailure("Cart is empty.");
+			}
+			// the database's version, as another node may have changed a price this one has not polled yet
+			long version = CatalogVersion.read();
+			if (cart.getCatalogVersion() != version) {
+				ServerCart stale = cart;
+				cart = reprice(stale, version);
+				checkPrices(stale, cart);
+			}
+			long orderId = orderService.placeValidatedOrder(customerForm, cart.toShoppingCart());
+			placed = orderId > 0;
+			return orderId;
+		} catch (BookstoreCommitUnknownDbException e) {
+			// the order may well exist; keeping the cart would invite placing it twice
+			placed = true;
+			throw e;
+		} finally {
+			if (!placed) {
+				cartStore.put(cart);
+			}
+		}
+	}
+
+	/**
+	 * Re-prices a cart whose items were checked against an older catalog.
+	 */
+	private ServerCart reprice(ServerCart stale, long version) {
+		List<ServerCartItem> items = new ArrayList<>(stale.getItems().size());
+		for (ServerCartItem item : stale.getItems()) {
+			items.add(new ServerCartItem(findBook(item.getBook().getBookId()), item.getQuantity()));
+		}
+		return stale.withItems(items, version);
+	}
+
+	/**
+	 * Fails the checkout if re-pricing changed a price, so that the
+	 * customer sees the new total before paying it; the re-priced cart is
+	 * what is kept.
+	 */
+	private void checkPrices(ServerCart stale, ServerCart current) {
+		for (int i = 0; i < stale.getItems().size(); i++) {
+			Book book = current.getItems().get(i).getBook();
+			if (book.getPrice() != stale.getItems().get(i).getBook().getPrice()) {
+				throw new ApiException.ValidationFailure("Price changed for book with ID " + book.getBookId());
+			}
+		}
+	}
+
+	private Book findBook(long bookId) {
+		Book book = bookDao.findByBookId(bookId);
+		if (book == null) {
+			throw new ApiException.ValidationFailure("Invalid book");
+		}
+		return book;
+	}
+}
@@ -0,0 +1,160 @@
+package business.cart;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory home of the server-side carts.
+ *
+ * The map is split into independently locked segments chosen by cart id,
+ * so requests for different carts rarely contend. Each segment keeps its
+ * carts in access order: a cart that has not been touched for the
+ * time-to-live expires, and a full segment drops its least recently used
+ * cart. Expired carts are removed as the segment is used, so no sweeper
+ * thread is needed.
+ */
+public class CartStore {
+
+	private final Segment[] segments;
+
+	private final long timeToLiveNanos;
+
+	private final int maxCartsPerSegment;
+
+	public CartStore(int segmentCount, int maxCarts, long timeToLive, TimeUnit unit) {
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment();
+		}
+		this.timeToLiveNanos = unit.toNanos(timeToLive);
+		this.maxCartsPerSegment = Math.max(1, maxCarts / segmentCount);
+	}
+
+	/**
+	 * Returns the cart, or null when there is none or it has expired.
+	 */
+	public ServerCart get(String cartId) {
+		return compute(cartId, UnaryOperator.identity());
+	}
+
+	public void put(ServerCart cart) {
+		Segment segment = segmentFor(cart.getCartId());
+		segment.lock.lock();
+		try {
+			long now = System.nanoTime();
+			segment.removeExpired(now);
+			segment.carts.put(cart.getCartId(), new Entry(cart, now + timeToLiveNanos));
+			segment.removeOverflow(maxCartsPerSegment);
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces the cart with the result of {@code update}, atomically with
+	 * respect to other changes to the same cart. Returns the new cart, or
+	 * null (leaving nothing changed) when there is no such cart.
+	 */
+	public ServerCart compute(String cartId, UnaryOperator<ServerCart> update) {
+		Segment segment = segmentFor(cartId);
+		segment.lock.lock();
+		try {
+			long now = System.nanoTime();
+			segment.removeExpired(now);
+			Entry entry = segment.carts.get(cartId);
+			if (entry == null) {
+				return null;
+			}
+			entry.cart = update.apply(entry.cart);
+			entry.expiresAtNanos = now + timeToLiveNanos;
+			return entry.cart;
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the cart and returns it, or returns null when there is none
+	 * or it has expired. Of several threads taking the same cart, only one
+	 * gets it.
+	 */
+	public ServerCart take(String cartId) {
+		Segment segment = segmentFor(cartId);
+		segment.lock.lock();
+		try {
+			segment.removeExpired(System.nanoTime());
+			Entry entry = segment.carts.remove(cartId);
+			return entry == null ? null : entry.cart;
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	public boolean remove(String cartId) {
+		Segment segment = segmentFor(cartId);
+		segment.lock.lock();
+		try {
+			return segment.carts.remove(cartId) != null;
+		} finally {
+			segment.lock.unlock();
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			segment.lock.lock();
+			try {
+				size += segment.carts.size();
+			} finally {
+				segment.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	private Segment segmentFor(String cartId) {
+		int hash = cartId.hashCode();
+		return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+	}
+
+	private static class Entry {
+		ServerCart cart;
+		long expiresAtNanos;
+
+		Entry(ServerCart cart, long expiresAtNanos) {
+			this.cart = cart;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+	}
+
+	private static class Segment {
+		final ReentrantLock lock = new ReentrantLock();
+
+		/*
+		 * Access order puts the least recently used cart first, and since
+		 * every access also renews the time-to-live, that cart is also
+		 * the first to expire.
+		 */
+		final LinkedHashMap<String, Entry> carts = new LinkedHashMap<>(64, 0.75f, true);
+
+		void removeExpired(long now) {
+			Iterator<Entry> eldest = carts.values().iterator();
+			while (eldest.hasNext() && now - eldest.next().expiresAtNanos >= 0) {
+				eldest.remove();
+			}
+		}
+
+		void removeOverflow(int maxCarts) {
+			Iterator<Map.Entry<String, Entry>> eldest = carts.entrySet().iterator();
+			while (carts.size() > maxCarts && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+}
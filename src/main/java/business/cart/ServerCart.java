@@ -0,0 +1,113 @@
+package business.cart;
+
+import business.book.Book;
+import business.book.BookForm;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A cart kept on the server. Items are validated against the catalog as
+ * they are added, so checkout has nothing left to look up.
+ *
+ * Instances are immutable; every change produces a new cart.
+ */
+public class ServerCart {
+
+	private static final int SURCHARGE = 500;
+
+	private final String cartId;
+	private final List<ServerCartItem> items;
+	private final long catalogVersion;
+
+	public ServerCart(String cartId, List<ServerCartItem> items, long catalogVersion) {
+		this.cartId = cartId;
+		this.items = Collections.unmodifiableList(new ArrayList<>(items));
+		this.catalogVersion = catalogVersion;
+	}
+
+	public String getCartId() {
+		return cartId;
+	}
+
+	public List<ServerCartItem> getItems() {
+		return items;
+	}
+
+	public int getSubtotal() {
+		return items.stream()
+				.mapToInt(item -> item.getQuantity() * item.getBook().getPrice())
+				.sum();
+	}
+
+	public int getSurcharge() {
+		return SURCHARGE;
+	}
+
+	/**
+	 * The catalog version the item prices were checked against.
+	 */
+	@JsonIgnore
+	public long getCatalogVersion() {
+		return catalogVersion;
+	}
+
+	public ServerCartItem findItem(long bookId) {
+		return items.stream()
+				.filter(item -> item.getBook().getBookId() == bookId)
+				.findFirst()
+				.orElse(null);
+	}
+
+	/**
+	 * Returns a cart with {@code book} at {@code quantity}, replacing any
+	 * existing line for the same book; a quantity of zero removes it.
+	 */
+	public ServerCart withItem(Book book, int quantity, long catalogVersion) {
+		List<ServerCartItem> updated = new ArrayList<>(items.size() + 1);
+		boolean replaced = false;
+		for (ServerCartItem item : items) {
+			if (item.getBook().getBookId() == book.getBookId()) {
+				replaced = true;
+				if (quantity > 0) {
+					updated.add(new ServerCartItem(book, quantity));
+				}
+			} else {
+				updated.add(item);
+			}
+		}
+		if (!replaced && quantity > 0) {
+			updated.add(new ServerCartItem(book, quantity));
+		}
+		return new ServerCart(cartId, updated, Math.min(this.catalogVersion, catalogVersion));
+	}
+
+	public ServerCart withoutItem(long bookId) {
+		List<ServerCartItem> updated = new ArrayList<>(items);
+		updated.removeIf(item -> item.getBook().getBookId() == bookId);
+		return new ServerCart(cartId, updated, catalogVersion);
+	}
+
+	public ServerCart withItems(List<ServerCartItem> items, long catalogVersion) {
+		return new ServerCart(cartId, items, catalogVersion);
+	}
+
+	/**
+	 * The cart in the form the order service takes.
+	 */
+	public ShoppingCart toShoppingCart() {
+		List<ShoppingCartItem> cartItems = new ArrayList<>(items.size());
+		for (ServerCartItem item : items) {
+			Book book = item.getBook();
+			ShoppingCartItem cartItem = new ShoppingCartItem();
+			cartItem.setQuantity(item.getQuantity());
+			cartItem.setBookForm(new BookForm(book.getBookId(), book.getPrice(), 0, book.getCategoryId()));
+			cartItems.add(cartItem);
+		}
+		ShoppingCart cart = new ShoppingCart();
+		cart.setItems(cartItems);
+		return cart;
+	}
+}
@@ -0,0 +1,25 @@
+package business.cart;
+
+import business.book.Book;
+
+/**
+ * One line of a server-side cart: a book, priced when it was added.
+ */
+public class ServerCartItem {
+
+	private final Book book;
+	private final int quantity;
+
+	public ServerCartItem(Book book, int quantity) {
+		this.book = book;
+		this.quantity = quantity;
+	}
+
+	public Book getBook() {
+		return book;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+}
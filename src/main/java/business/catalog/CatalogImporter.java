@@ -0,0 +1,310 @@
+package business.catalog;
+
+import business.BookstoreDbException;
+import business.CatalogVersion;
+import business.DatabaseGuard;
+import business.Deadline;
+import business.JdbcUtils;
+import business.TransactionRetry;
+import business.book.BookDao;
+import business.category.Category;
+import business.category.CategoryDao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads a catalog feed into the database: categories and books are
+ * inserted, or updated when their id already exists.
+ *
+ * The feed is consumed as it arrives and written in chunks, each in a
+ * transaction of its own, so a feed of any length is imported in bounded
+ * memory. A category must come before the books in it (in the same chunk
+ * or an earlier one).
+ *
+ * The {@link CatalogVersion} is bumped once, after the last chunk (or the
+ * last one that committed, when the import stops early), so whatever was
+ * derived from the catalog (cached responses and their ETags, price
+ * tokens, server-side carts, the snapshot) moves from the catalog before
+ * the import to the one after it in one step, on every node. Until then,
+ * what is derived while the import runs may mix old and new rows under
+ * the old version, and checkout may still accept a price token signed
+ * before a chunk changed that price. Chunks that committed
+ * before a failure stay committed; upserts are idempotent, so the whole
+ * feed can simply be sent again.
+ */
+public class CatalogImporter {
+
+    private static final Logger logger = Logger.getLogger(CatalogImporter.class.getName());
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final long CHUNK_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Rejections listed in the summary; beyond this they are only counted.
+     */
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    /**
+     * One record of the feed, with the line it came from. Field names are
+     * {@code type} ({@code category} or {@code book}; when absent a record
+     * with a {@code bookId} is a book), {@code categoryId}, {@code name},
+     * {@code bookId}, {@code title}, {@code author}, {@code description},
+     * {@code price}, {@code isPublic}, {@code isFeatured} and {@code stock}.
+     */
+    public record FeedRecord(long line, Map<String, String> fields) {
+    }
+
+    public record Rejection(long line, String message) {
+    }
+
+    /**
+     * The outcome of an import. {@code failure} is set when a chunk could
+     * not be written and the import stopped there; everything up to
+     * {@code committedThroughLine} is in the database.
+     */
+    public record Summary(long categories, long books, long rejected, List<Rejection> rejections,
+                          long committedThroughLine, String failure, long catalogVersion) {
+    }
+
+    private final CategoryDao categoryDao;
+    private final BookDao bookDao;
+    private final CatalogSnapshotStore snapshotStore;
+
+    public CatalogImporter(CategoryDao categoryDao, BookDao bookDao, CatalogSnapshotStore snapshotStore) {
+        this.categoryDao = categoryDao;
+        this.bookDao = bookDao;
+        this.snapshotStore = snapshotStore;
+    }
+
+    public Summary importFeed(Iterator<FeedRecord> feed) {
+        Progress progress = new Progress();
+        Chunk chunk = new Chunk();
+        try {
+            while (feed.hasNext()) {
+                FeedRecord record = feed.next();
+                try {
+                    chunk.add(record);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(record.line(), e.getMessage());
+                }
+                chunk.lastLine = record.line();
+                if (chunk.size() == CHUNK_SIZE) {
+                    write(chunk, progress);
+                    chunk = new Chunk();
+                }
+            }
+            write(chunk, progress);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, e, () -> "Catalog import stopped after line " + progress.committedThroughLine);
+            progress.failure = e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : e.getMessage();
+        }
+
+        if (progress.categories + progress.books > 0) {
+            try {
+                bumpVersion();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, e, () -> "Catalog import could not bump the catalog version");
+                if (progress.failure == null) {
+                    progress.failure = "Catalog version not bumped: " + e.getMessage();
+                }
+            }
+            snapshotStore.refreshLater();
+        }
+        long finalVersion = CatalogVersion.current();
+        logger.info(() -> "Imported " + progress.categories + " categories and " + progress.books
+                + " books, rejected " + progress.rejected + " records; catalog version " + finalVersion);
+        return new Summary(progress.categories, progress.books, progress.rejected, progress.rejections,
+                progress.committedThroughLine, progress.failure, finalVersion);
+    }
+
+    private void write(Chunk chunk, Progress progress) {
+        if (chunk.size() > 0) {
+            Deadline.start(CHUNK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            try {
+                DatabaseGuard.bulk(() -> {
+                    try (Connection connection = JdbcUtils.getWriteConnection()) {
+                        return TransactionRetry.call("Catalog import transaction",
+                                () -> performUpsertTransaction(chunk, connection));
+                    } catch (SQLException e) {
+                        throw new BookstoreDbException("Error during close connection for catalog import", e);
+                    }
+                });
+            } finally {
+                Deadline.clear();
+            }
+        }
+        progress.categories += chunk.categories.size();
+        progress.books += chunk.books.size();
+        progress.committedThroughLine = chunk.lastLine;
+    }
+
+    private void bumpVersion() {
+        Deadline.start(CHUNK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        try {
+            long version = DatabaseGuard.bulk(() -> {
+                try (Connection connection = JdbcUtils.getWriteConnection()) {
+                    return TransactionRetry.call("Catalog version transaction",
+                            () -> performBumpTransaction(connection));
+                } catch (SQLException e) {
+                    throw new BookstoreDbException("Error during close connection for catalog version", e);
+                }
+            });
+            JdbcUtils.markWrite();
+            CatalogVersion.advanceTo(version);
+        } finally {
+            Deadline.clear();
+        }
+    }
+
+    private long performBumpTransaction(Connection connection) {
+        try {
+            connection.setAutoCommit(false);
+            long version = CatalogVersion.bump(connection);
+            connection.commit();
+            return version;
+        } catch (Exception e) {
+            try {
+                connection.rollback();
+            } catch (SQLException e1) {
+                throw new BookstoreDbException("Failed to roll back catalog version transaction", e1);
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BookstoreDbException("Catalog version transaction was rolled back", e);
+        }
+    }
+
+    private Void performUpsertTransaction(Chunk chunk, Connection connection) {
+        try {
+            connection.setAutoCommit(false);
+            if (!chunk.categories.isEmpty()) {
+                categoryDao.upsertAll(connection, chunk.categories);
+            }
+            if (!chunk.books.isEmpty()) {
+                bookDao.upsertAll(connection, chunk.books);
+            }
+            connection.commit();
+            JdbcUtils.markWrite();
+            return null;
+        } catch (Exception e) {
+            try {
+                connection.rollback();
+            } catch (SQLException e1) {
+                throw new BookstoreDbException("Failed to roll back catalog import transaction", e1);
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new BookstoreDbException("Catalog import transaction was rolled back", e);
+        }
+    }
+
+    private static class Progress {
+        long categories;
+        long books;
+        long rejected;
+        final List<Rejection> rejections = new ArrayList<>();
+        long committedThroughLine;
+        String failure;
+
+        void reject(long line, String message) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new Rejection(line, message));
+            }
+        }
+    }
+
+    private static class Chunk {
+        final List<Category> categories = new ArrayList<>();
+        final List<BookDao.ImportedBook> books = new ArrayList<>();
+        long lastLine;
+
+        int size() {
+            return categories.size() + books.size();
+        }
+
+        /**
+         * Adds the record as a category or a book, or throws an
+         * IllegalArgumentException saying what is wrong with it.
+         */
+        void add(FeedRecord record) {
+            Map<String, String> fields = record.fields();
+            String type = text(fields, "type");
+            if (type == null) {
+                type = text(fields, "bookId") != null ? "book" : "category";
+            }
+            switch (type) {
+                case "category" -> categories.add(new Category(id(fields, "categoryId"), required(fields, "name")));
+                case "book" -> books.add(new BookDao.ImportedBook(id(fields, "bookId"), required(fields, "title"),
+                        required(fields, "author"), text(fields, "description"),
+                        count(fields, "price", null), flag(fields, "isPublic"), flag(fields, "isFeatured"),
+                        id(fields, "categoryId"), count(fields, "stock", 0)));
+                default -> throw new IllegalArgumentException("Unknown record type: " + type);
+            }
+        }
+
+        private static String text(Map<String, String> fields, String name) {
+            String value = fields.get(name);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        private static String required(Map<String, String> fields, String name) {
+            String value = text(fields, name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing " + name);
+            }
+            return value;
+        }
+
+        private static long id(Map<String, String> fields, String name) {
+            try {
+                long id = Long.parseLong(required(fields, name));
+                if (id <= 0) {
+                    throw new IllegalArgumentException("Invalid " + name + ": " + id);
+                }
+                return id;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + fields.get(name));
+            }
+        }
+
+        private static int count(Map<String, String> fields, String name, Integer defaultValue) {
+            String value = defaultValue == null ? required(fields, name) : text(fields, name);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                int count = Integer.parseInt(value);
+                if (count < 0) {
+                    throw new IllegalArgumentException("Invalid " + name + ": " + count);
+                }
+                return count;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private static boolean flag(Map<String, String> fields, String name) {
+            String value = text(fields, name);
+            if (value == null) {
+                return false;
+            }
+            return switch (value.toLowerCase()) {
+                case "true", "1", "yes" -> true;
+                case "false", "0", "no" -> false;
+                default -> throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            };
+        }
+    }
+}
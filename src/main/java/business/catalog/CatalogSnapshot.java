@@ -0,0 +1,508 @@
+package business.catalog;
+
+import business.book.Book;
+import business.category.Category;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A read-only, memory-mapped image of the catalog (categories and books).
+ *
+ * File layout, all integers big-endian:
+ * <pre>
+ * header      magic, format, catalog version, category count, book count,
+ *             id index offset, string pool offset, string pool length,
+ *             id index capacity
+ * categories  fixed-width records sorted by category id, each with the
+ *             range of its books
+ * books       fixed-width records sorted by (category id, book id)
+ * id index    open-addressing hash table of (book id, record number),
+ *             linear probing, book id 0 marking an empty slot
+ * strings     UTF-8 pool referenced by (offset, length) from the records
+ * </pre>
+ * Everything lives in the mapping, outside the Java heap, so a catalog of
+ * millions of books costs the heap nothing until it is read: lookups work
+ * on the mapped bytes, and a category's books are returned as a list view
+ * that builds each {@link Book} only as it is read (typically while it is
+ * serialized) and keeps none.
+ *
+ * Snapshots are written with a {@link Writer}, one book at a time, so
+ * writing one does not need the catalog on the heap either.
+ */
+public class CatalogSnapshot {
+
+    private static final int MAGIC = 0x424B534E; // "BKSN"
+    /**
+     * 3 since the catalog version in the header is the one kept in the
+     * database; the versions in older files were counted per process.
+     */
+    private static final int FORMAT = 3;
+
+    private static final int HEADER_BYTES = 40;
+    private static final int CATEGORY_RECORD_BYTES = 24;
+    private static final int BOOK_RECORD_BYTES = 56;
+    private static final int INDEX_ENTRY_BYTES = 12;
+
+    private final ByteBuffer buffer;
+    private final long catalogVersion;
+    private final int categoryCount;
+    private final int bookCount;
+    private final int booksOffset;
+    private final int indexOffset;
+    private final int indexMask;
+    private final int stringsOffset;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            throw new IOException("Not a catalog snapshot, or an unsupported format");
+        }
+        this.catalogVersion = buffer.getLong(8);
+        this.categoryCount = buffer.getInt(16);
+        this.bookCount = buffer.getInt(20);
+        this.indexOffset = buffer.getInt(24);
+        this.stringsOffset = buffer.getInt(28);
+        int indexCapacity = buffer.getInt(36);
+        this.indexMask = indexCapacity - 1;
+        this.booksOffset = HEADER_BYTES + categoryCount * CATEGORY_RECORD_BYTES;
+        if (Integer.bitCount(indexCapacity) != 1 || indexCapacity <= bookCount
+                || (long) booksOffset + (long) bookCount * BOOK_RECORD_BYTES > indexOffset
+                || (long) indexOffset + (long) indexCapacity * INDEX_ENTRY_BYTES > stringsOffset
+                || (long) stringsOffset + buffer.getInt(32) > buffer.limit()) {
+            throw new IOException("Truncated or inconsistent catalog snapshot");
+        }
+    }
+
+    /**
+     * Maps an existing snapshot file.
+     */
+    public static CatalogSnapshot map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Starts a snapshot of the given categories, to replace {@code path}
+     * once its books have been added and it is committed.
+     */
+    public static Writer writer(Path path, long catalogVersion, List<Category> categories) throws IOException {
+        return new Writer(path, catalogVersion, categories);
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public int getBookCount() {
+        return bookCount;
+    }
+
+    public List<Category> categories() {
+        List<Category> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            categories.add(readCategory(i));
+        }
+        return categories;
+    }
+
+    public Category findCategory(long categoryId) {
+        int recordNumber = categoryRecord(categoryId);
+        return recordNumber < 0 ? null : readCategory(recordNumber);
+    }
+
+    public Category findCategoryByName(String name) {
+        for (int i = 0; i < categoryCount; i++) {
+            int record = HEADER_BYTES + i * CATEGORY_RECORD_BYTES;
+            if (name.equalsIgnoreCase(readString(record + 8))) {
+                return readCategory(i);
+            }
+        }
+        return null;
+    }
+
+    public Book findBook(long bookId) {
+        if (bookId <= 0) {
+            return null;
+        }
+        for (int slot = slot(bookId, indexMask); ; slot = (slot + 1) & indexMask) {
+            int entry = indexOffset + slot * INDEX_ENTRY_BYTES;
+            long id = buffer.getLong(entry);
+            if (id == bookId) {
+                return readBook(buffer.getInt(entry + 8));
+            }
+            if (id == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The books of a category, in book id order, as a view over the
+     * mapping; each element is built when it is read.
+     */
+    public List<Book> booksInCategory(long categoryId) {
+        int recordNumber = categoryRecord(categoryId);
+        if (recordNumber < 0) {
+            return Collections.emptyList();
+        }
+        int record = HEADER_BYTES + recordNumber * CATEGORY_RECORD_BYTES;
+        return new BookRange(buffer.getInt(record + 16), buffer.getInt(record + 20));
+    }
+
+    /**
+     * Picks up to {@code limit} distinct books from a category at random.
+     */
+    public List<Book> randomBooksInCategory(long categoryId, int limit) {
+        List<Book> category = booksInCategory(categoryId);
+        int size = category.size();
+        int count = Math.max(0, Math.min(limit, size));
+        // Floyd's algorithm: count distinct positions without touching the rest of the category
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> picked = new HashSet<>(count * 2);
+        List<Book> books = new ArrayList<>(count);
+        for (int j = size - count; j < size; j++) {
+            int pick = random.nextInt(j + 1);
+            if (!picked.add(pick)) {
+                picked.add(j);
+                pick = j;
+            }
+            books.add(category.get(pick));
+        }
+        Collections.shuffle(books, random);
+        return books;
+    }
+
+    private int categoryRecord(long categoryId) {
+        int low = 0, high = categoryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(HEADER_BYTES + mid * CATEGORY_RECORD_BYTES);
+            if (id < categoryId) {
+                low = mid + 1;
+            } else if (id > categoryId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private Category readCategory(int recordNumber) {
+        int record = HEADER_BYTES + recordNumber * CATEGORY_RECORD_BYTES;
+        return new Category(buffer.getLong(record), readString(record + 8));
+    }
+
+    private Book readBook(int recordNumber) {
+        int record = booksOffset + recordNumber * BOOK_RECORD_BYTES;
+        return new Book(
+                buffer.getLong(record),
+                readString(record + 16),
+                readString(record + 24),
+                buffer.getInt(record + 32),
+                (buffer.getInt(record + 36) & 1) != 0,
+                buffer.getLong(record + 8),
+                buffer.getDouble(record + 40),
+                buffer.getLong(record + 48));
+    }
+
+    /**
+     * Reads the string referenced by the (offset, length) pair at {@code position}.
+     */
+    private String readString(int position) {
+        int offset = buffer.getInt(position);
+        int length = buffer.getInt(position + 4);
+        if (offset < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(stringsOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int slot(long bookId, int mask) {
+        long hash = bookId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Consecutive book records, read on access.
+     */
+    private class BookRange extends AbstractList<Book> implements RandomAccess {
+        private final int first;
+        private final int size;
+
+        BookRange(int first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public Book get(int index) {
+            Objects.checkIndex(index, size);
+            return readBook(first + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Writes a snapshot file book by book: records go straight to the file
+     * and strings to a pool file beside it, and the id index is built in a
+     * mapping of the file itself. The heap holds only the categories and a
+     * small write buffer, whatever the size of the catalog.
+     */
+    public static class Writer implements Closeable {
+
+        private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+        private final Path path;
+        private final Path temp;
+        private final Path stringsTemp;
+        private final FileChannel channel;
+        private final StringPool strings;
+        private final long catalogVersion;
+        private final List<Category> categories;
+        private final long[] categoryIds;
+        private final int[] firstBooks;
+        private final int[] bookCounts;
+        private final ByteBuffer records = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private final int booksOffset;
+        private long position;
+        private int bookCount;
+        private long lastCategoryId = Long.MIN_VALUE;
+        private long lastBookId;
+        private boolean committed;
+
+        private Writer(Path path, long catalogVersion, List<Category> categories) throws IOException {
+            this.path = path;
+            this.catalogVersion = catalogVersion;
+            this.categories = new ArrayList<>(categories);
+            this.categories.sort(Comparator.comparingLong(Category::getCategoryId));
+            this.categoryIds = this.categories.stream().mapToLong(Category::getCategoryId).toArray();
+            this.firstBooks = new int[categoryIds.length];
+            this.bookCounts = new int[categoryIds.length];
+            this.booksOffset = HEADER_BYTES + categoryIds.length * CATEGORY_RECORD_BYTES;
+            this.position = booksOffset;
+
+            Path directory = path.toAbsolutePath().getParent();
+            this.temp = Files.createTempFile(directory, "catalog", ".tmp");
+            this.stringsTemp = Files.createTempFile(directory, "catalog-strings", ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.strings = new StringPool(new BufferedOutputStream(Files.newOutputStream(stringsTemp), WRITE_BUFFER_BYTES));
+        }
+
+        /**
+         * Appends a book; books must come in (category id, book id) order.
+         */
+        public void add(Book book) throws IOException {
+            long categoryId = book.getCategoryId();
+            long bookId = book.getBookId();
+            if (bookId <= 0) {
+                throw new IllegalArgumentException("Book id must be positive: " + bookId);
+            }
+            if (categoryId < lastCategoryId || (categoryId == lastCategoryId && bookId <= lastBookId)) {
+                throw new IllegalArgumentException("Books must be added in (category id, book id) order; got book "
+                        + bookId + " in category " + categoryId + " after book " + lastBookId);
+            }
+            if (bookCount == Integer.MAX_VALUE) {
+                throw new IOException("Too many books for one catalog snapshot");
+            }
+            lastCategoryId = categoryId;
+            lastBookId = bookId;
+
+            int category = Arrays.binarySearch(categoryIds, categoryId);
+            if (category >= 0) {
+                if (bookCounts[category] == 0) {
+                    firstBooks[category] = bookCount;
+                }
+                bookCounts[category]++;
+            }
+            if (records.remaining() < BOOK_RECORD_BYTES) {
+                flushRecords();
+            }
+            records.putLong(bookId).putLong(categoryId);
+            strings.put(records, book.getTitle());
+            strings.put(records, book.getAuthor());
+            records.putInt(book.getPrice()).putInt(book.getIsPublic() ? 1 : 0)
+                    .putDouble(book.getRating()).putLong(book.getViewCount());
+            bookCount++;
+        }
+
+        /**
+         * Finishes the file and moves it into place atomically, so readers
+         * never see a partial snapshot.
+         */
+        public void commit() throws IOException {
+            flushRecords();
+            ByteBuffer categoryRecords = ByteBuffer.allocate(categoryIds.length * CATEGORY_RECORD_BYTES);
+            for (int i = 0; i < categoryIds.length; i++) {
+                categoryRecords.putLong(categoryIds[i]);
+                strings.put(categoryRecords, categories.get(i).getName());
+                categoryRecords.putInt(firstBooks[i]).putInt(bookCounts[i]);
+            }
+            strings.close();
+
+            long indexOffset = position;
+            int indexCapacity = indexCapacity(bookCount);
+            long stringsOffset = indexOffset + (long) indexCapacity * INDEX_ENTRY_BYTES;
+            if (stringsOffset + strings.size() > Integer.MAX_VALUE) {
+                throw new IOException("A catalog of " + bookCount + " books is too large for one snapshot file");
+            }
+            buildIndex(indexOffset, indexCapacity);
+
+            categoryRecords.flip();
+            writeFully(categoryRecords, HEADER_BYTES);
+            try (FileChannel pool = FileChannel.open(stringsTemp, StandardOpenOption.READ)) {
+                long copied = 0;
+                while (copied < strings.size()) {
+                    copied += pool.transferTo(copied, strings.size() - copied, channel.position(stringsOffset + copied));
+                }
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT).putLong(catalogVersion)
+                    .putInt(categoryIds.length).putInt(bookCount)
+                    .putInt((int) indexOffset).putInt((int) stringsOffset).putInt((int) strings.size())
+                    .putInt(indexCapacity);
+            header.flip();
+            writeFully(header, 0);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                strings.close();
+                channel.close();
+            } finally {
+                Files.deleteIfExists(stringsTemp);
+                if (!committed) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        /**
+         * Fills the index region from the book records already written,
+         * working on mappings of the file rather than the heap.
+         */
+        private void buildIndex(long indexOffset, int capacity) throws IOException {
+            int mask = capacity - 1;
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_WRITE, indexOffset,
+                    (long) capacity * INDEX_ENTRY_BYTES);
+            for (int slot = 0; slot < capacity; slot++) {
+                // bytes past the old end of the file are unspecified until written
+                index.putLong(slot * INDEX_ENTRY_BYTES, 0).putInt(slot * INDEX_ENTRY_BYTES + 8, 0);
+            }
+            if (bookCount > 0) {
+                MappedByteBuffer books = channel.map(FileChannel.MapMode.READ_ONLY, booksOffset,
+                        (long) bookCount * BOOK_RECORD_BYTES);
+                for (int recordNumber = 0; recordNumber < bookCount; recordNumber++) {
+                    long bookId = books.getLong(recordNumber * BOOK_RECORD_BYTES);
+                    int slot = slot(bookId, mask);
+                    while (index.getLong(slot * INDEX_ENTRY_BYTES) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    index.putLong(slot * INDEX_ENTRY_BYTES, bookId).putInt(slot * INDEX_ENTRY_BYTES + 8, recordNumber);
+                }
+            }
+            index.force();
+        }
+
+        /**
+         * A power of two at least twice the book count, so probes stay short.
+         */
+        private static int indexCapacity(int bookCount) {
+            long wanted = Math.max(16, 2L * bookCount);
+            long capacity = Long.highestOneBit(wanted - 1) << 1;
+            if (capacity > Integer.MAX_VALUE / INDEX_ENTRY_BYTES) {
+                throw new IllegalArgumentException("Too many books for one catalog snapshot: " + bookCount);
+            }
+            return (int) capacity;
+        }
+
+        private void flushRecords() throws IOException {
+            records.flip();
+            position += writeFully(records, position);
+            records.clear();
+        }
+
+        private int writeFully(ByteBuffer source, long at) throws IOException {
+            int written = 0;
+            while (source.hasRemaining()) {
+                written += channel.write(source, at + written);
+            }
+            return written;
+        }
+    }
+
+    private static class StringPool implements Closeable {
+        private final OutputStream out;
+        private long size;
+        private boolean closed;
+
+        StringPool(OutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Appends {@code value} to the pool and its (offset, length) to {@code record};
+         * null is stored as offset -1.
+         */
+        void put(ByteBuffer record, String value) throws IOException {
+            if (value == null) {
+                record.putInt(-1).putInt(0);
+                return;
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (size + encoded.length > Integer.MAX_VALUE) {
+                throw new IOException("Catalog strings are too large for one snapshot file");
+            }
+            record.putInt((int) size).putInt(encoded.length);
+            out.write(encoded);
+            size += encoded.length;
+        }
+
+        long size() {
+            return size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package business.catalog;
+
+import business.CatalogVersion;
+import business.UnitOfWork;
+import business.book.BookDao;
+import business.category.Category;
+import business.category.CategoryDao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Owns the catalog snapshot file: maps it at startup so the catalog can be
+ * served before the database is reachable, and rewrites it from the
+ * database whenever the catalog changes.
+ */
+public class CatalogSnapshotStore {
+
+    private static final Logger logger = Logger.getLogger(CatalogSnapshotStore.class.getName());
+
+    private final CategoryDao categoryDao;
+    private final BookDao bookDao;
+
+    private volatile Path path;
+    private volatile CatalogSnapshot snapshot;
+    private volatile boolean databaseReady;
+    private volatile boolean servingReads;
+
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-rewrite");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CatalogSnapshotStore(CategoryDao categoryDao, BookDao bookDao) {
+        this.categoryDao = categoryDao;
+        this.bookDao = bookDao;
+    }
+
+    /**
+     * Maps the snapshot at {@code path} if there is one; later refreshes
+     * are written to the same place.
+     */
+    public void load(Path path) {
+        this.path = path;
+        if (!Files.isRegularFile(path)) {
+            logger.info(() -> "No catalog snapshot at " + path + " yet");
+            return;
+        }
+        try {
+            snapshot = CatalogSnapshot.map(path);
+            logger.info(() -> "Mapped catalog snapshot " + path + " (catalog version " + snapshot.getCatalogVersion() + ")");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, e, () -> "Ignoring unreadable catalog snapshot " + path);
+        }
+    }
+
+    /**
+     * Reads the whole catalog from the database and writes a new snapshot,
+     * streaming the books from one to the other. A successful read also
+     * marks the database as ready to serve the catalog itself.
+     *
+     * The snapshot is labelled with the catalog version read from the
+     * database before the catalog itself, on the same connection, so it
+     * means the same catalog after a restart and on every node. A change
+     * committed while the books are being read leaves the snapshot at most
+     * one version behind what it holds, never ahead.
+     */
+    public void refresh() throws IOException {
+        Path target = path;
+        if (target == null) {
+            UnitOfWork.read(categoryDao::findAll);
+            markDatabaseReady();
+            return;
+        }
+        int[] categoryCount = new int[1];
+        long[] version = new long[1];
+        try {
+            UnitOfWork.read(() -> {
+                version[0] = CatalogVersion.read();
+                List<Category> categories = categoryDao.findAll();
+                categoryCount[0] = categories.size();
+                try (CatalogSnapshot.Writer writer = CatalogSnapshot.writer(target, version[0], categories)) {
+                    bookDao.forEachInCategoryOrder(book -> {
+                        try {
+                            writer.add(book);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    writer.commit();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            // the database answered; only the file could not be written
+            markDatabaseReady();
+            throw e.getCause();
+        }
+        CatalogSnapshot written = CatalogSnapshot.map(target);
+        snapshot = written;
+        markDatabaseReady();
+        logger.info(() -> "Wrote catalog snapshot with " + categoryCount[0] + " categories and "
+                + written.getBookCount() + " books to " + target + " (catalog version " + version[0] + ")");
+    }
+
+    private void markDatabaseReady() {
+        databaseReady = true;
+    }
+
+    /**
+     * Rewrites the snapshot in the background, after a change to the
+     * catalog; requests made while one is already waiting to run are
+     * covered by it.
+     */
+    public void refreshLater() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            refreshQueued.set(false);
+            try {
+                refresh();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, e, () -> "Failed to rewrite the catalog snapshot after a catalog change");
+            }
+        });
+    }
+
+    /**
+     * The mapped snapshot, or null if none has been loaded or written.
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Has catalog reads answered from the snapshot whenever it is of the
+     * current catalog version, not only while the database is unavailable,
+     * so a large catalog is served from memory with little heap.
+     */
+    public void serveReads(boolean servingReads) {
+        this.servingReads = servingReads;
+    }
+
+    /**
+     * Whether a read should be answered from {@code snapshot} rather than
+     * the database: always until the database is ready, and afterwards when
+     * reads are served from snapshots and this one is current.
+     */
+    public boolean serves(CatalogSnapshot snapshot) {
+        // until this node has read the version (0), no snapshot is known to be current
+        return snapshot != null && (!databaseReady
+                || (servingReads && CatalogVersion.current() > 0
+                        && snapshot.getCatalogVersion() == CatalogVersion.current()));
+    }
+
+    /**
+     * Whether the database has answered a full catalog read since startup.
+     */
+    public boolean isDatabaseReady() {
+        return databaseReady;
+    }
+}
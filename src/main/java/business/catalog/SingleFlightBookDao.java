@@ -0,0 +1,67 @@
+package business.catalog;
+
+import business.CatalogVersion;
+import business.SingleFlight;
+import business.book.Book;
+import business.book.BookDao;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Shares each book lookup between the requests that make it at the same
+ * time (see {@link SingleFlight}), so a burst on one category runs its
+ * query once. Random picks are not shared, since each caller should get
+ * its own; the lists returned may be shared and must not be modified.
+ */
+public class SingleFlightBookDao implements BookDao {
+
+    private final BookDao delegate;
+    private final SingleFlight reads;
+
+    public SingleFlightBookDao(BookDao delegate, SingleFlight reads) {
+        this.delegate = delegate;
+        this.reads = reads;
+    }
+
+    @Override
+    public Book findByBookId(long bookId) {
+        return reads.call(key("findByBookId/" + bookId), () -> delegate.findByBookId(bookId));
+    }
+
+    @Override
+    public List<Book> findByBookIds(Collection<Long> bookIds) {
+        return reads.call(key("findByBookIds/" + new TreeSet<>(bookIds)), () -> delegate.findByBookIds(bookIds));
+    }
+
+    @Override
+    public List<Book> findByCategoryId(long categoryId) {
+        return reads.call(key("findByCategoryId/" + categoryId), () -> delegate.findByCategoryId(categoryId));
+    }
+
+    @Override
+    public List<Book> findRandomByCategoryId(long categoryId, int limit) {
+        return delegate.findRandomByCategoryId(categoryId, limit);
+    }
+
+    @Override
+    public void forEachInCategoryOrder(Consumer<Book> action) {
+        delegate.forEachInCategoryOrder(action);
+    }
+
+    @Override
+    public void upsertAll(Connection connection, List<ImportedBook> books) {
+        delegate.upsertAll(connection, books);
+    }
+
+    /**
+     * A caller that arrives once the catalog version has moved on must not
+     * join a call started before it did.
+     */
+    private static String key(String call) {
+        return call + "@" + CatalogVersion.current();
+    }
+}
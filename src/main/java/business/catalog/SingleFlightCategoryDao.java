@@ -0,0 +1,59 @@
+package business.catalog;
+
+import business.CatalogVersion;
+import business.SingleFlight;
+import business.book.Book;
+import business.category.Category;
+import business.category.CategoryDao;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Shares each category lookup between the requests that make it at the
+ * same time (see {@link SingleFlight}). Random picks are not shared, since
+ * each caller should get its own; the lists returned may be shared and
+ * must not be modified.
+ */
+public class SingleFlightCategoryDao implements CategoryDao {
+
+    private final CategoryDao delegate;
+    private final SingleFlight reads;
+
+    public SingleFlightCategoryDao(CategoryDao delegate, SingleFlight reads) {
+        this.delegate = delegate;
+        this.reads = reads;
+    }
+
+    @Override
+    public List<Category> findAll() {
+        return reads.call(key("findAll"), delegate::findAll);
+    }
+
+    @Override
+    public Category findByCategoryId(long categoryId) {
+        return reads.call(key("findByCategoryId/" + categoryId), () -> delegate.findByCategoryId(categoryId));
+    }
+
+    @Override
+    public Category findByName(String categoryName) {
+        return reads.call(key("findByName/" + categoryName), () -> delegate.findByName(categoryName));
+    }
+
+    @Override
+    public List<Book> findRandomByCategoryName(String categoryName, int limit) {
+        return delegate.findRandomByCategoryName(categoryName, limit);
+    }
+
+    @Override
+    public void upsertAll(Connection connection, List<Category> categories) {
+        delegate.upsertAll(connection, categories);
+    }
+
+    /**
+     * Calls made under different catalog versions are never shared.
+     */
+    private static String key(String call) {
+        return call + "@" + CatalogVersion.current();
+    }
+}
@@ -0,0 +1,115 @@
+package business.catalog;
+
+import business.BookstoreDbException.BookstoreConnectionDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+import business.book.Book;
+import business.book.BookDao;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Serves books from the catalog snapshot until the database is ready, while
+ * the store serves reads from a current snapshot (see
+ * {@link CatalogSnapshotStore#serveReads}), and whenever the database
+ * cannot be reached; otherwise defers to the database. Only for browsing:
+ * whatever checks a price reads the database directly.
+ */
+public class SnapshotBookDao implements BookDao {
+
+    private final BookDao delegate;
+    private final CatalogSnapshotStore snapshots;
+
+    public SnapshotBookDao(BookDao delegate, CatalogSnapshotStore snapshots) {
+        this.delegate = delegate;
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public Book findByBookId(long bookId) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.findBook(bookId);
+        }
+        try {
+            return delegate.findByBookId(bookId);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.findBook(bookId);
+        }
+    }
+
+    @Override
+    public List<Book> findByBookIds(Collection<Long> bookIds) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return findInSnapshot(snapshot, bookIds);
+        }
+        try {
+            return delegate.findByBookIds(bookIds);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return findInSnapshot(snapshot, bookIds);
+        }
+    }
+
+    @Override
+    public List<Book> findByCategoryId(long categoryId) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.booksInCategory(categoryId);
+        }
+        try {
+            return delegate.findByCategoryId(categoryId);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.booksInCategory(categoryId);
+        }
+    }
+
+    @Override
+    public List<Book> findRandomByCategoryId(long categoryId, int limit) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.randomBooksInCategory(categoryId, limit);
+        }
+        try {
+            return delegate.findRandomByCategoryId(categoryId, limit);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.randomBooksInCategory(categoryId, limit);
+        }
+    }
+
+    @Override
+    public void forEachInCategoryOrder(Consumer<Book> action) {
+        delegate.forEachInCategoryOrder(action);
+    }
+
+    @Override
+    public void upsertAll(Connection connection, List<ImportedBook> books) {
+        delegate.upsertAll(connection, books);
+    }
+
+    private static List<Book> findInSnapshot(CatalogSnapshot snapshot, Collection<Long> bookIds) {
+        List<Book> books = new ArrayList<>(bookIds.size());
+        for (long bookId : bookIds) {
+            Book book = snapshot.findBook(bookId);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+}
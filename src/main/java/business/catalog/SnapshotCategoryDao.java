@@ -0,0 +1,85 @@
+package business.catalog;
+
+import business.BookstoreDbException.BookstoreConnectionDbException;
+import business.BookstoreDbException.BookstoreUnavailableDbException;
+import business.book.Book;
+import business.category.Category;
+import business.category.CategoryDao;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Serves categories from the catalog snapshot until the database is ready,
+ * while the store serves reads from a current snapshot (see
+ * {@link CatalogSnapshotStore#serveReads}), and whenever the database
+ * cannot be reached; otherwise defers to the database.
+ */
+public class SnapshotCategoryDao implements CategoryDao {
+
+    private final CategoryDao delegate;
+    private final CatalogSnapshotStore snapshots;
+
+    public SnapshotCategoryDao(CategoryDao delegate, CatalogSnapshotStore snapshots) {
+        this.delegate = delegate;
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public List<Category> findAll() {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.categories();
+        }
+        try {
+            return delegate.findAll();
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.categories();
+        }
+    }
+
+    @Override
+    public Category findByCategoryId(long categoryId) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.findCategory(categoryId);
+        }
+        try {
+            return delegate.findByCategoryId(categoryId);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.findCategory(categoryId);
+        }
+    }
+
+    @Override
+    public Category findByName(String categoryName) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshots.serves(snapshot)) {
+            return snapshot.findCategoryByName(categoryName);
+        }
+        try {
+            return delegate.findByName(categoryName);
+        } catch (BookstoreConnectionDbException | BookstoreUnavailableDbException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            return snapshot.findCategoryByName(categoryName);
+        }
+    }
+
+    @Override
+    public List<Book> findRandomByCategoryName(String categoryName, int limit) {
+        return delegate.findRandomByCategoryName(categoryName, limit);
+    }
+
+    @Override
+    public void upsertAll(Connection connection, List<Category> categories) {
+        delegate.upsertAll(connection, categories);
+    }
+}
@@ -2,6 +2,7 @@ package business.category;
 
 import business.book.Book;
 
+import java.sql.Connection;
 import java.util.List;
 
 public interface CategoryDao {
@@ -13,4 +14,10 @@ public interface CategoryDao {
     public Category findByName(String categoryName);
 
     public List<Book> findRandomByCategoryName(String categoryName, int limit);
+
+    /**
+     * Inserts the categories, or renames those that already exist, as one
+     * batch.
+     */
+    public void upsertAll(Connection connection, List<Category> categories);
 }
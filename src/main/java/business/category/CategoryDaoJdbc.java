@@ -1,8 +1,11 @@
 package business.category;
 
 import business.BookstoreDbException.BookstoreQueryDbException;
+import business.BookstoreDbException.BookstoreUpdateDbException;
 import business.JdbcUtils;
+import business.RowMapper;
 import business.book.Book;
+import business.book.BookDaoJdbc;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -28,22 +31,28 @@ public class CategoryDaoJdbc implements CategoryDao {
                     "WHERE name = ?";
 
     private static final String FIND_RANDOM_BY_CATEGORY_NAME_SQL =
-            "SELECT book_id, title, author, price, is_public, category_id " +
-                    "FROM book " +
-                    "WHERE category_id = ? " +
+            "SELECT b.book_id, b.title, b.author, b.price, b.is_public, b.category_id, b.rating, b.view_count " +
+                    "FROM book b " +
+                    "JOIN category c ON c.category_id = b.category_id " +
+                    "WHERE c.name = ? " +
                     "ORDER BY RAND() " +
                     "LIMIT ?";
 
+    private static final String UPSERT_SQL =
+            "INSERT INTO category (category_id, name) " +
+                    "VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE name = VALUES(name)";
+
+    private static final RowMapper<Category> CATEGORY_MAPPER = new RowMapper<>(CategoryDaoJdbc::readCategory,
+            "category_id", "name");
+
     @Override
     public List<Category> findAll() {
         List<Category> categories = new ArrayList<>();
-        try (Connection connection = JdbcUtils.getConnection();
+        try (Connection connection = JdbcUtils.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_SQL);
              ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                Category category = readCategory(resultSet);
-                categories.add(category);
-            }
+            categories.addAll(CATEGORY_MAPPER.readAll(resultSet));
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered a problem finding all categories", e);
         }
@@ -53,13 +62,11 @@ public class CategoryDaoJdbc implements CategoryDao {
     @Override
     public Category findByCategoryId(long categoryId) {
         Category category = null;
-        try (Connection connection = JdbcUtils.getConnection();
+        try (Connection connection = JdbcUtils.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_CATEGORY_ID_SQL)) {
             statement.setLong(1, categoryId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    category = readCategory(resultSet);
-                }
+                category = CATEGORY_MAPPER.readFirst(resultSet);
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered a problem finding category " + categoryId, e);
@@ -70,13 +77,11 @@ public class CategoryDaoJdbc implements CategoryDao {
     @Override
     public Category findByName(String name) {
         Category category = null;
-        try (Connection connection = JdbcUtils.getConnection();
+        try (Connection connection = JdbcUtils.getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_NAME_SQL)) {
             statement.setString(1, name);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    category = readCategory(resultSet);
-                }
+                category = CATEGORY_MAPPER.readFirst(resultSet);
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered a problem finding category " + name, e);
@@ -89,14 +94,12 @@ public class CategoryDaoJdbc implements CategoryDao {
     public List<Book> findRandomByCategoryName(String categoryName, int limit)
             {
         List<Book> books = new ArrayList<>();
-        try(Connection connection = JdbcUtils.getConnection();
+        try(Connection connection = JdbcUtils.getReadConnection();
             PreparedStatement statement = connection.prepareStatement(FIND_RANDOM_BY_CATEGORY_NAME_SQL)) {
-            statement.setLong(1, limit);
+            statement.setString(1, categoryName);
             statement.setInt(2, limit);
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    Category category = readCategory(resultSet);
-                }
+                books.addAll(BookDaoJdbc.BOOK_MAPPER.readAll(resultSet));
             }
         }catch (SQLException e){
             throw new BookstoreQueryDbException("Encountered a problem finding book associated with category " + categoryName, e);
@@ -104,12 +107,23 @@ public class CategoryDaoJdbc implements CategoryDao {
         return books;
     }
 
+    @Override
+    public void upsertAll(Connection connection, List<Category> categories) {
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+            for (Category category : categories) {
+                statement.setLong(1, category.getCategoryId());
+                statement.setString(2, category.getName());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered a problem upserting " + categories.size() + " categories", e);
+        }
+    }
 
-
-
-    private Category readCategory(ResultSet resultSet) throws SQLException {
-        long categoryId = resultSet.getLong("category_id");
-        String name = resultSet.getString("name");
+    private static Category readCategory(ResultSet resultSet, int[] column) throws SQLException {
+        long categoryId = resultSet.getLong(column[0]);
+        String name = resultSet.getString(column[1]);
         return new Category(categoryId, name);
     }
 
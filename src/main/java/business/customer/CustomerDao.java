@@ -14,6 +14,18 @@ public interface CustomerDao {
                        String ccNumber,
                        Date ccExpDate);
 
+    /**
+     * A customer to be created by {@link #createAll}.
+     */
+    record NewCustomer(String name, String address, String phone, String email, String ccNumber,
+                       Date ccExpDate) {
+    }
+
+    /**
+     * Creates the customers as one batch, returning their ids in order.
+     */
+    public long[] createAll(Connection connection, List<NewCustomer> customers);
+
     public List<Customer> findAll();
 
     public Customer findByCustomerId(long customerId);
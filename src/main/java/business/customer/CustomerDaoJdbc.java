@@ -2,13 +2,14 @@ package business.customer;
 
 import business.BookstoreDbException.BookstoreQueryDbException;
 import business.BookstoreDbException.BookstoreUpdateDbException;
+import business.RowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import static business.JdbcUtils.getConnection;
+import static business.JdbcUtils.getReadConnection;
 
 public class CustomerDaoJdbc implements CustomerDao {
 
@@ -26,6 +27,9 @@ public class CustomerDaoJdbc implements CustomerDao {
                     "phone, email, cc_number, cc_exp_date " +
                     "FROM customer WHERE customer_id = ?";
 
+    private static final RowMapper<Customer> CUSTOMER_MAPPER = new RowMapper<>(CustomerDaoJdbc::readCustomer,
+            "customer_id", "name", "address", "phone", "email", "cc_number", "cc_exp_date");
+
     @Override
     public long create(Connection connection,
                        String name,
@@ -60,16 +64,42 @@ public class CustomerDaoJdbc implements CustomerDao {
 
     }
 
+    @Override
+    public long[] createAll(Connection connection, List<NewCustomer> customers) {
+        try (PreparedStatement statement =
+                     connection.prepareStatement(CREATE_CUSTOMER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (NewCustomer customer : customers) {
+                statement.setString(1, customer.name());
+                statement.setString(2, customer.address());
+                statement.setString(3, customer.phone());
+                statement.setString(4, customer.email());
+                statement.setString(5, customer.ccNumber());
+                statement.setDate(6, new java.sql.Date(customer.ccExpDate().getTime()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            long[] customerIds = new long[customers.size()];
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                for (int i = 0; i < customerIds.length; i++) {
+                    if (!rs.next()) {
+                        throw new BookstoreUpdateDbException("Failed to retrieve customerId auto-generated keys");
+                    }
+                    customerIds[i] = rs.getLong(1);
+                }
+            }
+            return customerIds;
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem creating " + customers.size() + " customers", e);
+        }
+    }
+
     @Override
     public List<Customer> findAll() {
         List<Customer> result = new ArrayList<>();
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_SQL);
              ResultSet resultSet = statement.executeQuery()) {
-            while (resultSet.next()) {
-                Customer c = readCustomer(resultSet);
-                result.add(c);
-            }
+            result.addAll(CUSTOMER_MAPPER.readAll(resultSet));
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding all categories", e);
         }
@@ -82,14 +112,12 @@ public class CustomerDaoJdbc implements CustomerDao {
     public Customer findByCustomerId(long customerId) {
 
         Customer result = null;
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_CUSTOMER_ID_SQL)) {
             statement.setLong(1, customerId);
 
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    result = readCustomer(resultSet);
-                }
+                result = CUSTOMER_MAPPER.readFirst(resultSet);
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding customer " + customerId, e);
@@ -97,14 +125,14 @@ public class CustomerDaoJdbc implements CustomerDao {
         return result;
     }
 
-    private Customer readCustomer(ResultSet resultSet) throws SQLException {
-        long customerId = resultSet.getLong("customer_id");
-        String name = resultSet.getString("name");
-        String address = resultSet.getString("address");
-        String phone = resultSet.getString("phone");
-        String email = resultSet.getString("email");
-        String ccNumber = resultSet.getString("cc_number");
-        Date ccExpDate = resultSet.getDate("cc_exp_date");
+    private static Customer readCustomer(ResultSet resultSet, int[] column) throws SQLException {
+        long customerId = resultSet.getLong(column[0]);
+        String name = resultSet.getString(column[1]);
+        String address = resultSet.getString(column[2]);
+        String phone = resultSet.getString(column[3]);
+        String email = resultSet.getString(column[4]);
+        String ccNumber = resultSet.getString(column[5]);
+        Date ccExpDate = resultSet.getDate(column[6]);
         return new Customer(customerId, name, address, phone, email, ccNumber, ccExpDate);
     }
 }
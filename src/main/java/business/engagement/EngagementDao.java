@@ -0,0 +1,19 @@
+package business.engagement;
+
+import java.sql.Connection;
+import java.util.Map;
+
+public interface EngagementDao {
+
+    /**
+     * Views and ratings recorded for one book since the last flush.
+     */
+    record Delta(long views, long ratingTotal, long ratingCount) {
+    }
+
+    /**
+     * Adds the deltas to the books' totals and recomputes their average
+     * ratings, as one batch.
+     */
+    public void addEngagement(Connection connection, Map<Long, Delta> deltas);
+}
@@ -0,0 +1,35 @@
+package business.engagement;
+
+import business.BookstoreDbException.BookstoreUpdateDbException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+public class EngagementDaoJdbc implements EngagementDao {
+
+    // MySQL assigns left to right, so the average uses the updated totals
+    private static final String ADD_ENGAGEMENT_SQL =
+            "UPDATE book SET view_count = view_count + ?, " +
+                    "rating_total = rating_total + ?, rating_count = rating_count + ?, " +
+                    "rating = IF(rating_count = 0, rating, rating_total / rating_count) " +
+                    "WHERE book_id = ?";
+
+    @Override
+    public void addEngagement(Connection connection, Map<Long, Delta> deltas) {
+        try (PreparedStatement statement = connection.prepareStatement(ADD_ENGAGEMENT_SQL)) {
+            for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+                Delta delta = entry.getValue();
+                statement.setLong(1, delta.views());
+                statement.setLong(2, delta.ratingTotal());
+                statement.setLong(3, delta.ratingCount());
+                statement.setLong(4, entry.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem recording book engagement", e);
+        }
+    }
+}
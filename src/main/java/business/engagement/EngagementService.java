@@ -0,0 +1,191 @@
+package business.engagement;
+
+import api.ApiException;
+import business.JdbcUtils;
+import business.TransactionRetry;
+import business.engagement.EngagementDao.Delta;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records book views and ratings in memory and writes them to the database
+ * in one batch every few seconds, so that a page view costs an increment
+ * rather than an UPDATE.
+ *
+ * Counts are striped {@link LongAdder}s, so concurrent views of the same
+ * book do not contend. A crash loses at most one flush interval of views
+ * and ratings; a failed flush writes nothing and keeps its counts for the
+ * next one.
+ */
+public class EngagementService {
+
+    private static final Logger logger = Logger.getLogger(EngagementService.class.getName());
+
+    private static final long FLUSH_INTERVAL_SECONDS = 10;
+
+    /**
+     * Bounds the memory the counters can take up. Callers only record
+     * engagement with books that exist, so this is a backstop.
+     */
+    private static final int MAX_TRACKED_BOOKS = 100_000;
+
+    private static final int MIN_RATING = 1;
+
+    private static final int MAX_RATING = 5;
+
+    private static class Counters {
+        final LongAdder views = new LongAdder();
+        final LongAdder ratingTotal = new LongAdder();
+        final LongAdder ratingCount = new LongAdder();
+        /**
+         * Found with nothing to flush by the last flush; only the flush reads
+         * and writes this.
+         */
+        boolean idle;
+    }
+
+    private final EngagementDao engagementDao;
+
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Counters taken out of {@link #pending} by the last flush. A request
+     * that looked one up just before may still count on it, so they are
+     * read once more, by the next flush, before they are let go.
+     */
+    private Map<Long, Counters> retired = new HashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "engagement-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EngagementService(EngagementDao engagementDao) {
+        this.engagementDao = engagementDao;
+        flusher.scheduleWithFixedDelay(this::flush,
+                FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void recordView(long bookId) {
+        Counters counters = counters(bookId);
+        if (counters != null) {
+            counters.views.increment();
+        }
+    }
+
+    public void rate(long bookId, int rating) {
+        if (rating < MIN_RATING || rating > MAX_RATING) {
+            throw new ApiException.ValidationFailure("rating", "Rating must be from " + MIN_RATING
+                    + " to " + MAX_RATING);
+        }
+        Counters counters = counters(bookId);
+        if (counters != null) {
+            counters.ratingTotal.add(rating);
+            counters.ratingCount.increment();
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes out whatever is still pending.
+     */
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    private Counters counters(long bookId) {
+        Counters counters = pending.get(bookId);
+        if (counters == null && pending.size() < MAX_TRACKED_BOOKS) {
+            counters = pending.computeIfAbsent(bookId, id -> new Counters());
+        }
+        return counters;
+    }
+
+    /**
+     * Takes what each counter has accumulated by subtracting exactly the
+     * amount read, so increments racing with the flush are kept for the
+     * next one rather than lost, and writes it all in one transaction, so
+     * that a failed flush has written nothing and can put it all back.
+     *
+     * A counter is removed only after two flushes in a row found it idle,
+     * and what lands on it after its removal is picked up by the flush
+     * after that.
+     */
+    private synchronized void flush() {
+        Map<Long, Delta> deltas = new HashMap<>();
+        retired.forEach((bookId, counters) -> add(deltas, bookId, counters.views.sum(),
+                counters.ratingTotal.sum(), counters.ratingCount.sum()));
+        retired = new HashMap<>();
+        for (Map.Entry<Long, Counters> entry : pending.entrySet()) {
+            Counters counters = entry.getValue();
+            long views = counters.views.sum();
+            long ratingTotal = counters.ratingTotal.sum();
+            long ratingCount = counters.ratingCount.sum();
+            if (views == 0 && ratingCount == 0) {
+                if (counters.idle && pending.remove(entry.getKey(), counters)) {
+                    retired.put(entry.getKey(), counters);
+                }
+                counters.idle = true;
+                continue;
+            }
+            counters.idle = false;
+            counters.views.add(-views);
+            counters.ratingTotal.add(-ratingTotal);
+            counters.ratingCount.add(-ratingCount);
+            add(deltas, entry.getKey(), views, ratingTotal, ratingCount);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (Connection connection = JdbcUtils.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                engagementDao.addEngagement(connection, deltas);
+            } catch (RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            try {
+                connection.commit();
+            } catch (SQLException e) {
+                if (TransactionRetry.classify(e) == null) {
+                    // may have been kept; putting it back could count it twice
+                    logger.log(Level.WARNING, e, () -> "Lost track of whether engagement for " + deltas.size()
+                            + " books was written; dropping it");
+                    return;
+                }
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, e, () -> "Failed to flush engagement for " + deltas.size()
+                    + " books; keeping it for the next flush");
+            deltas.forEach((bookId, delta) -> {
+                Counters counters = counters(bookId);
+                if (counters != null) {
+                    counters.views.add(delta.views());
+                    counters.ratingTotal.add(delta.ratingTotal());
+                    counters.ratingCount.add(delta.ratingCount());
+                }
+            });
+        }
+    }
+
+    private static void add(Map<Long, Delta> deltas, long bookId, long views, long ratingTotal, long ratingCount) {
+        if (views == 0 && ratingCount == 0) {
+            return;
+        }
+        deltas.merge(bookId, new Delta(views, ratingTotal, ratingCount), (a, b) -> new Delta(a.views() + b.views(),
+                a.ratingTotal() + b.ratingTotal(), a.ratingCount() + b.ratingCount()));
+    }
+}
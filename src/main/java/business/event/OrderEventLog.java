@@ -0,0 +1,21 @@
+package business.event;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Consumer that writes a line per placed order to the log, as an audit
+ * trail kept off the checkout path.
+ */
+public class OrderEventLog {
+
+    private static final Logger logger = Logger.getLogger(OrderEventLog.class.getName());
+
+    public static void log(List<OrderPlaced> events) {
+        for (OrderPlaced event : events) {
+            logger.info(() -> "Order " + event.orderId() + " (confirmation " + event.confirmationNumber()
+                    + ") placed by customer " + event.customerId() + ": " + event.books().size()
+                    + " books, total " + event.amount());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package business.event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ring consumer that remembers the most recent orders and passes new ones
+ * on to live subscribers, so a subscriber that reconnects can be given
+ * what it missed without going to the database.
+ *
+ * The ring consumer only queues new orders for each subscriber; they are
+ * delivered on a thread of their own, one delivery per subscriber at a
+ * time, so a client that is slow to read holds up its own stream and no
+ * other. A subscriber that falls a whole window behind is dropped, and
+ * can reconnect to catch up from the window or the database.
+ */
+public class OrderEventWindow {
+
+    private static final Logger logger = Logger.getLogger(OrderEventWindow.class.getName());
+
+    public interface Subscriber {
+        /**
+         * Receives events in the order they were published; returns false
+         * to be unsubscribed.
+         */
+        boolean deliver(List<OrderPlaced> events);
+
+        /**
+         * Called once the subscriber has been unsubscribed for falling too
+         * far behind; it should end its stream so the client reconnects.
+         */
+        void dropped();
+    }
+
+    /**
+     * A subscriber's events not yet delivered, guarded by the window's lock.
+     */
+    private static class Subscription {
+        final Subscriber subscriber;
+        final ArrayDeque<OrderPlaced> pending = new ArrayDeque<>();
+        boolean delivering;
+        boolean cancelled;
+
+        Subscription(Subscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+    }
+
+    private final int capacity;
+
+    private final ArrayDeque<OrderPlaced> events;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * At most one thread per subscriber, and subscribers are capped by
+     * whoever subscribes them.
+     */
+    private final ExecutorService delivery = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "order-event-delivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderEventWindow(int capacity) {
+        this.capacity = capacity;
+        this.events = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * The ring consumer.
+     */
+    public void accept(List<OrderPlaced> batch) {
+        List<Subscription> ready = new ArrayList<>();
+        List<Subscription> lagging = new ArrayList<>();
+        synchronized (this) {
+            for (OrderPlaced event : batch) {
+                if (events.size() == capacity) {
+                    events.removeFirst();
+                }
+                events.addLast(event);
+            }
+            for (Subscription subscription : subscriptions) {
+                if (subscription.pending.size() + batch.size() > capacity) {
+                    subscription.cancelled = true;
+                    lagging.add(subscription);
+                } else if (enqueue(subscription, batch)) {
+                    ready.add(subscription);
+                }
+            }
+            subscriptions.removeAll(lagging);
+        }
+        ready.forEach(this::deliverLater);
+        lagging.forEach(subscription -> subscription.subscriber.dropped());
+    }
+
+    /**
+     * Whether the window still holds the order with this id.
+     */
+    public synchronized boolean contains(long orderId) {
+        for (OrderPlaced event : events) {
+            if (event.orderId() == orderId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Subscribes to new orders, first replaying those that followed
+     * {@code afterOrderId}: everything published after it if it is still
+     * in the window, otherwise everything with a larger id. A negative id
+     * replays nothing.
+     */
+    public void subscribe(long afterOrderId, Subscriber subscriber) {
+        Subscription subscription = new Subscription(subscriber);
+        boolean ready = false;
+        synchronized (this) {
+            if (afterOrderId >= 0) {
+                List<OrderPlaced> replay = new ArrayList<>();
+                boolean found = contains(afterOrderId);
+                boolean passed = false;
+                for (OrderPlaced event : events) {
+                    if (found ? passed : event.orderId() > afterOrderId) {
+                        replay.add(event);
+                    }
+                    passed |= event.orderId() == afterOrderId;
+                }
+                ready = enqueue(subscription, replay);
+            }
+            subscriptions.add(subscription);
+        }
+        if (ready) {
+            deliverLater(subscription);
+        }
+    }
+
+    public synchronized void unsubscribe(Subscriber subscriber) {
+        subscriptions.removeIf(subscription -> {
+            if (subscription.subscriber != subscriber) {
+                return false;
+            }
+            subscription.cancelled = true;
+            return true;
+        });
+    }
+
+    public synchronized int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public void shutdown() {
+        delivery.shutdownNow();
+    }
+
+    /**
+     * Queues events for a subscriber; true if no delivery is under way for
+     * it, so the caller must start one.
+     */
+    private boolean enqueue(Subscription subscription, List<OrderPlaced> batch) {
+        if (batch.isEmpty()) {
+            return false;
+        }
+        subscription.pending.addAll(batch);
+        if (subscription.delivering) {
+            return false;
+        }
+        subscription.delivering = true;
+        return true;
+    }
+
+    private void deliverLater(Subscription subscription) {
+        try {
+            delivery.execute(() -> deliver(subscription));
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            synchronized (this) {
+                subscription.delivering = false;
+            }
+        }
+    }
+
+    /**
+     * Delivers whatever the subscriber has pending, outside the lock,
+     * until nothing is left.
+     */
+    private void deliver(Subscription subscription) {
+        while (true) {
+            List<OrderPlaced> batch;
+            synchronized (this) {
+                if (subscription.cancelled || subscription.pending.isEmpty()) {
+                    subscription.pending.clear();
+                    subscription.delivering = false;
+                    return;
+                }
+                batch = List.copyOf(subscription.pending);
+                subscription.pending.clear();
+            }
+            boolean keep;
+            try {
+                keep = subscription.subscriber.deliver(batch);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, e, () -> "Order event subscriber failed; unsubscribing it");
+                keep = false;
+            }
+            if (!keep) {
+                unsubscribe(subscription.subscriber);
+            }
+        }
+    }
+}
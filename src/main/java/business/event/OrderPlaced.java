@@ -0,0 +1,13 @@
+package business.event;
+
+import java.util.List;
+
+/**
+ * Published once an order's transaction has committed.
+ */
+public record OrderPlaced(long orderId, int confirmationNumber, long customerId, String customerEmail,
+                          int amount, List<OrderedBook> books, long placedAtMillis) {
+
+    public record OrderedBook(long bookId, int quantity) {
+    }
+}
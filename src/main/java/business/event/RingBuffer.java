@@ -0,0 +1,283 @@
+package business.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A fixed-size, in-process event ring with any number of consumers, each
+ * reading every event in order on a thread of its own.
+ *
+ * Publishing only writes a slot and advances the cursor; consumers pick
+ * events up in batches of whatever has been published since they last
+ * looked. Publishers are serialized, so the ring always has a single
+ * producer at a time.
+ *
+ * A consumer that falls a whole ring behind is handled according to its
+ * {@link Backpressure}: either the publisher waits for it (for a bounded
+ * time, after which the event is rejected), or the consumer loses the
+ * oldest events it has not read yet.
+ */
+public class RingBuffer<E> {
+
+    private static final Logger logger = Logger.getLogger(RingBuffer.class.getName());
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long PUBLISHER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    public enum Backpressure {
+        /**
+         * Never lose an event: the publisher waits for this consumer.
+         */
+        BLOCK_PUBLISHER,
+        /**
+         * Never slow the publisher: this consumer skips events it was too slow to read.
+         */
+        DROP_OLDEST
+    }
+
+    public record Snapshot(String name, int capacity, long published, long rejected,
+                           List<ConsumerSnapshot> consumers) {
+    }
+
+    public record ConsumerSnapshot(String name, Backpressure backpressure, long processed, long lag,
+                                   long dropped, long failedBatches) {
+    }
+
+    private final String name;
+    private final int capacity;
+    private final int mask;
+    private final long maxPublishWaitNanos;
+
+    private final AtomicReferenceArray<E> events;
+    /**
+     * The sequence number each slot currently holds, or -1 while it is being written.
+     */
+    private final AtomicLongArray slotSequences;
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final List<ConsumerThread> consumers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param capacity           number of slots, rounded up to a power of two
+     * @param maxPublishWait     how long a publisher may wait for a blocking consumer
+     */
+    public RingBuffer(String name, int capacity, long maxPublishWait, TimeUnit unit) {
+        this.name = name;
+        this.capacity = Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.mask = this.capacity - 1;
+        this.maxPublishWaitNanos = unit.toNanos(maxPublishWait);
+        this.events = new AtomicReferenceArray<>(this.capacity);
+        this.slotSequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            slotSequences.set(i, -1);
+        }
+    }
+
+    /**
+     * Starts a consumer that receives every event published from now on,
+     * in batches of at most {@code maxBatchSize}.
+     */
+    public void subscribe(String consumerName, int maxBatchSize, Backpressure backpressure,
+                          Consumer<List<E>> handler) {
+        publishLock.lock();
+        try {
+            ConsumerThread consumer = new ConsumerThread(consumerName, maxBatchSize, backpressure, handler,
+                    cursor.get());
+            consumers.add(consumer);
+            consumer.start();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes an event. Returns false, without publishing, if a blocking
+     * consumer stayed a full ring behind for longer than the configured wait
+     * or the ring has been shut down.
+     */
+    public boolean publish(E event) {
+        publishLock.lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            long next = cursor.get() + 1;
+            if (!awaitBlockingConsumers(next - capacity)) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            int slot = (int) next & mask;
+            slotSequences.set(slot, -1);
+            events.set(slot, event);
+            slotSequences.set(slot, next);
+            cursor.set(next);
+        } finally {
+            publishLock.unlock();
+        }
+        for (ConsumerThread consumer : consumers) {
+            if (consumer.idle) {
+                LockSupport.unpark(consumer);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting events, lets every consumer finish what has already
+     * been published, and waits up to {@code timeout} for them.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ConsumerThread consumer : consumers) {
+            LockSupport.unpark(consumer);
+            try {
+                consumer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        long published = cursor.get() + 1;
+        List<ConsumerSnapshot> consumerSnapshots = new ArrayList<>(consumers.size());
+        for (ConsumerThread consumer : consumers) {
+            long processed = consumer.sequence + 1;
+            consumerSnapshots.add(new ConsumerSnapshot(consumer.consumerName, consumer.backpressure, processed,
+                    published - processed, consumer.dropped.get(), consumer.failedBatches.get()));
+        }
+        return new Snapshot(name, capacity, published, rejected.get(), consumerSnapshots);
+    }
+
+    /**
+     * Waits until every blocking consumer has read the event at
+     * {@code sequence}, whose slot is about to be reused.
+     */
+    private boolean awaitBlockingConsumers(long sequence) {
+        if (sequence < 0) {
+            return true;
+        }
+        long deadline = System.nanoTime() + maxPublishWaitNanos;
+        for (ConsumerThread consumer : consumers) {
+            if (consumer.backpressure != Backpressure.BLOCK_PUBLISHER) {
+                continue;
+            }
+            while (consumer.sequence < sequence) {
+                if (System.nanoTime() - deadline >= 0 || !consumer.isAlive()) {
+                    return false;
+                }
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(this, PUBLISHER_PARK_NANOS);
+            }
+        }
+        return true;
+    }
+
+    private class ConsumerThread extends Thread {
+
+        final String consumerName;
+        final int maxBatchSize;
+        final Backpressure backpressure;
+        final Consumer<List<E>> handler;
+
+        /**
+         * The last sequence this consumer has finished with.
+         */
+        volatile long sequence;
+        volatile boolean idle;
+
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong failedBatches = new AtomicLong();
+
+        ConsumerThread(String consumerName, int maxBatchSize, Backpressure backpressure,
+                       Consumer<List<E>> handler, long startAfter) {
+            super(name + "-" + consumerName);
+            setDaemon(true);
+            this.consumerName = consumerName;
+            this.maxBatchSize = maxBatchSize;
+            this.backpressure = backpressure;
+            this.handler = handler;
+            this.sequence = startAfter;
+        }
+
+        @Override
+        public void run() {
+            List<E> batch = new ArrayList<>(maxBatchSize);
+            while (true) {
+                long next = sequence + 1;
+                long available = cursor.get();
+                if (available < next) {
+                    if (!running) {
+                        return;
+                    }
+                    idle = true;
+                    if (cursor.get() < next) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    idle = false;
+                    continue;
+                }
+                if (available - next >= capacity) {
+                    // only a dropping consumer can be lapped
+                    long oldestAvailable = available - capacity + 1;
+                    dropped.addAndGet(oldestAvailable - next);
+                    next = oldestAvailable;
+                    sequence = next - 1;
+                }
+                long end = Math.min(available, next + maxBatchSize - 1);
+                batch.clear();
+                long read = next;
+                for (; read <= end; read++) {
+                    E event = readSlot(read);
+                    if (event == null) {
+                        break;
+                    }
+                    batch.add(event);
+                }
+                if (batch.isEmpty()) {
+                    // overwritten while reading; start again from the current cursor
+                    continue;
+                }
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failedBatches.incrementAndGet();
+                    logger.log(Level.WARNING, e, () -> "Consumer " + getName() + " failed on a batch of "
+                            + batch.size() + " events");
+                }
+                sequence = read - 1;
+            }
+        }
+
+        /**
+         * Reads the event at {@code sequence}, or null if its slot has
+         * already been reused for a later event.
+         */
+        private E readSlot(long sequence) {
+            int slot = (int) sequence & mask;
+            if (slotSequences.get(slot) != sequence) {
+                return null;
+            }
+            E event = events.get(slot);
+            return slotSequences.get(slot) == sequence ? event : null;
+        }
+    }
+}
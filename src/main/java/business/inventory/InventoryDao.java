@@ -0,0 +1,22 @@
+package business.inventory;
+
+import java.sql.Connection;
+import java.util.Map;
+
+public interface InventoryDao {
+
+    /**
+     * Takes {@code quantity} units of a book's stock if at least that many
+     * are left, using a single conditional update.
+     *
+     * @return whether the stock was taken
+     */
+    public boolean reserve(Connection connection, long bookId, int quantity);
+
+    /**
+     * Puts units back into stock, one batched update for all books.
+     */
+    public void release(Connection connection, Map<Long, Integer> quantities);
+
+    public int findStock(Connection connection, long bookId);
+}
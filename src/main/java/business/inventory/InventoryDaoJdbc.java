@@ -0,0 +1,62 @@
+package business.inventory;
+
+import business.BookstoreDbException.BookstoreQueryDbException;
+import business.BookstoreDbException.BookstoreUpdateDbException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+public class InventoryDaoJdbc implements InventoryDao {
+
+    private static final String RESERVE_SQL =
+            "UPDATE book SET stock = stock - ? " +
+                    "WHERE book_id = ? AND stock >= ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE book SET stock = stock + ? " +
+                    "WHERE book_id = ?";
+
+    private static final String FIND_STOCK_SQL =
+            "SELECT stock FROM book WHERE book_id = ?";
+
+    @Override
+    public boolean reserve(Connection connection, long bookId, int quantity) {
+        try (PreparedStatement statement = connection.prepareStatement(RESERVE_SQL)) {
+            statement.setInt(1, quantity);
+            statement.setLong(2, bookId);
+            statement.setInt(3, quantity);
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem reserving stock for book " + bookId, e);
+        }
+    }
+
+    @Override
+    public void release(Connection connection, Map<Long, Integer> quantities) {
+        try (PreparedStatement statement = connection.prepareStatement(RELEASE_SQL)) {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                statement.setInt(1, entry.getValue());
+                statement.setLong(2, entry.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem releasing stock", e);
+        }
+    }
+
+    @Override
+    public int findStock(Connection connection, long bookId) {
+        try (PreparedStatement statement = connection.prepareStatement(FIND_STOCK_SQL)) {
+            statement.setLong(1, bookId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered problem finding stock for book " + bookId, e);
+        }
+    }
+}
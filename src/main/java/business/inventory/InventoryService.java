@@ -0,0 +1,318 @@
+package business.inventory;
+
+import business.JdbcUtils;
+import business.cart.ShoppingCartItem;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reserves stock for the books in an order.
+ *
+ * Normally each book is reserved with a conditional update inside the
+ * order's own transaction, books in ascending id order so that concurrent
+ * orders lock rows in the same order and cannot deadlock.
+ *
+ * A book that is being ordered very frequently is switched to hot mode:
+ * this node leases a block of its stock from the database in a short
+ * transaction of its own and hands units out from striped in-memory
+ * counters, so checkouts stop queueing on that book's row lock. Unsold
+ * leased units go back to the database in one batched update when the
+ * book cools down or the application stops.
+ *
+ * Leasing is done by the background thread, never by a checkout: an order
+ * that finds the counter short reserves its own units from the database
+ * like any other, on its own connection, and the counter is refilled
+ * behind it. Units given back by orders that did not commit go back to
+ * the database from the same thread. A checkout therefore never needs a
+ * second connection, and nothing talks to the database while holding a
+ * counter's monitor.
+ */
+public class InventoryService {
+
+    private static final Logger logger = Logger.getLogger(InventoryService.class.getName());
+
+    private static final int STRIPES = 8;
+    private static final int LEASE_SIZE = 25;
+    private static final long RECONCILE_INTERVAL_SECONDS = 5;
+
+    /** Reservations per interval that switch a book to hot mode. */
+    private static final long HOT_THRESHOLD = 50;
+
+    /** Reservations per interval below which a hot book switches back. */
+    private static final long COLD_THRESHOLD = 5;
+
+    public static class InsufficientStockException extends RuntimeException {
+        private final long bookId;
+
+        public InsufficientStockException(long bookId) {
+            super("Not enough stock for book with ID " + bookId);
+            this.bookId = bookId;
+        }
+
+        public long getBookId() {
+            return bookId;
+        }
+    }
+
+    /**
+     * What an order has reserved. Database reservations are undone by
+     * rolling back the order's transaction; units taken from hot counters
+     * must be handed back with {@link #cancel()}.
+     */
+    public class Reservation {
+        private final List<Long> hotBookIds = new ArrayList<>();
+        private final List<Integer> hotQuantities = new ArrayList<>();
+
+        private void addHot(long bookId, int quantity) {
+            hotBookIds.add(bookId);
+            hotQuantities.add(quantity);
+        }
+
+        public void cancel() {
+            for (int i = 0; i < hotBookIds.size(); i++) {
+                giveBack(hotBookIds.get(i), hotQuantities.get(i));
+            }
+            hotBookIds.clear();
+            hotQuantities.clear();
+        }
+    }
+
+    private final InventoryDao inventoryDao;
+
+    private final Map<Long, StripedStockCounter> hotCounters = new ConcurrentHashMap<>();
+
+    private final Map<Long, LongAdder> demand = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InventoryService(InventoryDao inventoryDao) {
+        this.inventoryDao = inventoryDao;
+        reconciler.scheduleWithFixedDelay(this::reconcile,
+                RECONCILE_INTERVAL_SECONDS, RECONCILE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reserves stock for every item, or nothing at all.
+     *
+     * @param connection the order's connection, with a transaction open
+     * @throws InsufficientStockException if any book is short
+     */
+    public Reservation reserve(Connection connection, List<ShoppingCartItem> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (ShoppingCartItem item : items) {
+            quantities.merge(item.getBookId(), item.getQuantity(), Integer::sum);
+        }
+        Reservation reservation = new Reservation();
+        try {
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                long bookId = entry.getKey();
+                int quantity = entry.getValue();
+                if (quantity <= 0) {
+                    continue;
+                }
+                demand.computeIfAbsent(bookId, id -> new LongAdder()).increment();
+
+                StripedStockCounter counter = hotCounters.get(bookId);
+                if (counter != null && takeHot(counter, bookId, quantity)) {
+                    reservation.addHot(bookId, quantity);
+                } else if (!inventoryDao.reserve(connection, bookId, quantity)) {
+                    throw new InsufficientStockException(bookId);
+                }
+            }
+        } catch (RuntimeException e) {
+            reservation.cancel();
+            throw e;
+        }
+        return reservation;
+    }
+
+    /**
+     * Stops hot mode for every book, returning all leased units to the database.
+     */
+    public void shutdown() {
+        // let units already queued for the database get there
+        reconciler.shutdown();
+        try {
+            reconciler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Map<Long, Integer> leftovers = new HashMap<>();
+        for (Long bookId : new ArrayList<>(hotCounters.keySet())) {
+            retire(bookId, leftovers);
+        }
+        releaseToDatabase(leftovers);
+    }
+
+    /**
+     * Takes the units from the counter if it holds enough; otherwise has it
+     * refilled in the background and returns false, leaving the order to
+     * reserve from the database.
+     */
+    private boolean takeHot(StripedStockCounter counter, long bookId, int quantity) {
+        if (counter.tryTake(quantity)) {
+            return true;
+        }
+        synchronized (counter) {
+            if (counter.isRetired()) {
+                return false;
+            }
+            if (counter.takeAcrossStripes(quantity)) {
+                return true;
+            }
+        }
+        refillLater(bookId, counter);
+        return false;
+    }
+
+    private void refillLater(long bookId, StripedStockCounter counter) {
+        if (!counter.startRefill()) {
+            return;
+        }
+        try {
+            reconciler.execute(() -> refill(bookId, counter));
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            counter.refillDone();
+        }
+    }
+
+    private void refill(long bookId, StripedStockCounter counter) {
+        try {
+            int leased = lease(bookId, LEASE_SIZE);
+            boolean retired;
+            synchronized (counter) {
+                retired = counter.isRetired();
+                if (!retired) {
+                    counter.add(leased);
+                }
+            }
+            if (retired && leased > 0) {
+                releaseToDatabase(Map.of(bookId, leased));
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, e, () -> "Failed to lease stock of book " + bookId);
+        } finally {
+            counter.refillDone();
+        }
+    }
+
+    /**
+     * Takes {@code wanted} units out of the database for this node, or
+     * whatever is left if that is fewer.
+     */
+    private int lease(long bookId, int wanted) {
+        try (Connection connection = JdbcUtils.getConnection()) {
+            connection.setAutoCommit(true);
+            if (inventoryDao.reserve(connection, bookId, wanted)) {
+                return wanted;
+            }
+            int remaining = inventoryDao.findStock(connection, bookId);
+            if (remaining > 0 && inventoryDao.reserve(connection, bookId, remaining)) {
+                return remaining;
+            }
+            return 0;
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, e, () -> "Failed to close connection after leasing stock");
+            return 0;
+        }
+    }
+
+    private void giveBack(long bookId, int quantity) {
+        StripedStockCounter counter = hotCounters.get(bookId);
+        if (counter == null) {
+            releaseLater(Map.of(bookId, quantity));
+            return;
+        }
+        counter.add(quantity);
+        if (counter.isRetired()) {
+            // Retired while we were adding; make sure nothing is stranded
+            int stranded = counter.retire();
+            if (stranded > 0) {
+                releaseLater(Map.of(bookId, stranded));
+            }
+        }
+    }
+
+    /**
+     * Returns units to the database from the background thread. Units are
+     * given back by orders that did not commit, whose own connection is
+     * being rolled back, so neither it nor a second connection is used.
+     */
+    private void releaseLater(Map<Long, Integer> quantities) {
+        try {
+            reconciler.execute(() -> releaseToDatabase(quantities));
+        } catch (RejectedExecutionException e) {
+            // shutting down, and no longer on a checkout's behalf
+            releaseToDatabase(quantities);
+        }
+    }
+
+    private void reconcile() {
+        try {
+            Map<Long, Integer> leftovers = new HashMap<>();
+            for (Map.Entry<Long, LongAdder> entry : demand.entrySet()) {
+                long bookId = entry.getKey();
+                long recent = entry.getValue().sumThenReset();
+                boolean hot = hotCounters.containsKey(bookId);
+                if (!hot && recent >= HOT_THRESHOLD) {
+                    hotCounters.put(bookId, new StripedStockCounter(STRIPES));
+                    logger.info(() -> "Book " + bookId + " is hot, reserving from memory");
+                } else if (hot && recent < COLD_THRESHOLD) {
+                    retire(bookId, leftovers);
+                }
+                if (recent == 0 && !hotCounters.containsKey(bookId)) {
+                    demand.remove(bookId, entry.getValue());
+                }
+            }
+            releaseToDatabase(leftovers);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, e, () -> "Inventory reconciliation failed");
+        }
+    }
+
+    private void retire(long bookId, Map<Long, Integer> leftovers) {
+        StripedStockCounter counter = hotCounters.remove(bookId);
+        if (counter == null) {
+            return;
+        }
+        int drained;
+        synchronized (counter) {
+            drained = counter.retire();
+        }
+        if (drained > 0) {
+            leftovers.merge(bookId, drained, Integer::sum);
+        }
+    }
+
+    private void releaseToDatabase(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        try (Connection connection = JdbcUtils.getConnection()) {
+            connection.setAutoCommit(true);
+            inventoryDao.release(connection, quantities);
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.SEVERE, e, () -> "Failed to return leased stock to the database: " + quantities);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package business.inventory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Units of one book's stock that this node has already taken out of the
+ * database, spread over several independently updated counters so that
+ * concurrent checkouts of the same book rarely touch the same one.
+ */
+class StripedStockCounter {
+
+    private final AtomicInteger[] stripes;
+    private volatile boolean retired;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    StripedStockCounter(int stripeCount) {
+        stripes = new AtomicInteger[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units from a single stripe, starting with the
+     * calling thread's own.
+     */
+    boolean tryTake(int quantity) {
+        int home = homeStripe();
+        for (int i = 0; i < stripes.length; i++) {
+            AtomicInteger stripe = stripes[(home + i) % stripes.length];
+            int available = stripe.get();
+            while (available >= quantity) {
+                if (stripe.compareAndSet(available, available - quantity)) {
+                    return true;
+                }
+                available = stripe.get();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes {@code quantity} units that may be spread over several stripes,
+     * by gathering all stripes into one first.
+     */
+    synchronized boolean takeAcrossStripes(int quantity) {
+        int gathered = 0;
+        for (AtomicInteger stripe : stripes) {
+            gathered += stripe.getAndSet(0);
+        }
+        boolean taken = gathered >= quantity;
+        add(taken ? gathered - quantity : gathered);
+        return taken;
+    }
+
+    /**
+     * Adds units, either freshly leased from the database or given back by
+     * an order that did not commit.
+     */
+    void add(int quantity) {
+        stripes[homeStripe()].addAndGet(quantity);
+    }
+
+    /**
+     * Empties every stripe and returns how many units were held; a retired
+     * counter hands out nothing further.
+     */
+    int retire() {
+        retired = true;
+        int drained = 0;
+        for (AtomicInteger stripe : stripes) {
+            drained += stripe.getAndSet(0);
+        }
+        return drained;
+    }
+
+    /**
+     * Claims the counter's one refill; false if a refill is already under way.
+     */
+    boolean startRefill() {
+        return refilling.compareAndSet(false, true);
+    }
+
+    void refillDone() {
+        refilling.set(false);
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    int available() {
+        int total = 0;
+        for (AtomicInteger stripe : stripes) {
+            total += stripe.get();
+        }
+        return total;
+    }
+
+    private int homeStripe() {
+        return (int) (Thread.currentThread().getId() % stripes.length);
+    }
+}
@@ -0,0 +1,44 @@
+package business.order;
+
+/**
+ * What became of one order of a bulk import.
+ */
+public record BulkOrderResult(Status status, long orderId, int confirmationNumber, String message,
+                              String fieldName) {
+
+    public enum Status {
+        /** Committed; {@code orderId} and {@code confirmationNumber} are set. */
+        PLACED,
+        /** The order itself is invalid and must be corrected before it is sent again. */
+        REJECTED,
+        /** The database could not take the order just now; it may be sent again as is. */
+        FAILED,
+        /**
+         * The connection failed while the order was being committed, so it
+         * may or may not have been placed; sending it again may place it twice.
+         */
+        UNKNOWN,
+        /** The client has placed too many orders lately; it may be sent again later. */
+        THROTTLED
+    }
+
+    public static BulkOrderResult placed(long orderId, int confirmationNumber) {
+        return new BulkOrderResult(Status.PLACED, orderId, confirmationNumber, null, null);
+    }
+
+    public static BulkOrderResult rejected(String message, String fieldName) {
+        return new BulkOrderResult(Status.REJECTED, 0, 0, message, fieldName);
+    }
+
+    public static BulkOrderResult failed(String message) {
+        return new BulkOrderResult(Status.FAILED, 0, 0, message, null);
+    }
+
+    public static BulkOrderResult unknown(String message) {
+        return new BulkOrderResult(Status.UNKNOWN, 0, 0, message, null);
+    }
+
+    public static BulkOrderResult throttled(String message) {
+        return new BulkOrderResult(Status.THROTTLED, 0, 0, message, null);
+    }
+}
@@ -2,7 +2,15 @@ package business.order;
 
 import api.ApiException;
 import business.BookstoreDbException;
+import business.BookstoreDbException.BookstoreCommitUnknownDbException;
+import business.BookstoreDbException.BookstoreTimeoutDbException;
+import business.CatalogVersion;
+import business.ConnectionScheduler;
+import business.Deadline;
 import business.JdbcUtils;
+import business.PriceTokens;
+import business.TransactionRetry;
+import business.UnitOfWork;
 import business.book.Book;
 import business.book.BookDao;
 import business.cart.ShoppingCart;
@@ -10,24 +18,44 @@ import business.cart.ShoppingCartItem;
 import business.customer.Customer;
 import business.customer.CustomerDao;
 import business.customer.CustomerForm;
+import business.event.OrderPlaced;
+import business.event.RingBuffer;
+import business.inventory.InventoryService;
+import business.inventory.InventoryService.InsufficientStockException;
 
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.time.DateTimeException;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class DefaultOrderService implements OrderService {
 
+	private static final Logger logger = Logger.getLogger(DefaultOrderService.class.getName());
+
 	private BookDao bookDao;
 
 	private LineItemDao lineItemDao;
 
 	private CustomerDao customerDao;
 
+	private InventoryService inventoryService;
+
+	private RingBuffer<OrderPlaced> orderEvents;
+
 	public void setLineItemDao(LineItemDao lineItemDao) {
 		this.lineItemDao = lineItemDao;
 	}
@@ -46,35 +74,134 @@ public class DefaultOrderService implements OrderService {
 		this.bookDao = bookDao;
 	}
 
+	public void setInventoryService(InventoryService inventoryService) {
+		this.inventoryService = inventoryService;
+	}
+
+	public void setOrderEvents(RingBuffer<OrderPlaced> orderEvents) {
+		this.orderEvents = orderEvents;
+	}
+
 	@Override
 	public OrderDetails getOrderDetails(long orderId) {
-		Order order = orderDao.findByOrderId(orderId);
-		Customer customer = customerDao.findByCustomerId(order.getCustomerId());
-		List<LineItem> lineItems = lineItemDao.findByOrderId(orderId);
-		List<Book> books = lineItems
-				.stream()
-				.map(lineItem -> bookDao.findByBookId(lineItem.getBookId()))
-				.collect(Collectors.toList());
-		return new OrderDetails(order, customer, lineItems, books);
+		return ConnectionScheduler.withPriority(ConnectionScheduler.Priority.ORDER_VIEW, () -> UnitOfWork.read(() -> {
+			Order order = orderDao.findByOrderId(orderId);
+			Customer customer = customerDao.findByCustomerId(order.getCustomerId());
+			List<LineItem> lineItems = lineItemDao.findByOrderId(orderId);
+			List<Book> books = lineItems
+					.stream()
+					.map(lineItem -> bookDao.findByBookId(lineItem.getBookId()))
+					.collect(Collectors.toList());
+			return new OrderDetails(order, customer, lineItems, books);
+		}));
 	}
 
 	@Override
     public long placeOrder(CustomerForm customerForm, ShoppingCart cart) {
 
+		return UnitOfWork.primary(() -> {
+			validateCustomer(customerForm);
+			validateCart(cart, bookDao::findByBookId, CatalogVersion.read());
+			return submitOrder(customerForm, cart);
+		});
+	}
+
+	@Override
+	public long placeValidatedOrder(CustomerForm customerForm, ShoppingCart cart) {
+
+		validateCustomer(customerForm);
+		if (cart.getItems().isEmpty()) {
+			throw new ApiException.ValidationFailure("Cart is empty.");
+		}
+		return UnitOfWork.primary(() -> submitOrder(customerForm, cart));
+	}
+
+	@Override
+	public List<BulkOrderResult> placeOrders(List<OrderForm> orders) {
+		return UnitOfWork.primary(() -> {
+			BulkOrderResult[] results = new BulkOrderResult[orders.size()];
+			long catalogVersion = CatalogVersion.read();
+			Map<Long, Book> books = findBooksToValidate(orders, catalogVersion);
+			List<PendingOrder> pending = new ArrayList<>(orders.size());
+			for (int i = 0; i < orders.size(); i++) {
+				try {
+					pending.add(validateOrder(i, orders.get(i), books, catalogVersion));
+				} catch (ApiException.ValidationFailure e) {
+					results[i] = BulkOrderResult.rejected(e.getMessage(), e.isFieldError() ? e.getFieldName() : null);
+				} catch (RuntimeException e) {
+					// incomplete forms fail validation with NullPointerExceptions
+					results[i] = BulkOrderResult.rejected("Invalid order", null);
+				}
+			}
+			if (!pending.isEmpty()) {
+				try (Connection connection = JdbcUtils.getWriteConnection()) {
+					Map<Integer, BulkOrderResult> placed = TransactionRetry.call("Bulk order transaction",
+							() -> performPlaceOrdersTransaction(pending, connection));
+					placed.forEach((index, result) -> results[index] = result);
+				} catch (SQLException e) {
+					throw new BookstoreDbException("Error during close connection for bulk orders", e);
+				}
+			}
+			return Arrays.asList(results);
+		});
+	}
+
+	/**
+	 * A bulk order that passed validation, with everything needed to insert it.
+	 */
+	private record PendingOrder(int index, CustomerForm customer, Date ccExpDate, ShoppingCart cart,
+								int amount, int confirmationNumber) {
+	}
+
+	/**
+	 * Looks up, in one go, every book whose price and category cannot be
+	 * trusted from its price token.
+	 */
+	private Map<Long, Book> findBooksToValidate(List<OrderForm> orders, long catalogVersion) {
+		Set<Long> bookIds = new HashSet<>();
+		for (OrderForm order : orders) {
+			if (order == null || order.getCart() == null || order.getCart().getItems() == null) {
+				continue;
+			}
+			for (ShoppingCartItem item : order.getCart().getItems()) {
+				if (item != null && item.getBookForm() != null && !PriceTokens.verify(item.getBookForm().getPriceToken(),
+						item.getBookId(), item.getPrice(), item.getCategoryId(), catalogVersion)) {
+					bookIds.add(item.getBookId());
+				}
+			}
+		}
+		Map<Long, Book> books = new HashMap<>();
+		if (!bookIds.isEmpty()) {
+			bookDao.findByBookIds(bookIds).forEach(book -> books.put(book.getBookId(), book));
+		}
+		return books;
+	}
+
+	private PendingOrder validateOrder(int index, OrderForm order, Map<Long, Book> books, long catalogVersion) {
+		if (order == null || order.getCustomerForm() == null || order.getCart() == null) {
+			throw new ApiException.ValidationFailure("An order needs a customerForm and a cart");
+		}
+		CustomerForm customerForm = order.getCustomerForm();
+		ShoppingCart cart = order.getCart();
 		validateCustomer(customerForm);
-		validateCart(cart);
+		validateCart(cart, books::get, catalogVersion);
+		Date date = getDate(customerForm.getCcExpiryMonth(), customerForm.getCcExpiryYear());
+		return new PendingOrder(index, customerForm, date, cart,
+				cart.getComputedSubtotal() + cart.getSurcharge(), generateConfirmationNumber());
+	}
 
-		try (Connection connection = JdbcUtils.getConnection()) {
+	private long submitOrder(CustomerForm customerForm, ShoppingCart cart) {
+		try (Connection connection = JdbcUtils.getWriteConnection()) {
 			Date date = getDate(
 					customerForm.getCcExpiryMonth(),
 					customerForm.getCcExpiryYear());
-			return performPlaceOrderTransaction(
+			return TransactionRetry.call("Order transaction", () -> performPlaceOrderTransaction(
 					customerForm.getName(),
 					customerForm.getAddress(),
 					customerForm.getPhone(),
 					customerForm.getEmail(),
 					customerForm.getCcNumber(),
-					date, cart, connection);
+					date, cart, connection));
 		} catch (SQLException e) {
 			throw new BookstoreDbException("Error during close connection for customer order", e);
 		}
@@ -102,28 +229,174 @@ public class DefaultOrderService implements OrderService {
 			String name, String address, String phone,
 			String email, String ccNumber, Date date,
 			ShoppingCart cart, Connection connection) {
+		InventoryService.Reservation reservation = null;
+		int amount = cart.getComputedSubtotal() + cart.getSurcharge();
+		int confirmationNumber = generateConfirmationNumber();
+		long customerId;
+		long customerOrderId;
 		try {
 			connection.setAutoCommit(false);
-			long customerId = customerDao.create(
+			reservation = inventoryService.reserve(connection, cart.getItems());
+			customerId = customerDao.create(
 					connection, name, address, phone, email,
 					ccNumber, date);
-			long customerOrderId = orderDao.create(
-					connection,
-					cart.getComputedSubtotal() + cart.getSurcharge(),
-					generateConfirmationNumber(), customerId);
+			customerOrderId = orderDao.create(
+					connection, amount, confirmationNumber, customerId);
 			for (ShoppingCartItem item : cart.getItems()) {
 				lineItemDao.create(connection, customerOrderId,
 						item.getBookId(), item.getQuantity());
 			}
-			connection.commit();
-			return customerOrderId;
+			commit(connection, "Order transaction");
+		} catch (BookstoreCommitUnknownDbException e) {
+			// the order may have been kept, so its stock stays taken
+			throw e;
 		} catch (Exception e) {
+			if (reservation != null) {
+				reservation.cancel();
+			}
 			try {
 				connection.rollback();
 			} catch (SQLException e1) {
 				throw new BookstoreDbException("Failed to roll back transaction", e1);
 			}
-			return 0;
+			if (e instanceof InsufficientStockException) {
+				throw new ApiException.ValidationFailure(e.getMessage());
+			}
+			if (Deadline.isExceeded(e)) {
+				throw e instanceof BookstoreTimeoutDbException ? (BookstoreTimeoutDbException) e
+						: new BookstoreTimeoutDbException("Order transaction did not finish before the request deadline", e);
+			}
+			// a database failure, retryable or not, must reach the circuit breaker as one
+			if (e instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new BookstoreDbException("Order transaction was rolled back", e);
+		}
+
+		// committed: nothing from here on may cancel the reservation or report the order as not placed
+		JdbcUtils.markWrite();
+		publishOrderPlaced(customerOrderId, confirmationNumber, customerId, email, amount, cart);
+		return customerOrderId;
+	}
+
+	/**
+	 * Reserves stock for each order, rejecting those that are short, then
+	 * inserts the customers, orders and line items of the rest as three
+	 * batches and commits them together.
+	 *
+	 * @return the outcome of each order, by index
+	 */
+	private Map<Integer, BulkOrderResult> performPlaceOrdersTransaction(List<PendingOrder> orders,
+																		Connection connection) {
+		Map<Integer, BulkOrderResult> results = new HashMap<>();
+		List<InventoryService.Reservation> reservations = new ArrayList<>();
+		List<PendingOrder> accepted = new ArrayList<>(orders.size());
+		long[] customerIds;
+		long[] orderIds;
+		try {
+			connection.setAutoCommit(false);
+			for (PendingOrder order : orders) {
+				Savepoint savepoint = connection.setSavepoint();
+				try {
+					reservations.add(inventoryService.reserve(connection, order.cart().getItems()));
+					accepted.add(order);
+					connection.releaseSavepoint(savepoint);
+				} catch (InsufficientStockException e) {
+					// undo whatever part of this order was reserved in the database
+					connection.rollback(savepoint);
+					results.put(order.index(), BulkOrderResult.rejected(e.getMessage(), null));
+				}
+			}
+			if (accepted.isEmpty()) {
+				connection.commit();
+				return results;
+			}
+
+			List<CustomerDao.NewCustomer> customers = new ArrayList<>(accepted.size());
+			for (PendingOrder order : accepted) {
+				CustomerForm customer = order.customer();
+				customers.add(new CustomerDao.NewCustomer(customer.getName(), customer.getAddress(),
+						customer.getPhone(), customer.getEmail(), customer.getCcNumber(), order.ccExpDate()));
+			}
+			customerIds = customerDao.createAll(connection, customers);
+
+			List<OrderDao.NewOrder> newOrders = new ArrayList<>(accepted.size());
+			for (int i = 0; i < accepted.size(); i++) {
+				PendingOrder order = accepted.get(i);
+				newOrders.add(new OrderDao.NewOrder(order.amount(), order.confirmationNumber(), customerIds[i]));
+			}
+			orderIds = orderDao.createAll(connection, newOrders);
+
+			List<LineItem> lineItems = new ArrayList<>();
+			for (int i = 0; i < accepted.size(); i++) {
+				for (ShoppingCartItem item : accepted.get(i).cart().getItems()) {
+					lineItems.add(new LineItem(orderIds[i], item.getBookId(), item.getQuantity()));
+				}
+			}
+			lineItemDao.createAll(connection, lineItems);
+
+			commit(connection, "Bulk order transaction");
+		} catch (BookstoreCommitUnknownDbException e) {
+			// the orders may have been kept, so their stock stays taken
+			throw e;
+		} catch (Exception e) {
+			reservations.forEach(InventoryService.Reservation::cancel);
+			try {
+				connection.rollback();
+			} catch (SQLException e1) {
+				throw new BookstoreDbException("Failed to roll back bulk order transaction", e1);
+			}
+			if (e instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new BookstoreDbException("Bulk order transaction was rolled back", e);
+		}
+
+		JdbcUtils.markWrite();
+		for (int i = 0; i < accepted.size(); i++) {
+			PendingOrder order = accepted.get(i);
+			results.put(order.index(), BulkOrderResult.placed(orderIds[i], order.confirmationNumber()));
+			publishOrderPlaced(orderIds[i], order.confirmationNumber(), customerIds[i],
+					order.customer().getEmail(), order.amount(), order.cart());
+		}
+		return results;
+	}
+
+	/**
+	 * Commits the transaction. A commit the database refused was rolled
+	 * back and is thrown as it is; any other failure leaves the outcome
+	 * unknown, and is thrown as a BookstoreCommitUnknownDbException.
+	 */
+	private void commit(Connection connection, String description) throws SQLException {
+		try {
+			connection.commit();
+		} catch (SQLException e) {
+			if (TransactionRetry.classify(e) != null) {
+				throw e;
+			}
+			throw new BookstoreCommitUnknownDbException(description + " may or may not have been committed", e);
+		}
+	}
+
+	/**
+	 * Hands the committed order to the event consumers; never blocks for
+	 * more than the ring's publish wait, and never fails the order.
+	 */
+	private void publishOrderPlaced(long orderId, int confirmationNumber, long customerId,
+									String email, int amount, ShoppingCart cart) {
+		if (orderEvents == null) {
+			return;
+		}
+		try {
+			List<OrderPlaced.OrderedBook> books = cart.getItems().stream()
+					.map(item -> new OrderPlaced.OrderedBook(item.getBookId(), item.getQuantity()))
+					.collect(Collectors.toList());
+			if (!orderEvents.publish(new OrderPlaced(orderId, confirmationNumber, customerId, email, amount,
+					books, System.currentTimeMillis()))) {
+				logger.warning(() -> "Order event for order " + orderId + " was not published");
+			}
+		} catch (RuntimeException e) {
+			logger.log(Level.WARNING, e, () -> "Order event for order " + orderId + " could not be published");
 		}
 	}
 
@@ -192,7 +465,12 @@ public class DefaultOrderService implements OrderService {
 		}
 	}
 
-	private void validateCart(ShoppingCart cart) {
+	/**
+	 * @param catalog finds a book by id, or returns null if there is none
+	 * @param catalogVersion the catalog version in the database, which price
+	 *                       tokens must have been issued under
+	 */
+	private void validateCart(ShoppingCart cart, LongFunction<Book> catalog, long catalogVersion) {
 
 		if (cart.getItems().size() <= 0) {
 			throw new ApiException.ValidationFailure("Cart is empty.");
@@ -202,7 +480,12 @@ public class DefaultOrderService implements OrderService {
 			if (item.getQuantity() < 0 || item.getQuantity() > 99) {
 				throw new ApiException.ValidationFailure("Invalid quantity");
 			}
-			Book databaseBook = bookDao.findByBookId(item.getBookId());
+			if (PriceTokens.verify(item.getBookForm().getPriceToken(),
+					item.getBookId(), item.getPrice(), item.getCategoryId(), catalogVersion)) {
+				// price and category are as we showed them under the current catalog
+				return;
+			}
+			Book databaseBook = catalog.apply(item.getBookId());
 
 			if (databaseBook == null) {
 				throw new ApiException.ValidationFailure("Invalid book");
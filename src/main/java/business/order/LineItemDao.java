@@ -7,5 +7,10 @@ public interface LineItemDao {
 
     public void create(Connection connection, long bookId, long orderId, int quantity);
 
+    /**
+     * Creates the line items as one batch.
+     */
+    public void createAll(Connection connection, List<LineItem> lineItems);
+
     public List<LineItem> findByOrderId(long orderId);
 }
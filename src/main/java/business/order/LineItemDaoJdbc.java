@@ -2,12 +2,13 @@ package business.order;
 
 import business.BookstoreDbException.BookstoreQueryDbException;
 import business.BookstoreDbException.BookstoreUpdateDbException;
+import business.RowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-import static business.JdbcUtils.getConnection;
+import static business.JdbcUtils.getReadConnection;
 
 public class LineItemDaoJdbc implements LineItemDao {
 
@@ -19,6 +20,9 @@ public class LineItemDaoJdbc implements LineItemDao {
             "SELECT book_id, customer_order_id, quantity " +
                     "FROM customer_order_line_item WHERE customer_order_id = ?";
 
+    private static final RowMapper<LineItem> LINE_ITEM_MAPPER = new RowMapper<>(LineItemDaoJdbc::readLineItem,
+            "customer_order_id", "book_id", "quantity");
+
     @Override
     public void create(Connection connection, long orderId, long bookId, int quantity) {
         try (PreparedStatement statement = connection.prepareStatement(CREATE_LINE_ITEM_SQL)) {
@@ -34,16 +38,29 @@ public class LineItemDaoJdbc implements LineItemDao {
         }
     }
 
+    @Override
+    public void createAll(Connection connection, List<LineItem> lineItems) {
+        try (PreparedStatement statement = connection.prepareStatement(CREATE_LINE_ITEM_SQL)) {
+            for (LineItem lineItem : lineItems) {
+                statement.setLong(1, lineItem.getOrderId());
+                statement.setLong(2, lineItem.getBookId());
+                statement.setInt(3, lineItem.getQuantity());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem creating " + lineItems.size() + " line items", e);
+        }
+    }
+
     @Override
     public List<LineItem> findByOrderId(long orderId) {
         List<LineItem> result = new ArrayList<>();
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_CUSTOMER_ORDER_ID_SQL)) {
             statement.setLong(1, orderId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    result.add(readLineItem(resultSet));
-                }
+                result.addAll(LINE_ITEM_MAPPER.readAll(resultSet));
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding ordered books for customer order "
@@ -52,10 +69,10 @@ public class LineItemDaoJdbc implements LineItemDao {
         return result;
     }
 
-    private LineItem readLineItem(ResultSet resultSet) throws SQLException {
-        long orderId = resultSet.getLong("customer_order_id");
-        long bookId = resultSet.getLong("book_id");
-        int quantity = resultSet.getInt("quantity");
+    private static LineItem readLineItem(ResultSet resultSet, int[] column) throws SQLException {
+        long orderId = resultSet.getLong(column[0]);
+        long bookId = resultSet.getLong(column[1]);
+        int quantity = resultSet.getInt(column[2]);
         return new LineItem(orderId, bookId, quantity);
     }
 }
@@ -7,9 +7,25 @@ public interface OrderDao {
 
     public long create(Connection connection, int amount, int confirmationNumber, long customerId);
 
+    /**
+     * An order to be created by {@link #createAll}.
+     */
+    record NewOrder(int amount, int confirmationNumber, long customerId) {
+    }
+
+    /**
+     * Creates the orders as one batch, returning their ids in order.
+     */
+    public long[] createAll(Connection connection, List<NewOrder> orders);
+
     public List<Order> findAll();
 
     public Order findByOrderId(long orderId);
 
     public List<Order> findByCustomerId(long customerId);
+
+    /**
+     * Orders with ids above {@code orderId}, lowest first, at most {@code limit} of them.
+     */
+    public List<Order> findAfterOrderId(long orderId, int limit);
 }
@@ -2,6 +2,7 @@ package business.order;
 
 import business.BookstoreDbException.BookstoreQueryDbException;
 import business.BookstoreDbException.BookstoreUpdateDbException;
+import business.RowMapper;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -9,6 +10,7 @@ import java.util.Date;
 import java.util.List;
 
 import static business.JdbcUtils.getConnection;
+import static business.JdbcUtils.getReadConnection;
 
 public class OrderDaoJdbc implements OrderDao {
 
@@ -28,6 +30,13 @@ public class OrderDaoJdbc implements OrderDao {
             "SELECT customer_order_id, customer_id, amount, date_created, confirmation_number " +
                     "FROM customer_order WHERE customer_order_id = ?";
 
+    private static final String FIND_AFTER_ORDER_ID_SQL =
+            "SELECT customer_order_id, customer_id, amount, date_created, confirmation_number " +
+                    "FROM customer_order WHERE customer_order_id > ? ORDER BY customer_order_id LIMIT ?";
+
+    private static final RowMapper<Order> ORDER_MAPPER = new RowMapper<>(OrderDaoJdbc::readOrder,
+            "customer_order_id", "amount", "date_created", "confirmation_number", "customer_id");
+
     @Override
     public long create(Connection connection, int amount, int confirmationNumber, long customerId) {
         try (PreparedStatement statement = connection.prepareStatement(CREATE_ORDER_SQL, Statement.RETURN_GENERATED_KEYS)) {
@@ -51,16 +60,38 @@ public class OrderDaoJdbc implements OrderDao {
         }
     }
 
+    @Override
+    public long[] createAll(Connection connection, List<NewOrder> orders) {
+        try (PreparedStatement statement = connection.prepareStatement(CREATE_ORDER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (NewOrder order : orders) {
+                statement.setInt(1, order.amount());
+                statement.setInt(2, order.confirmationNumber());
+                statement.setLong(3, order.customerId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            long[] customerOrderIds = new long[orders.size()];
+            try (ResultSet rs = statement.getGeneratedKeys()) {
+                for (int i = 0; i < customerOrderIds.length; i++) {
+                    if (!rs.next()) {
+                        throw new BookstoreUpdateDbException("Failed to retrieve customerOrderId auto-generated keys");
+                    }
+                    customerOrderIds[i] = rs.getLong(1);
+                }
+            }
+            return customerOrderIds;
+        } catch (SQLException e) {
+            throw new BookstoreUpdateDbException("Encountered problem creating " + orders.size() + " orders", e);
+        }
+    }
+
     @Override
     public List<Order> findAll() {
         List<Order> result = new ArrayList<>();
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_SQL);
              ResultSet resultSet = statement.executeQuery()) {
-            while(resultSet.next()) {
-                Order order = readOrder(resultSet);
-                result.add(order);
-            }
+            result.addAll(ORDER_MAPPER.readAll(resultSet));
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding all orders", e);
         }
@@ -70,13 +101,11 @@ public class OrderDaoJdbc implements OrderDao {
     @Override
     public Order findByOrderId(long orderId) {
         Order result = null;
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_CUSTOMER_ORDER_ID_SQL)) {
             statement.setLong(1, orderId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    result = readOrder(resultSet);
-                }
+                result = ORDER_MAPPER.readFirst(resultSet);
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding customer order id = " + orderId, e);
@@ -87,14 +116,11 @@ public class OrderDaoJdbc implements OrderDao {
     @Override
     public List<Order> findByCustomerId(long customerId) {
         List<Order> result = new ArrayList<>();
-        try (Connection connection = getConnection();
+        try (Connection connection = getReadConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_BY_CUSTOMER_ID_SQL)) {
             statement.setLong(1, customerId);
             try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
-                    Order order = readOrder(resultSet);
-                    result.add(order);
-                }
+                result.addAll(ORDER_MAPPER.readAll(resultSet));
             }
         } catch (SQLException e) {
             throw new BookstoreQueryDbException("Encountered problem finding customer id = " + customerId, e);
@@ -102,12 +128,29 @@ public class OrderDaoJdbc implements OrderDao {
         return result;
     }
 
-    private Order readOrder(ResultSet resultSet) throws SQLException {
-        long orderId = resultSet.getLong("customer_order_id");
-        int amount = resultSet.getInt("amount");
-        Date dateCreated = resultSet.getTimestamp("date_created");
-        int confirmationNumber = resultSet.getInt("confirmation_number");
-        long customerId = resultSet.getLong("customer_id");
+    @Override
+    public List<Order> findAfterOrderId(long orderId, int limit) {
+        List<Order> result = new ArrayList<>();
+        // the primary, since a replica may not have the latest orders yet
+        try (Connection connection = getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_AFTER_ORDER_ID_SQL)) {
+            statement.setLong(1, orderId);
+            statement.setInt(2, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                result.addAll(ORDER_MAPPER.readAll(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new BookstoreQueryDbException("Encountered problem finding orders after id = " + orderId, e);
+        }
+        return result;
+    }
+
+    private static Order readOrder(ResultSet resultSet, int[] column) throws SQLException {
+        long orderId = resultSet.getLong(column[0]);
+        int amount = resultSet.getInt(column[1]);
+        Date dateCreated = resultSet.getTimestamp(column[2]);
+        int confirmationNumber = resultSet.getInt(column[3]);
+        long customerId = resultSet.getLong(column[4]);
         return new Order(orderId, amount, dateCreated, confirmationNumber, customerId);
     }
 
@@ -3,10 +3,28 @@ package business.order;
 import business.cart.ShoppingCart;
 import business.customer.CustomerForm;
 
+import java.util.List;
+
 public interface OrderService {
 
     long placeOrder(CustomerForm form, ShoppingCart cart);
 
+    /**
+     * Places an order for a cart whose books and prices the caller has
+     * already checked against the catalog, such as a server-side cart.
+     */
+    long placeValidatedOrder(CustomerForm form, ShoppingCart cart);
+
+    /**
+     * Places a batch of orders, validated against one lookup of their
+     * books and inserted in one transaction. Invalid orders, and orders
+     * short of stock, are rejected individually; the rest are placed
+     * together or, if the transaction fails, not at all.
+     *
+     * @return the outcome of each order, in the order given
+     */
+    List<BulkOrderResult> placeOrders(List<OrderForm> orders);
+
     OrderDetails getOrderDetails(long orderId);
 
 }
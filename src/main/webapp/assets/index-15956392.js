@@ -6,4 +6,4 @@ var Zi=Object.defineProperty;var Xi=(e,t,n)=>t in e?Zi(e,t,{enumerable:!0,config
   * vue-router v4.1.6
   * (c) 2022 Eduardo San Martin Morote
   * @license MIT
-  */const Vt=typeof window<"u";function Ma(e){return e.__esModule||e[Symbol.toStringTag]==="Module"}const se=Object.assign;function Cr(e,t){const n={};for(const r in t){const s=t[r];n[r]=Je(s)?s.map(e):e(s)}return n}const fn=()=>{},Je=Array.isArray,Na=/\/$/,ja=e=>e.replace(Na,"");function Or(e,t,n="/"){let r,s={},o="",i="";const c=t.indexOf("#");let l=t.indexOf("?");return c<l&&c>=0&&(l=-1),l>-1&&(r=t.slice(0,l),o=t.slice(l+1,c>-1?c:t.length),s=e(o)),c>-1&&(r=r||t.slice(0,c),i=t.slice(c,t.length)),r=Ba(r??t,n),{fullPath:r+(o&&"?")+o+i,path:r,query:s,hash:i}}function Fa(e,t){const n=t.query?e(t.query):"";return t.path+(n&&"?")+n+(t.hash||"")}function no(e,t){return!t||!e.toLowerCase().startsWith(t.toLowerCase())?e:e.slice(t.length)||"/"}function La(e,t,n){const r=t.matched.length-1,s=n.matched.length-1;return r>-1&&r===s&&Jt(t.matched[r],n.matched[s])&&Ai(t.params,n.params)&&e(t.query)===e(n.query)&&t.hash===n.hash}function Jt(e,t){return(e.aliasOf||e)===(t.aliasOf||t)}function Ai(e,t){if(Object.keys(e).length!==Object.keys(t).length)return!1;for(const n in e)if(!Da(e[n],t[n]))return!1;return!0}function Da(e,t){return Je(e)?ro(e,t):Je(t)?ro(t,e):e===t}function ro(e,t){return Je(t)?e.length===t.length&&e.every((n,r)=>n===t[r]):e.length===1&&e[0]===t}function Ba(e,t){if(e.startsWith("/"))return e;if(!e)return t;const n=t.split("/"),r=e.split("/");let s=n.length-1,o,i;for(o=0;o<r.length;o++)if(i=r[o],i!==".")if(i==="..")s>1&&s--;else break;return n.slice(0,s).join("/")+"/"+r.slice(o-(o===r.length?1:0)).join("/")}var $n;(function(e){e.pop="pop",e.push="push"})($n||($n={}));var dn;(function(e){e.back="back",e.forward="forward",e.unknown=""})(dn||(dn={}));function Va(e){if(!e)if(Vt){const t=document.querySelector("base");e=t&&t.getAttribute("href")||"/",e=e.replace(/^\w+:\/\/[^\/]+/,"")}else e="/";return e[0]!=="/"&&e[0]!=="#"&&(e="/"+e),ja(e)}const Ha=/^[^#]+#/;function Ua(e,t){return e.replace(Ha,"#")+t}function za(e,t){const n=document.documentElement.getBoundingClientRect(),r=e.getBoundingClientRect();return{behavior:t.behavior,left:r.left-n.left-(t.left||0),top:r.top-n.top-(t.top||0)}}const mr=()=>({left:window.pageXOffset,top:window.pageYOffset});function Ka(e){let t;if("el"in e){const n=e.el,r=typeof n=="string"&&n.startsWith("#"),s=typeof n=="string"?r?document.getElementById(n.slice(1)):document.querySelector(n):n;if(!s)return;t=za(s,e)}else t=e;"scrollBehavior"in document.documentElement.style?window.scrollTo(t):window.scrollTo(t.left!=null?t.left:window.pageXOffset,t.top!=null?t.top:window.pageYOffset)}function so(e,t){return(history.state?history.state.position-t:-1)+e}const Hr=new Map;function qa(e,t){Hr.set(e,t)}function Wa(e){const t=Hr.get(e);return Hr.delete(e),t}let Ya=()=>location.protocol+"//"+location.host;function Ti(e,t){const{pathname:n,search:r,hash:s}=t,o=e.indexOf("#");if(o>-1){let c=s.includes(e.slice(o))?e.slice(o).length:1,l=s.slice(c);return l[0]!=="/"&&(l="/"+l),no(l,"")}return no(n,e)+r+s}function Ja(e,t,n,r){let s=[],o=[],i=null;const c=({state:p})=>{const _=Ti(e,location),m=n.value,v=t.value;let C=0;if(p){if(n.value=_,t.value=p,i&&i===m){i=null;return}C=v?p.position-v.position:0}else r(_);s.forEach(O=>{O(n.value,m,{delta:C,type:$n.pop,direction:C?C>0?dn.forward:dn.back:dn.unknown})})};function l(){i=n.value}function a(p){s.push(p);const _=()=>{const m=s.indexOf(p);m>-1&&s.splice(m,1)};return o.push(_),_}function f(){const{history:p}=window;p.state&&p.replaceState(se({},p.state,{scroll:mr()}),"")}function d(){for(const p of o)p();o=[],window.removeEventListener("popstate",c),window.removeEventListener("beforeunload",f)}return window.addEventListener("popstate",c),window.addEventListener("beforeunload",f),{pauseListeners:l,listen:a,destroy:d}}function oo(e,t,n,r=!1,s=!1){return{back:e,current:t,forward:n,replaced:r,position:window.history.length,scroll:s?mr():null}}function Qa(e){const{history:t,location:n}=window,r={value:Ti(e,n)},s={value:t.state};s.value||o(r.value,{back:null,current:r.value,forward:null,position:t.length-1,replaced:!0,scroll:null},!0);function o(l,a,f){const d=e.indexOf("#"),p=d>-1?(n.host&&document.querySelector("base")?e:e.slice(d))+l:Ya()+e+l;try{t[f?"replaceState":"pushState"](a,"",p),s.value=a}catch(_){console.error(_),n[f?"replace":"assign"](p)}}function i(l,a){const f=se({},t.state,oo(s.value.back,l,s.value.forward,!0),a,{position:s.value.position});o(l,f,!0),r.value=l}function c(l,a){const f=se({},s.value,t.state,{forward:l,scroll:mr()});o(f.current,f,!0);const d=se({},oo(r.value,l,null),{position:f.position+1},a);o(l,d,!1),r.value=l}return{location:r,state:s,push:c,replace:i}}function Ga(e){e=Va(e);const t=Qa(e),n=Ja(e,t.state,t.location,t.replace);function r(o,i=!0){i||n.pauseListeners(),history.go(o)}const s=se({location:"",base:e,go:r,createHref:Ua.bind(null,e)},t,n);return Object.defineProperty(s,"location",{enumerable:!0,get:()=>t.location.value}),Object.defineProperty(s,"state",{enumerable:!0,get:()=>t.state.value}),s}function Za(e){return typeof e=="string"||e&&typeof e=="object"}function Mi(e){return typeof e=="string"||typeof e=="symbol"}const ht={path:"/",name:void 0,params:{},query:{},hash:"",fullPath:"/",matched:[],meta:{},redirectedFrom:void 0},Ni=Symbol("");var io;(function(e){e[e.aborted=4]="aborted",e[e.cancelled=8]="cancelled",e[e.duplicated=16]="duplicated"})(io||(io={}));function Qt(e,t){return se(new Error,{type:e,[Ni]:!0},t)}function ot(e,t){return e instanceof Error&&Ni in e&&(t==null||!!(e.type&t))}const co="[^/]+?",Xa={sensitive:!1,strict:!1,start:!0,end:!0},eu=/[.+*?^${}()[\]/\\]/g;function tu(e,t){const n=se({},Xa,t),r=[];let s=n.start?"^":"";const o=[];for(const a of e){const f=a.length?[]:[90];n.strict&&!a.length&&(s+="/");for(let d=0;d<a.length;d++){const p=a[d];let _=40+(n.sensitive?.25:0);if(p.type===0)d||(s+="/"),s+=p.value.replace(eu,"\\$&"),_+=40;else if(p.type===1){const{value:m,repeatable:v,optional:C,regexp:O}=p;o.push({name:m,repeatable:v,optional:C});const L=O||co;if(L!==co){_+=10;try{new RegExp(`(${L})`)}catch(B){throw new Error(`Invalid custom RegExp for param "${m}" (${L}): `+B.message)}}let M=v?`((?:${L})(?:/(?:${L}))*)`:`(${L})`;d||(M=C&&a.length<2?`(?:/${M})`:"/"+M),C&&(M+="?"),s+=M,_+=20,C&&(_+=-8),v&&(_+=-20),L===".*"&&(_+=-50)}f.push(_)}r.push(f)}if(n.strict&&n.end){const a=r.length-1;r[a][r[a].length-1]+=.7000000000000001}n.strict||(s+="/?"),n.end?s+="$":n.strict&&(s+="(?:/|$)");const i=new RegExp(s,n.sensitive?"":"i");function c(a){const f=a.match(i),d={};if(!f)return null;for(let p=1;p<f.length;p++){const _=f[p]||"",m=o[p-1];d[m.name]=_&&m.repeatable?_.split("/"):_}return d}function l(a){let f="",d=!1;for(const p of e){(!d||!f.endsWith("/"))&&(f+="/"),d=!1;for(const _ of p)if(_.type===0)f+=_.value;else if(_.type===1){const{value:m,repeatable:v,optional:C}=_,O=m in a?a[m]:"";if(Je(O)&&!v)throw new Error(`Provided param "${m}" is an array but it is not repeatable (* or + modifiers)`);const L=Je(O)?O.join("/"):O;if(!L)if(C)p.length<2&&(f.endsWith("/")?f=f.slice(0,-1):d=!0);else throw new Error(`Missing required param "${m}"`);f+=L}}return f||"/"}return{re:i,score:r,keys:o,parse:c,stringify:l}}function nu(e,t){let n=0;for(;n<e.length&&n<t.length;){const r=t[n]-e[n];if(r)return r;n++}return e.length<t.length?e.length===1&&e[0]===40+40?-1:1:e.length>t.length?t.length===1&&t[0]===40+40?1:-1:0}function ru(e,t){let n=0;const r=e.score,s=t.score;for(;n<r.length&&n<s.length;){const o=nu(r[n],s[n]);if(o)return o;n++}if(Math.abs(s.length-r.length)===1){if(lo(r))return 1;if(lo(s))return-1}return s.length-r.length}function lo(e){const t=e[e.length-1];return e.length>0&&t[t.length-1]<0}const su={type:0,value:""},ou=/[a-zA-Z0-9_]/;function iu(e){if(!e)return[[]];if(e==="/")return[[su]];if(!e.startsWith("/"))throw new Error(`Invalid path "${e}"`);function t(_){throw new Error(`ERR (${n})/"${a}": ${_}`)}let n=0,r=n;const s=[];let o;function i(){o&&s.push(o),o=[]}let c=0,l,a="",f="";function d(){a&&(n===0?o.push({type:0,value:a}):n===1||n===2||n===3?(o.length>1&&(l==="*"||l==="+")&&t(`A repeatable param (${a}) must be alone in its segment. eg: '/:ids+.`),o.push({type:1,value:a,regexp:f,repeatable:l==="*"||l==="+",optional:l==="*"||l==="?"})):t("Invalid state to consume buffer"),a="")}function p(){a+=l}for(;c<e.length;){if(l=e[c++],l==="\\"&&n!==2){r=n,n=4;continue}switch(n){case 0:l==="/"?(a&&d(),i()):l===":"?(d(),n=1):p();break;case 4:p(),n=r;break;case 1:l==="("?n=2:ou.test(l)?p():(d(),n=0,l!=="*"&&l!=="?"&&l!=="+"&&c--);break;case 2:l===")"?f[f.length-1]=="\\"?f=f.slice(0,-1)+l:n=3:f+=l;break;case 3:d(),n=0,l!=="*"&&l!=="?"&&l!=="+"&&c--,f="";break;default:t("Unknown state");break}}return n===2&&t(`Unfinished custom RegExp for param "${a}"`),d(),i(),s}function cu(e,t,n){const r=tu(iu(e.path),n),s=se(r,{record:e,parent:t,children:[],alias:[]});return t&&!s.record.aliasOf==!t.record.aliasOf&&t.children.push(s),s}function lu(e,t){const n=[],r=new Map;t=fo({strict:!1,end:!0,sensitive:!1},t);function s(f){return r.get(f)}function o(f,d,p){const _=!p,m=au(f);m.aliasOf=p&&p.record;const v=fo(t,f),C=[m];if("alias"in f){const M=typeof f.alias=="string"?[f.alias]:f.alias;for(const B of M)C.push(se({},m,{components:p?p.record.components:m.components,path:B,aliasOf:p?p.record:m}))}let O,L;for(const M of C){const{path:B}=M;if(d&&B[0]!=="/"){const Z=d.record.path,oe=Z[Z.length-1]==="/"?"":"/";M.path=d.record.path+(B&&oe+B)}if(O=cu(M,d,v),p?p.alias.push(O):(L=L||O,L!==O&&L.alias.push(O),_&&f.name&&!uo(O)&&i(f.name)),m.children){const Z=m.children;for(let oe=0;oe<Z.length;oe++)o(Z[oe],O,p&&p.children[oe])}p=p||O,(O.record.components&&Object.keys(O.record.components).length||O.record.name||O.record.redirect)&&l(O)}return L?()=>{i(L)}:fn}function i(f){if(Mi(f)){const d=r.get(f);d&&(r.delete(f),n.splice(n.indexOf(d),1),d.children.forEach(i),d.alias.forEach(i))}else{const d=n.indexOf(f);d>-1&&(n.splice(d,1),f.record.name&&r.delete(f.record.name),f.children.forEach(i),f.alias.forEach(i))}}function c(){return n}function l(f){let d=0;for(;d<n.length&&ru(f,n[d])>=0&&(f.record.path!==n[d].record.path||!ji(f,n[d]));)d++;n.splice(d,0,f),f.record.name&&!uo(f)&&r.set(f.record.name,f)}function a(f,d){let p,_={},m,v;if("name"in f&&f.name){if(p=r.get(f.name),!p)throw Qt(1,{location:f});v=p.record.name,_=se(ao(d.params,p.keys.filter(L=>!L.optional).map(L=>L.name)),f.params&&ao(f.params,p.keys.map(L=>L.name))),m=p.stringify(_)}else if("path"in f)m=f.path,p=n.find(L=>L.re.test(m)),p&&(_=p.parse(m),v=p.record.name);else{if(p=d.name?r.get(d.name):n.find(L=>L.re.test(d.path)),!p)throw Qt(1,{location:f,currentLocation:d});v=p.record.name,_=se({},d.params,f.params),m=p.stringify(_)}const C=[];let O=p;for(;O;)C.unshift(O.record),O=O.parent;return{name:v,path:m,params:_,matched:C,meta:fu(C)}}return e.forEach(f=>o(f)),{addRoute:o,resolve:a,removeRoute:i,getRoutes:c,getRecordMatcher:s}}function ao(e,t){const n={};for(const r of t)r in e&&(n[r]=e[r]);return n}function au(e){return{path:e.path,redirect:e.redirect,name:e.name,meta:e.meta||{},aliasOf:void 0,beforeEnter:e.beforeEnter,props:uu(e),children:e.children||[],instances:{},leaveGuards:new Set,updateGuards:new Set,enterCallbacks:{},components:"components"in e?e.components||null:e.component&&{default:e.component}}}function uu(e){const t={},n=e.props||!1;if("component"in e)t.default=n;else for(const r in e.components)t[r]=typeof n=="boolean"?n:n[r];return t}function uo(e){for(;e;){if(e.record.aliasOf)return!0;e=e.parent}return!1}function fu(e){return e.reduce((t,n)=>se(t,n.meta),{})}function fo(e,t){const n={};for(const r in e)n[r]=r in t?t[r]:e[r];return n}function ji(e,t){return t.children.some(n=>n===e||ji(e,n))}const Fi=/#/g,du=/&/g,hu=/\//g,pu=/=/g,mu=/\?/g,Li=/\+/g,gu=/%5B/g,_u=/%5D/g,Di=/%5E/g,yu=/%60/g,Bi=/%7B/g,bu=/%7C/g,Vi=/%7D/g,vu=/%20/g;function ds(e){return encodeURI(""+e).replace(bu,"|").replace(gu,"[").replace(_u,"]")}function $u(e){return ds(e).replace(Bi,"{").replace(Vi,"}").replace(Di,"^")}function Ur(e){return ds(e).replace(Li,"%2B").replace(vu,"+").replace(Fi,"%23").replace(du,"%26").replace(yu,"`").replace(Bi,"{").replace(Vi,"}").replace(Di,"^")}function wu(e){return Ur(e).replace(pu,"%3D")}function xu(e){return ds(e).replace(Fi,"%23").replace(mu,"%3F")}function Eu(e){return e==null?"":xu(e).replace(hu,"%2F")}function Gn(e){try{return decodeURIComponent(""+e)}catch{}return""+e}function Cu(e){const t={};if(e===""||e==="?")return t;const r=(e[0]==="?"?e.slice(1):e).split("&");for(let s=0;s<r.length;++s){const o=r[s].replace(Li," "),i=o.indexOf("="),c=Gn(i<0?o:o.slice(0,i)),l=i<0?null:Gn(o.slice(i+1));if(c in t){let a=t[c];Je(a)||(a=t[c]=[a]),a.push(l)}else t[c]=l}return t}function ho(e){let t="";for(let n in e){const r=e[n];if(n=wu(n),r==null){r!==void 0&&(t+=(t.length?"&":"")+n);continue}(Je(r)?r.map(o=>o&&Ur(o)):[r&&Ur(r)]).forEach(o=>{o!==void 0&&(t+=(t.length?"&":"")+n,o!=null&&(t+="="+o))})}return t}function Ou(e){const t={};for(const n in e){const r=e[n];r!==void 0&&(t[n]=Je(r)?r.map(s=>s==null?null:""+s):r==null?r:""+r)}return t}const Ru=Symbol(""),po=Symbol(""),hs=Symbol(""),ps=Symbol(""),zr=Symbol("");function sn(){let e=[];function t(r){return e.push(r),()=>{const s=e.indexOf(r);s>-1&&e.splice(s,1)}}function n(){e=[]}return{add:t,list:()=>e,reset:n}}function gt(e,t,n,r,s){const o=r&&(r.enterCallbacks[s]=r.enterCallbacks[s]||[]);return()=>new Promise((i,c)=>{const l=d=>{d===!1?c(Qt(4,{from:n,to:t})):d instanceof Error?c(d):Za(d)?c(Qt(2,{from:t,to:d})):(o&&r.enterCallbacks[s]===o&&typeof d=="function"&&o.push(d),i())},a=e.call(r&&r.instances[s],t,n,l);let f=Promise.resolve(a);e.length<3&&(f=f.then(l)),f.catch(d=>c(d))})}function Rr(e,t,n,r){const s=[];for(const o of e)for(const i in o.components){let c=o.components[i];if(!(t!=="beforeRouteEnter"&&!o.instances[i]))if(Su(c)){const a=(c.__vccOpts||c)[t];a&&s.push(gt(a,n,r,o,i))}else{let l=c();s.push(()=>l.then(a=>{if(!a)return Promise.reject(new Error(`Couldn't resolve component "${i}" at "${o.path}"`));const f=Ma(a)?a.default:a;o.components[i]=f;const p=(f.__vccOpts||f)[t];return p&&gt(p,n,r,o,i)()}))}}return s}function Su(e){return typeof e=="object"||"displayName"in e||"props"in e||"__vccOpts"in e}function mo(e){const t=Ve(hs),n=Ve(ps),r=z(()=>t.resolve($(e.to))),s=z(()=>{const{matched:l}=r.value,{length:a}=l,f=l[a-1],d=n.matched;if(!f||!d.length)return-1;const p=d.findIndex(Jt.bind(null,f));if(p>-1)return p;const _=go(l[a-2]);return a>1&&go(f)===_&&d[d.length-1].path!==_?d.findIndex(Jt.bind(null,l[a-2])):p}),o=z(()=>s.value>-1&&Au(n.params,r.value.params)),i=z(()=>s.value>-1&&s.value===n.matched.length-1&&Ai(n.params,r.value.params));function c(l={}){return Iu(l)?t[$(e.replace)?"replace":"push"]($(e.to)).catch(fn):Promise.resolve()}return{route:r,href:z(()=>r.value.href),isActive:o,isExactActive:i,navigate:c}}const Pu=Pe({name:"RouterLink",compatConfig:{MODE:3},props:{to:{type:[String,Object],required:!0},replace:Boolean,activeClass:String,exactActiveClass:String,custom:Boolean,ariaCurrentValue:{type:String,default:"page"}},useLink:mo,setup(e,{slots:t}){const n=st(mo(e)),{options:r}=Ve(hs),s=z(()=>({[_o(e.activeClass,r.linkActiveClass,"router-link-active")]:n.isActive,[_o(e.exactActiveClass,r.linkExactActiveClass,"router-link-exact-active")]:n.isExactActive}));return()=>{const o=t.default&&t.default(n);return e.custom?o:Ri("a",{"aria-current":n.isExactActive?e.ariaCurrentValue:null,href:n.href,onClick:n.navigate,class:s.value},o)}}}),ku=Pu;function Iu(e){if(!(e.metaKey||e.altKey||e.ctrlKey||e.shiftKey)&&!e.defaultPrevented&&!(e.button!==void 0&&e.button!==0)){if(e.currentTarget&&e.currentTarget.getAttribute){const t=e.currentTarget.getAttribute("target");if(/\b_blank\b/i.test(t))return}return e.preventDefault&&e.preventDefault(),!0}}function Au(e,t){for(const n in t){const r=t[n],s=e[n];if(typeof r=="string"){if(r!==s)return!1}else if(!Je(s)||s.length!==r.length||r.some((o,i)=>o!==s[i]))return!1}return!0}function go(e){return e?e.aliasOf?e.aliasOf.path:e.path:""}const _o=(e,t,n)=>e??t??n,Tu=Pe({name:"RouterView",inheritAttrs:!1,props:{name:{type:String,default:"default"},route:Object},compatConfig:{MODE:3},setup(e,{attrs:t,slots:n}){const r=Ve(zr),s=z(()=>e.route||r.value),o=Ve(po,0),i=z(()=>{let a=$(o);const{matched:f}=s.value;let d;for(;(d=f[a])&&!d.components;)a++;return a}),c=z(()=>s.value.matched[i.value]);Kt(po,z(()=>i.value+1)),Kt(Ru,c),Kt(zr,s);const l=Ae();return Ye(()=>[l.value,c.value,e.name],([a,f,d],[p,_,m])=>{f&&(f.instances[d]=a,_&&_!==f&&a&&a===p&&(f.leaveGuards.size||(f.leaveGuards=_.leaveGuards),f.updateGuards.size||(f.updateGuards=_.updateGuards))),a&&f&&(!_||!Jt(f,_)||!p)&&(f.enterCallbacks[d]||[]).forEach(v=>v(a))},{flush:"post"}),()=>{const a=s.value,f=e.name,d=c.value,p=d&&d.components[f];if(!p)return yo(n.default,{Component:p,route:a});const _=d.props[f],m=_?_===!0?a.params:typeof _=="function"?_(a):_:null,C=Ri(p,se({},m,t,{onVnodeUnmounted:O=>{O.component.isUnmounted&&(d.instances[f]=null)},ref:l}));return yo(n.default,{Component:C,route:a})||C}}});function yo(e,t){if(!e)return null;const n=e(t);return n.length===1?n[0]:n}const Hi=Tu;function Mu(e){const t=lu(e.routes,e),n=e.parseQuery||Cu,r=e.stringifyQuery||ho,s=e.history,o=sn(),i=sn(),c=sn(),l=Kc(ht);let a=ht;Vt&&e.scrollBehavior&&"scrollRestoration"in history&&(history.scrollRestoration="manual");const f=Cr.bind(null,w=>""+w),d=Cr.bind(null,Eu),p=Cr.bind(null,Gn);function _(w,A){let k,N;return Mi(w)?(k=t.getRecordMatcher(w),N=A):N=w,t.addRoute(N,k)}function m(w){const A=t.getRecordMatcher(w);A&&t.removeRoute(A)}function v(){return t.getRoutes().map(w=>w.record)}function C(w){return!!t.getRecordMatcher(w)}function O(w,A){if(A=se({},A||l.value),typeof w=="string"){const u=Or(n,w,A.path),h=t.resolve({path:u.path},A),y=s.createHref(u.fullPath);return se(u,h,{params:p(h.params),hash:Gn(u.hash),redirectedFrom:void 0,href:y})}let k;if("path"in w)k=se({},w,{path:Or(n,w.path,A.path).path});else{const u=se({},w.params);for(const h in u)u[h]==null&&delete u[h];k=se({},w,{params:d(w.params)}),A.params=d(A.params)}const N=t.resolve(k,A),X=w.hash||"";N.params=f(p(N.params));const he=Fa(r,se({},w,{hash:$u(X),path:N.path})),J=s.createHref(he);return se({fullPath:he,hash:X,query:r===ho?Ou(w.query):w.query||{}},N,{redirectedFrom:void 0,href:J})}function L(w){return typeof w=="string"?Or(n,w,l.value.path):se({},w)}function M(w,A){if(a!==w)return Qt(8,{from:A,to:w})}function B(w){return Y(w)}function Z(w){return B(se(L(w),{replace:!0}))}function oe(w){const A=w.matched[w.matched.length-1];if(A&&A.redirect){const{redirect:k}=A;let N=typeof k=="function"?k(w):k;return typeof N=="string"&&(N=N.includes("?")||N.includes("#")?N=L(N):{path:N},N.params={}),se({query:w.query,hash:w.hash,params:"path"in N?{}:w.params},N)}}function Y(w,A){const k=a=O(w),N=l.value,X=w.state,he=w.force,J=w.replace===!0,u=oe(k);if(u)return Y(se(L(u),{state:typeof u=="object"?se({},X,u.state):X,force:he,replace:J}),A||k);const h=k;h.redirectedFrom=A;let y;return!he&&La(r,N,k)&&(y=Qt(16,{to:h,from:N}),re(N,N,!0,!1)),(y?Promise.resolve(y):ve(h,N)).catch(b=>ot(b)?ot(b,2)?b:Fe(b):ie(b,h,N)).then(b=>{if(b){if(ot(b,2))return Y(se({replace:J},L(b.to),{state:typeof b.to=="object"?se({},X,b.to.state):X,force:he}),A||h)}else b=Ee(h,N,!0,J,X);return ye(h,N,b),b})}function q(w,A){const k=M(w,A);return k?Promise.reject(k):Promise.resolve()}function ve(w,A){let k;const[N,X,he]=Nu(w,A);k=Rr(N.reverse(),"beforeRouteLeave",w,A);for(const u of N)u.leaveGuards.forEach(h=>{k.push(gt(h,w,A))});const J=q.bind(null,w,A);return k.push(J),Bt(k).then(()=>{k=[];for(const u of o.list())k.push(gt(u,w,A));return k.push(J),Bt(k)}).then(()=>{k=Rr(X,"beforeRouteUpdate",w,A);for(const u of X)u.updateGuards.forEach(h=>{k.push(gt(h,w,A))});return k.push(J),Bt(k)}).then(()=>{k=[];for(const u of w.matched)if(u.beforeEnter&&!A.matched.includes(u))if(Je(u.beforeEnter))for(const h of u.beforeEnter)k.push(gt(h,w,A));else k.push(gt(u.beforeEnter,w,A));return k.push(J),Bt(k)}).then(()=>(w.matched.forEach(u=>u.enterCallbacks={}),k=Rr(he,"beforeRouteEnter",w,A),k.push(J),Bt(k))).then(()=>{k=[];for(const u of i.list())k.push(gt(u,w,A));return k.push(J),Bt(k)}).catch(u=>ot(u,8)?u:Promise.reject(u))}function ye(w,A,k){for(const N of c.list())N(w,A,k)}function Ee(w,A,k,N,X){const he=M(w,A);if(he)return he;const J=A===ht,u=Vt?history.state:{};k&&(N||J?s.replace(w.fullPath,se({scroll:J&&u&&u.scroll},X)):s.push(w.fullPath,X)),l.value=w,re(w,A,k,J),Fe()}let Re;function Ze(){Re||(Re=s.listen((w,A,k)=>{if(!On.listening)return;const N=O(w),X=oe(N);if(X){Y(se(X,{replace:!0}),N).catch(fn);return}a=N;const he=l.value;Vt&&qa(so(he.fullPath,k.delta),mr()),ve(N,he).catch(J=>ot(J,12)?J:ot(J,2)?(Y(J.to,N).then(u=>{ot(u,20)&&!k.delta&&k.type===$n.pop&&s.go(-1,!1)}).catch(fn),Promise.reject()):(k.delta&&s.go(-k.delta,!1),ie(J,N,he))).then(J=>{J=J||Ee(N,he,!1),J&&(k.delta&&!ot(J,8)?s.go(-k.delta,!1):k.type===$n.pop&&ot(J,20)&&s.go(-1,!1)),ye(N,he,J)}).catch(fn)}))}let ke=sn(),me=sn(),pe;function ie(w,A,k){Fe(w);const N=me.list();return N.length?N.forEach(X=>X(w,A,k)):console.error(w),Promise.reject(w)}function ne(){return pe&&l.value!==ht?Promise.resolve():new Promise((w,A)=>{ke.add([w,A])})}function Fe(w){return pe||(pe=!w,Ze(),ke.list().forEach(([A,k])=>w?k(w):A()),ke.reset()),w}function re(w,A,k,N){const{scrollBehavior:X}=e;if(!Vt||!X)return Promise.resolve();const he=!k&&Wa(so(w.fullPath,0))||(N||!k)&&history.state&&history.state.scroll||null;return _n().then(()=>X(w,A,he)).then(J=>J&&Ka(J)).catch(J=>ie(J,w,A))}const $e=w=>s.go(w);let de;const Ft=new Set,On={currentRoute:l,listening:!0,addRoute:_,removeRoute:m,hasRoute:C,getRoutes:v,resolve:O,options:e,push:B,replace:Z,go:$e,back:()=>$e(-1),forward:()=>$e(1),beforeEach:o.add,beforeResolve:i.add,afterEach:c.add,onError:me.add,isReady:ne,install(w){const A=this;w.component("RouterLink",ku),w.component("RouterView",Hi),w.config.globalProperties.$router=A,Object.defineProperty(w.config.globalProperties,"$route",{enumerable:!0,get:()=>$(l)}),Vt&&!de&&l.value===ht&&(de=!0,B(s.location).catch(X=>{}));const k={};for(const X in ht)k[X]=z(()=>l.value[X]);w.provide(hs,A),w.provide(ps,st(k)),w.provide(zr,l);const N=w.unmount;Ft.add(w),w.unmount=function(){Ft.delete(w),Ft.size<1&&(a=ht,Re&&Re(),Re=null,l.value=ht,de=!1,pe=!1),N()}}};return On}function Bt(e){return e.reduce((t,n)=>t.then(()=>n()),Promise.resolve())}function Nu(e,t){const n=[],r=[],s=[],o=Math.max(t.matched.length,e.matched.length);for(let i=0;i<o;i++){const c=t.matched[i];c&&(e.matched.find(a=>Jt(a,c))?r.push(c):n.push(c));const l=e.matched[i];l&&(t.matched.find(a=>Jt(a,l))||s.push(l))}return[n,r,s]}function Ui(){return Ve(ps)}const ju="/FrancisBookstoreTransact/site-images/logo1.png",ms=`${location.protocol}//${location.hostname}:${location.port==="5173"?"8080":location.port}/FrancisBookstoreTransact/api`,gr=pr("category",{state:()=>({categoryList:[],categoryName:""}),actions:{async fetchCategories(){const t=await(await fetch(`${ms}/categories`)).json();this.categoryList=t}},getters:{getCategoryByName:e=>t=>e.categoryList.find(n=>n.name===t),getCategoryCount:e=>e.categoryList.length}}),Fu=e=>(Qe("data-v-bc1e0602"),e=e(),Ge(),e),Lu={class:"header-dropdown"},Du=Fu(()=>g("i",{class:"fa-solid fa-bars"},null,-1)),Bu=Pe({__name:"TheHeaderDropdown",setup(e){const t=gr();return(n,r)=>{const s=xt("router-link");return U(),W("div",Lu,[Du,g("ul",null,[(U(!0),W(ge,null,wt($(t).categoryList,o=>(U(),W("li",{key:o.categoryId},[H(s,{to:"/category/"+o.name},{default:Oe(()=>[we(G(o.name),1)]),_:2},1032,["to"])]))),128))])])}}});const je=(e,t)=>{const n=e.__vccOpts||e;for(const[r,s]of t)n[r]=s;return n},Vu=je(Bu,[["__scopeId","data-v-bc1e0602"]]);class Hu{constructor(){Rn(this,"itemArray");this.itemArray=[]}get numberOfItems(){return this.itemArray.reduce((t,n)=>t+n.quantity,0)}get empty(){return this.itemArray.length<=0}get subtotal(){return this.itemArray.reduce((t,n)=>t+n.book.price*n.quantity,0)}get total(){return this.subtotal+this.surcharge}get surcharge(){return 500}clear(){this.itemArray=[]}addBook(t){const n=this.itemArray.find(r=>r.book.bookId==t.bookId);if(n)n.quantity++;else{const r=new Uu(t);r.quantity=1,this.itemArray.push(r)}}update(t,n){if(n<0||n>99)return;const r=this.itemArray.findIndex(s=>s.book.bookId==t.bookId);r!==-1&&(n!==0?this.itemArray[r].quantity=n:this.itemArray.splice(r,1))}get items(){return this.itemArray}}class Uu{constructor(t){Rn(this,"book");Rn(this,"quantity");this.book=t,this.quantity=1}}const Mn="orderDetail",gs=pr("OrderDetails",{state:()=>{let e={};const t=sessionStorage.getItem(Mn);if(t!==null){const n=JSON.parse(t);e=Object.assign({},n)}return{orderDetails:e}},actions:{clearOrderDetails(){sessionStorage.removeItem(Mn),this.orderDetails={}},setOrderDetails(e){this.orderDetails=e,sessionStorage.setItem(Mn,JSON.stringify(e))},hasOrderDetails(){return sessionStorage.getItem(Mn)!=null}}}),Nn="ShoppingCart",En=pr("CartStore",{state:()=>{const e=new Hu,t=localStorage.getItem(Nn);if(t!==null){const n=JSON.parse(t);Object.assign(e,n)}return{cart:e}},getters:{count(){return console.log(this.cart.numberOfItems),this.cart.numberOfItems}},actions:{clearCart(){this.cart.clear(),localStorage.setItem(Nn,JSON.stringify(this.cart))},addToCart(e){this.cart.addBook(e),localStorage.setItem(Nn,JSON.stringify(this.cart))},updateBookQuantity(e,t){this.cart.update(e,t),localStorage.setItem(Nn,JSON.stringify(this.cart))},async placeOrder(e){const t=gs();t.clearOrderDetails();const n={cart:this.cart,customerForm:e};console.log(JSON.stringify(n));const r=await fetch(`${ms}/orders`,{mode:"cors",cache:"no-cache",credentials:"same-origin",headers:{"Content-Type":"application/json"},redirect:"follow",referrer:"client",method:"POST",body:JSON.stringify(n)}),s=await r.json();return r.ok&&(this.clearCart(),t.setOrderDetails(s)),s}}}),_r=e=>(Qe("data-v-b47937d9"),e=e(),Ge(),e),zu={class:"container"},Ku=_r(()=>g("img",{src:ju,alt:"Another Bookstore Logo",width:"150",height:"auto"},null,-1)),qu=xi('<section class="title-and-search-bar" data-v-b47937d9><h1 class="logo-text" data-v-b47937d9> CURIOUS MINDS<br data-v-b47937d9> BOOKSHOP </h1></section><section data-v-b47937d9><form action="#" class="search" data-v-b47937d9><div data-v-b47937d9><input type="text" class="search-input" placeholder=" search ........" data-v-b47937d9></div><i class="fa-sharp fa-solid fa-magnifying-glass" id="search-fa-sharp" data-v-b47937d9></i></form></section>',2),Wu={class:"header-dropdown-and-cart"},Yu=_r(()=>g("ul",{class:"header-button"}," Francis ",-1)),Ju=_r(()=>g("br",null,null,-1)),Qu=_r(()=>g("div",null,[g("i",{class:"fa-solid fa-cart-shopping",id:"cart-fa-sharp"})],-1)),Gu={class:"header-button",id:"cart-count"},Zu=Pe({__name:"TheHeader",setup(e){const t=En();return(n,r)=>{const s=xt("router-link");return U(),W("header",zu,[H(s,{to:"/"},{default:Oe(()=>[Ku]),_:1}),qu,g("section",Wu,[Yu,Ju,g("section",null,[H(s,{to:{name:"cart-view"}},{default:Oe(()=>[Qu]),_:1}),g("div",Gu,G($(t).count),1)]),H(Vu)])])}}});const Xu=je(Zu,[["__scopeId","data-v-b47937d9"]]);const ef={},yr=e=>(Qe("data-v-517692ce"),e=e(),Ge(),e),tf={class:"container"},nf=yr(()=>g("section",{class:"Copyright"},[g("p",null,"Copyright@Curious Minds Bookshop 2023")],-1)),rf={class:"links"},sf={class:"social-media-icons"},of=yr(()=>g("i",{class:"fa-brands fa-instagram"},null,-1)),cf=yr(()=>g("i",{class:"fa-brands fa-facebook"},null,-1)),lf=yr(()=>g("i",{class:"fa-brands fa-twitter"},null,-1));function af(e,t){const n=xt("router-link");return U(),W("footer",tf,[nf,g("section",rf,[H(n,{to:"/",class:"info"},{default:Oe(()=>[we("about")]),_:1}),we(" || "),H(n,{to:"/",class:"info"},{default:Oe(()=>[we("contact")]),_:1}),we(" || "),H(n,{to:"/",class:"info"},{default:Oe(()=>[we("directions")]),_:1})]),g("section",sf,[H(n,{to:"/"},{default:Oe(()=>[of]),_:1}),we("     "),H(n,{to:"/"},{default:Oe(()=>[cf]),_:1}),we("     "),H(n,{to:"/"},{default:Oe(()=>[lf]),_:1})])])}const uf=je(ef,[["render",af],["__scopeId","data-v-517692ce"]]),ff={id:"app"},df=Pe({__name:"App",setup(e){return Ui(),gr().fetchCategories(),(n,r)=>(U(),W("div",ff,[H(Xu),(U(),us($(Hi),{key:n.$route.fullPath})),H(uf)]))}});const zi=e=>(Qe("data-v-91c66038"),e=e(),Ge(),e),hf={class:"home-page"},pf=zi(()=>g("section",{class:"welcome-text flow-content container dark-background"},[g("h2",null,"Welcome to Curious Minds Bookshop"),g("p",null," Curious Minds Bookshop is your one stop bookshop where we serve and help your curiosity. "),g("p",null,"We serve your interest with the best and current books"),g("p",null," Explore Our bookshop: by browsing the categories to access mystery books, fantasy books, romantic books, classic books and many more. "),g("p",null,'Curious Minds!!! ""Your reading", "your life""')],-1)),mf=zi(()=>g("button",{class:"cta"},"SHOP BOOKS NOW",-1)),gf=Pe({__name:"HomeView",setup(e){return(t,n)=>{const r=xt("RouterLink");return U(),W("div",hf,[pf,g("ul",null,[H(r,{to:"/category/Mystery"},{default:Oe(()=>[mf]),_:1})])])}}});const _f=je(gf,[["__scopeId","data-v-91c66038"]]),yf={class:"category-nav"},bf={class:"category-buttons"},vf=Pe({__name:"TheCategoryNav",setup(e){const t=gr();return(n,r)=>{const s=xt("router-link");return U(),W("nav",yf,[g("ul",bf,[(U(!0),W(ge,null,wt($(t).categoryList,o=>(U(),W("li",{key:o.categoryId},[H(s,{to:"/category/"+o.name,class:"button category-button"},{default:Oe(()=>[we(G(o.name),1)]),_:2},1032,["to"])]))),128))])])}}});const $f=je(vf,[["__scopeId","data-v-5b80d5a2"]]),wf=e=>(Qe("data-v-d686f38f"),e=e(),Ge(),e),xf={class:"book-box"},Ef={class:"book-image"},Cf=["src","alt"],Of={key:0,id:"read-now"},Rf=wf(()=>g("i",{class:"fa-solid fa-regular fa-book-open-reader"},[g("span",{class:"tooltiptext"},"Read Now")],-1)),Sf=[Rf],Pf={class:"book-title"},kf={class:"book-author"},If={class:"book-price"},Af=Pe({__name:"CategoryBookListItem",props:{book:null},setup(e){const t=e,n=En(),r="/FrancisBookstoreTransact/book-images",s=function(i){let c=i.title.toLowerCase();return c=c.replace(/ /g,"-"),c=c.replace(/'/g,""),`${c}.jpg`};function o(i){return`${r}/${i}`}return(i,c)=>(U(),W("li",xf,[g("div",Ef,[g("img",{src:o(s(t.book)),alt:e.book.title,width:"200"},null,8,Cf)]),e.book.isPublic?(U(),W("ul",Of,Sf)):Yn("",!0),g("div",Pf,G(e.book.title),1),g("div",kf,G(e.book.author),1),g("div",If,"$"+G((e.book.price/100).toFixed(2)),1),g("button",{onClick:c[0]||(c[0]=l=>$(n).addToCart(t.book)),class:"button"}," Add to Cart ")]))}});const Tf=je(Af,[["__scopeId","data-v-d686f38f"]]),Ki=pr("book",{state:()=>({bookList:[]}),actions:{async fetchBooks(e){var s,o;const n=((o=(s=gr().categoryList)==null?void 0:s.find(i=>i.name===e))==null?void 0:o.name)||e,r=await fetch(`${ms}/categories/name/${n}/books`);if(!r.ok)throw new Error("Failed to load the books.");this.bookList=await r.json()}}}),Mf=Pe({__name:"TheCategoryBookList",setup(e){const t=Ki();return(n,r)=>(U(),W("ul",null,[(U(!0),W(ge,null,wt($(t).bookList,s=>(U(),us(Tf,{key:s.bookId,book:s},null,8,["book"]))),128))]))}});const Nf=je(Mf,[["__scopeId","data-v-42caab1b"]]),jf=Pe({__name:"CategoryView",setup(e){const t=Ui(),n=Ki();return Ye(()=>t.params.name,r=>{n.fetchBooks(r).catch(()=>{bs.push("/not-found")})},{immediate:!0}),(r,s)=>(U(),W("div",null,[H($f),H(Nf)]))}}),ut=e=>(Qe("data-v-dcad8903"),e=e(),Ge(),e),Ff={key:0,class:"cart-table"},Lf={class:"cart-item-subtotal"},Df={class:"cart-count"},Bf={class:"cart-subtotal"},Vf=xi('<li class="table-heading" data-v-dcad8903><div class="heading-book" data-v-dcad8903>Book</div><div class="heading-price" data-v-dcad8903>Price</div><div class="heading-quantity" data-v-dcad8903>Quantity</div><div class="heading-subtotal" data-v-dcad8903>Amount</div></li>',1),Hf={class:"cart-book-image"},Uf=["src","alt"],zf={class:"cart-book-title"},Kf={class:"cart-book-price"},qf={class:"cart-book-quantity"},Wf=["onClick"],Yf=ut(()=>g("i",{class:"fas fa-plus-circle"},null,-1)),Jf=[Yf],Qf={class:"quantity"},Gf=["onClick"],Zf=ut(()=>g("i",{class:"fas fa-minus-circle"},null,-1)),Xf=[Zf],ed={class:"cart-book-total"},td=ut(()=>g("li",{class:"line-sep"},null,-1)),nd=ut(()=>g("br",null,null,-1)),rd={class:"carttable-button"},sd=ut(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),od=ut(()=>g("button",{class:"button btn-primary"},"Proceed to Checkout",-1)),id={key:1,class:"else"},cd={class:"btn-message"},ld=ut(()=>g("p",null,[g("strong",null,"Please your cart is empty.")],-1)),ad=ut(()=>g("button",{class:"button btn-continue"},"Continue Shopping",-1)),ud=ut(()=>g("br",null,null,-1)),fd=Pe({__name:"CartTable",setup(e){const t=En(),n=function(o){let i=o.title.toLowerCase();return i=i.replace(/ /g,"-"),i=i.replace(/'/g,""),`${i}.jpg`},r="/FrancisBookstoreTransact/book-images",s=function(o,i){t.cart.update(o,i)};return(o,i)=>{const c=xt("RouterLink");return U(),W(ge,null,[$(t).cart.items.length>0?(U(),W("div",Ff,[g("section",Lf,[g("div",Df,[g("strong",null,[we(" Your cart has: "),g("span",null,G($(t).count)+" books",1)])]),g("div",Bf,[g("strong",null,"Subtotal: $"+G(($(t).cart.items.reduce((l,a)=>l+a.book.price*a.quantity,0)/100).toFixed(2)),1)]),g("div",null,[g("button",{onClick:i[0]||(i[0]=(...l)=>$(t).clearCart&&$(t).clearCart(...l)),class:"button btn-tertiary"}," Clear Cart ")])]),g("ul",null,[Vf,(U(!0),W(ge,null,wt($(t).cart.items,l=>(U(),W(ge,{key:l.book.bookId},[g("li",null,[g("div",Hf,[g("img",{src:`${r}/${n(l.book)}`,alt:l.book.title,width:"",height:""},null,8,Uf)]),g("div",zf,G(l.book.title),1),g("div",Kf," $"+G((l.book.price/100).toFixed(2)),1),g("div",qf,[g("button",{class:"icon-button inc-button",onClick:a=>s(l.book,l.quantity+1)},Jf,8,Wf),g("span",Qf,G(l.quantity),1),we("  "),g("button",{class:"icon-button dec-button",onClick:a=>s(l.book,l.quantity-1)},Xf,8,Gf)]),g("div",ed,[g("strong",null," $"+G((l.book.price/100*l.quantity).toFixed(2)),1)])]),td],64))),128)),nd,g("section",rd,[g("div",null,[H(c,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[sd]),_:1})]),g("div",null,[H(c,{to:{name:"checkout-view"}},{default:Oe(()=>[od]),_:1})])])])])):(U(),W("div",id,[g("label",cd,[ld,g("div",null,[H(c,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[ad]),_:1})])])])),ud],64)}}});const dd=je(fd,[["__scopeId","data-v-dcad8903"]]),hd=e=>(Qe("data-v-bdee9774"),e=e(),Ge(),e),pd=hd(()=>g("h1",null,"CART PAGE",-1)),md=Pe({__name:"CartView",setup(e){return(t,n)=>(U(),W(ge,null,[pd,H(dd)],64))}});const gd=je(md,[["__scopeId","data-v-bdee9774"]]);function bo(e,t){var n=Object.keys(e);if(Object.getOwnPropertySymbols){var r=Object.getOwnPropertySymbols(e);t&&(r=r.filter(function(s){return Object.getOwnPropertyDescriptor(e,s).enumerable})),n.push.apply(n,r)}return n}function _t(e){for(var t=1;t<arguments.length;t++){var n=arguments[t]!=null?arguments[t]:{};t%2?bo(Object(n),!0).forEach(function(r){_d(e,r,n[r])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(n)):bo(Object(n)).forEach(function(r){Object.defineProperty(e,r,Object.getOwnPropertyDescriptor(n,r))})}return e}function _d(e,t,n){return t in e?Object.defineProperty(e,t,{value:n,enumerable:!0,configurable:!0,writable:!0}):e[t]=n,e}function vo(e){let t=arguments.length>1&&arguments[1]!==void 0?arguments[1]:[];return Object.keys(e).reduce((n,r)=>(t.includes(r)||(n[r]=$(e[r])),n),{})}function Zn(e){return typeof e=="function"}function yd(e){return ct(e)||Mt(e)}function qi(e,t,n){let r=e;const s=t.split(".");for(let o=0;o<s.length;o++){if(!r[s[o]])return n;r=r[s[o]]}return r}function Sr(e,t,n){return z(()=>e.some(r=>qi(t,r,{[n]:!1})[n]))}function $o(e,t,n){return z(()=>e.reduce((r,s)=>{const o=qi(t,s,{[n]:!1})[n]||[];return r.concat(o)},[]))}function Wi(e,t,n,r){return e.call(r,$(t),$(n),r)}function Yi(e){return e.$valid!==void 0?!e.$valid:!e}function bd(e,t,n,r,s,o,i){let{$lazy:c,$rewardEarly:l}=s,a=arguments.length>7&&arguments[7]!==void 0?arguments[7]:[],f=arguments.length>8?arguments[8]:void 0,d=arguments.length>9?arguments[9]:void 0,p=arguments.length>10?arguments[10]:void 0;const _=Ae(!!r.value),m=Ae(0);n.value=!1;const v=Ye([t,r].concat(a,p),()=>{if(c&&!r.value||l&&!d.value&&!n.value)return;let C;try{C=Wi(e,t,f,i)}catch(O){C=Promise.reject(O)}m.value++,n.value=!!m.value,_.value=!1,Promise.resolve(C).then(O=>{m.value--,n.value=!!m.value,o.value=O,_.value=Yi(O)}).catch(O=>{m.value--,n.value=!!m.value,o.value=O,_.value=!0})},{immediate:!0,deep:typeof t=="object"});return{$invalid:_,$unwatch:v}}function vd(e,t,n,r,s,o,i,c){let{$lazy:l,$rewardEarly:a}=r;const f=()=>({}),d=z(()=>{if(l&&!n.value||a&&!c.value)return!1;let p=!0;try{const _=Wi(e,t,i,o);s.value=_,p=Yi(_)}catch(_){s.value=_}return p});return{$unwatch:f,$invalid:d}}function $d(e,t,n,r,s,o,i,c,l,a,f){const d=Ae(!1),p=e.$params||{},_=Ae(null);let m,v;e.$async?{$invalid:m,$unwatch:v}=bd(e.$validator,t,d,n,r,_,s,e.$watchTargets,l,a,f):{$invalid:m,$unwatch:v}=vd(e.$validator,t,n,r,_,s,l,a);const C=e.$message;return{$message:Zn(C)?z(()=>C(vo({$pending:d,$invalid:m,$params:vo(p),$model:t,$response:_,$validator:o,$propertyPath:c,$property:i}))):C||"",$params:p,$pending:d,$invalid:m,$response:_,$unwatch:v}}function wd(){let e=arguments.length>0&&arguments[0]!==void 0?arguments[0]:{};const t=$(e),n=Object.keys(t),r={},s={},o={};let i=null;return n.forEach(c=>{const l=t[c];switch(!0){case Zn(l.$validator):r[c]=l;break;case Zn(l):r[c]={$validator:l};break;case c==="$validationGroups":i=l;break;case c.startsWith("$"):o[c]=l;break;default:s[c]=l}}),{rules:r,nestedValidators:s,config:o,validationGroups:i}}const xd="__root";function Ed(e,t,n,r,s,o,i,c,l){const a=Object.keys(e),f=r.get(s,e),d=Ae(!1),p=Ae(!1),_=Ae(0);if(f){if(!f.$partial)return f;f.$unwatch(),d.value=f.$dirty.value}const m={$dirty:d,$path:s,$touch:()=>{d.value||(d.value=!0)},$reset:()=>{d.value&&(d.value=!1)},$commit:()=>{}};return a.length?(a.forEach(v=>{m[v]=$d(e[v],t,m.$dirty,o,i,v,n,s,l,p,_)}),m.$externalResults=z(()=>c.value?[].concat(c.value).map((v,C)=>({$propertyPath:s,$property:n,$validator:"$externalResults",$uid:`${s}-externalResult-${C}`,$message:v,$params:{},$response:null,$pending:!1})):[]),m.$invalid=z(()=>{const v=a.some(C=>$(m[C].$invalid));return p.value=v,!!m.$externalResults.value.length||v}),m.$pending=z(()=>a.some(v=>$(m[v].$pending))),m.$error=z(()=>m.$dirty.value?m.$pending.value||m.$invalid.value:!1),m.$silentErrors=z(()=>a.filter(v=>$(m[v].$invalid)).map(v=>{const C=m[v];return st({$propertyPath:s,$property:n,$validator:v,$uid:`${s}-${v}`,$message:C.$message,$params:C.$params,$response:C.$response,$pending:C.$pending})}).concat(m.$externalResults.value)),m.$errors=z(()=>m.$dirty.value?m.$silentErrors.value:[]),m.$unwatch=()=>a.forEach(v=>{m[v].$unwatch()}),m.$commit=()=>{p.value=!0,_.value=Date.now()},r.set(s,e,m),m):(f&&r.set(s,e,m),m)}function Cd(e,t,n,r,s,o,i){const c=Object.keys(e);return c.length?c.reduce((l,a)=>(l[a]=Kr({validations:e[a],state:t,key:a,parentKey:n,resultsCache:r,globalConfig:s,instance:o,externalResults:i}),l),{}):{}}function Od(e,t,n){const r=z(()=>[t,n].filter(m=>m).reduce((m,v)=>m.concat(Object.values($(v))),[])),s=z({get(){return e.$dirty.value||(r.value.length?r.value.every(m=>m.$dirty):!1)},set(m){e.$dirty.value=m}}),o=z(()=>{const m=$(e.$silentErrors)||[],v=r.value.filter(C=>($(C).$silentErrors||[]).length).reduce((C,O)=>C.concat(...O.$silentErrors),[]);return m.concat(v)}),i=z(()=>{const m=$(e.$errors)||[],v=r.value.filter(C=>($(C).$errors||[]).length).reduce((C,O)=>C.concat(...O.$errors),[]);return m.concat(v)}),c=z(()=>r.value.some(m=>m.$invalid)||$(e.$invalid)||!1),l=z(()=>r.value.some(m=>$(m.$pending))||$(e.$pending)||!1),a=z(()=>r.value.some(m=>m.$dirty)||r.value.some(m=>m.$anyDirty)||s.value),f=z(()=>s.value?l.value||c.value:!1),d=()=>{e.$touch(),r.value.forEach(m=>{m.$touch()})},p=()=>{e.$commit(),r.value.forEach(m=>{m.$commit()})},_=()=>{e.$reset(),r.value.forEach(m=>{m.$reset()})};return r.value.length&&r.value.every(m=>m.$dirty)&&d(),{$dirty:s,$errors:i,$invalid:c,$anyDirty:a,$error:f,$pending:l,$touch:d,$reset:_,$silentErrors:o,$commit:p}}function Kr(e){let{validations:t,state:n,key:r,parentKey:s,childResults:o,resultsCache:i,globalConfig:c={},instance:l,externalResults:a}=e;const f=s?`${s}.${r}`:r,{rules:d,nestedValidators:p,config:_,validationGroups:m}=wd(t),v=_t(_t({},c),_),C=r?z(()=>{const re=$(n);return re?$(re[r]):void 0}):n,O=_t({},$(a)||{}),L=z(()=>{const re=$(a);return r?re?$(re[r]):void 0:re}),M=Ed(d,C,r,i,f,v,l,L,n),B=Cd(p,C,f,i,v,l,L),Z={};m&&Object.entries(m).forEach(re=>{let[$e,de]=re;Z[$e]={$invalid:Sr(de,B,"$invalid"),$error:Sr(de,B,"$error"),$pending:Sr(de,B,"$pending"),$errors:$o(de,B,"$errors"),$silentErrors:$o(de,B,"$silentErrors")}});const{$dirty:oe,$errors:Y,$invalid:q,$anyDirty:ve,$error:ye,$pending:Ee,$touch:Re,$reset:Ze,$silentErrors:ke,$commit:me}=Od(M,B,o),pe=r?z({get:()=>$(C),set:re=>{oe.value=!0;const $e=$(n),de=$(a);de&&(de[r]=O[r]),fe($e[r])?$e[r].value=re:$e[r]=re}}):null;r&&v.$autoDirty&&Ye(C,()=>{oe.value||Re();const re=$(a);re&&(re[r]=O[r])},{flush:"sync"});async function ie(){return Re(),v.$rewardEarly&&(me(),await _n()),await _n(),new Promise(re=>{if(!Ee.value)return re(!q.value);const $e=Ye(Ee,()=>{re(!q.value),$e()})})}function ne(re){return(o.value||{})[re]}function Fe(){fe(a)?a.value=O:Object.keys(O).length===0?Object.keys(a).forEach(re=>{delete a[re]}):Object.assign(a,O)}return st(_t(_t(_t({},M),{},{$model:pe,$dirty:oe,$error:ye,$errors:Y,$invalid:q,$anyDirty:ve,$pending:Ee,$touch:Re,$reset:Ze,$path:f||xd,$silentErrors:ke,$validate:ie,$commit:me},o&&{$getResultsForChild:ne,$clearExternalResults:Fe,$validationGroups:Z}),B))}class Rd{constructor(){this.storage=new Map}set(t,n,r){this.storage.set(t,{rules:n,result:r})}checkRulesValidity(t,n,r){const s=Object.keys(r),o=Object.keys(n);return o.length!==s.length||!o.every(c=>s.includes(c))?!1:o.every(c=>n[c].$params?Object.keys(n[c].$params).every(l=>$(r[c].$params[l])===$(n[c].$params[l])):!0)}get(t,n){const r=this.storage.get(t);if(!r)return;const{rules:s,result:o}=r,i=this.checkRulesValidity(t,n,s),c=o.$unwatch?o.$unwatch:()=>({});return i?o:{$dirty:o.$dirty,$partial:!0,$unwatch:c}}}const Vn={COLLECT_ALL:!0,COLLECT_NONE:!1},wo=Symbol("vuelidate#injectChildResults"),xo=Symbol("vuelidate#removeChildResults");function Sd(e){let{$scope:t,instance:n}=e;const r={},s=Ae([]),o=z(()=>s.value.reduce((f,d)=>(f[d]=$(r[d]),f),{}));function i(f,d){let{$registerAs:p,$scope:_,$stopPropagation:m}=d;m||t===Vn.COLLECT_NONE||_===Vn.COLLECT_NONE||t!==Vn.COLLECT_ALL&&t!==_||(r[p]=f,s.value.push(p))}n.__vuelidateInjectInstances=[].concat(n.__vuelidateInjectInstances||[],i);function c(f){s.value=s.value.filter(d=>d!==f),delete r[f]}n.__vuelidateRemoveInstances=[].concat(n.__vuelidateRemoveInstances||[],c);const l=Ve(wo,[]);Kt(wo,n.__vuelidateInjectInstances);const a=Ve(xo,[]);return Kt(xo,n.__vuelidateRemoveInstances),{childResults:o,sendValidationResultsToParent:l,removeValidationResultsFromParent:a}}function Ji(e){return new Proxy(e,{get(t,n){return typeof t[n]=="object"?Ji(t[n]):z(()=>t[n])}})}let Eo=0;function Pd(e,t){var n;let r=arguments.length>2&&arguments[2]!==void 0?arguments[2]:{};arguments.length===1&&(r=e,e=void 0,t=void 0);let{$registerAs:s,$scope:o=Vn.COLLECT_ALL,$stopPropagation:i,$externalResults:c,currentVueInstance:l}=r;const a=l||((n=Ei())===null||n===void 0?void 0:n.proxy),f=a?a.$options:{};s||(Eo+=1,s=`_vuelidate_${Eo}`);const d=Ae({}),p=new Rd,{childResults:_,sendValidationResultsToParent:m,removeValidationResultsFromParent:v}=a?Sd({$scope:o,instance:a}):{childResults:Ae({})};if(!e&&f.validations){const C=f.validations;t=Ae({}),ai(()=>{t.value=a,Ye(()=>Zn(C)?C.call(t.value,new Ji(t.value)):C,O=>{d.value=Kr({validations:O,state:t,childResults:_,resultsCache:p,globalConfig:r,instance:a,externalResults:c||a.vuelidateExternalResults})},{immediate:!0})}),r=f.validationsConfig||r}else{const C=fe(e)||yd(e)?e:st(e||{});Ye(C,O=>{d.value=Kr({validations:O,state:t,childResults:_,resultsCache:p,globalConfig:r,instance:a??{},externalResults:c})},{immediate:!0})}return a&&(m.forEach(C=>C(d,{$registerAs:s,$scope:o,$stopPropagation:i})),ui(()=>v.forEach(C=>C(s)))),z(()=>_t(_t({},$(d.value)),_.value))}function Co(e,t){var n=Object.keys(e);if(Object.getOwnPropertySymbols){var r=Object.getOwnPropertySymbols(e);t&&(r=r.filter(function(s){return Object.getOwnPropertyDescriptor(e,s).enumerable})),n.push.apply(n,r)}return n}function wn(e){for(var t=1;t<arguments.length;t++){var n=arguments[t]!=null?arguments[t]:{};t%2?Co(Object(n),!0).forEach(function(r){kd(e,r,n[r])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(n)):Co(Object(n)).forEach(function(r){Object.defineProperty(e,r,Object.getOwnPropertyDescriptor(n,r))})}return e}function kd(e,t,n){return t in e?Object.defineProperty(e,t,{value:n,enumerable:!0,configurable:!0,writable:!0}):e[t]=n,e}function Xn(e){return typeof e=="function"}function qr(e){return e!==null&&typeof e=="object"&&!Array.isArray(e)}function br(e){return Xn(e.$validator)?wn({},e):{$validator:e}}function Qi(e){return typeof e=="object"?e.$valid:e}function Gi(e){return e.$validator||e}function Id(e,t){if(!qr(e))throw new Error(`[@vuelidate/validators]: First parameter to "withParams" should be an object, provided ${typeof e}`);if(!qr(t)&&!Xn(t))throw new Error("[@vuelidate/validators]: Validator must be a function or object with $validator parameter");const n=br(t);return n.$params=wn(wn({},n.$params||{}),e),n}function Ad(e,t){if(!Xn(e)&&typeof $(e)!="string")throw new Error(`[@vuelidate/validators]: First parameter to "withMessage" should be string or a function returning a string, provided ${typeof e}`);if(!qr(t)&&!Xn(t))throw new Error("[@vuelidate/validators]: Validator must be a function or object with $validator parameter");const n=br(t);return n.$message=e,n}function Td(e){let t=arguments.length>1&&arguments[1]!==void 0?arguments[1]:[];const n=br(e);return wn(wn({},n),{},{$async:!0,$watchTargets:t})}function Md(e){return{$validator(t){for(var n=arguments.length,r=new Array(n>1?n-1:0),s=1;s<n;s++)r[s-1]=arguments[s];return $(t).reduce((o,i,c)=>{const l=Object.entries(i).reduce((a,f)=>{let[d,p]=f;const _=e[d]||{},m=Object.entries(_).reduce((v,C)=>{let[O,L]=C;const B=Gi(L).call(this,p,i,c,...r),Z=Qi(B);if(v.$data[O]=B,v.$data.$invalid=!Z||!!v.$data.$invalid,v.$data.$error=v.$data.$invalid,!Z){let oe=L.$message||"";const Y=L.$params||{};typeof oe=="function"&&(oe=oe({$pending:!1,$invalid:!Z,$params:Y,$model:p,$response:B})),v.$errors.push({$property:d,$message:oe,$params:Y,$response:B,$model:p,$pending:!1,$validator:O})}return{$valid:v.$valid&&Z,$data:v.$data,$errors:v.$errors}},{$valid:!0,$data:{},$errors:[]});return a.$data[d]=m.$data,a.$errors[d]=m.$errors,{$valid:a.$valid&&m.$valid,$data:a.$data,$errors:a.$errors}},{$valid:!0,$data:{},$errors:{}});return{$valid:o.$valid&&l.$valid,$data:o.$data.concat(l.$data),$errors:o.$errors.concat(l.$errors)}},{$valid:!0,$data:[],$errors:[]})},$message:t=>{let{$response:n}=t;return n?n.$errors.map(r=>Object.values(r).map(s=>s.map(o=>o.$message)).reduce((s,o)=>s.concat(o),[])):[]}}}const Cn=e=>{if(e=$(e),Array.isArray(e))return!!e.length;if(e==null)return!1;if(e===!1)return!0;if(e instanceof Date)return!isNaN(e.getTime());if(typeof e=="object"){for(let t in e)return!0;return!1}return!!String(e).length},_s=e=>(e=$(e),Array.isArray(e)?e.length:typeof e=="object"?Object.keys(e).length:String(e).length);function Et(){for(var e=arguments.length,t=new Array(e),n=0;n<e;n++)t[n]=arguments[n];return r=>(r=$(r),!Cn(r)||t.every(s=>(s.lastIndex=0,s.test(r))))}var Ce=Object.freeze({__proto__:null,forEach:Md,len:_s,normalizeValidatorObject:br,regex:Et,req:Cn,unwrap:$,unwrapNormalizedValidator:Gi,unwrapValidatorResponse:Qi,withAsync:Td,withMessage:Ad,withParams:Id});Et(/^[a-zA-Z]*$/);Et(/^[a-zA-Z0-9]*$/);Et(/^\d*(\.\d+)?$/);const Nd=/^(?:[A-z0-9!#$%&'*+/=?^_`{|}~-]+(?:\.[A-z0-9!#$%&'*+/=?^_`{|}~-]+)*|"(?:[\x01-\x08\x0b\x0c\x0e-\x1f\x21\x23-\x5b\x5d-\x7f]|[\x01-\x09\x0b\x0c\x0e-\x7f])*")@(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\.)+[a-z0-9]{2,}(?:[a-z0-9-]*[a-z0-9])?|\[(?:(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\.){3}(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?|[a-z0-9-]*[a-z0-9]:(?:[\x01-\x08\x0b\x0c\x0e-\x1f\x21-\x5a\x53-\x7f]|\\[\x01-\x09\x0b\x0c\x0e-\x7f])+)\])$/i;Et(Nd);function jd(e){return t=>!Cn(t)||_s(t)<=$(e)}function Oo(e){return{$validator:jd(e),$message:t=>{let{$params:n}=t;return`The maximum length allowed is ${n.max}`},$params:{max:e,type:"maxLength"}}}function Fd(e){return t=>!Cn(t)||_s(t)>=$(e)}function Ro(e){return{$validator:Fd(e),$message:t=>{let{$params:n}=t;return`This field should be at least ${n.min} characters long`},$params:{min:e,type:"minLength"}}}function Ld(e){return typeof e=="string"&&(e=e.trim()),Cn(e)}var So={$validator:Ld,$message:"Value is required",$params:{type:"required"}};const Dd=/^(?:(?:(?:https?|ftp):)?\/\/)(?:\S+(?::\S*)?@)?(?:(?!(?:10|127)(?:\.\d{1,3}){3})(?!(?:169\.254|192\.168)(?:\.\d{1,3}){2})(?!172\.(?:1[6-9]|2\d|3[0-1])(?:\.\d{1,3}){2})(?:[1-9]\d?|1\d\d|2[01]\d|22[0-3])(?:\.(?:1?\d{1,2}|2[0-4]\d|25[0-5])){2}(?:\.(?:[1-9]\d?|1\d\d|2[0-4]\d|25[0-4]))|(?:(?:[a-z0-9\u00a1-\uffff][a-z0-9\u00a1-\uffff_-]{0,62})?[a-z0-9\u00a1-\uffff]\.)+(?:[a-z\u00a1-\uffff]{2,}\.?))(?::\d{2,5})?(?:[/?#]\S*)?$/i;Et(Dd);Et(/(^[0-9]*$)|(^-[0-9]+$)/);Et(/^[-]?\d*(\.\d+)?$/);const Bd=/^((\+1|1)?( |-)?)?(\([2-9][0-9]{2}\)|[2-9][0-9]{2})( |-)?([2-9][0-9]{2}( |-)?[0-9]{4})$/;function Vd(e){return Bd.test(e)}const Hd=/^([a-z0-9+._-]+@[a-z0-9.-]+.[a-z]{2,})$/i;function Ud(e){return Hd.test(e)}const zd=/^(?:4[0-9]{12}(?:[0-9]{3,6})?|5[1-5][0-9]{14}|(222[1-9]|22[3-9][0-9]|2[3-6][0-9]{2}|27[01][0-9]|2720)[0-9]{12}|6(?:011|5[0-9][0-9])[0-9]{12,15}|3[47][0-9]{13}|3(?:0[0-5]|[68][0-9])[0-9]{11}|(?:2131|1800|35\d{3})\d{11}|6[27][0-9]{14}|^(81[0-9]{14,17}))$/;function Kd(e){const t=e.replace(/[- ]+/g,"");if(!zd.test(t))return!1;let n=0,r,s,o;for(let i=t.length-1;i>=0;i--)r=t.substring(i,i+1),s=parseInt(r,10),o?(s*=2,s>=10?n+=s%10+1:n+=s):n+=s,o=!o;return!!(n%10===0&&t)}const qd=Pe({__name:"CheckoutFieldError",props:{fieldName:null},setup(e){return(t,n)=>e.fieldName.$error?(U(!0),W(ge,{key:0},wt(e.fieldName.$errors,r=>(U(),W("span",{class:"error",key:r.$uid},G(r.$message),1))),128)):Yn("",!0)}});const on=je(qd,[["__scopeId","data-v-4af5292b"]]),He=e=>(Qe("data-v-a8fc8e0e"),e=e(),Ge(),e),Wd={class:"checkout-page"},Yd={key:0,class:"checkout-page-body-empty"},Jd=He(()=>g("p",{class:"checkout-page-body-empty-message"}," Please select some books to check out ",-1)),Qd=He(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),Gd={key:1,class:"checkout-page-body"},Zd=["onSubmit"],Xd=He(()=>g("label",{for:"name"},"Name",-1)),eh=He(()=>g("label",{for:"address"},"Address",-1)),th=He(()=>g("label",{for:"phone"},"Phone",-1)),nh=He(()=>g("label",{for:"email"},"Email",-1)),rh=He(()=>g("label",{for:"ccNumber"},"Credit card",-1)),sh=He(()=>g("label",null,"Exp Month",-1)),oh=["value"],ih=He(()=>g("span",null,null,-1)),ch=He(()=>g("label",null,"Exp Year",-1)),lh=["value"],ah=He(()=>g("br",null,null,-1)),uh=["disabled"],fh=He(()=>g("br",null,null,-1)),dh={class:"checkout-detail"},hh=He(()=>g("br",null,null,-1)),ph={class:"subtotal-surcharge"},mh={class:"checkoutStatusBox"},gh={key:0,class:"checkoutStatus-Message"},_h={key:1,class:"checkoutStatus-Message"},yh={key:2,class:"checkoutStatus-Message"},bh={key:3,class:"checkoutStatus-Message"},vh=Pe({__name:"CheckoutView",setup(e){const t="An unexpected error occurred, please try again.",n=Ae(t),r=En(),s=r.cart,o=["January","February","March","April","May","June","July","August","September","October","November","December"],i=st({name:"",address:"",phone:"",email:"",ccNumber:"",ccExpiryMonth:new Date().getMonth()+1,ccExpiryYear:new Date().getFullYear(),checkoutStatus:""}),c={name:{required:Ce.withMessage("Please provide your full name.",So),minLength:Ce.withMessage("Name must have at least 4 letters.",Ro(4)),maxLength:Ce.withMessage("Name can have at most 45 letters.",Oo(45))},phone:{required:Ce.withMessage("Please provide a phone number",d=>Ce.req(d)),phone:Ce.withMessage("Please provide a valid phone number",(d,p)=>Ce.req(p.phone)?Vd(d):!0)},address:{required:Ce.withMessage("Please provide an address.",So),minLength:Ce.withMessage("Address must have at least 4 characters.",Ro(4)),maxLength:Ce.withMessage("Address can have at most 45 characters.",Oo(45))},email:{required:Ce.withMessage("Please provide your email address",d=>Ce.req(d)),email:Ce.withMessage("Please provide a valid email address",(d,p)=>Ce.req(p.email)?Ud(d):!0)},ccNumber:{required:Ce.withMessage("Please provide your credit card number.",d=>Ce.req(d)),ccNumber:Ce.withMessage("Please provide a valid credit card number.",(d,p)=>Ce.req(p.ccNumber)?Kd(d):!0)},ccExpiryMonth:{},ccExpiryYear:{}},l=Pd(c,i);async function a(){if(console.log("Submit order"),!await l.value.$validate())i.checkoutStatus="ERROR";else try{i.checkoutStatus="PENDING",n.value=t;const p=await r.placeOrder({name:i.name,address:i.address,phone:i.phone,email:i.email,ccNumber:i.ccNumber,ccExpiryMonth:i.ccExpiryMonth,ccExpiryYear:i.ccExpiryYear});"error"in p?(i.checkoutStatus="SERVER_ERROR",n.value=p.message,console.log("Error placing order",p)):(i.checkoutStatus="OK",await bs.push({name:"confirmation-view"}))}catch(p){i.checkoutStatus="SERVER_ERROR",n.value=t,console.log("Error placing order",p)}}function f(d){return new Date().getFullYear()+d}return(d,p)=>{const _=xt("RouterLink");return U(),W("div",Wd,[$(s).empty?(U(),W("section",Yd,[Jd,H(_,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[Qd]),_:1})])):Yn("",!0),$(s).empty?Yn("",!0):(U(),W("section",Gd,[g("form",{onSubmit:wa(a,["prevent"])},[g("div",null,[Xd,dt(g("input",{type:"text",size:"30",id:"name",name:"name","onUpdate:modelValue":p[0]||(p[0]=m=>$(l).name.$model=m)},null,512),[[nn,$(l).name.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).name},null,8,["field-name"]),g("div",null,[eh,dt(g("input",{type:"text",size:"30",id:"address",name:"address","onUpdate:modelValue":p[1]||(p[1]=m=>$(l).address.$model=m)},null,512),[[nn,$(l).address.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).address},null,8,["field-name"]),g("div",null,[th,dt(g("input",{class:"textField",type:"text",size:"30",id:"phone",name:"phone","onUpdate:modelValue":p[2]||(p[2]=m=>$(l).phone.$model=m)},null,512),[[nn,$(l).phone.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).phone},null,8,["field-name"]),g("div",null,[nh,dt(g("input",{type:"text",size:"30",id:"email",name:"email","onUpdate:modelValue":p[3]||(p[3]=m=>$(l).email.$model=m)},null,512),[[nn,$(l).email.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).email},null,8,["field-name"]),g("div",null,[rh,dt(g("input",{type:"text",size:"30",id:"ccNumber",name:"ccNumber","onUpdate:modelValue":p[4]||(p[4]=m=>$(l).ccNumber.$model=m)},null,512),[[nn,$(l).ccNumber.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).ccNumber},null,8,["field-name"]),g("div",null,[sh,dt(g("select",{"onUpdate:modelValue":p[5]||(p[5]=m=>$(l).ccExpiryMonth.$model=m),id:"ccExpiryMonth"},[(U(),W(ge,null,wt(o,(m,v)=>g("option",{key:v,value:v+1},G(m)+" ("+G(v+1)+") ",9,oh)),64)),ih],512),[[Zs,$(l).ccExpiryMonth.$model]]),we("   "),ch,dt(g("select",{id:"ccExpiryYear","onUpdate:modelValue":p[6]||(p[6]=m=>$(l).ccExpiryYear.$model=m)},[(U(),W(ge,null,wt(15,m=>g("option",{key:m,value:f(m-1)},G(f(m-1)),9,lh)),64))],512),[[Zs,$(l).ccExpiryYear.$model]])]),ah,g("input",{type:"submit",name:"submit",class:"button",disabled:i.checkoutStatus==="PENDING",value:"Complete Purchase Order"},null,8,uh),fh,g("section",dh,[we(" Your credit card will be charged "),g("strong",null,G($(yt)($(s).subtotal+$(s).surcharge)),1),hh,g("strong",ph,"("+G($(yt)($(s).subtotal)),1),we(" + "),g("strong",null,G($(yt)($(s).surcharge)),1),we(" shipping) ")])],40,Zd),dt(g("section",mh,[i.checkoutStatus==="ERROR"?(U(),W("div",gh," Error: Please fix the problems on the form and try again. ")):i.checkoutStatus==="PENDING"?(U(),W("div",_h," Processing... ")):i.checkoutStatus==="OK"?(U(),W("div",yh," Order placed... ")):(U(),W("div",bh,G(n.value),1))],512),[[xa,i.checkoutStatus!==""]])]))])}}});const $h=je(vh,[["__scopeId","data-v-a8fc8e0e"]]),ys=e=>(Qe("data-v-8065c01d"),e=e(),Ge(),e),wh={class:"confirmation-table"},xh=ys(()=>g("tr",null,[g("th",null,"Books"),g("th",null,"Quantity"),g("th",null,"Price")],-1)),Eh=ys(()=>g("td",{colspan:"2"},[g("strong",null,"Total")],-1)),Ch={class:"checkout-detail"},Oh=ys(()=>g("br",null,null,-1)),Rh={class:"subtotal-surcharge"},Sh=Pe({__name:"ConfirmationTable",setup(e){const n=En().cart,s=gs().orderDetails,o=function(i,c){return i.books[c]};return(i,c)=>(U(),W(ge,null,[g("table",wh,[xh,(U(!0),W(ge,null,wt($(s).lineItems,(l,a)=>(U(),W("tr",{key:l.bookId},[g("td",null,G(o($(s),a).title),1),g("td",null,G(l.quantity),1),g("td",null,G($(yt)(o($(s),a).price)),1)]))),128)),g("tr",null,[Eh,g("td",null,[g("strong",null,G($(yt)($(s).order.amount-$(n).surcharge)),1)])])]),g("section",Ch,[we(" Your credit card will be charged "),g("strong",null,G($(yt)($(s).order.amount)),1),Oh,g("strong",Rh," ("+G($(yt)($(s).order.amount-$(n).surcharge)),1),we(" + "),g("strong",null,G($(yt)($(n).surcharge)),1),we(" shipping) ")])],64))}});const Ph=je(Sh,[["__scopeId","data-v-8065c01d"]]),jt=e=>(Qe("data-v-d3859870"),e=e(),Ge(),e),kh={class:"confirmation-view-empty"},Ih={key:0,id:"noDetails"},Ah=jt(()=>g("p",{class:"noDetail-message"}," We are sorry, the order you requested could not be found ",-1)),Th=jt(()=>g("button",{class:"button btn-noDetail",id:""},"Go to Home Page",-1)),Mh={key:1,id:"confirmationView"},Nh=jt(()=>g("h3",null,"Your Order Information",-1)),jh=jt(()=>g("hr",null,null,-1)),Fh=jt(()=>g("h3",null,"Your Information",-1)),Lh=jt(()=>g("div",{id:"customerInfo"},null,-1)),Dh={class:"confirmation-button"},Bh=jt(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),Vh=Pe({__name:"ConfirmationView",setup(e){const t=gs(),n=t.orderDetails;z(function(){return new Date(n.order.dateCreated).toLocaleTimeString()});const r=z(function(){return new Date(n.customer.ccExpDate)}),s=z(function(){return r.value.getFullYear()}),o=z(function(){let i=r.value.getMonth()+1,c=""+i;return i<10&&(c="0"+i),c});return(i,c)=>{const l=xt("RouterLink");return U(),W("div",kh,[!$(n)||!$(t).hasOrderDetails()?(U(),W("div",Ih,[Ah,H(l,{to:{name:"home-view"}},{default:Oe(()=>[Th]),_:1})])):(U(),W("div",Mh,[Nh,g("ul",null,[g("li",null," Your Order Confirmation Number is: "+G($(n).order.confirmationNumber),1),g("li",null,G(new Date($(n).order.dateCreated)),1)]),jh,Fh,g("ul",null,[g("li",null,"Name: "+G($(n).customer.customerName),1),g("li",null,"Address: "+G($(n).customer.address),1),g("li",null,"Email: "+G($(n).customer.email),1),g("li",null,"Phone Number: "+G($(n).customer.phone),1),g("li",null," Card ending: xxxx xxxx xxxx "+G($(n).customer.ccNumber.slice(-4))+" "+G($(o))+"/"+G($(s)),1),H(Ph)]),Lh,g("section",Dh,[g("div",null,[H(l,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[Bh]),_:1})])])]))])}}});const Hh=je(Vh,[["__scopeId","data-v-d3859870"]]);const Uh={},zh=e=>(Qe("data-v-6a273fb3"),e=e(),Ge(),e),Kh={class:"page hero area"},qh=zh(()=>g("section",{class:"flow-content"},[g("h1",null,"Your Content was Not Found"),g("p",null,"There appears to be nothing to find here")],-1)),Wh=[qh];function Yh(e,t){return U(),W("div",Kh,Wh)}const Jh=je(Uh,[["render",Yh],["__scopeId","data-v-6a273fb3"]]),bs=Mu({history:Ga("/FrancisBookstoreTransact"),routes:[{path:"/home",name:"home-view",component:_f,alias:["/","/index.html"]},{path:"/category",redirect:"/category/Mystery"},{path:"/category/:name",name:"category-view",component:jf},{path:"/cart",name:"cart-view",component:gd},{path:"/checkout",name:"checkout-view",component:$h},{path:"/confirmation",name:"confirmation-view",component:Hh},{path:"/:pathMatch(.*)*",name:"not-found",component:Jh}]});const Qh=new Intl.NumberFormat("en-US",{style:"currency",currency:"USD",minimumFractionDigits:2}),yt=function(e){return Qh.format(e/100)},vs=Oa(df);vs.use(Pa());vs.use(bs);vs.mount("#app");
+  */const Vt=typeof window<"u";function Ma(e){return e.__esModule||e[Symbol.toStringTag]==="Module"}const se=Object.assign;function Cr(e,t){const n={};for(const r in t){const s=t[r];n[r]=Je(s)?s.map(e):e(s)}return n}const fn=()=>{},Je=Array.isArray,Na=/\/$/,ja=e=>e.replace(Na,"");function Or(e,t,n="/"){let r,s={},o="",i="";const c=t.indexOf("#");let l=t.indexOf("?");return c<l&&c>=0&&(l=-1),l>-1&&(r=t.slice(0,l),o=t.slice(l+1,c>-1?c:t.length),s=e(o)),c>-1&&(r=r||t.slice(0,c),i=t.slice(c,t.length)),r=Ba(r??t,n),{fullPath:r+(o&&"?")+o+i,path:r,query:s,hash:i}}function Fa(e,t){const n=t.query?e(t.query):"";return t.path+(n&&"?")+n+(t.hash||"")}function no(e,t){return!t||!e.toLowerCase().startsWith(t.toLowerCase())?e:e.slice(t.length)||"/"}function La(e,t,n){const r=t.matched.length-1,s=n.matched.length-1;return r>-1&&r===s&&Jt(t.matched[r],n.matched[s])&&Ai(t.params,n.params)&&e(t.query)===e(n.query)&&t.hash===n.hash}function Jt(e,t){return(e.aliasOf||e)===(t.aliasOf||t)}function Ai(e,t){if(Object.keys(e).length!==Object.keys(t).length)return!1;for(const n in e)if(!Da(e[n],t[n]))return!1;return!0}function Da(e,t){return Je(e)?ro(e,t):Je(t)?ro(t,e):e===t}function ro(e,t){return Je(t)?e.length===t.length&&e.every((n,r)=>n===t[r]):e.length===1&&e[0]===t}function Ba(e,t){if(e.startsWith("/"))return e;if(!e)return t;const n=t.split("/"),r=e.split("/");let s=n.length-1,o,i;for(o=0;o<r.length;o++)if(i=r[o],i!==".")if(i==="..")s>1&&s--;else break;return n.slice(0,s).join("/")+"/"+r.slice(o-(o===r.length?1:0)).join("/")}var $n;(function(e){e.pop="pop",e.push="push"})($n||($n={}));var dn;(function(e){e.back="back",e.forward="forward",e.unknown=""})(dn||(dn={}));function Va(e){if(!e)if(Vt){const t=document.querySelector("base");e=t&&t.getAttribute("href")||"/",e=e.replace(/^\w+:\/\/[^\/]+/,"")}else e="/";return e[0]!=="/"&&e[0]!=="#"&&(e="/"+e),ja(e)}const Ha=/^[^#]+#/;function Ua(e,t){return e.replace(Ha,"#")+t}function za(e,t){const n=document.documentElement.getBoundingClientRect(),r=e.getBoundingClientRect();return{behavior:t.behavior,left:r.left-n.left-(t.left||0),top:r.top-n.top-(t.top||0)}}const mr=()=>({left:window.pageXOffset,top:window.pageYOffset});function Ka(e){let t;if("el"in e){const n=e.el,r=typeof n=="string"&&n.startsWith("#"),s=typeof n=="string"?r?document.getElementById(n.slice(1)):document.querySelector(n):n;if(!s)return;t=za(s,e)}else t=e;"scrollBehavior"in document.documentElement.style?window.scrollTo(t):window.scrollTo(t.left!=null?t.left:window.pageXOffset,t.top!=null?t.top:window.pageYOffset)}function so(e,t){return(history.state?history.state.position-t:-1)+e}const Hr=new Map;function qa(e,t){Hr.set(e,t)}function Wa(e){const t=Hr.get(e);return Hr.delete(e),t}let Ya=()=>location.protocol+"//"+location.host;function Ti(e,t){const{pathname:n,search:r,hash:s}=t,o=e.indexOf("#");if(o>-1){let c=s.includes(e.slice(o))?e.slice(o).length:1,l=s.slice(c);return l[0]!=="/"&&(l="/"+l),no(l,"")}return no(n,e)+r+s}function Ja(e,t,n,r){let s=[],o=[],i=null;const c=({state:p})=>{const _=Ti(e,location),m=n.value,v=t.value;let C=0;if(p){if(n.value=_,t.value=p,i&&i===m){i=null;return}C=v?p.position-v.position:0}else r(_);s.forEach(O=>{O(n.value,m,{delta:C,type:$n.pop,direction:C?C>0?dn.forward:dn.back:dn.unknown})})};function l(){i=n.value}function a(p){s.push(p);const _=()=>{const m=s.indexOf(p);m>-1&&s.splice(m,1)};return o.push(_),_}function f(){const{history:p}=window;p.state&&p.replaceState(se({},p.state,{scroll:mr()}),"")}function d(){for(const p of o)p();o=[],window.removeEventListener("popstate",c),window.removeEventListener("beforeunload",f)}return window.addEventListener("popstate",c),window.addEventListener("beforeunload",f),{pauseListeners:l,listen:a,destroy:d}}function oo(e,t,n,r=!1,s=!1){return{back:e,current:t,forward:n,replaced:r,position:window.history.length,scroll:s?mr():null}}function Qa(e){const{history:t,location:n}=window,r={value:Ti(e,n)},s={value:t.state};s.value||o(r.value,{back:null,current:r.value,forward:null,position:t.length-1,replaced:!0,scroll:null},!0);function o(l,a,f){const d=e.indexOf("#"),p=d>-1?(n.host&&document.querySelector("base")?e:e.slice(d))+l:Ya()+e+l;try{t[f?"replaceState":"pushState"](a,"",p),s.value=a}catch(_){console.error(_),n[f?"replace":"assign"](p)}}function i(l,a){const f=se({},t.state,oo(s.value.back,l,s.value.forward,!0),a,{position:s.value.position});o(l,f,!0),r.value=l}function c(l,a){const f=se({},s.value,t.state,{forward:l,scroll:mr()});o(f.current,f,!0);const d=se({},oo(r.value,l,null),{position:f.position+1},a);o(l,d,!1),r.value=l}return{location:r,state:s,push:c,replace:i}}function Ga(e){e=Va(e);const t=Qa(e),n=Ja(e,t.state,t.location,t.replace);function r(o,i=!0){i||n.pauseListeners(),history.go(o)}const s=se({location:"",base:e,go:r,createHref:Ua.bind(null,e)},t,n);return Object.defineProperty(s,"location",{enumerable:!0,get:()=>t.location.value}),Object.defineProperty(s,"state",{enumerable:!0,get:()=>t.state.value}),s}function Za(e){return typeof e=="string"||e&&typeof e=="object"}function Mi(e){return typeof e=="string"||typeof e=="symbol"}const ht={path:"/",name:void 0,params:{},query:{},hash:"",fullPath:"/",matched:[],meta:{},redirectedFrom:void 0},Ni=Symbol("");var io;(function(e){e[e.aborted=4]="aborted",e[e.cancelled=8]="cancelled",e[e.duplicated=16]="duplicated"})(io||(io={}));function Qt(e,t){return se(new Error,{type:e,[Ni]:!0},t)}function ot(e,t){return e instanceof Error&&Ni in e&&(t==null||!!(e.type&t))}const co="[^/]+?",Xa={sensitive:!1,strict:!1,start:!0,end:!0},eu=/[.+*?^${}()[\]/\\]/g;function tu(e,t){const n=se({},Xa,t),r=[];let s=n.start?"^":"";const o=[];for(const a of e){const f=a.length?[]:[90];n.strict&&!a.length&&(s+="/");for(let d=0;d<a.length;d++){const p=a[d];let _=40+(n.sensitive?.25:0);if(p.type===0)d||(s+="/"),s+=p.value.replace(eu,"\\$&"),_+=40;else if(p.type===1){const{value:m,repeatable:v,optional:C,regexp:O}=p;o.push({name:m,repeatable:v,optional:C});const L=O||co;if(L!==co){_+=10;try{new RegExp(`(${L})`)}catch(B){throw new Error(`Invalid custom RegExp for param "${m}" (${L}): `+B.message)}}let M=v?`((?:${L})(?:/(?:${L}))*)`:`(${L})`;d||(M=C&&a.length<2?`(?:/${M})`:"/"+M),C&&(M+="?"),s+=M,_+=20,C&&(_+=-8),v&&(_+=-20),L===".*"&&(_+=-50)}f.push(_)}r.push(f)}if(n.strict&&n.end){const a=r.length-1;r[a][r[a].length-1]+=.7000000000000001}n.strict||(s+="/?"),n.end?s+="$":n.strict&&(s+="(?:/|$)");const i=new RegExp(s,n.sensitive?"":"i");function c(a){const f=a.match(i),d={};if(!f)return null;for(let p=1;p<f.length;p++){const _=f[p]||"",m=o[p-1];d[m.name]=_&&m.repeatable?_.split("/"):_}return d}function l(a){let f="",d=!1;for(const p of e){(!d||!f.endsWith("/"))&&(f+="/"),d=!1;for(const _ of p)if(_.type===0)f+=_.value;else if(_.type===1){const{value:m,repeatable:v,optional:C}=_,O=m in a?a[m]:"";if(Je(O)&&!v)throw new Error(`Provided param "${m}" is an array but it is not repeatable (* or + modifiers)`);const L=Je(O)?O.join("/"):O;if(!L)if(C)p.length<2&&(f.endsWith("/")?f=f.slice(0,-1):d=!0);else throw new Error(`Missing required param "${m}"`);f+=L}}return f||"/"}return{re:i,score:r,keys:o,parse:c,stringify:l}}function nu(e,t){let n=0;for(;n<e.length&&n<t.length;){const r=t[n]-e[n];if(r)return r;n++}return e.length<t.length?e.length===1&&e[0]===40+40?-1:1:e.length>t.length?t.length===1&&t[0]===40+40?1:-1:0}function ru(e,t){let n=0;const r=e.score,s=t.score;for(;n<r.length&&n<s.length;){const o=nu(r[n],s[n]);if(o)return o;n++}if(Math.abs(s.length-r.length)===1){if(lo(r))return 1;if(lo(s))return-1}return s.length-r.length}function lo(e){const t=e[e.length-1];return e.length>0&&t[t.length-1]<0}const su={type:0,value:""},ou=/[a-zA-Z0-9_]/;function iu(e){if(!e)return[[]];if(e==="/")return[[su]];if(!e.startsWith("/"))throw new Error(`Invalid path "${e}"`);function t(_){throw new Error(`ERR (${n})/"${a}": ${_}`)}let n=0,r=n;const s=[];let o;function i(){o&&s.push(o),o=[]}let c=0,l,a="",f="";function d(){a&&(n===0?o.push({type:0,value:a}):n===1||n===2||n===3?(o.length>1&&(l==="*"||l==="+")&&t(`A repeatable param (${a}) must be alone in its segment. eg: '/:ids+.`),o.push({type:1,value:a,regexp:f,repeatable:l==="*"||l==="+",optional:l==="*"||l==="?"})):t("Invalid state to consume buffer"),a="")}function p(){a+=l}for(;c<e.length;){if(l=e[c++],l==="\\"&&n!==2){r=n,n=4;continue}switch(n){case 0:l==="/"?(a&&d(),i()):l===":"?(d(),n=1):p();break;case 4:p(),n=r;break;case 1:l==="("?n=2:ou.test(l)?p():(d(),n=0,l!=="*"&&l!=="?"&&l!=="+"&&c--);break;case 2:l===")"?f[f.length-1]=="\\"?f=f.slice(0,-1)+l:n=3:f+=l;break;case 3:d(),n=0,l!=="*"&&l!=="?"&&l!=="+"&&c--,f="";break;default:t("Unknown state");break}}return n===2&&t(`Unfinished custom RegExp for param "${a}"`),d(),i(),s}function cu(e,t,n){const r=tu(iu(e.path),n),s=se(r,{record:e,parent:t,children:[],alias:[]});return t&&!s.record.aliasOf==!t.record.aliasOf&&t.children.push(s),s}function lu(e,t){const n=[],r=new Map;t=fo({strict:!1,end:!0,sensitive:!1},t);function s(f){return r.get(f)}function o(f,d,p){const _=!p,m=au(f);m.aliasOf=p&&p.record;const v=fo(t,f),C=[m];if("alias"in f){const M=typeof f.alias=="string"?[f.alias]:f.alias;for(const B of M)C.push(se({},m,{components:p?p.record.components:m.components,path:B,aliasOf:p?p.record:m}))}let O,L;for(const M of C){const{path:B}=M;if(d&&B[0]!=="/"){const Z=d.record.path,oe=Z[Z.length-1]==="/"?"":"/";M.path=d.record.path+(B&&oe+B)}if(O=cu(M,d,v),p?p.alias.push(O):(L=L||O,L!==O&&L.alias.push(O),_&&f.name&&!uo(O)&&i(f.name)),m.children){const Z=m.children;for(let oe=0;oe<Z.length;oe++)o(Z[oe],O,p&&p.children[oe])}p=p||O,(O.record.components&&Object.keys(O.record.components).length||O.record.name||O.record.redirect)&&l(O)}return L?()=>{i(L)}:fn}function i(f){if(Mi(f)){const d=r.get(f);d&&(r.delete(f),n.splice(n.indexOf(d),1),d.children.forEach(i),d.alias.forEach(i))}else{const d=n.indexOf(f);d>-1&&(n.splice(d,1),f.record.name&&r.delete(f.record.name),f.children.forEach(i),f.alias.forEach(i))}}function c(){return n}function l(f){let d=0;for(;d<n.length&&ru(f,n[d])>=0&&(f.record.path!==n[d].record.path||!ji(f,n[d]));)d++;n.splice(d,0,f),f.record.name&&!uo(f)&&r.set(f.record.name,f)}function a(f,d){let p,_={},m,v;if("name"in f&&f.name){if(p=r.get(f.name),!p)throw Qt(1,{location:f});v=p.record.name,_=se(ao(d.params,p.keys.filter(L=>!L.optional).map(L=>L.name)),f.params&&ao(f.params,p.keys.map(L=>L.name))),m=p.stringify(_)}else if("path"in f)m=f.path,p=n.find(L=>L.re.test(m)),p&&(_=p.parse(m),v=p.record.name);else{if(p=d.name?r.get(d.name):n.find(L=>L.re.test(d.path)),!p)throw Qt(1,{location:f,currentLocation:d});v=p.record.name,_=se({},d.params,f.params),m=p.stringify(_)}const C=[];let O=p;for(;O;)C.unshift(O.record),O=O.parent;return{name:v,path:m,params:_,matched:C,meta:fu(C)}}return e.forEach(f=>o(f)),{addRoute:o,resolve:a,removeRoute:i,getRoutes:c,getRecordMatcher:s}}function ao(e,t){const n={};for(const r of t)r in e&&(n[r]=e[r]);return n}function au(e){return{path:e.path,redirect:e.redirect,name:e.name,meta:e.meta||{},aliasOf:void 0,beforeEnter:e.beforeEnter,props:uu(e),children:e.children||[],instances:{},leaveGuards:new Set,updateGuards:new Set,enterCallbacks:{},components:"components"in e?e.components||null:e.component&&{default:e.component}}}function uu(e){const t={},n=e.props||!1;if("component"in e)t.default=n;else for(const r in e.components)t[r]=typeof n=="boolean"?n:n[r];return t}function uo(e){for(;e;){if(e.record.aliasOf)return!0;e=e.parent}return!1}function fu(e){return e.reduce((t,n)=>se(t,n.meta),{})}function fo(e,t){const n={};for(const r in e)n[r]=r in t?t[r]:e[r];return n}function ji(e,t){return t.children.some(n=>n===e||ji(e,n))}const Fi=/#/g,du=/&/g,hu=/\//g,pu=/=/g,mu=/\?/g,Li=/\+/g,gu=/%5B/g,_u=/%5D/g,Di=/%5E/g,yu=/%60/g,Bi=/%7B/g,bu=/%7C/g,Vi=/%7D/g,vu=/%20/g;function ds(e){return encodeURI(""+e).replace(bu,"|").replace(gu,"[").replace(_u,"]")}function $u(e){return ds(e).replace(Bi,"{").replace(Vi,"}").replace(Di,"^")}function Ur(e){return ds(e).replace(Li,"%2B").replace(vu,"+").replace(Fi,"%23").replace(du,"%26").replace(yu,"`").replace(Bi,"{").replace(Vi,"}").replace(Di,"^")}function wu(e){return Ur(e).replace(pu,"%3D")}function xu(e){return ds(e).replace(Fi,"%23").replace(mu,"%3F")}function Eu(e){return e==null?"":xu(e).replace(hu,"%2F")}function Gn(e){try{return decodeURIComponent(""+e)}catch{}return""+e}function Cu(e){const t={};if(e===""||e==="?")return t;const r=(e[0]==="?"?e.slice(1):e).split("&");for(let s=0;s<r.length;++s){const o=r[s].replace(Li," "),i=o.indexOf("="),c=Gn(i<0?o:o.slice(0,i)),l=i<0?null:Gn(o.slice(i+1));if(c in t){let a=t[c];Je(a)||(a=t[c]=[a]),a.push(l)}else t[c]=l}return t}function ho(e){let t="";for(let n in e){const r=e[n];if(n=wu(n),r==null){r!==void 0&&(t+=(t.length?"&":"")+n);continue}(Je(r)?r.map(o=>o&&Ur(o)):[r&&Ur(r)]).forEach(o=>{o!==void 0&&(t+=(t.length?"&":"")+n,o!=null&&(t+="="+o))})}return t}function Ou(e){const t={};for(const n in e){const r=e[n];r!==void 0&&(t[n]=Je(r)?r.map(s=>s==null?null:""+s):r==null?r:""+r)}return t}const Ru=Symbol(""),po=Symbol(""),hs=Symbol(""),ps=Symbol(""),zr=Symbol("");function sn(){let e=[];function t(r){return e.push(r),()=>{const s=e.indexOf(r);s>-1&&e.splice(s,1)}}function n(){e=[]}return{add:t,list:()=>e,reset:n}}function gt(e,t,n,r,s){const o=r&&(r.enterCallbacks[s]=r.enterCallbacks[s]||[]);return()=>new Promise((i,c)=>{const l=d=>{d===!1?c(Qt(4,{from:n,to:t})):d instanceof Error?c(d):Za(d)?c(Qt(2,{from:t,to:d})):(o&&r.enterCallbacks[s]===o&&typeof d=="function"&&o.push(d),i())},a=e.call(r&&r.instances[s],t,n,l);let f=Promise.resolve(a);e.length<3&&(f=f.then(l)),f.catch(d=>c(d))})}function Rr(e,t,n,r){const s=[];for(const o of e)for(const i in o.components){let c=o.components[i];if(!(t!=="beforeRouteEnter"&&!o.instances[i]))if(Su(c)){const a=(c.__vccOpts||c)[t];a&&s.push(gt(a,n,r,o,i))}else{let l=c();s.push(()=>l.then(a=>{if(!a)return Promise.reject(new Error(`Couldn't resolve component "${i}" at "${o.path}"`));const f=Ma(a)?a.default:a;o.components[i]=f;const p=(f.__vccOpts||f)[t];return p&&gt(p,n,r,o,i)()}))}}return s}function Su(e){return typeof e=="object"||"displayName"in e||"props"in e||"__vccOpts"in e}function mo(e){const t=Ve(hs),n=Ve(ps),r=z(()=>t.resolve($(e.to))),s=z(()=>{const{matched:l}=r.value,{length:a}=l,f=l[a-1],d=n.matched;if(!f||!d.length)return-1;const p=d.findIndex(Jt.bind(null,f));if(p>-1)return p;const _=go(l[a-2]);return a>1&&go(f)===_&&d[d.length-1].path!==_?d.findIndex(Jt.bind(null,l[a-2])):p}),o=z(()=>s.value>-1&&Au(n.params,r.value.params)),i=z(()=>s.value>-1&&s.value===n.matched.length-1&&Ai(n.params,r.value.params));function c(l={}){return Iu(l)?t[$(e.replace)?"replace":"push"]($(e.to)).catch(fn):Promise.resolve()}return{route:r,href:z(()=>r.value.href),isActive:o,isExactActive:i,navigate:c}}const Pu=Pe({name:"RouterLink",compatConfig:{MODE:3},props:{to:{type:[String,Object],required:!0},replace:Boolean,activeClass:String,exactActiveClass:String,custom:Boolean,ariaCurrentValue:{type:String,default:"page"}},useLink:mo,setup(e,{slots:t}){const n=st(mo(e)),{options:r}=Ve(hs),s=z(()=>({[_o(e.activeClass,r.linkActiveClass,"router-link-active")]:n.isActive,[_o(e.exactActiveClass,r.linkExactActiveClass,"router-link-exact-active")]:n.isExactActive}));return()=>{const o=t.default&&t.default(n);return e.custom?o:Ri("a",{"aria-current":n.isExactActive?e.ariaCurrentValue:null,href:n.href,onClick:n.navigate,class:s.value},o)}}}),ku=Pu;function Iu(e){if(!(e.metaKey||e.altKey||e.ctrlKey||e.shiftKey)&&!e.defaultPrevented&&!(e.button!==void 0&&e.button!==0)){if(e.currentTarget&&e.currentTarget.getAttribute){const t=e.currentTarget.getAttribute("target");if(/\b_blank\b/i.test(t))return}return e.preventDefault&&e.preventDefault(),!0}}function Au(e,t){for(const n in t){const r=t[n],s=e[n];if(typeof r=="string"){if(r!==s)return!1}else if(!Je(s)||s.length!==r.length||r.some((o,i)=>o!==s[i]))return!1}return!0}function go(e){return e?e.aliasOf?e.aliasOf.path:e.path:""}const _o=(e,t,n)=>e??t??n,Tu=Pe({name:"RouterView",inheritAttrs:!1,props:{name:{type:String,default:"default"},route:Object},compatConfig:{MODE:3},setup(e,{attrs:t,slots:n}){const r=Ve(zr),s=z(()=>e.route||r.value),o=Ve(po,0),i=z(()=>{let a=$(o);const{matched:f}=s.value;let d;for(;(d=f[a])&&!d.components;)a++;return a}),c=z(()=>s.value.matched[i.value]);Kt(po,z(()=>i.value+1)),Kt(Ru,c),Kt(zr,s);const l=Ae();return Ye(()=>[l.value,c.value,e.name],([a,f,d],[p,_,m])=>{f&&(f.instances[d]=a,_&&_!==f&&a&&a===p&&(f.leaveGuards.size||(f.leaveGuards=_.leaveGuards),f.updateGuards.size||(f.updateGuards=_.updateGuards))),a&&f&&(!_||!Jt(f,_)||!p)&&(f.enterCallbacks[d]||[]).forEach(v=>v(a))},{flush:"post"}),()=>{const a=s.value,f=e.name,d=c.value,p=d&&d.components[f];if(!p)return yo(n.default,{Component:p,route:a});const _=d.props[f],m=_?_===!0?a.params:typeof _=="function"?_(a):_:null,C=Ri(p,se({},m,t,{onVnodeUnmounted:O=>{O.component.isUnmounted&&(d.instances[f]=null)},ref:l}));return yo(n.default,{Component:C,route:a})||C}}});function yo(e,t){if(!e)return null;const n=e(t);return n.length===1?n[0]:n}const Hi=Tu;function Mu(e){const t=lu(e.routes,e),n=e.parseQuery||Cu,r=e.stringifyQuery||ho,s=e.history,o=sn(),i=sn(),c=sn(),l=Kc(ht);let a=ht;Vt&&e.scrollBehavior&&"scrollRestoration"in history&&(history.scrollRestoration="manual");const f=Cr.bind(null,w=>""+w),d=Cr.bind(null,Eu),p=Cr.bind(null,Gn);function _(w,A){let k,N;return Mi(w)?(k=t.getRecordMatcher(w),N=A):N=w,t.addRoute(N,k)}function m(w){const A=t.getRecordMatcher(w);A&&t.removeRoute(A)}function v(){return t.getRoutes().map(w=>w.record)}function C(w){return!!t.getRecordMatcher(w)}function O(w,A){if(A=se({},A||l.value),typeof w=="string"){const u=Or(n,w,A.path),h=t.resolve({path:u.path},A),y=s.createHref(u.fullPath);return se(u,h,{params:p(h.params),hash:Gn(u.hash),redirectedFrom:void 0,href:y})}let k;if("path"in w)k=se({},w,{path:Or(n,w.path,A.path).path});else{const u=se({},w.params);for(const h in u)u[h]==null&&delete u[h];k=se({},w,{params:d(w.params)}),A.params=d(A.params)}const N=t.resolve(k,A),X=w.hash||"";N.params=f(p(N.params));const he=Fa(r,se({},w,{hash:$u(X),path:N.path})),J=s.createHref(he);return se({fullPath:he,hash:X,query:r===ho?Ou(w.query):w.query||{}},N,{redirectedFrom:void 0,href:J})}function L(w){return typeof w=="string"?Or(n,w,l.value.path):se({},w)}function M(w,A){if(a!==w)return Qt(8,{from:A,to:w})}function B(w){return Y(w)}function Z(w){return B(se(L(w),{replace:!0}))}function oe(w){const A=w.matched[w.matched.length-1];if(A&&A.redirect){const{redirect:k}=A;let N=typeof k=="function"?k(w):k;return typeof N=="string"&&(N=N.includes("?")||N.includes("#")?N=L(N):{path:N},N.params={}),se({query:w.query,hash:w.hash,params:"path"in N?{}:w.params},N)}}function Y(w,A){const k=a=O(w),N=l.value,X=w.state,he=w.force,J=w.replace===!0,u=oe(k);if(u)return Y(se(L(u),{state:typeof u=="object"?se({},X,u.state):X,force:he,replace:J}),A||k);const h=k;h.redirectedFrom=A;let y;return!he&&La(r,N,k)&&(y=Qt(16,{to:h,from:N}),re(N,N,!0,!1)),(y?Promise.resolve(y):ve(h,N)).catch(b=>ot(b)?ot(b,2)?b:Fe(b):ie(b,h,N)).then(b=>{if(b){if(ot(b,2))return Y(se({replace:J},L(b.to),{state:typeof b.to=="object"?se({},X,b.to.state):X,force:he}),A||h)}else b=Ee(h,N,!0,J,X);return ye(h,N,b),b})}function q(w,A){const k=M(w,A);return k?Promise.reject(k):Promise.resolve()}function ve(w,A){let k;const[N,X,he]=Nu(w,A);k=Rr(N.reverse(),"beforeRouteLeave",w,A);for(const u of N)u.leaveGuards.forEach(h=>{k.push(gt(h,w,A))});const J=q.bind(null,w,A);return k.push(J),Bt(k).then(()=>{k=[];for(const u of o.list())k.push(gt(u,w,A));return k.push(J),Bt(k)}).then(()=>{k=Rr(X,"beforeRouteUpdate",w,A);for(const u of X)u.updateGuards.forEach(h=>{k.push(gt(h,w,A))});return k.push(J),Bt(k)}).then(()=>{k=[];for(const u of w.matched)if(u.beforeEnter&&!A.matched.includes(u))if(Je(u.beforeEnter))for(const h of u.beforeEnter)k.push(gt(h,w,A));else k.push(gt(u.beforeEnter,w,A));return k.push(J),Bt(k)}).then(()=>(w.matched.forEach(u=>u.enterCallbacks={}),k=Rr(he,"beforeRouteEnter",w,A),k.push(J),Bt(k))).then(()=>{k=[];for(const u of i.list())k.push(gt(u,w,A));return k.push(J),Bt(k)}).catch(u=>ot(u,8)?u:Promise.reject(u))}function ye(w,A,k){for(const N of c.list())N(w,A,k)}function Ee(w,A,k,N,X){const he=M(w,A);if(he)return he;const J=A===ht,u=Vt?history.state:{};k&&(N||J?s.replace(w.fullPath,se({scroll:J&&u&&u.scroll},X)):s.push(w.fullPath,X)),l.value=w,re(w,A,k,J),Fe()}let Re;function Ze(){Re||(Re=s.listen((w,A,k)=>{if(!On.listening)return;const N=O(w),X=oe(N);if(X){Y(se(X,{replace:!0}),N).catch(fn);return}a=N;const he=l.value;Vt&&qa(so(he.fullPath,k.delta),mr()),ve(N,he).catch(J=>ot(J,12)?J:ot(J,2)?(Y(J.to,N).then(u=>{ot(u,20)&&!k.delta&&k.type===$n.pop&&s.go(-1,!1)}).catch(fn),Promise.reject()):(k.delta&&s.go(-k.delta,!1),ie(J,N,he))).then(J=>{J=J||Ee(N,he,!1),J&&(k.delta&&!ot(J,8)?s.go(-k.delta,!1):k.type===$n.pop&&ot(J,20)&&s.go(-1,!1)),ye(N,he,J)}).catch(fn)}))}let ke=sn(),me=sn(),pe;function ie(w,A,k){Fe(w);const N=me.list();return N.length?N.forEach(X=>X(w,A,k)):console.error(w),Promise.reject(w)}function ne(){return pe&&l.value!==ht?Promise.resolve():new Promise((w,A)=>{ke.add([w,A])})}function Fe(w){return pe||(pe=!w,Ze(),ke.list().forEach(([A,k])=>w?k(w):A()),ke.reset()),w}function re(w,A,k,N){const{scrollBehavior:X}=e;if(!Vt||!X)return Promise.resolve();const he=!k&&Wa(so(w.fullPath,0))||(N||!k)&&history.state&&history.state.scroll||null;return _n().then(()=>X(w,A,he)).then(J=>J&&Ka(J)).catch(J=>ie(J,w,A))}const $e=w=>s.go(w);let de;const Ft=new Set,On={currentRoute:l,listening:!0,addRoute:_,removeRoute:m,hasRoute:C,getRoutes:v,resolve:O,options:e,push:B,replace:Z,go:$e,back:()=>$e(-1),forward:()=>$e(1),beforeEach:o.add,beforeResolve:i.add,afterEach:c.add,onError:me.add,isReady:ne,install(w){const A=this;w.component("RouterLink",ku),w.component("RouterView",Hi),w.config.globalProperties.$router=A,Object.defineProperty(w.config.globalProperties,"$route",{enumerable:!0,get:()=>$(l)}),Vt&&!de&&l.value===ht&&(de=!0,B(s.location).catch(X=>{}));const k={};for(const X in ht)k[X]=z(()=>l.value[X]);w.provide(hs,A),w.provide(ps,st(k)),w.provide(zr,l);const N=w.unmount;Ft.add(w),w.unmount=function(){Ft.delete(w),Ft.size<1&&(a=ht,Re&&Re(),Re=null,l.value=ht,de=!1,pe=!1),N()}}};return On}function Bt(e){return e.reduce((t,n)=>t.then(()=>n()),Promise.resolve())}function Nu(e,t){const n=[],r=[],s=[],o=Math.max(t.matched.length,e.matched.length);for(let i=0;i<o;i++){const c=t.matched[i];c&&(e.matched.find(a=>Jt(a,c))?r.push(c):n.push(c));const l=e.matched[i];l&&(t.matched.find(a=>Jt(a,l))||s.push(l))}return[n,r,s]}function Ui(){return Ve(ps)}const ju="/FrancisBookstoreTransact/site-images/logo1.png",ms=`${location.protocol}//${location.hostname}:${location.port==="5173"?"8080":location.port}/FrancisBookstoreTransact/api`,gr=pr("category",{state:()=>({categoryList:[],categoryName:""}),actions:{async fetchCategories(){const t=await(await fetch(`${ms}/categories`)).json();this.categoryList=t}},getters:{getCategoryByName:e=>t=>e.categoryList.find(n=>n.name===t),getCategoryCount:e=>e.categoryList.length}}),Fu=e=>(Qe("data-v-bc1e0602"),e=e(),Ge(),e),Lu={class:"header-dropdown"},Du=Fu(()=>g("i",{class:"fa-solid fa-bars"},null,-1)),Bu=Pe({__name:"TheHeaderDropdown",setup(e){const t=gr();return(n,r)=>{const s=xt("router-link");return U(),W("div",Lu,[Du,g("ul",null,[(U(!0),W(ge,null,wt($(t).categoryList,o=>(U(),W("li",{key:o.categoryId},[H(s,{to:"/category/"+o.name},{default:Oe(()=>[we(G(o.name),1)]),_:2},1032,["to"])]))),128))])])}}});const je=(e,t)=>{const n=e.__vccOpts||e;for(const[r,s]of t)n[r]=s;return n},Vu=je(Bu,[["__scopeId","data-v-bc1e0602"]]);class Hu{constructor(){Rn(this,"itemArray");this.itemArray=[]}get numberOfItems(){return this.itemArray.reduce((t,n)=>t+n.quantity,0)}get empty(){return this.itemArray.length<=0}get subtotal(){return this.itemArray.reduce((t,n)=>t+n.book.price*n.quantity,0)}get total(){return this.subtotal+this.surcharge}get surcharge(){return 500}clear(){this.itemArray=[]}addBook(t){const n=this.itemArray.find(r=>r.book.bookId==t.bookId);if(n)n.quantity++;else{const r=new Uu(t);r.quantity=1,this.itemArray.push(r)}}update(t,n){if(n<0||n>99)return;const r=this.itemArray.findIndex(s=>s.book.bookId==t.bookId);r!==-1&&(n!==0?this.itemArray[r].quantity=n:this.itemArray.splice(r,1))}get items(){return this.itemArray}}class Uu{constructor(t){Rn(this,"book");Rn(this,"quantity");this.book=t,this.quantity=1}}const Mn="orderDetail",gs=pr("OrderDetails",{state:()=>{let e={};const t=sessionStorage.getItem(Mn);if(t!==null){const n=JSON.parse(t);e=Object.assign({},n)}return{orderDetails:e}},actions:{clearOrderDetails(){sessionStorage.removeItem(Mn),this.orderDetails={}},setOrderDetails(e){this.orderDetails=e,sessionStorage.setItem(Mn,JSON.stringify(e))},hasOrderDetails(){return sessionStorage.getItem(Mn)!=null}}}),Nn="ShoppingCart",En=pr("CartStore",{state:()=>{const e=new Hu,t=localStorage.getItem(Nn);if(t!==null){const n=JSON.parse(t);Object.assign(e,n)}return{cart:e}},getters:{count(){return console.log(this.cart.numberOfItems),this.cart.numberOfItems}},actions:{clearCart(){this.cart.clear(),localStorage.setItem(Nn,JSON.stringify(this.cart))},addToCart(e){this.cart.addBook(e),localStorage.setItem(Nn,JSON.stringify(this.cart))},updateBookQuantity(e,t){this.cart.update(e,t),localStorage.setItem(Nn,JSON.stringify(this.cart))},async placeOrder(e){const t=gs();t.clearOrderDetails();const n={cart:this.cart,customerForm:e};console.log(JSON.stringify(n));const r=await fetch(`${ms}/orders`,{mode:"cors",cache:"no-cache",credentials:"same-origin",headers:{"Content-Type":"application/json"},redirect:"follow",referrer:"client",method:"POST",body:JSON.stringify(n)}),s=await r.json();return r.ok&&(this.clearCart(),t.setOrderDetails(s)),s}}}),_r=e=>(Qe("data-v-b47937d9"),e=e(),Ge(),e),zu={class:"container"},Ku=_r(()=>g("img",{src:ju,alt:"Another Bookstore Logo",width:"150",height:"auto"},null,-1)),qu=xi('<section class="title-and-search-bar" data-v-b47937d9><h1 class="logo-text" data-v-b47937d9> CURIOUS MINDS<br data-v-b47937d9> BOOKSHOP </h1></section><section data-v-b47937d9><form action="#" class="search" data-v-b47937d9><div data-v-b47937d9><input type="text" class="search-input" placeholder=" search ........" data-v-b47937d9></div><i class="fa-sharp fa-solid fa-magnifying-glass" id="search-fa-sharp" data-v-b47937d9></i></form></section>',2),Wu={class:"header-dropdown-and-cart"},Yu=_r(()=>g("ul",{class:"header-button"}," Francis ",-1)),Ju=_r(()=>g("br",null,null,-1)),Qu=_r(()=>g("div",null,[g("i",{class:"fa-solid fa-cart-shopping",id:"cart-fa-sharp"})],-1)),Gu={class:"header-button",id:"cart-count"},Zu=Pe({__name:"TheHeader",setup(e){const t=En();return(n,r)=>{const s=xt("router-link");return U(),W("header",zu,[H(s,{to:"/"},{default:Oe(()=>[Ku]),_:1}),qu,g("section",Wu,[Yu,Ju,g("section",null,[H(s,{to:{name:"cart-view"}},{default:Oe(()=>[Qu]),_:1}),g("div",Gu,G($(t).count),1)]),H(Vu)])])}}});const Xu=je(Zu,[["__scopeId","data-v-b47937d9"]]);const ef={},yr=e=>(Qe("data-v-517692ce"),e=e(),Ge(),e),tf={class:"container"},nf=yr(()=>g("section",{class:"Copyright"},[g("p",null,"Copyright@Curious Minds Bookshop 2023")],-1)),rf={class:"links"},sf={class:"social-media-icons"},of=yr(()=>g("i",{class:"fa-brands fa-instagram"},null,-1)),cf=yr(()=>g("i",{class:"fa-brands fa-facebook"},null,-1)),lf=yr(()=>g("i",{class:"fa-brands fa-twitter"},null,-1));function af(e,t){const n=xt("router-link");return U(),W("footer",tf,[nf,g("section",rf,[H(n,{to:"/",class:"info"},{default:Oe(()=>[we("about")]),_:1}),we(" || "),H(n,{to:"/",class:"info"},{default:Oe(()=>[we("contact")]),_:1}),we(" || "),H(n,{to:"/",class:"info"},{default:Oe(()=>[we("directions")]),_:1})]),g("section",sf,[H(n,{to:"/"},{default:Oe(()=>[of]),_:1}),we("     "),H(n,{to:"/"},{default:Oe(()=>[cf]),_:1}),we("     "),H(n,{to:"/"},{default:Oe(()=>[lf]),_:1})])])}const uf=je(ef,[["render",af],["__scopeId","data-v-517692ce"]]),ff={id:"app"},df=Pe({__name:"App",setup(e){return Ui(),gr().fetchCategories(),(n,r)=>(U(),W("div",ff,[H(Xu),(U(),us($(Hi),{key:n.$route.fullPath})),H(uf)]))}});const zi=e=>(Qe("data-v-91c66038"),e=e(),Ge(),e),hf={class:"home-page"},pf=zi(()=>g("section",{class:"welcome-text flow-content container dark-background"},[g("h2",null,"Welcome to Curious Minds Bookshop"),g("p",null," Curious Minds Bookshop is your one stop bookshop where we serve and help your curiosity. "),g("p",null,"We serve your interest with the best and current books"),g("p",null," Explore Our bookshop: by browsing the categories to access mystery books, fantasy books, romantic books, classic books and many more. "),g("p",null,'Curious Minds!!! ""Your reading", "your life""')],-1)),mf=zi(()=>g("button",{class:"cta"},"SHOP BOOKS NOW",-1)),gf=Pe({__name:"HomeView",setup(e){return(t,n)=>{const r=xt("RouterLink");return U(),W("div",hf,[pf,g("ul",null,[H(r,{to:"/category/Mystery"},{default:Oe(()=>[mf]),_:1})])])}}});const _f=je(gf,[["__scopeId","data-v-91c66038"]]),yf={class:"category-nav"},bf={class:"category-buttons"},vf=Pe({__name:"TheCategoryNav",setup(e){const t=gr();return(n,r)=>{const s=xt("router-link");return U(),W("nav",yf,[g("ul",bf,[(U(!0),W(ge,null,wt($(t).categoryList,o=>(U(),W("li",{key:o.categoryId},[H(s,{to:"/category/"+o.name,class:"button category-button"},{default:Oe(()=>[we(G(o.name),1)]),_:2},1032,["to"])]))),128))])])}}});const $f=je(vf,[["__scopeId","data-v-5b80d5a2"]]),wf=e=>(Qe("data-v-d686f38f"),e=e(),Ge(),e),xf={class:"book-box"},Ef={class:"book-image"},Cf=["src","alt"],Of={key:0,id:"read-now"},Rf=wf(()=>g("i",{class:"fa-solid fa-regular fa-book-open-reader"},[g("span",{class:"tooltiptext"},"Read Now")],-1)),Sf=[Rf],Pf={class:"book-title"},kf={class:"book-author"},If={class:"book-price"},Af=Pe({__name:"CategoryBookListItem",props:{book:null},setup(e){const t=e,n=En(),r="/FrancisBookstoreTransact/images/book-images/card",s=function(i){let c=i.title.toLowerCase();return c=c.replace(/ /g,"-"),c=c.replace(/'/g,""),`${c}.jpg`};function o(i){return`${r}/${i}`}return(i,c)=>(U(),W("li",xf,[g("div",Ef,[g("img",{src:o(s(t.book)),alt:e.book.title,width:"200"},null,8,Cf)]),e.book.isPublic?(U(),W("ul",Of,Sf)):Yn("",!0),g("div",Pf,G(e.book.title),1),g("div",kf,G(e.book.author),1),g("div",If,"$"+G((e.book.price/100).toFixed(2)),1),g("button",{onClick:c[0]||(c[0]=l=>$(n).addToCart(t.book)),class:"button"}," Add to Cart ")]))}});const Tf=je(Af,[["__scopeId","data-v-d686f38f"]]),Ki=pr("book",{state:()=>({bookList:[]}),actions:{async fetchBooks(e){var s,o;const n=((o=(s=gr().categoryList)==null?void 0:s.find(i=>i.name===e))==null?void 0:o.name)||e,r=await fetch(`${ms}/categories/name/${n}/books`);if(!r.ok)throw new Error("Failed to load the books.");this.bookList=await r.json()}}}),Mf=Pe({__name:"TheCategoryBookList",setup(e){const t=Ki();return(n,r)=>(U(),W("ul",null,[(U(!0),W(ge,null,wt($(t).bookList,s=>(U(),us(Tf,{key:s.bookId,book:s},null,8,["book"]))),128))]))}});const Nf=je(Mf,[["__scopeId","data-v-42caab1b"]]),jf=Pe({__name:"CategoryView",setup(e){const t=Ui(),n=Ki();return Ye(()=>t.params.name,r=>{n.fetchBooks(r).catch(()=>{bs.push("/not-found")})},{immediate:!0}),(r,s)=>(U(),W("div",null,[H($f),H(Nf)]))}}),ut=e=>(Qe("data-v-dcad8903"),e=e(),Ge(),e),Ff={key:0,class:"cart-table"},Lf={class:"cart-item-subtotal"},Df={class:"cart-count"},Bf={class:"cart-subtotal"},Vf=xi('<li class="table-heading" data-v-dcad8903><div class="heading-book" data-v-dcad8903>Book</div><div class="heading-price" data-v-dcad8903>Price</div><div class="heading-quantity" data-v-dcad8903>Quantity</div><div class="heading-subtotal" data-v-dcad8903>Amount</div></li>',1),Hf={class:"cart-book-image"},Uf=["src","alt"],zf={class:"cart-book-title"},Kf={class:"cart-book-price"},qf={class:"cart-book-quantity"},Wf=["onClick"],Yf=ut(()=>g("i",{class:"fas fa-plus-circle"},null,-1)),Jf=[Yf],Qf={class:"quantity"},Gf=["onClick"],Zf=ut(()=>g("i",{class:"fas fa-minus-circle"},null,-1)),Xf=[Zf],ed={class:"cart-book-total"},td=ut(()=>g("li",{class:"line-sep"},null,-1)),nd=ut(()=>g("br",null,null,-1)),rd={class:"carttable-button"},sd=ut(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),od=ut(()=>g("button",{class:"button btn-primary"},"Proceed to Checkout",-1)),id={key:1,class:"else"},cd={class:"btn-message"},ld=ut(()=>g("p",null,[g("strong",null,"Please your cart is empty.")],-1)),ad=ut(()=>g("button",{class:"button btn-continue"},"Continue Shopping",-1)),ud=ut(()=>g("br",null,null,-1)),fd=Pe({__name:"CartTable",setup(e){const t=En(),n=function(o){let i=o.title.toLowerCase();return i=i.replace(/ /g,"-"),i=i.replace(/'/g,""),`${i}.jpg`},r="/FrancisBookstoreTransact/images/book-images/thumbnail",s=function(o,i){t.cart.update(o,i)};return(o,i)=>{const c=xt("RouterLink");return U(),W(ge,null,[$(t).cart.items.length>0?(U(),W("div",Ff,[g("section",Lf,[g("div",Df,[g("strong",null,[we(" Your cart has: "),g("span",null,G($(t).count)+" books",1)])]),g("div",Bf,[g("strong",null,"Subtotal: $"+G(($(t).cart.items.reduce((l,a)=>l+a.book.price*a.quantity,0)/100).toFixed(2)),1)]),g("div",null,[g("button",{onClick:i[0]||(i[0]=(...l)=>$(t).clearCart&&$(t).clearCart(...l)),class:"button btn-tertiary"}," Clear Cart ")])]),g("ul",null,[Vf,(U(!0),W(ge,null,wt($(t).cart.items,l=>(U(),W(ge,{key:l.book.bookId},[g("li",null,[g("div",Hf,[g("img",{src:`${r}/${n(l.book)}`,alt:l.book.title,width:"",height:""},null,8,Uf)]),g("div",zf,G(l.book.title),1),g("div",Kf," $"+G((l.book.price/100).toFixed(2)),1),g("div",qf,[g("button",{class:"icon-button inc-button",onClick:a=>s(l.book,l.quantity+1)},Jf,8,Wf),g("span",Qf,G(l.quantity),1),we("  "),g("button",{class:"icon-button dec-button",onClick:a=>s(l.book,l.quantity-1)},Xf,8,Gf)]),g("div",ed,[g("strong",null," $"+G((l.book.price/100*l.quantity).toFixed(2)),1)])]),td],64))),128)),nd,g("section",rd,[g("div",null,[H(c,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[sd]),_:1})]),g("div",null,[H(c,{to:{name:"checkout-view"}},{default:Oe(()=>[od]),_:1})])])])])):(U(),W("div",id,[g("label",cd,[ld,g("div",null,[H(c,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[ad]),_:1})])])])),ud],64)}}});const dd=je(fd,[["__scopeId","data-v-dcad8903"]]),hd=e=>(Qe("data-v-bdee9774"),e=e(),Ge(),e),pd=hd(()=>g("h1",null,"CART PAGE",-1)),md=Pe({__name:"CartView",setup(e){return(t,n)=>(U(),W(ge,null,[pd,H(dd)],64))}});const gd=je(md,[["__scopeId","data-v-bdee9774"]]);function bo(e,t){var n=Object.keys(e);if(Object.getOwnPropertySymbols){var r=Object.getOwnPropertySymbols(e);t&&(r=r.filter(function(s){return Object.getOwnPropertyDescriptor(e,s).enumerable})),n.push.apply(n,r)}return n}function _t(e){for(var t=1;t<arguments.length;t++){var n=arguments[t]!=null?arguments[t]:{};t%2?bo(Object(n),!0).forEach(function(r){_d(e,r,n[r])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(n)):bo(Object(n)).forEach(function(r){Object.defineProperty(e,r,Object.getOwnPropertyDescriptor(n,r))})}return e}function _d(e,t,n){return t in e?Object.defineProperty(e,t,{value:n,enumerable:!0,configurable:!0,writable:!0}):e[t]=n,e}function vo(e){let t=arguments.length>1&&arguments[1]!==void 0?arguments[1]:[];return Object.keys(e).reduce((n,r)=>(t.includes(r)||(n[r]=$(e[r])),n),{})}function Zn(e){return typeof e=="function"}function yd(e){return ct(e)||Mt(e)}function qi(e,t,n){let r=e;const s=t.split(".");for(let o=0;o<s.length;o++){if(!r[s[o]])return n;r=r[s[o]]}return r}function Sr(e,t,n){return z(()=>e.some(r=>qi(t,r,{[n]:!1})[n]))}function $o(e,t,n){return z(()=>e.reduce((r,s)=>{const o=qi(t,s,{[n]:!1})[n]||[];return r.concat(o)},[]))}function Wi(e,t,n,r){return e.call(r,$(t),$(n),r)}function Yi(e){return e.$valid!==void 0?!e.$valid:!e}function bd(e,t,n,r,s,o,i){let{$lazy:c,$rewardEarly:l}=s,a=arguments.length>7&&arguments[7]!==void 0?arguments[7]:[],f=arguments.length>8?arguments[8]:void 0,d=arguments.length>9?arguments[9]:void 0,p=arguments.length>10?arguments[10]:void 0;const _=Ae(!!r.value),m=Ae(0);n.value=!1;const v=Ye([t,r].concat(a,p),()=>{if(c&&!r.value||l&&!d.value&&!n.value)return;let C;try{C=Wi(e,t,f,i)}catch(O){C=Promise.reject(O)}m.value++,n.value=!!m.value,_.value=!1,Promise.resolve(C).then(O=>{m.value--,n.value=!!m.value,o.value=O,_.value=Yi(O)}).catch(O=>{m.value--,n.value=!!m.value,o.value=O,_.value=!0})},{immediate:!0,deep:typeof t=="object"});return{$invalid:_,$unwatch:v}}function vd(e,t,n,r,s,o,i,c){let{$lazy:l,$rewardEarly:a}=r;const f=()=>({}),d=z(()=>{if(l&&!n.value||a&&!c.value)return!1;let p=!0;try{const _=Wi(e,t,i,o);s.value=_,p=Yi(_)}catch(_){s.value=_}return p});return{$unwatch:f,$invalid:d}}function $d(e,t,n,r,s,o,i,c,l,a,f){const d=Ae(!1),p=e.$params||{},_=Ae(null);let m,v;e.$async?{$invalid:m,$unwatch:v}=bd(e.$validator,t,d,n,r,_,s,e.$watchTargets,l,a,f):{$invalid:m,$unwatch:v}=vd(e.$validator,t,n,r,_,s,l,a);const C=e.$message;return{$message:Zn(C)?z(()=>C(vo({$pending:d,$invalid:m,$params:vo(p),$model:t,$response:_,$validator:o,$propertyPath:c,$property:i}))):C||"",$params:p,$pending:d,$invalid:m,$response:_,$unwatch:v}}function wd(){let e=arguments.length>0&&arguments[0]!==void 0?arguments[0]:{};const t=$(e),n=Object.keys(t),r={},s={},o={};let i=null;return n.forEach(c=>{const l=t[c];switch(!0){case Zn(l.$validator):r[c]=l;break;case Zn(l):r[c]={$validator:l};break;case c==="$validationGroups":i=l;break;case c.startsWith("$"):o[c]=l;break;default:s[c]=l}}),{rules:r,nestedValidators:s,config:o,validationGroups:i}}const xd="__root";function Ed(e,t,n,r,s,o,i,c,l){const a=Object.keys(e),f=r.get(s,e),d=Ae(!1),p=Ae(!1),_=Ae(0);if(f){if(!f.$partial)return f;f.$unwatch(),d.value=f.$dirty.value}const m={$dirty:d,$path:s,$touch:()=>{d.value||(d.value=!0)},$reset:()=>{d.value&&(d.value=!1)},$commit:()=>{}};return a.length?(a.forEach(v=>{m[v]=$d(e[v],t,m.$dirty,o,i,v,n,s,l,p,_)}),m.$externalResults=z(()=>c.value?[].concat(c.value).map((v,C)=>({$propertyPath:s,$property:n,$validator:"$externalResults",$uid:`${s}-externalResult-${C}`,$message:v,$params:{},$response:null,$pending:!1})):[]),m.$invalid=z(()=>{const v=a.some(C=>$(m[C].$invalid));return p.value=v,!!m.$externalResults.value.length||v}),m.$pending=z(()=>a.some(v=>$(m[v].$pending))),m.$error=z(()=>m.$dirty.value?m.$pending.value||m.$invalid.value:!1),m.$silentErrors=z(()=>a.filter(v=>$(m[v].$invalid)).map(v=>{const C=m[v];return st({$propertyPath:s,$property:n,$validator:v,$uid:`${s}-${v}`,$message:C.$message,$params:C.$params,$response:C.$response,$pending:C.$pending})}).concat(m.$externalResults.value)),m.$errors=z(()=>m.$dirty.value?m.$silentErrors.value:[]),m.$unwatch=()=>a.forEach(v=>{m[v].$unwatch()}),m.$commit=()=>{p.value=!0,_.value=Date.now()},r.set(s,e,m),m):(f&&r.set(s,e,m),m)}function Cd(e,t,n,r,s,o,i){const c=Object.keys(e);return c.length?c.reduce((l,a)=>(l[a]=Kr({validations:e[a],state:t,key:a,parentKey:n,resultsCache:r,globalConfig:s,instance:o,externalResults:i}),l),{}):{}}function Od(e,t,n){const r=z(()=>[t,n].filter(m=>m).reduce((m,v)=>m.concat(Object.values($(v))),[])),s=z({get(){return e.$dirty.value||(r.value.length?r.value.every(m=>m.$dirty):!1)},set(m){e.$dirty.value=m}}),o=z(()=>{const m=$(e.$silentErrors)||[],v=r.value.filter(C=>($(C).$silentErrors||[]).length).reduce((C,O)=>C.concat(...O.$silentErrors),[]);return m.concat(v)}),i=z(()=>{const m=$(e.$errors)||[],v=r.value.filter(C=>($(C).$errors||[]).length).reduce((C,O)=>C.concat(...O.$errors),[]);return m.concat(v)}),c=z(()=>r.value.some(m=>m.$invalid)||$(e.$invalid)||!1),l=z(()=>r.value.some(m=>$(m.$pending))||$(e.$pending)||!1),a=z(()=>r.value.some(m=>m.$dirty)||r.value.some(m=>m.$anyDirty)||s.value),f=z(()=>s.value?l.value||c.value:!1),d=()=>{e.$touch(),r.value.forEach(m=>{m.$touch()})},p=()=>{e.$commit(),r.value.forEach(m=>{m.$commit()})},_=()=>{e.$reset(),r.value.forEach(m=>{m.$reset()})};return r.value.length&&r.value.every(m=>m.$dirty)&&d(),{$dirty:s,$errors:i,$invalid:c,$anyDirty:a,$error:f,$pending:l,$touch:d,$reset:_,$silentErrors:o,$commit:p}}function Kr(e){let{validations:t,state:n,key:r,parentKey:s,childResults:o,resultsCache:i,globalConfig:c={},instance:l,externalResults:a}=e;const f=s?`${s}.${r}`:r,{rules:d,nestedValidators:p,config:_,validationGroups:m}=wd(t),v=_t(_t({},c),_),C=r?z(()=>{const re=$(n);return re?$(re[r]):void 0}):n,O=_t({},$(a)||{}),L=z(()=>{const re=$(a);return r?re?$(re[r]):void 0:re}),M=Ed(d,C,r,i,f,v,l,L,n),B=Cd(p,C,f,i,v,l,L),Z={};m&&Object.entries(m).forEach(re=>{let[$e,de]=re;Z[$e]={$invalid:Sr(de,B,"$invalid"),$error:Sr(de,B,"$error"),$pending:Sr(de,B,"$pending"),$errors:$o(de,B,"$errors"),$silentErrors:$o(de,B,"$silentErrors")}});const{$dirty:oe,$errors:Y,$invalid:q,$anyDirty:ve,$error:ye,$pending:Ee,$touch:Re,$reset:Ze,$silentErrors:ke,$commit:me}=Od(M,B,o),pe=r?z({get:()=>$(C),set:re=>{oe.value=!0;const $e=$(n),de=$(a);de&&(de[r]=O[r]),fe($e[r])?$e[r].value=re:$e[r]=re}}):null;r&&v.$autoDirty&&Ye(C,()=>{oe.value||Re();const re=$(a);re&&(re[r]=O[r])},{flush:"sync"});async function ie(){return Re(),v.$rewardEarly&&(me(),await _n()),await _n(),new Promise(re=>{if(!Ee.value)return re(!q.value);const $e=Ye(Ee,()=>{re(!q.value),$e()})})}function ne(re){return(o.value||{})[re]}function Fe(){fe(a)?a.value=O:Object.keys(O).length===0?Object.keys(a).forEach(re=>{delete a[re]}):Object.assign(a,O)}return st(_t(_t(_t({},M),{},{$model:pe,$dirty:oe,$error:ye,$errors:Y,$invalid:q,$anyDirty:ve,$pending:Ee,$touch:Re,$reset:Ze,$path:f||xd,$silentErrors:ke,$validate:ie,$commit:me},o&&{$getResultsForChild:ne,$clearExternalResults:Fe,$validationGroups:Z}),B))}class Rd{constructor(){this.storage=new Map}set(t,n,r){this.storage.set(t,{rules:n,result:r})}checkRulesValidity(t,n,r){const s=Object.keys(r),o=Object.keys(n);return o.length!==s.length||!o.every(c=>s.includes(c))?!1:o.every(c=>n[c].$params?Object.keys(n[c].$params).every(l=>$(r[c].$params[l])===$(n[c].$params[l])):!0)}get(t,n){const r=this.storage.get(t);if(!r)return;const{rules:s,result:o}=r,i=this.checkRulesValidity(t,n,s),c=o.$unwatch?o.$unwatch:()=>({});return i?o:{$dirty:o.$dirty,$partial:!0,$unwatch:c}}}const Vn={COLLECT_ALL:!0,COLLECT_NONE:!1},wo=Symbol("vuelidate#injectChildResults"),xo=Symbol("vuelidate#removeChildResults");function Sd(e){let{$scope:t,instance:n}=e;const r={},s=Ae([]),o=z(()=>s.value.reduce((f,d)=>(f[d]=$(r[d]),f),{}));function i(f,d){let{$registerAs:p,$scope:_,$stopPropagation:m}=d;m||t===Vn.COLLECT_NONE||_===Vn.COLLECT_NONE||t!==Vn.COLLECT_ALL&&t!==_||(r[p]=f,s.value.push(p))}n.__vuelidateInjectInstances=[].concat(n.__vuelidateInjectInstances||[],i);function c(f){s.value=s.value.filter(d=>d!==f),delete r[f]}n.__vuelidateRemoveInstances=[].concat(n.__vuelidateRemoveInstances||[],c);const l=Ve(wo,[]);Kt(wo,n.__vuelidateInjectInstances);const a=Ve(xo,[]);return Kt(xo,n.__vuelidateRemoveInstances),{childResults:o,sendValidationResultsToParent:l,removeValidationResultsFromParent:a}}function Ji(e){return new Proxy(e,{get(t,n){return typeof t[n]=="object"?Ji(t[n]):z(()=>t[n])}})}let Eo=0;function Pd(e,t){var n;let r=arguments.length>2&&arguments[2]!==void 0?arguments[2]:{};arguments.length===1&&(r=e,e=void 0,t=void 0);let{$registerAs:s,$scope:o=Vn.COLLECT_ALL,$stopPropagation:i,$externalResults:c,currentVueInstance:l}=r;const a=l||((n=Ei())===null||n===void 0?void 0:n.proxy),f=a?a.$options:{};s||(Eo+=1,s=`_vuelidate_${Eo}`);const d=Ae({}),p=new Rd,{childResults:_,sendValidationResultsToParent:m,removeValidationResultsFromParent:v}=a?Sd({$scope:o,instance:a}):{childResults:Ae({})};if(!e&&f.validations){const C=f.validations;t=Ae({}),ai(()=>{t.value=a,Ye(()=>Zn(C)?C.call(t.value,new Ji(t.value)):C,O=>{d.value=Kr({validations:O,state:t,childResults:_,resultsCache:p,globalConfig:r,instance:a,externalResults:c||a.vuelidateExternalResults})},{immediate:!0})}),r=f.validationsConfig||r}else{const C=fe(e)||yd(e)?e:st(e||{});Ye(C,O=>{d.value=Kr({validations:O,state:t,childResults:_,resultsCache:p,globalConfig:r,instance:a??{},externalResults:c})},{immediate:!0})}return a&&(m.forEach(C=>C(d,{$registerAs:s,$scope:o,$stopPropagation:i})),ui(()=>v.forEach(C=>C(s)))),z(()=>_t(_t({},$(d.value)),_.value))}function Co(e,t){var n=Object.keys(e);if(Object.getOwnPropertySymbols){var r=Object.getOwnPropertySymbols(e);t&&(r=r.filter(function(s){return Object.getOwnPropertyDescriptor(e,s).enumerable})),n.push.apply(n,r)}return n}function wn(e){for(var t=1;t<arguments.length;t++){var n=arguments[t]!=null?arguments[t]:{};t%2?Co(Object(n),!0).forEach(function(r){kd(e,r,n[r])}):Object.getOwnPropertyDescriptors?Object.defineProperties(e,Object.getOwnPropertyDescriptors(n)):Co(Object(n)).forEach(function(r){Object.defineProperty(e,r,Object.getOwnPropertyDescriptor(n,r))})}return e}function kd(e,t,n){return t in e?Object.defineProperty(e,t,{value:n,enumerable:!0,configurable:!0,writable:!0}):e[t]=n,e}function Xn(e){return typeof e=="function"}function qr(e){return e!==null&&typeof e=="object"&&!Array.isArray(e)}function br(e){return Xn(e.$validator)?wn({},e):{$validator:e}}function Qi(e){return typeof e=="object"?e.$valid:e}function Gi(e){return e.$validator||e}function Id(e,t){if(!qr(e))throw new Error(`[@vuelidate/validators]: First parameter to "withParams" should be an object, provided ${typeof e}`);if(!qr(t)&&!Xn(t))throw new Error("[@vuelidate/validators]: Validator must be a function or object with $validator parameter");const n=br(t);return n.$params=wn(wn({},n.$params||{}),e),n}function Ad(e,t){if(!Xn(e)&&typeof $(e)!="string")throw new Error(`[@vuelidate/validators]: First parameter to "withMessage" should be string or a function returning a string, provided ${typeof e}`);if(!qr(t)&&!Xn(t))throw new Error("[@vuelidate/validators]: Validator must be a function or object with $validator parameter");const n=br(t);return n.$message=e,n}function Td(e){let t=arguments.length>1&&arguments[1]!==void 0?arguments[1]:[];const n=br(e);return wn(wn({},n),{},{$async:!0,$watchTargets:t})}function Md(e){return{$validator(t){for(var n=arguments.length,r=new Array(n>1?n-1:0),s=1;s<n;s++)r[s-1]=arguments[s];return $(t).reduce((o,i,c)=>{const l=Object.entries(i).reduce((a,f)=>{let[d,p]=f;const _=e[d]||{},m=Object.entries(_).reduce((v,C)=>{let[O,L]=C;const B=Gi(L).call(this,p,i,c,...r),Z=Qi(B);if(v.$data[O]=B,v.$data.$invalid=!Z||!!v.$data.$invalid,v.$data.$error=v.$data.$invalid,!Z){let oe=L.$message||"";const Y=L.$params||{};typeof oe=="function"&&(oe=oe({$pending:!1,$invalid:!Z,$params:Y,$model:p,$response:B})),v.$errors.push({$property:d,$message:oe,$params:Y,$response:B,$model:p,$pending:!1,$validator:O})}return{$valid:v.$valid&&Z,$data:v.$data,$errors:v.$errors}},{$valid:!0,$data:{},$errors:[]});return a.$data[d]=m.$data,a.$errors[d]=m.$errors,{$valid:a.$valid&&m.$valid,$data:a.$data,$errors:a.$errors}},{$valid:!0,$data:{},$errors:{}});return{$valid:o.$valid&&l.$valid,$data:o.$data.concat(l.$data),$errors:o.$errors.concat(l.$errors)}},{$valid:!0,$data:[],$errors:[]})},$message:t=>{let{$response:n}=t;return n?n.$errors.map(r=>Object.values(r).map(s=>s.map(o=>o.$message)).reduce((s,o)=>s.concat(o),[])):[]}}}const Cn=e=>{if(e=$(e),Array.isArray(e))return!!e.length;if(e==null)return!1;if(e===!1)return!0;if(e instanceof Date)return!isNaN(e.getTime());if(typeof e=="object"){for(let t in e)return!0;return!1}return!!String(e).length},_s=e=>(e=$(e),Array.isArray(e)?e.length:typeof e=="object"?Object.keys(e).length:String(e).length);function Et(){for(var e=arguments.length,t=new Array(e),n=0;n<e;n++)t[n]=arguments[n];return r=>(r=$(r),!Cn(r)||t.every(s=>(s.lastIndex=0,s.test(r))))}var Ce=Object.freeze({__proto__:null,forEach:Md,len:_s,normalizeValidatorObject:br,regex:Et,req:Cn,unwrap:$,unwrapNormalizedValidator:Gi,unwrapValidatorResponse:Qi,withAsync:Td,withMessage:Ad,withParams:Id});Et(/^[a-zA-Z]*$/);Et(/^[a-zA-Z0-9]*$/);Et(/^\d*(\.\d+)?$/);const Nd=/^(?:[A-z0-9!#$%&'*+/=?^_`{|}~-]+(?:\.[A-z0-9!#$%&'*+/=?^_`{|}~-]+)*|"(?:[\x01-\x08\x0b\x0c\x0e-\x1f\x21\x23-\x5b\x5d-\x7f]|[\x01-\x09\x0b\x0c\x0e-\x7f])*")@(?:(?:[a-z0-9](?:[a-z0-9-]*[a-z0-9])?\.)+[a-z0-9]{2,}(?:[a-z0-9-]*[a-z0-9])?|\[(?:(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\.){3}(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?|[a-z0-9-]*[a-z0-9]:(?:[\x01-\x08\x0b\x0c\x0e-\x1f\x21-\x5a\x53-\x7f]|\\[\x01-\x09\x0b\x0c\x0e-\x7f])+)\])$/i;Et(Nd);function jd(e){return t=>!Cn(t)||_s(t)<=$(e)}function Oo(e){return{$validator:jd(e),$message:t=>{let{$params:n}=t;return`The maximum length allowed is ${n.max}`},$params:{max:e,type:"maxLength"}}}function Fd(e){return t=>!Cn(t)||_s(t)>=$(e)}function Ro(e){return{$validator:Fd(e),$message:t=>{let{$params:n}=t;return`This field should be at least ${n.min} characters long`},$params:{min:e,type:"minLength"}}}function Ld(e){return typeof e=="string"&&(e=e.trim()),Cn(e)}var So={$validator:Ld,$message:"Value is required",$params:{type:"required"}};const Dd=/^(?:(?:(?:https?|ftp):)?\/\/)(?:\S+(?::\S*)?@)?(?:(?!(?:10|127)(?:\.\d{1,3}){3})(?!(?:169\.254|192\.168)(?:\.\d{1,3}){2})(?!172\.(?:1[6-9]|2\d|3[0-1])(?:\.\d{1,3}){2})(?:[1-9]\d?|1\d\d|2[01]\d|22[0-3])(?:\.(?:1?\d{1,2}|2[0-4]\d|25[0-5])){2}(?:\.(?:[1-9]\d?|1\d\d|2[0-4]\d|25[0-4]))|(?:(?:[a-z0-9\u00a1-\uffff][a-z0-9\u00a1-\uffff_-]{0,62})?[a-z0-9\u00a1-\uffff]\.)+(?:[a-z\u00a1-\uffff]{2,}\.?))(?::\d{2,5})?(?:[/?#]\S*)?$/i;Et(Dd);Et(/(^[0-9]*$)|(^-[0-9]+$)/);Et(/^[-]?\d*(\.\d+)?$/);const Bd=/^((\+1|1)?( |-)?)?(\([2-9][0-9]{2}\)|[2-9][0-9]{2})( |-)?([2-9][0-9]{2}( |-)?[0-9]{4})$/;function Vd(e){return Bd.test(e)}const Hd=/^([a-z0-9+._-]+@[a-z0-9.-]+.[a-z]{2,})$/i;function Ud(e){return Hd.test(e)}const zd=/^(?:4[0-9]{12}(?:[0-9]{3,6})?|5[1-5][0-9]{14}|(222[1-9]|22[3-9][0-9]|2[3-6][0-9]{2}|27[01][0-9]|2720)[0-9]{12}|6(?:011|5[0-9][0-9])[0-9]{12,15}|3[47][0-9]{13}|3(?:0[0-5]|[68][0-9])[0-9]{11}|(?:2131|1800|35\d{3})\d{11}|6[27][0-9]{14}|^(81[0-9]{14,17}))$/;function Kd(e){const t=e.replace(/[- ]+/g,"");if(!zd.test(t))return!1;let n=0,r,s,o;for(let i=t.length-1;i>=0;i--)r=t.substring(i,i+1),s=parseInt(r,10),o?(s*=2,s>=10?n+=s%10+1:n+=s):n+=s,o=!o;return!!(n%10===0&&t)}const qd=Pe({__name:"CheckoutFieldError",props:{fieldName:null},setup(e){return(t,n)=>e.fieldName.$error?(U(!0),W(ge,{key:0},wt(e.fieldName.$errors,r=>(U(),W("span",{class:"error",key:r.$uid},G(r.$message),1))),128)):Yn("",!0)}});const on=je(qd,[["__scopeId","data-v-4af5292b"]]),He=e=>(Qe("data-v-a8fc8e0e"),e=e(),Ge(),e),Wd={class:"checkout-page"},Yd={key:0,class:"checkout-page-body-empty"},Jd=He(()=>g("p",{class:"checkout-page-body-empty-message"}," Please select some books to check out ",-1)),Qd=He(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),Gd={key:1,class:"checkout-page-body"},Zd=["onSubmit"],Xd=He(()=>g("label",{for:"name"},"Name",-1)),eh=He(()=>g("label",{for:"address"},"Address",-1)),th=He(()=>g("label",{for:"phone"},"Phone",-1)),nh=He(()=>g("label",{for:"email"},"Email",-1)),rh=He(()=>g("label",{for:"ccNumber"},"Credit card",-1)),sh=He(()=>g("label",null,"Exp Month",-1)),oh=["value"],ih=He(()=>g("span",null,null,-1)),ch=He(()=>g("label",null,"Exp Year",-1)),lh=["value"],ah=He(()=>g("br",null,null,-1)),uh=["disabled"],fh=He(()=>g("br",null,null,-1)),dh={class:"checkout-detail"},hh=He(()=>g("br",null,null,-1)),ph={class:"subtotal-surcharge"},mh={class:"checkoutStatusBox"},gh={key:0,class:"checkoutStatus-Message"},_h={key:1,class:"checkoutStatus-Message"},yh={key:2,class:"checkoutStatus-Message"},bh={key:3,class:"checkoutStatus-Message"},vh=Pe({__name:"CheckoutView",setup(e){const t="An unexpected error occurred, please try again.",n=Ae(t),r=En(),s=r.cart,o=["January","February","March","April","May","June","July","August","September","October","November","December"],i=st({name:"",address:"",phone:"",email:"",ccNumber:"",ccExpiryMonth:new Date().getMonth()+1,ccExpiryYear:new Date().getFullYear(),checkoutStatus:""}),c={name:{required:Ce.withMessage("Please provide your full name.",So),minLength:Ce.withMessage("Name must have at least 4 letters.",Ro(4)),maxLength:Ce.withMessage("Name can have at most 45 letters.",Oo(45))},phone:{required:Ce.withMessage("Please provide a phone number",d=>Ce.req(d)),phone:Ce.withMessage("Please provide a valid phone number",(d,p)=>Ce.req(p.phone)?Vd(d):!0)},address:{required:Ce.withMessage("Please provide an address.",So),minLength:Ce.withMessage("Address must have at least 4 characters.",Ro(4)),maxLength:Ce.withMessage("Address can have at most 45 characters.",Oo(45))},email:{required:Ce.withMessage("Please provide your email address",d=>Ce.req(d)),email:Ce.withMessage("Please provide a valid email address",(d,p)=>Ce.req(p.email)?Ud(d):!0)},ccNumber:{required:Ce.withMessage("Please provide your credit card number.",d=>Ce.req(d)),ccNumber:Ce.withMessage("Please provide a valid credit card number.",(d,p)=>Ce.req(p.ccNumber)?Kd(d):!0)},ccExpiryMonth:{},ccExpiryYear:{}},l=Pd(c,i);async function a(){if(console.log("Submit order"),!await l.value.$validate())i.checkoutStatus="ERROR";else try{i.checkoutStatus="PENDING",n.value=t;const p=await r.placeOrder({name:i.name,address:i.address,phone:i.phone,email:i.email,ccNumber:i.ccNumber,ccExpiryMonth:i.ccExpiryMonth,ccExpiryYear:i.ccExpiryYear});"error"in p?(i.checkoutStatus="SERVER_ERROR",n.value=p.message,console.log("Error placing order",p)):(i.checkoutStatus="OK",await bs.push({name:"confirmation-view"}))}catch(p){i.checkoutStatus="SERVER_ERROR",n.value=t,console.log("Error placing order",p)}}function f(d){return new Date().getFullYear()+d}return(d,p)=>{const _=xt("RouterLink");return U(),W("div",Wd,[$(s).empty?(U(),W("section",Yd,[Jd,H(_,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[Qd]),_:1})])):Yn("",!0),$(s).empty?Yn("",!0):(U(),W("section",Gd,[g("form",{onSubmit:wa(a,["prevent"])},[g("div",null,[Xd,dt(g("input",{type:"text",size:"30",id:"name",name:"name","onUpdate:modelValue":p[0]||(p[0]=m=>$(l).name.$model=m)},null,512),[[nn,$(l).name.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).name},null,8,["field-name"]),g("div",null,[eh,dt(g("input",{type:"text",size:"30",id:"address",name:"address","onUpdate:modelValue":p[1]||(p[1]=m=>$(l).address.$model=m)},null,512),[[nn,$(l).address.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).address},null,8,["field-name"]),g("div",null,[th,dt(g("input",{class:"textField",type:"text",size:"30",id:"phone",name:"phone","onUpdate:modelValue":p[2]||(p[2]=m=>$(l).phone.$model=m)},null,512),[[nn,$(l).phone.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).phone},null,8,["field-name"]),g("div",null,[nh,dt(g("input",{type:"text",size:"30",id:"email",name:"email","onUpdate:modelValue":p[3]||(p[3]=m=>$(l).email.$model=m)},null,512),[[nn,$(l).email.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).email},null,8,["field-name"]),g("div",null,[rh,dt(g("input",{type:"text",size:"30",id:"ccNumber",name:"ccNumber","onUpdate:modelValue":p[4]||(p[4]=m=>$(l).ccNumber.$model=m)},null,512),[[nn,$(l).ccNumber.$model,void 0,{lazy:!0}]])]),H(on,{"field-name":$(l).ccNumber},null,8,["field-name"]),g("div",null,[sh,dt(g("select",{"onUpdate:modelValue":p[5]||(p[5]=m=>$(l).ccExpiryMonth.$model=m),id:"ccExpiryMonth"},[(U(),W(ge,null,wt(o,(m,v)=>g("option",{key:v,value:v+1},G(m)+" ("+G(v+1)+") ",9,oh)),64)),ih],512),[[Zs,$(l).ccExpiryMonth.$model]]),we("   "),ch,dt(g("select",{id:"ccExpiryYear","onUpdate:modelValue":p[6]||(p[6]=m=>$(l).ccExpiryYear.$model=m)},[(U(),W(ge,null,wt(15,m=>g("option",{key:m,value:f(m-1)},G(f(m-1)),9,lh)),64))],512),[[Zs,$(l).ccExpiryYear.$model]])]),ah,g("input",{type:"submit",name:"submit",class:"button",disabled:i.checkoutStatus==="PENDING",value:"Complete Purchase Order"},null,8,uh),fh,g("section",dh,[we(" Your credit card will be charged "),g("strong",null,G($(yt)($(s).subtotal+$(s).surcharge)),1),hh,g("strong",ph,"("+G($(yt)($(s).subtotal)),1),we(" + "),g("strong",null,G($(yt)($(s).surcharge)),1),we(" shipping) ")])],40,Zd),dt(g("section",mh,[i.checkoutStatus==="ERROR"?(U(),W("div",gh," Error: Please fix the problems on the form and try again. ")):i.checkoutStatus==="PENDING"?(U(),W("div",_h," Processing... ")):i.checkoutStatus==="OK"?(U(),W("div",yh," Order placed... ")):(U(),W("div",bh,G(n.value),1))],512),[[xa,i.checkoutStatus!==""]])]))])}}});const $h=je(vh,[["__scopeId","data-v-a8fc8e0e"]]),ys=e=>(Qe("data-v-8065c01d"),e=e(),Ge(),e),wh={class:"confirmation-table"},xh=ys(()=>g("tr",null,[g("th",null,"Books"),g("th",null,"Quantity"),g("th",null,"Price")],-1)),Eh=ys(()=>g("td",{colspan:"2"},[g("strong",null,"Total")],-1)),Ch={class:"checkout-detail"},Oh=ys(()=>g("br",null,null,-1)),Rh={class:"subtotal-surcharge"},Sh=Pe({__name:"ConfirmationTable",setup(e){const n=En().cart,s=gs().orderDetails,o=function(i,c){return i.books[c]};return(i,c)=>(U(),W(ge,null,[g("table",wh,[xh,(U(!0),W(ge,null,wt($(s).lineItems,(l,a)=>(U(),W("tr",{key:l.bookId},[g("td",null,G(o($(s),a).title),1),g("td",null,G(l.quantity),1),g("td",null,G($(yt)(o($(s),a).price)),1)]))),128)),g("tr",null,[Eh,g("td",null,[g("strong",null,G($(yt)($(s).order.amount-$(n).surcharge)),1)])])]),g("section",Ch,[we(" Your credit card will be charged "),g("strong",null,G($(yt)($(s).order.amount)),1),Oh,g("strong",Rh," ("+G($(yt)($(s).order.amount-$(n).surcharge)),1),we(" + "),g("strong",null,G($(yt)($(n).surcharge)),1),we(" shipping) ")])],64))}});const Ph=je(Sh,[["__scopeId","data-v-8065c01d"]]),jt=e=>(Qe("data-v-d3859870"),e=e(),Ge(),e),kh={class:"confirmation-view-empty"},Ih={key:0,id:"noDetails"},Ah=jt(()=>g("p",{class:"noDetail-message"}," We are sorry, the order you requested could not be found ",-1)),Th=jt(()=>g("button",{class:"button btn-noDetail",id:""},"Go to Home Page",-1)),Mh={key:1,id:"confirmationView"},Nh=jt(()=>g("h3",null,"Your Order Information",-1)),jh=jt(()=>g("hr",null,null,-1)),Fh=jt(()=>g("h3",null,"Your Information",-1)),Lh=jt(()=>g("div",{id:"customerInfo"},null,-1)),Dh={class:"confirmation-button"},Bh=jt(()=>g("button",{class:"button btn-secondary"},"Continue Shopping",-1)),Vh=Pe({__name:"ConfirmationView",setup(e){const t=gs(),n=t.orderDetails;z(function(){return new Date(n.order.dateCreated).toLocaleTimeString()});const r=z(function(){return new Date(n.customer.ccExpDate)}),s=z(function(){return r.value.getFullYear()}),o=z(function(){let i=r.value.getMonth()+1,c=""+i;return i<10&&(c="0"+i),c});return(i,c)=>{const l=xt("RouterLink");return U(),W("div",kh,[!$(n)||!$(t).hasOrderDetails()?(U(),W("div",Ih,[Ah,H(l,{to:{name:"home-view"}},{default:Oe(()=>[Th]),_:1})])):(U(),W("div",Mh,[Nh,g("ul",null,[g("li",null," Your Order Confirmation Number is: "+G($(n).order.confirmationNumber),1),g("li",null,G(new Date($(n).order.dateCreated)),1)]),jh,Fh,g("ul",null,[g("li",null,"Name: "+G($(n).customer.customerName),1),g("li",null,"Address: "+G($(n).customer.address),1),g("li",null,"Email: "+G($(n).customer.email),1),g("li",null,"Phone Number: "+G($(n).customer.phone),1),g("li",null," Card ending: xxxx xxxx xxxx "+G($(n).customer.ccNumber.slice(-4))+" "+G($(o))+"/"+G($(s)),1),H(Ph)]),Lh,g("section",Dh,[g("div",null,[H(l,{to:{name:"category-view",params:{name:"Mystery"}}},{default:Oe(()=>[Bh]),_:1})])])]))])}}});const Hh=je(Vh,[["__scopeId","data-v-d3859870"]]);const Uh={},zh=e=>(Qe("data-v-6a273fb3"),e=e(),Ge(),e),Kh={class:"page hero area"},qh=zh(()=>g("section",{class:"flow-content"},[g("h1",null,"Your Content was Not Found"),g("p",null,"There appears to be nothing to find here")],-1)),Wh=[qh];function Yh(e,t){return U(),W("div",Kh,Wh)}const Jh=je(Uh,[["render",Yh],["__scopeId","data-v-6a273fb3"]]),bs=Mu({history:Ga("/FrancisBookstoreTransact"),routes:[{path:"/home",name:"home-view",component:_f,alias:["/","/index.html"]},{path:"/category",redirect:"/category/Mystery"},{path:"/category/:name",name:"category-view",component:jf},{path:"/cart",name:"cart-view",component:gd},{path:"/checkout",name:"checkout-view",component:$h},{path:"/confirmation",name:"confirmation-view",component:Hh},{path:"/:pathMatch(.*)*",name:"not-found",component:Jh}]});const Qh=new Intl.NumberFormat("en-US",{style:"currency",currency:"USD",minimumFractionDigits:2}),yt=function(e){return Qh.format(e/100)},vs=Oa(df);vs.use(Pa());vs.use(bs);vs.mount("#app");